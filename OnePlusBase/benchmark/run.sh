@@ -0,0 +1,43 @@
+#!/bin/sh
+#
+# Run JVM benchmark or stress test against OnePlusBase sources.
+# Usage : run.sh <class name> [arguments...], for example : run.sh com.oneplus.base.PropertyAccessBenchmark
+#
+# Classes under ../src are compiled on demand through source path, Android framework classes are
+# replaced by minimal runtime shims under shims/ so numbers are JVM numbers, not device numbers.
+# Set SOURCE_DIR to run against other source tree (for example, a checkout of previous revision),
+# CAMERA_SOURCE_DIR to use other OnePlusCameraLib sources for classes like Settings and MotionEventArgs.
+# Set ENABLE_CONTENTION_PROFILER=1 to build with ContentionProfiler.ENABLED turned on, the flag is a
+# compile-time constant so a copy of ContentionProfiler with the flag changed overrides the original.
+#
+
+if [ $# -lt 1 ]; then
+	echo "Usage : $0 <class name> [arguments...]"
+	exit 1
+fi
+
+BENCHMARK_DIR=$(cd "$(dirname "$0")" && pwd)
+SOURCE_DIR=${SOURCE_DIR:-$BENCHMARK_DIR/../src}
+CAMERA_SOURCE_DIR=${CAMERA_SOURCE_DIR:-$BENCHMARK_DIR/../../OnePlusCameraLib/src}
+OUT_DIR=$(mktemp -d)
+trap 'rm -rf "$OUT_DIR"' EXIT
+
+OVERRIDE_DIR="$OUT_DIR/override"
+mkdir -p "$OVERRIDE_DIR/com/oneplus/base"
+if [ "$ENABLE_CONTENTION_PROFILER" = "1" ]; then
+	sed 's/boolean ENABLED = false;/boolean ENABLED = true;/' "$SOURCE_DIR/com/oneplus/base/ContentionProfiler.java" \
+		> "$OVERRIDE_DIR/com/oneplus/base/ContentionProfiler.java" || exit 1
+	if ! grep -q 'boolean ENABLED = true;' "$OVERRIDE_DIR/com/oneplus/base/ContentionProfiler.java"; then
+		echo "Fail to enable ContentionProfiler"
+		exit 1
+	fi
+fi
+
+CLASS_NAME=$1
+shift
+SOURCE_FILE="$BENCHMARK_DIR/src/$(echo "$CLASS_NAME" | tr . /).java"
+
+javac -nowarn -d "$OUT_DIR/classes" \
+	-sourcepath "$OVERRIDE_DIR:$BENCHMARK_DIR/src:$BENCHMARK_DIR/shims:$SOURCE_DIR:$CAMERA_SOURCE_DIR" \
+	"$SOURCE_FILE" || exit 1
+java -cp "$OUT_DIR/classes" "$CLASS_NAME" "$@"
@@ -0,0 +1,160 @@
+package android.content;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JVM shim of Android context which keeps shared preferences in memory, for benchmarks only.
+ */
+public class Context
+{
+	// Constants
+	public static final int MODE_PRIVATE = 0;
+	private static final Object REMOVED_VALUE = new Object();
+	
+	
+	// Private fields
+	private final HashMap<String, SharedPreferences> m_SharedPreferences = new HashMap<>();
+	
+	
+	// In-memory shared preferences.
+	private static final class MemorySharedPreferences implements SharedPreferences
+	{
+		private final CopyOnWriteArrayList<OnSharedPreferenceChangeListener> m_Listeners = new CopyOnWriteArrayList<>();
+		private final ConcurrentHashMap<String, Object> m_Values = new ConcurrentHashMap<>();
+		
+		@Override
+		public boolean contains(String key)
+		{
+			return m_Values.containsKey(key);
+		}
+		
+		@Override
+		public Editor edit()
+		{
+			final HashMap<String, Object> changes = new HashMap<>();
+			return new Editor()
+			{
+				@Override
+				public void apply()
+				{
+					this.commit();
+				}
+				
+				@Override
+				public boolean commit()
+				{
+					for(Map.Entry<String, Object> entry : changes.entrySet())
+					{
+						if(entry.getValue() != REMOVED_VALUE)
+							m_Values.put(entry.getKey(), entry.getValue());
+						else
+							m_Values.remove(entry.getKey());
+						for(OnSharedPreferenceChangeListener listener : m_Listeners)
+							listener.onSharedPreferenceChanged(MemorySharedPreferences.this, entry.getKey());
+					}
+					changes.clear();
+					return true;
+				}
+				
+				@Override
+				public Editor putBoolean(String key, boolean value)
+				{
+					changes.put(key, value);
+					return this;
+				}
+				
+				@Override
+				public Editor putInt(String key, int value)
+				{
+					changes.put(key, value);
+					return this;
+				}
+				
+				@Override
+				public Editor putLong(String key, long value)
+				{
+					changes.put(key, value);
+					return this;
+				}
+				
+				@Override
+				public Editor putString(String key, String value)
+				{
+					changes.put(key, value);
+					return this;
+				}
+				
+				@Override
+				public Editor remove(String key)
+				{
+					changes.put(key, REMOVED_VALUE);
+					return this;
+				}
+			};
+		}
+		
+		@Override
+		public boolean getBoolean(String key, boolean defValue)
+		{
+			Object value = m_Values.get(key);
+			return (value instanceof Boolean ? (Boolean)value : defValue);
+		}
+		
+		@Override
+		public int getInt(String key, int defValue)
+		{
+			Object value = m_Values.get(key);
+			return (value instanceof Integer ? (Integer)value : defValue);
+		}
+		
+		@Override
+		public long getLong(String key, long defValue)
+		{
+			Object value = m_Values.get(key);
+			return (value instanceof Long ? (Long)value : defValue);
+		}
+		
+		@Override
+		public String getString(String key, String defValue)
+		{
+			Object value = m_Values.get(key);
+			return (value instanceof String ? (String)value : defValue);
+		}
+		
+		@Override
+		public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener)
+		{
+			m_Listeners.addIfAbsent(listener);
+		}
+		
+		@Override
+		public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener)
+		{
+			m_Listeners.remove(listener);
+		}
+	}
+	
+	
+	public String getPackageName()
+	{
+		return "com.oneplus.benchmark";
+	}
+	
+	
+	public SharedPreferences getSharedPreferences(String name, int mode)
+	{
+		synchronized(m_SharedPreferences)
+		{
+			SharedPreferences prefs = m_SharedPreferences.get(name);
+			if(prefs == null)
+			{
+				prefs = new MemorySharedPreferences();
+				m_SharedPreferences.put(name, prefs);
+			}
+			return prefs;
+		}
+	}
+}
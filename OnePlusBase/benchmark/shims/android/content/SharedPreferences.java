@@ -0,0 +1,40 @@
+package android.content;
+
+/**
+ * JVM shim of Android shared preferences, for benchmarks only.
+ */
+public interface SharedPreferences
+{
+	/**
+	 * Editor of shared preferences.
+	 */
+	public interface Editor
+	{
+		void apply();
+		boolean commit();
+		Editor putBoolean(String key, boolean value);
+		Editor putInt(String key, int value);
+		Editor putLong(String key, long value);
+		Editor putString(String key, String value);
+		Editor remove(String key);
+	}
+	
+	
+	/**
+	 * Call-back when value in shared preferences changes.
+	 */
+	public interface OnSharedPreferenceChangeListener
+	{
+		void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key);
+	}
+	
+	
+	boolean contains(String key);
+	Editor edit();
+	boolean getBoolean(String key, boolean defValue);
+	int getInt(String key, int defValue);
+	long getLong(String key, long defValue);
+	String getString(String key, String defValue);
+	void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener);
+	void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener);
+}
@@ -0,0 +1,155 @@
+package android.os;
+
+/**
+ * JVM shim of Android handler, for benchmarks only.
+ */
+public class Handler
+{
+	// Private fields
+	private final Looper m_Looper;
+	
+	
+	public Handler()
+	{
+		this(Looper.myLooper());
+	}
+	
+	
+	public Handler(Looper looper)
+	{
+		if(looper == null)
+			throw new RuntimeException("Can't create handler inside thread that has not called Looper.prepare()");
+		m_Looper = looper;
+	}
+	
+	
+	public void dispatchMessage(Message msg)
+	{
+		if(msg.callback != null)
+			msg.callback.run();
+		else
+			this.handleMessage(msg);
+	}
+	
+	
+	public final Looper getLooper()
+	{
+		return m_Looper;
+	}
+	
+	
+	public String getMessageName(Message msg)
+	{
+		if(msg.callback != null)
+			return msg.callback.getClass().getName();
+		return "0x" + Integer.toHexString(msg.what);
+	}
+	
+	
+	public void handleMessage(Message msg)
+	{}
+	
+	
+	public final boolean hasMessages(int what)
+	{
+		return m_Looper.getQueue().hasMessages(this, what, null);
+	}
+	
+	
+	public final boolean hasMessages(int what, Object obj)
+	{
+		return m_Looper.getQueue().hasMessages(this, what, obj);
+	}
+	
+	
+	public final Message obtainMessage(int what)
+	{
+		return Message.obtain(this, what);
+	}
+	
+	
+	public final Message obtainMessage(int what, Object obj)
+	{
+		return Message.obtain(this, what, obj);
+	}
+	
+	
+	public final Message obtainMessage(int what, int arg1, int arg2, Object obj)
+	{
+		return Message.obtain(this, what, arg1, arg2, obj);
+	}
+	
+	
+	public final boolean post(Runnable r)
+	{
+		return this.sendMessageDelayed(Message.obtain(this, r), 0);
+	}
+	
+	
+	public final boolean postAtFrontOfQueue(Runnable r)
+	{
+		return this.sendMessageAtFrontOfQueue(Message.obtain(this, r));
+	}
+	
+	
+	public final boolean postAtTime(Runnable r, long uptimeMillis)
+	{
+		return this.sendMessageAtTime(Message.obtain(this, r), uptimeMillis);
+	}
+	
+	
+	public final boolean postDelayed(Runnable r, long delayMillis)
+	{
+		return this.sendMessageDelayed(Message.obtain(this, r), delayMillis);
+	}
+	
+	
+	public final void removeCallbacks(Runnable r)
+	{
+		m_Looper.getQueue().removeMessages(this, 0, r, null, false);
+	}
+	
+	
+	public final void removeCallbacksAndMessages(Object token)
+	{
+		m_Looper.getQueue().removeMessages(this, 0, null, token, true);
+	}
+	
+	
+	public final void removeMessages(int what)
+	{
+		m_Looper.getQueue().removeMessages(this, what, null, null, false);
+	}
+	
+	
+	public final void removeMessages(int what, Object obj)
+	{
+		m_Looper.getQueue().removeMessages(this, what, null, obj, false);
+	}
+	
+	
+	public final boolean sendMessage(Message msg)
+	{
+		return this.sendMessageDelayed(msg, 0);
+	}
+	
+	
+	public final boolean sendMessageAtFrontOfQueue(Message msg)
+	{
+		msg.target = this;
+		return m_Looper.getQueue().enqueueMessage(msg, 0);
+	}
+	
+	
+	public boolean sendMessageAtTime(Message msg, long uptimeMillis)
+	{
+		msg.target = this;
+		return m_Looper.getQueue().enqueueMessage(msg, uptimeMillis);
+	}
+	
+	
+	public final boolean sendMessageDelayed(Message msg, long delayMillis)
+	{
+		return this.sendMessageAtTime(msg, SystemClock.uptimeMillis() + Math.max(0, delayMillis));
+	}
+}
@@ -0,0 +1,92 @@
+package android.os;
+
+import android.util.Printer;
+
+/**
+ * JVM shim of Android looper, for benchmarks only.
+ */
+public final class Looper
+{
+	// Private static fields
+	private static final ThreadLocal<Looper> m_Loopers = new ThreadLocal<>();
+	
+	
+	// Private fields
+	private final MessageQueue m_Queue = new MessageQueue();
+	private final Thread m_Thread = Thread.currentThread();
+	
+	
+	// Constructor
+	private Looper()
+	{}
+	
+	
+	public static Looper getMainLooper()
+	{
+		return null;
+	}
+	
+	
+	public MessageQueue getQueue()
+	{
+		return m_Queue;
+	}
+	
+	
+	public Thread getThread()
+	{
+		return m_Thread;
+	}
+	
+	
+	public static void loop()
+	{
+		Looper looper = myLooper();
+		if(looper == null)
+			throw new RuntimeException("No Looper; Looper.prepare() wasn't called on this thread.");
+		while(true)
+		{
+			Message msg = looper.m_Queue.next();
+			if(msg == null)
+				return;
+			msg.target.dispatchMessage(msg);
+		}
+	}
+	
+	
+	public static Looper myLooper()
+	{
+		return m_Loopers.get();
+	}
+	
+	
+	public static MessageQueue myQueue()
+	{
+		Looper looper = myLooper();
+		return (looper != null ? looper.m_Queue : null);
+	}
+	
+	
+	public static void prepare()
+	{
+		if(m_Loopers.get() != null)
+			throw new RuntimeException("Only one Looper may be created per thread");
+		m_Loopers.set(new Looper());
+	}
+	
+	
+	public void quit()
+	{
+		m_Queue.quit();
+	}
+	
+	
+	public void quitSafely()
+	{
+		m_Queue.quit();
+	}
+	
+	
+	public void setMessageLogging(Printer printer)
+	{}
+}
@@ -0,0 +1,94 @@
+package android.os;
+
+/**
+ * JVM shim of Android message, for benchmarks only.
+ */
+public final class Message
+{
+	public int arg1;
+	public int arg2;
+	public Object obj;
+	public int what;
+	
+	
+	// Package fields
+	Runnable callback;
+	Message next;
+	Handler target;
+	long when;
+	
+	
+	public Runnable getCallback()
+	{
+		return this.callback;
+	}
+	
+	
+	public Handler getTarget()
+	{
+		return this.target;
+	}
+	
+	
+	public long getWhen()
+	{
+		return this.when;
+	}
+	
+	
+	public static Message obtain()
+	{
+		return new Message();
+	}
+	
+	
+	public static Message obtain(Handler handler)
+	{
+		Message msg = new Message();
+		msg.target = handler;
+		return msg;
+	}
+	
+	
+	public static Message obtain(Handler handler, int what)
+	{
+		Message msg = obtain(handler);
+		msg.what = what;
+		return msg;
+	}
+	
+	
+	public static Message obtain(Handler handler, int what, Object obj)
+	{
+		Message msg = obtain(handler, what);
+		msg.obj = obj;
+		return msg;
+	}
+	
+	
+	public static Message obtain(Handler handler, int what, int arg1, int arg2, Object obj)
+	{
+		Message msg = obtain(handler, what, obj);
+		msg.arg1 = arg1;
+		msg.arg2 = arg2;
+		return msg;
+	}
+	
+	
+	public static Message obtain(Handler handler, Runnable callback)
+	{
+		Message msg = obtain(handler);
+		msg.callback = callback;
+		return msg;
+	}
+	
+	
+	public void recycle()
+	{}
+	
+	
+	public void sendToTarget()
+	{
+		this.target.sendMessage(this);
+	}
+}
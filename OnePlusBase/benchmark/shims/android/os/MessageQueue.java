@@ -0,0 +1,167 @@
+package android.os;
+
+import java.util.ArrayList;
+
+/**
+ * JVM shim of Android message queue, for benchmarks only.
+ */
+public final class MessageQueue
+{
+	/**
+	 * Call-back interface to be called when queue becomes idle.
+	 */
+	public interface IdleHandler
+	{
+		boolean queueIdle();
+	}
+	
+	
+	// Private fields
+	private final ArrayList<IdleHandler> m_IdleHandlers = new ArrayList<>();
+	private Message m_Messages;
+	private boolean m_Quitting;
+	
+	
+	public void addIdleHandler(IdleHandler handler)
+	{
+		synchronized(m_IdleHandlers)
+		{
+			m_IdleHandlers.add(handler);
+		}
+	}
+	
+	
+	// Add message to queue, messages with same time are kept in FIFO order.
+	synchronized boolean enqueueMessage(Message msg, long when)
+	{
+		if(m_Quitting)
+			return false;
+		msg.when = when;
+		if(m_Messages == null || when == 0 || when < m_Messages.when)
+		{
+			msg.next = m_Messages;
+			m_Messages = msg;
+		}
+		else
+		{
+			Message prev = m_Messages;
+			while(prev.next != null && prev.next.when <= when)
+				prev = prev.next;
+			msg.next = prev.next;
+			prev.next = msg;
+		}
+		this.notifyAll();
+		return true;
+	}
+	
+	
+	// Check whether matched message exists or not.
+	synchronized boolean hasMessages(Handler handler, int what, Object obj)
+	{
+		for(Message msg = m_Messages ; msg != null ; msg = msg.next)
+		{
+			if(msg.target == handler && msg.callback == null && msg.what == what && (obj == null || msg.obj == obj))
+				return true;
+		}
+		return false;
+	}
+	
+	
+	// Get next message, or Null to quit.
+	Message next()
+	{
+		while(true)
+		{
+			synchronized(this)
+			{
+				long now = SystemClock.uptimeMillis();
+				if(m_Quitting)
+					return null;
+				if(m_Messages != null && m_Messages.when <= now)
+				{
+					Message msg = m_Messages;
+					m_Messages = msg.next;
+					msg.next = null;
+					return msg;
+				}
+			}
+			this.runIdleHandlers();
+			synchronized(this)
+			{
+				if(m_Quitting)
+					return null;
+				long now = SystemClock.uptimeMillis();
+				long timeout = (m_Messages != null ? m_Messages.when - now : 0);
+				if(m_Messages == null || timeout > 0)
+				{
+					try
+					{
+						this.wait(Math.max(0, timeout));
+					}
+					catch(InterruptedException ex)
+					{
+						return null;
+					}
+				}
+			}
+		}
+	}
+	
+	
+	// Stop queue.
+	synchronized void quit()
+	{
+		m_Quitting = true;
+		m_Messages = null;
+		this.notifyAll();
+	}
+	
+	
+	// Remove matched messages.
+	synchronized void removeMessages(Handler handler, int what, Runnable callback, Object obj, boolean all)
+	{
+		Message prev = null;
+		for(Message msg = m_Messages ; msg != null ; )
+		{
+			Message next = msg.next;
+			boolean matched = (msg.target == handler
+					&& (all || (callback != null ? msg.callback == callback : (msg.callback == null && msg.what == what)))
+					&& (obj == null || msg.obj == obj));
+			if(matched)
+			{
+				if(prev == null)
+					m_Messages = next;
+				else
+					prev.next = next;
+			}
+			else
+				prev = msg;
+			msg = next;
+		}
+	}
+	
+	
+	public void removeIdleHandler(IdleHandler handler)
+	{
+		synchronized(m_IdleHandlers)
+		{
+			m_IdleHandlers.remove(handler);
+		}
+	}
+	
+	
+	// Call idle handlers.
+	private void runIdleHandlers()
+	{
+		IdleHandler[] handlers;
+		synchronized(m_IdleHandlers)
+		{
+			handlers = m_IdleHandlers.toArray(new IdleHandler[m_IdleHandlers.size()]);
+		}
+		for(int i = 0 ; i < handlers.length ; ++i)
+		{
+			if(!handlers[i].queueIdle())
+				this.removeIdleHandler(handlers[i]);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package android.os;
+
+/**
+ * JVM shim of Android process utilities, for benchmarks only.
+ */
+public final class Process
+{
+	public static final int THREAD_PRIORITY_BACKGROUND = 10;
+	public static final int THREAD_PRIORITY_DEFAULT = 0;
+	public static final int THREAD_PRIORITY_DISPLAY = -4;
+	public static final int THREAD_PRIORITY_FOREGROUND = -2;
+	public static final int THREAD_PRIORITY_LESS_FAVORABLE = 1;
+	public static final int THREAD_PRIORITY_LOWEST = 19;
+	public static final int THREAD_PRIORITY_MORE_FAVORABLE = -1;
+	public static final int THREAD_PRIORITY_URGENT_DISPLAY = -8;
+	
+	
+	// Constructor
+	private Process()
+	{}
+	
+	
+	public static int myPid()
+	{
+		return 1;
+	}
+	
+	
+	public static int myTid()
+	{
+		return (int)Thread.currentThread().getId();
+	}
+}
@@ -0,0 +1,33 @@
+package android.os;
+
+/**
+ * JVM shim of Android system clock, for benchmarks only.
+ */
+public final class SystemClock
+{
+	// Constants
+	private static final long START_TIME = System.nanoTime() - 1000000000L;
+	
+	
+	// Constructor
+	private SystemClock()
+	{}
+	
+	
+	public static long elapsedRealtime()
+	{
+		return uptimeMillis();
+	}
+	
+	
+	public static long elapsedRealtimeNanos()
+	{
+		return (System.nanoTime() - START_TIME);
+	}
+	
+	
+	public static long uptimeMillis()
+	{
+		return (System.nanoTime() - START_TIME) / 1000000;
+	}
+}
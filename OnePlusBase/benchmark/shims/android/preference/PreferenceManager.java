@@ -0,0 +1,20 @@
+package android.preference;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * JVM shim of Android preference manager, for benchmarks only.
+ */
+public final class PreferenceManager
+{
+	// Constructor
+	private PreferenceManager()
+	{}
+	
+	
+	public static SharedPreferences getDefaultSharedPreferences(Context context)
+	{
+		return context.getSharedPreferences(context.getPackageName() + "_preferences", Context.MODE_PRIVATE);
+	}
+}
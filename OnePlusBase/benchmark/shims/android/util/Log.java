@@ -0,0 +1,97 @@
+package android.util;
+
+/**
+ * JVM shim of Android log, for benchmarks only. Only warnings and errors are printed.
+ */
+public final class Log
+{
+	public static final int VERBOSE = 2;
+	public static final int DEBUG = 3;
+	public static final int INFO = 4;
+	public static final int WARN = 5;
+	public static final int ERROR = 6;
+	
+	
+	// Constructor
+	private Log()
+	{}
+	
+	
+	public static int d(String tag, String msg)
+	{
+		return println(DEBUG, tag, msg);
+	}
+	
+	
+	public static int d(String tag, String msg, Throwable tr)
+	{
+		return println(DEBUG, tag, msg + '\n' + getStackTraceString(tr));
+	}
+	
+	
+	public static int e(String tag, String msg)
+	{
+		return println(ERROR, tag, msg);
+	}
+	
+	
+	public static int e(String tag, String msg, Throwable tr)
+	{
+		return println(ERROR, tag, msg + '\n' + getStackTraceString(tr));
+	}
+	
+	
+	public static String getStackTraceString(Throwable tr)
+	{
+		if(tr == null)
+			return "";
+		java.io.StringWriter writer = new java.io.StringWriter();
+		tr.printStackTrace(new java.io.PrintWriter(writer));
+		return writer.toString();
+	}
+	
+	
+	public static int i(String tag, String msg)
+	{
+		return println(INFO, tag, msg);
+	}
+	
+	
+	public static int i(String tag, String msg, Throwable tr)
+	{
+		return println(INFO, tag, msg + '\n' + getStackTraceString(tr));
+	}
+	
+	
+	public static int println(int priority, String tag, String msg)
+	{
+		if(priority < WARN)
+			return 0;
+		System.err.println((priority == WARN ? "W/" : "E/") + tag + ": " + msg);
+		return msg.length();
+	}
+	
+	
+	public static int v(String tag, String msg)
+	{
+		return println(VERBOSE, tag, msg);
+	}
+	
+	
+	public static int v(String tag, String msg, Throwable tr)
+	{
+		return println(VERBOSE, tag, msg + '\n' + getStackTraceString(tr));
+	}
+	
+	
+	public static int w(String tag, String msg)
+	{
+		return println(WARN, tag, msg);
+	}
+	
+	
+	public static int w(String tag, String msg, Throwable tr)
+	{
+		return println(WARN, tag, msg + '\n' + getStackTraceString(tr));
+	}
+}
@@ -0,0 +1,9 @@
+package android.util;
+
+/**
+ * JVM shim of Android printer, for benchmarks only.
+ */
+public interface Printer
+{
+	void println(String x);
+}
@@ -0,0 +1,98 @@
+package android.util;
+
+import java.util.Arrays;
+
+/**
+ * JVM shim of Android sparse array (sorted keys with binary search), for benchmarks only.
+ */
+public class SparseArray<E>
+{
+	// Private fields
+	private int[] m_Keys = new int[10];
+	private int m_Size;
+	private Object[] m_Values = new Object[10];
+	
+	
+	public void clear()
+	{
+		Arrays.fill(m_Values, 0, m_Size, null);
+		m_Size = 0;
+	}
+	
+	
+	public E get(int key)
+	{
+		return this.get(key, null);
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	public E get(int key, E valueIfKeyNotFound)
+	{
+		int index = Arrays.binarySearch(m_Keys, 0, m_Size, key);
+		return (index >= 0 ? (E)m_Values[index] : valueIfKeyNotFound);
+	}
+	
+	
+	public int indexOfKey(int key)
+	{
+		return Arrays.binarySearch(m_Keys, 0, m_Size, key);
+	}
+	
+	
+	public int keyAt(int index)
+	{
+		return m_Keys[index];
+	}
+	
+	
+	public void put(int key, E value)
+	{
+		int index = Arrays.binarySearch(m_Keys, 0, m_Size, key);
+		if(index >= 0)
+		{
+			m_Values[index] = value;
+			return;
+		}
+		index = ~index;
+		if(m_Size == m_Keys.length)
+		{
+			m_Keys = Arrays.copyOf(m_Keys, m_Size * 2);
+			m_Values = Arrays.copyOf(m_Values, m_Size * 2);
+		}
+		System.arraycopy(m_Keys, index, m_Keys, index + 1, m_Size - index);
+		System.arraycopy(m_Values, index, m_Values, index + 1, m_Size - index);
+		m_Keys[index] = key;
+		m_Values[index] = value;
+		++m_Size;
+	}
+	
+	
+	public void remove(int key)
+	{
+		int index = Arrays.binarySearch(m_Keys, 0, m_Size, key);
+		if(index >= 0)
+			this.removeAt(index);
+	}
+	
+	
+	public void removeAt(int index)
+	{
+		System.arraycopy(m_Keys, index + 1, m_Keys, index, m_Size - index - 1);
+		System.arraycopy(m_Values, index + 1, m_Values, index, m_Size - index - 1);
+		m_Values[--m_Size] = null;
+	}
+	
+	
+	public int size()
+	{
+		return m_Size;
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	public E valueAt(int index)
+	{
+		return (E)m_Values[index];
+	}
+}
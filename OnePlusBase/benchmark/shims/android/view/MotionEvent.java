@@ -0,0 +1,61 @@
+package android.view;
+
+/**
+ * JVM shim of Android motion event with single pointer, for benchmarks only.
+ */
+public final class MotionEvent
+{
+	// Constants
+	public static final int ACTION_DOWN = 0;
+	public static final int ACTION_UP = 1;
+	public static final int ACTION_MOVE = 2;
+	
+	
+	// Private fields
+	private final int m_Action;
+	private final float m_X;
+	private final float m_Y;
+	
+	
+	// Constructor
+	private MotionEvent(int action, float x, float y)
+	{
+		m_Action = action;
+		m_X = x;
+		m_Y = y;
+	}
+	
+	
+	public final int getAction()
+	{
+		return m_Action;
+	}
+	
+	
+	public final int getPointerCount()
+	{
+		return 1;
+	}
+	
+	
+	public final float getX()
+	{
+		return m_X;
+	}
+	
+	
+	public final float getY()
+	{
+		return m_Y;
+	}
+	
+	
+	public static MotionEvent obtain(long downTime, long eventTime, int action, float x, float y, int metaState)
+	{
+		return new MotionEvent(action, x, y);
+	}
+	
+	
+	public final void recycle()
+	{}
+}
@@ -0,0 +1,9 @@
+package com.oneplus.base;
+
+/**
+ * Stand-in of build configuration generated by Android build tools, for benchmarks only.
+ */
+public final class BuildConfig
+{
+	public static final boolean DEBUG = false;
+}
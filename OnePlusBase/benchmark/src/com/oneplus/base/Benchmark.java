@@ -0,0 +1,65 @@
+package com.oneplus.base;
+
+import java.util.Arrays;
+
+/**
+ * Minimal JVM benchmark runner, measures average time of operation after warming up.
+ */
+public final class Benchmark
+{
+	// Constants
+	private static final int MEASURE_ROUNDS = 10;
+	private static final int WARMUP_ROUNDS = 5;
+	
+	
+	/**
+	 * Sink to prevent JIT from removing benchmarked code.
+	 */
+	public static volatile Object sink;
+	
+	
+	/**
+	 * Operation to measure.
+	 */
+	public interface Operation
+	{
+		/**
+		 * Run operation for given times.
+		 * @param count Number of operations to run.
+		 */
+		void run(int count);
+	}
+	
+	
+	// Constructor
+	private Benchmark()
+	{}
+	
+	
+	/**
+	 * Measure operation and print median time per operation.
+	 * @param name Name of operation.
+	 * @param count Number of operations in each round.
+	 * @param operation Operation to measure.
+	 * @return Median time per operation in nanoseconds.
+	 */
+	public static double measure(String name, int count, Operation operation)
+	{
+		// warm up
+		for(int i = 0 ; i < WARMUP_ROUNDS ; ++i)
+			operation.run(count);
+		
+		// measure
+		double[] times = new double[MEASURE_ROUNDS];
+		for(int i = 0 ; i < MEASURE_ROUNDS ; ++i)
+		{
+			long startTime = System.nanoTime();
+			operation.run(count);
+			times[i] = (double)(System.nanoTime() - startTime) / count;
+		}
+		Arrays.sort(times);
+		double median = times[MEASURE_ROUNDS / 2];
+		System.out.println(String.format("%-48s %10.1f ns/op (min %.1f, max %.1f)", name, median, times[0], times[MEASURE_ROUNDS - 1]));
+		return median;
+	}
+}
@@ -0,0 +1,152 @@
+package com.oneplus.base;
+
+/**
+ * Benchmark of property call-back and event handler dispatching in {@link BasicBaseObject}.
+ */
+public final class CallbackDispatchBenchmark
+{
+	// Constants
+	private static final int OPERATION_COUNT = 500000;
+	private static final int[] RECEIVER_COUNTS = new int[]{ 1, 4, 16 };
+	
+	
+	// Object to dispatch property changes and events.
+	private static final class Target extends BasicBaseObject
+	{
+		public static final EventKey<EventArgs> EVENT_TEST = new EventKey<>("Test", EventArgs.class, Target.class);
+		public static final PropertyKey<Integer> PROP_TEST = new PropertyKey<>("Test", Integer.class, Target.class, PropertyKey.FLAG_NOT_NULL, 0);
+		
+		public void raiseTest()
+		{
+			this.raise(EVENT_TEST, EventArgs.EMPTY);
+		}
+	}
+	
+	
+	// Constructor
+	private CallbackDispatchBenchmark()
+	{}
+	
+	
+	/**
+	 * Entry point.
+	 * @param args Arguments, not used.
+	 */
+	public static void main(String[] args)
+	{
+		final Integer[] values = new Integer[256];
+		for(int i = 0 ; i < values.length ; ++i)
+			values[i] = i + 1000;
+		final int[] receivedCount = new int[1];
+		final PropertyChangedCallback<Integer> callback = new PropertyChangedCallback<Integer>()
+		{
+			@Override
+			public void onPropertyChanged(PropertySource source, PropertyKey<Integer> key, PropertyChangeEventArgs<Integer> e)
+			{
+				++receivedCount[0];
+			}
+		};
+		final EventHandler<EventArgs> handler = new EventHandler<EventArgs>()
+		{
+			@Override
+			public void onEventReceived(EventSource source, EventKey<EventArgs> key, EventArgs e)
+			{
+				++receivedCount[0];
+			}
+		};
+		for(int receiverCount : RECEIVER_COUNTS)
+		{
+			// prepare
+			final Target target = new Target();
+			for(int i = 0 ; i < receiverCount ; ++i)
+			{
+				target.addCallback(Target.PROP_TEST, new PropertyChangedCallback<Integer>()
+				{
+					@Override
+					public void onPropertyChanged(PropertySource source, PropertyKey<Integer> key, PropertyChangeEventArgs<Integer> e)
+					{
+						++receivedCount[0];
+					}
+				});
+				target.addHandler(Target.EVENT_TEST, new EventHandler<EventArgs>()
+				{
+					@Override
+					public void onEventReceived(EventSource source, EventKey<EventArgs> key, EventArgs e)
+					{
+						++receivedCount[0];
+					}
+				});
+			}
+			
+			// property change
+			Benchmark.measure("set() - " + receiverCount + " call-back(s)", OPERATION_COUNT, new Benchmark.Operation()
+			{
+				@Override
+				public void run(int count)
+				{
+					for(int i = 0 ; i < count ; ++i)
+						target.set(Target.PROP_TEST, values[i & 255]);
+				}
+			});
+			
+			// event
+			Benchmark.measure("raise() - " + receiverCount + " handler(s)", OPERATION_COUNT, new Benchmark.Operation()
+			{
+				@Override
+				public void run(int count)
+				{
+					for(int i = 0 ; i < count ; ++i)
+						target.raiseTest();
+				}
+			});
+			
+			// add and remove
+			Benchmark.measure("addCallback() + removeCallback() - " + receiverCount + " call-back(s)", OPERATION_COUNT, new Benchmark.Operation()
+			{
+				@Override
+				public void run(int count)
+				{
+					for(int i = 0 ; i < count ; ++i)
+					{
+						target.addCallback(Target.PROP_TEST, callback);
+						target.removeCallback(Target.PROP_TEST, callback);
+					}
+				}
+			});
+			Benchmark.measure("addHandler() + removeHandler() - " + receiverCount + " handler(s)", OPERATION_COUNT, new Benchmark.Operation()
+			{
+				@Override
+				public void run(int count)
+				{
+					for(int i = 0 ; i < count ; ++i)
+					{
+						target.addHandler(Target.EVENT_TEST, handler);
+						target.removeHandler(Target.EVENT_TEST, handler);
+					}
+				}
+			});
+		}
+		
+		// call-back which re-subscribes itself while being called
+		final Target target = new Target();
+		target.addCallback(Target.PROP_TEST, new PropertyChangedCallback<Integer>()
+		{
+			@Override
+			public void onPropertyChanged(PropertySource source, PropertyKey<Integer> key, PropertyChangeEventArgs<Integer> e)
+			{
+				target.removeCallback(key, this);
+				target.addCallback(key, this);
+			}
+		});
+		Benchmark.measure("set() - call-back changes call-backs", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					target.set(Target.PROP_TEST, values[i & 255]);
+			}
+		});
+		Benchmark.sink = receivedCount[0];
+	}
+}
@@ -0,0 +1,493 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.MotionEvent;
+
+import com.oneplus.base.component.BasicComponent;
+import com.oneplus.base.component.Component;
+import com.oneplus.base.component.ComponentBuilder;
+import com.oneplus.base.component.ComponentCreationPriority;
+import com.oneplus.base.component.ComponentManager;
+import com.oneplus.base.component.ComponentOwner;
+import com.oneplus.camera.Settings;
+import com.oneplus.camera.ui.MotionEventArgs;
+
+/**
+ * Multi-thread stress test of real {@link ContentionProfiler} sites : {@link ComponentManager} lookups, {@link Settings} getters,
+ * {@link PropertyChangeEventArgs} and {@link MotionEventArgs} pools and {@link Handle#close(Handle)}.
+ * Run with ENABLE_CONTENTION_PROFILER=1 to record sites, otherwise only correctness is checked.
+ * Usage : ContentionStressTest [thread count] [iterations per thread].
+ */
+public final class ContentionStressTest
+{
+	// Constants
+	private static final int COMPONENT_COUNT = 16;
+	private static final int DEFAULT_ITERATIONS = 200000;
+	private static final int DEFAULT_THREAD_COUNT = 8;
+	private static final int HANDLE_COUNT = 20000;
+	private static final int MAX_ADDED_PRIVATE_KEYS = 2000;
+	private static final int MAX_HELD_OBJECTS = 8;
+	private static final int MAX_ON_DEMAND_BUILDERS = 2000;
+	private static final long OWNER_WORK_INTERVAL = 100000; // ns
+	private static final String[] SETTINGS_GLOBAL_KEYS = new String[]{ "Global.Boolean", "Global.Int", "Global.Long", "Global.String" };
+	private static final String[] SETTINGS_PRIVATE_KEYS = new String[]{ "Private.Boolean", "Private.Int", "Private.Long", "Private.String" };
+	private static final String SITE_FIND_COMPONENT = "ComponentManager.findComponent";
+	private static final String SITE_FIND_COMPONENTS = "ComponentManager.findComponents";
+	private static final String SITE_HANDLE_CLOSE = "Handle.close";
+	private static final String SITE_MOTION_EVENT_ARGS_POOL = "ObjectPool(MotionEventArgs)";
+	private static final String SITE_PROPERTY_CHANGE_EVENT_ARGS_POOL = "ObjectPool(PropertyChangeEventArgs)";
+	private static final String SITE_SETTINGS_PRIVATE_KEYS = "Settings.PRIVATE_KEYS";
+	
+	
+	// Private static fields
+	private static final AtomicInteger m_FailureCount = new AtomicInteger();
+	
+	
+	// Component types to find.
+	private interface FirstComponent extends Component
+	{}
+	private interface MissingComponent extends Component
+	{}
+	
+	
+	// Components.
+	private static class TestComponent extends BasicComponent
+	{
+		public TestComponent(String name, ComponentOwner owner)
+		{
+			super(name, owner, false);
+		}
+	}
+	private static final class FirstComponentImpl extends TestComponent implements FirstComponent
+	{
+		public FirstComponentImpl(ComponentOwner owner)
+		{
+			super("First", owner);
+		}
+	}
+	
+	
+	// Builder of components.
+	private static final class TestComponentBuilder implements ComponentBuilder
+	{
+		private final int m_Index;
+		private final Owner m_Owner;
+		private final ComponentCreationPriority m_Priority;
+		
+		public TestComponentBuilder(Owner owner, ComponentCreationPriority priority, int index)
+		{
+			m_Owner = owner;
+			m_Priority = priority;
+			m_Index = index;
+		}
+		
+		@Override
+		public Component create(Object... args)
+		{
+			if(m_Index == 0)
+				return new FirstComponentImpl(m_Owner);
+			return new TestComponent("Component" + m_Index, m_Owner);
+		}
+		
+		@Override
+		public ComponentCreationPriority getPriority()
+		{
+			return m_Priority;
+		}
+		
+		@Override
+		public boolean isComponentTypeSupported(Class<?> componentType)
+		{
+			return false;
+		}
+	}
+	
+	
+	// Handle which counts how many times it is closed.
+	private static final class CountingHandle extends Handle
+	{
+		public final AtomicInteger closeCount = new AtomicInteger();
+		
+		public CountingHandle()
+		{
+			super("Stress");
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			this.closeCount.incrementAndGet();
+		}
+	}
+	
+	
+	// Owner of components.
+	private static final class Owner extends HandlerBaseObject implements ComponentOwner
+	{
+		public final ComponentManager componentManager = new ComponentManager();
+		
+		public Owner()
+		{
+			super(true);
+		}
+		
+		@Override
+		public <TComponent extends Component> TComponent findComponent(Class<TComponent> componentType)
+		{
+			return this.componentManager.findComponent(componentType, this);
+		}
+		
+		@Override
+		public <TComponent extends Component> TComponent[] findComponents(Class<TComponent> componentType)
+		{
+			return this.componentManager.findComponents(componentType, this);
+		}
+		
+		@Override
+		public void removeComponent(Component component)
+		{
+			this.componentManager.removeComponent(component);
+		}
+	}
+	
+	
+	// Work to run in each thread.
+	private interface Work
+	{
+		void run(int threadIndex);
+	}
+	
+	
+	// Constructor
+	private ContentionStressTest()
+	{}
+	
+	
+	// Check condition and print failure.
+	private static void check(boolean condition, String message)
+	{
+		if(condition)
+			return;
+		m_FailureCount.incrementAndGet();
+		System.out.println("FAIL : " + message);
+	}
+	
+	
+	// Check whether given site has been recorded or not.
+	private static void checkSite(String name)
+	{
+		ContentionProfiler.Site site = findSite(name);
+		check(site != null && site.getAcquisitionCount() > 0, "Site " + name + " is not recorded");
+	}
+	
+	
+	// Find site by name.
+	private static ContentionProfiler.Site findSite(String name)
+	{
+		for(ContentionProfiler.Site site : ContentionProfiler.getSites())
+		{
+			if(site.name.equals(name))
+				return site;
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * Entry point.
+	 * @param args Arguments : [thread count] [iterations per thread].
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		int threadCount = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREAD_COUNT);
+		int iterations = (args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS);
+		System.out.println("Threads : " + threadCount + ", iterations per thread : " + iterations + ", profiler enabled : " + ContentionProfiler.ENABLED);
+		Looper.prepare();
+		stressPropertyChangeEventArgs(threadCount, iterations);
+		stressMotionEventArgs(threadCount, iterations);
+		stressHandleClose(threadCount);
+		stressComponentManager(threadCount, iterations);
+		stressSettings(threadCount, iterations);
+		if(ContentionProfiler.ENABLED)
+		{
+			checkSite(SITE_FIND_COMPONENT);
+			checkSite(SITE_FIND_COMPONENTS);
+			checkSite(SITE_HANDLE_CLOSE);
+			checkSite(SITE_MOTION_EVENT_ARGS_POOL);
+			checkSite(SITE_PROPERTY_CHANGE_EVENT_ARGS_POOL);
+			checkSite(SITE_SETTINGS_PRIVATE_KEYS);
+			ContentionProfiler.dump(new PrintWriter(System.out));
+		}
+		else
+			System.out.println("Profiler is disabled, run with ENABLE_CONTENTION_PROFILER=1 to record sites");
+		if(m_FailureCount.get() > 0)
+		{
+			System.out.println(m_FailureCount.get() + " check(s) failed");
+			System.exit(1);
+		}
+		System.out.println("All checks passed");
+	}
+	
+	
+	// Run work in given number of threads which start at the same time, return elapsed time in nanoseconds.
+	private static long runThreads(int threadCount, Work work) throws InterruptedException
+	{
+		return runThreads(threadCount, work, null);
+	}
+	
+	
+	// Run work in given number of threads which start at the same time, and run owner work repeatedly in current thread until all threads complete.
+	private static long runThreads(int threadCount, final Work work, Work ownerWork) throws InterruptedException
+	{
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final CountDownLatch completionLatch = new CountDownLatch(threadCount);
+		final AtomicInteger errorCount = new AtomicInteger();
+		Thread[] threads = new Thread[threadCount];
+		for(int i = 0 ; i < threadCount ; ++i)
+		{
+			final int threadIndex = i;
+			threads[i] = new Thread("Stress-" + i)
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						startLatch.await();
+						work.run(threadIndex);
+					}
+					catch(Throwable ex)
+					{
+						errorCount.incrementAndGet();
+						ex.printStackTrace();
+					}
+					finally
+					{
+						completionLatch.countDown();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		long startTime = System.nanoTime();
+		startLatch.countDown();
+		if(ownerWork != null)
+		{
+			for(int i = 0 ; completionLatch.getCount() > 0 ; ++i)
+				ownerWork.run(i);
+		}
+		for(int i = 0 ; i < threadCount ; ++i)
+			threads[i].join();
+		long time = (System.nanoTime() - startTime);
+		check(errorCount.get() == 0, errorCount.get() + " thread(s) threw exception");
+		return time;
+	}
+	
+	
+	// Find components from all threads while owner thread keeps adding builders, which drops component index and makes lookups take lock.
+	private static void stressComponentManager(int threadCount, final int iterations) throws InterruptedException
+	{
+		// prepare components
+		final Owner owner = new Owner();
+		for(int i = 0 ; i < COMPONENT_COUNT ; ++i)
+			owner.componentManager.addComponentBuilder(new TestComponentBuilder(owner, ComponentCreationPriority.LAUNCH, i));
+		owner.componentManager.createComponents(ComponentCreationPriority.LAUNCH, owner);
+		
+		// find components
+		final AtomicInteger wrongResultCount = new AtomicInteger();
+		final int[] builderCount = new int[1];
+		long time = runThreads(threadCount, new Work()
+		{
+			@Override
+			public void run(int threadIndex)
+			{
+				for(int i = 0 ; i < iterations ; ++i)
+				{
+					switch((i + threadIndex) & 3)
+					{
+						case 0:
+						case 1:
+							if(owner.findComponent(FirstComponent.class) == null)
+								wrongResultCount.incrementAndGet();
+							break;
+						case 2:
+							if(owner.findComponent(MissingComponent.class) != null)
+								wrongResultCount.incrementAndGet();
+							break;
+						default:
+							Component[] components = owner.findComponents(TestComponent.class);
+							if(components == null || components.length != COMPONENT_COUNT)
+								wrongResultCount.incrementAndGet();
+							break;
+					}
+				}
+			}
+		}, new Work()
+		{
+			@Override
+			public void run(int index)
+			{
+				if(builderCount[0] < MAX_ON_DEMAND_BUILDERS)
+				{
+					owner.componentManager.addComponentBuilder(new TestComponentBuilder(owner, ComponentCreationPriority.ON_DEMAND, COMPONENT_COUNT + index));
+					++builderCount[0];
+				}
+				LockSupport.parkNanos(OWNER_WORK_INTERVAL);
+			}
+		});
+		check(wrongResultCount.get() == 0, wrongResultCount.get() + " component lookup(s) returned wrong result");
+		System.out.println(String.format("ComponentManager : %d lookups x %d threads, %d builders added, %.1f ns/lookup", iterations, threadCount, builderCount[0], (double)time / iterations));
+		owner.release();
+	}
+	
+	
+	// Close same handles from all threads at the same time, each handle must be closed exactly once.
+	private static void stressHandleClose(final int threadCount) throws InterruptedException
+	{
+		final CountingHandle[] handles = new CountingHandle[HANDLE_COUNT];
+		for(int i = 0 ; i < HANDLE_COUNT ; ++i)
+			handles[i] = new CountingHandle();
+		long time = runThreads(threadCount, new Work()
+		{
+			@Override
+			public void run(int threadIndex)
+			{
+				for(int i = 0 ; i < HANDLE_COUNT ; ++i)
+					Handle.close(handles[i]);
+			}
+		});
+		int invalidCount = 0;
+		for(int i = 0 ; i < HANDLE_COUNT ; ++i)
+		{
+			if(handles[i].closeCount.get() != 1 || Handle.isValid(handles[i]))
+				++invalidCount;
+		}
+		check(invalidCount == 0, invalidCount + " handle(s) not closed exactly once");
+		System.out.println(String.format("Handle.close() : %d handles x %d threads, %.1f ns/close", HANDLE_COUNT, threadCount, (double)time / ((long)HANDLE_COUNT * threadCount)));
+	}
+	
+	
+	// Obtain and recycle motion event data from all threads, an instance must not be held by two threads at the same time.
+	private static void stressMotionEventArgs(int threadCount, final int iterations) throws InterruptedException
+	{
+		final AtomicInteger duplicateCount = new AtomicInteger();
+		long time = runThreads(threadCount, new Work()
+		{
+			@Override
+			public void run(int threadIndex)
+			{
+				MotionEvent event = MotionEvent.obtain(0, 0, MotionEvent.ACTION_MOVE, threadIndex, threadIndex, 0);
+				MotionEventArgs[] heldArgs = new MotionEventArgs[MAX_HELD_OBJECTS];
+				for(int i = 0 ; i < iterations ; ++i)
+				{
+					// hold more instances than local cache capacity to exchange instances between threads through shared storage
+					int heldCount = 1 + ((i + threadIndex) % MAX_HELD_OBJECTS);
+					for(int j = 0 ; j < heldCount ; ++j)
+						heldArgs[j] = MotionEventArgs.obtain(event);
+					for(int j = heldCount - 1 ; j >= 0 ; --j)
+					{
+						if(heldArgs[j].getMotionEvent() != event)
+							duplicateCount.incrementAndGet();
+						heldArgs[j].recycle();
+						heldArgs[j] = null;
+					}
+				}
+			}
+		});
+		check(duplicateCount.get() == 0, duplicateCount.get() + " MotionEventArgs instance(s) obtained by more than one thread");
+		System.out.println(String.format("MotionEventArgs : %d iterations x %d threads, %.1f ns/iteration", iterations, threadCount, (double)time / iterations));
+	}
+	
+	
+	// Obtain and recycle property change event data from all threads, an instance must not be held by two threads at the same time.
+	private static void stressPropertyChangeEventArgs(int threadCount, final int iterations) throws InterruptedException
+	{
+		final AtomicInteger duplicateCount = new AtomicInteger();
+		long time = runThreads(threadCount, new Work()
+		{
+			@Override
+			public void run(int threadIndex)
+			{
+				Object value = new Object();
+				PropertyChangeEventArgs<?>[] heldArgs = new PropertyChangeEventArgs<?>[MAX_HELD_OBJECTS];
+				for(int i = 0 ; i < iterations ; ++i)
+				{
+					// hold more instances than local cache capacity to exchange instances between threads through shared storage
+					int heldCount = 1 + ((i + threadIndex) % MAX_HELD_OBJECTS);
+					for(int j = 0 ; j < heldCount ; ++j)
+						heldArgs[j] = PropertyChangeEventArgs.obtain(null, value);
+					for(int j = heldCount - 1 ; j >= 0 ; --j)
+					{
+						if(heldArgs[j].getNewValue() != value)
+							duplicateCount.incrementAndGet();
+						heldArgs[j].recycle();
+						heldArgs[j] = null;
+					}
+				}
+			}
+		});
+		check(duplicateCount.get() == 0, duplicateCount.get() + " PropertyChangeEventArgs instance(s) obtained by more than one thread");
+		System.out.println(String.format("PropertyChangeEventArgs : %d iterations x %d threads, %.1f ns/iteration", iterations, threadCount, (double)time / iterations));
+	}
+	
+	
+	// Read global and private settings from all threads while owner thread keeps adding private keys, no acquisition must be lost.
+	private static void stressSettings(int threadCount, final int iterations) throws InterruptedException
+	{
+		// prepare settings
+		for(int i = SETTINGS_PRIVATE_KEYS.length - 1 ; i >= 0 ; --i)
+			Settings.addPrivateKey(SETTINGS_PRIVATE_KEYS[i]);
+		final Settings settings = new Settings(new Context(), "Stress", false);
+		
+		// read settings
+		final AtomicInteger wrongResultCount = new AtomicInteger();
+		final int[] addedKeyCount = new int[1];
+		ContentionProfiler.Site site = findSite(SITE_SETTINGS_PRIVATE_KEYS);
+		long acquisitionCount = (site != null ? site.getAcquisitionCount() : 0);
+		long time = runThreads(threadCount, new Work()
+		{
+			@Override
+			public void run(int threadIndex)
+			{
+				for(int i = 0 ; i < iterations ; ++i)
+				{
+					String[] keys = ((i & 1) == 0 ? SETTINGS_GLOBAL_KEYS : SETTINGS_PRIVATE_KEYS);
+					if(!settings.getBoolean(keys[0], true)
+							|| settings.getInt(keys[1], i) != i
+							|| settings.getLong(keys[2], i) != i
+							|| !keys[3].equals(settings.getString(keys[3], keys[3])))
+					{
+						wrongResultCount.incrementAndGet();
+					}
+				}
+			}
+		}, new Work()
+		{
+			@Override
+			public void run(int index)
+			{
+				if(addedKeyCount[0] < MAX_ADDED_PRIVATE_KEYS)
+				{
+					Settings.addPrivateKey("Private.Key" + index);
+					++addedKeyCount[0];
+				}
+				LockSupport.parkNanos(OWNER_WORK_INTERVAL);
+			}
+		});
+		check(wrongResultCount.get() == 0, wrongResultCount.get() + " setting read(s) returned wrong value");
+		if(site != null)
+		{
+			long expectedCount = (4L * threadCount * iterations + addedKeyCount[0]);
+			acquisitionCount = (site.getAcquisitionCount() - acquisitionCount);
+			check(acquisitionCount == expectedCount, "Settings site recorded " + acquisitionCount + " acquisitions, expected " + expectedCount);
+		}
+		System.out.println(String.format("Settings : %d iterations x %d threads, %d private keys added, %.1f ns/iteration", iterations, threadCount, addedKeyCount[0], (double)time / iterations));
+		settings.release();
+	}
+}
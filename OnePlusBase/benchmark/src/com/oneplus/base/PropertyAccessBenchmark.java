@@ -0,0 +1,116 @@
+package com.oneplus.base;
+
+/**
+ * Benchmark of property access in {@link BasicBaseObject} backed by dense slot tables.
+ */
+public final class PropertyAccessBenchmark
+{
+	// Constants
+	private static final int OPERATION_COUNT = 1000000;
+	private static final int PROPERTY_COUNT = 32;
+	
+	
+	// Base object type.
+	private static class BaseTarget extends BasicBaseObject
+	{
+		public static final PropertyKey<Integer>[] PROPS = createKeys("Base", BaseTarget.class);
+	}
+	
+	
+	// Derived object type which adds properties to base type.
+	private static final class DerivedTarget extends BaseTarget
+	{
+		public static final PropertyKey<Integer>[] PROPS = createKeys("Derived", DerivedTarget.class);
+	}
+	
+	
+	// Constructor
+	private PropertyAccessBenchmark()
+	{}
+	
+	
+	// Create property keys.
+	@SuppressWarnings("unchecked")
+	private static PropertyKey<Integer>[] createKeys(String prefix, Class<? extends PropertySource> ownerType)
+	{
+		PropertyKey<Integer>[] keys = new PropertyKey[PROPERTY_COUNT / 2];
+		for(int i = 0 ; i < keys.length ; ++i)
+			keys[i] = new PropertyKey<>(prefix + i, Integer.class, ownerType, PropertyKey.FLAG_NOT_NULL, 0);
+		return keys;
+	}
+	
+	
+	/**
+	 * Entry point.
+	 * @param args Arguments, not used.
+	 */
+	public static void main(String[] args)
+	{
+		final DerivedTarget target = new DerivedTarget();
+		final PropertyKey<?>[] keys = new PropertyKey<?>[PROPERTY_COUNT];
+		System.arraycopy(BaseTarget.PROPS, 0, keys, 0, BaseTarget.PROPS.length);
+		System.arraycopy(DerivedTarget.PROPS, 0, keys, BaseTarget.PROPS.length, DerivedTarget.PROPS.length);
+		final Integer[] values = new Integer[256];
+		for(int i = 0 ; i < values.length ; ++i)
+			values[i] = i + 1000;
+		for(int i = 0 ; i < keys.length ; ++i)
+		{
+			@SuppressWarnings("unchecked")
+			PropertyKey<Integer> key = (PropertyKey<Integer>)keys[i];
+			target.set(key, values[i]);
+		}
+		
+		// get
+		Benchmark.measure("get() - " + PROPERTY_COUNT + " properties", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				Object value = null;
+				for(int i = 0 ; i < count ; ++i)
+					value = target.get(keys[i & (PROPERTY_COUNT - 1)]);
+				Benchmark.sink = value;
+			}
+		});
+		
+		// set without call-back
+		Benchmark.measure("set() - no call-back", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					target.set((PropertyKey<Integer>)keys[i & (PROPERTY_COUNT - 1)], values[i & 255]);
+			}
+		});
+		
+		// set with call-back
+		final int[] callbackCount = new int[1];
+		PropertyChangedCallback<Integer> callback = new PropertyChangedCallback<Integer>()
+		{
+			@Override
+			public void onPropertyChanged(PropertySource source, PropertyKey<Integer> key, PropertyChangeEventArgs<Integer> e)
+			{
+				++callbackCount[0];
+			}
+		};
+		for(int i = 0 ; i < keys.length ; ++i)
+		{
+			@SuppressWarnings("unchecked")
+			PropertyKey<Integer> key = (PropertyKey<Integer>)keys[i];
+			target.addCallback(key, callback);
+		}
+		Benchmark.measure("set() - 1 call-back", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					target.set((PropertyKey<Integer>)keys[i & (PROPERTY_COUNT - 1)], values[i & 255]);
+			}
+		});
+		Benchmark.sink = callbackCount[0];
+	}
+}
@@ -0,0 +1,189 @@
+package com.oneplus.base.component;
+
+import android.os.Looper;
+
+import com.oneplus.base.Benchmark;
+import com.oneplus.base.HandlerBaseObject;
+
+/**
+ * Benchmark of {@link ComponentManager#findComponent(Class, Object...)} and {@link ComponentManager#findComponents(Class, Object...)}.
+ */
+public final class ComponentLookupBenchmark
+{
+	// Constants
+	private static final int COMPONENT_COUNT = 64;
+	private static final int OPERATION_COUNT = 1000000;
+	
+	
+	// Component types to find.
+	private interface FirstComponent extends Component
+	{}
+	private interface LastComponent extends Component
+	{}
+	private interface MissingComponent extends Component
+	{}
+	
+	
+	// Components.
+	private static class TestComponent extends BasicComponent
+	{
+		public TestComponent(String name, ComponentOwner owner)
+		{
+			super(name, owner, false);
+		}
+	}
+	private static final class FirstComponentImpl extends TestComponent implements FirstComponent
+	{
+		public FirstComponentImpl(ComponentOwner owner)
+		{
+			super("First", owner);
+		}
+	}
+	private static final class LastComponentImpl extends TestComponent implements LastComponent
+	{
+		public LastComponentImpl(ComponentOwner owner)
+		{
+			super("Last", owner);
+		}
+	}
+	
+	
+	// Owner of components.
+	private static final class Owner extends HandlerBaseObject implements ComponentOwner
+	{
+		public final ComponentManager componentManager = new ComponentManager();
+		
+		public Owner()
+		{
+			super(true);
+		}
+		
+		@Override
+		public <TComponent extends Component> TComponent findComponent(Class<TComponent> componentType)
+		{
+			return this.componentManager.findComponent(componentType, this);
+		}
+		
+		@Override
+		public <TComponent extends Component> TComponent[] findComponents(Class<TComponent> componentType)
+		{
+			return this.componentManager.findComponents(componentType, this);
+		}
+		
+		@Override
+		public void removeComponent(Component component)
+		{
+			this.componentManager.removeComponent(component);
+		}
+	}
+	
+	
+	// Constructor
+	private ComponentLookupBenchmark()
+	{}
+	
+	
+	/**
+	 * Entry point.
+	 * @param args Arguments, not used.
+	 */
+	public static void main(String[] args)
+	{
+		// prepare components
+		Looper.prepare();
+		final Owner owner = new Owner();
+		for(int i = 0 ; i < COMPONENT_COUNT ; ++i)
+		{
+			final int index = i;
+			owner.componentManager.addComponentBuilder(new ComponentBuilder()
+			{
+				@Override
+				public Component create(Object... args)
+				{
+					if(index == 0)
+						return new FirstComponentImpl(owner);
+					if(index == COMPONENT_COUNT - 1)
+						return new LastComponentImpl(owner);
+					return new TestComponent("Component" + index, owner);
+				}
+				
+				@Override
+				public ComponentCreationPriority getPriority()
+				{
+					return ComponentCreationPriority.LAUNCH;
+				}
+				
+				@Override
+				public boolean isComponentTypeSupported(Class<?> componentType)
+				{
+					return false;
+				}
+			});
+		}
+		owner.componentManager.createComponents(ComponentCreationPriority.LAUNCH, owner);
+		if(owner.findComponent(FirstComponent.class) == null || owner.findComponent(LastComponent.class) == null)
+			throw new RuntimeException("Components are not created");
+		
+		// find single component
+		Benchmark.measure("findComponent() - hit, last added", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponent(LastComponent.class);
+			}
+		});
+		Benchmark.measure("findComponent() - hit, first added", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponent(FirstComponent.class);
+			}
+		});
+		Benchmark.measure("findComponent() - miss", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponent(MissingComponent.class);
+			}
+		});
+		
+		// mix of hit and miss
+		final Class<?>[] types = new Class<?>[]{ LastComponent.class, FirstComponent.class, MissingComponent.class, TestComponent.class };
+		Benchmark.measure("findComponent() - mixed", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponent((Class<Component>)types[i & 3]);
+			}
+		});
+		
+		// find all components
+		Benchmark.measure("findComponents() - 1 match", OPERATION_COUNT, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponents(FirstComponent.class);
+			}
+		});
+		Benchmark.measure("findComponents() - " + COMPONENT_COUNT + " matches", OPERATION_COUNT / 10, new Benchmark.Operation()
+		{
+			@Override
+			public void run(int count)
+			{
+				for(int i = 0 ; i < count ; ++i)
+					Benchmark.sink = owner.findComponents(TestComponent.class);
+			}
+		});
+	}
+}
@@ -0,0 +1,217 @@
+package com.oneplus.base.component;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+
+import com.oneplus.base.Benchmark;
+
+/**
+ * Measures classes loaded and page faults when registering component builders eagerly or through {@link LazyComponentBuilder}.
+ * Each mode runs in a new JVM so classes loaded by one mode don't affect the other.
+ * Usage : ComponentRegistryBenchmark [eager|lazy], runs both modes in child processes if mode is not specified.
+ */
+public final class ComponentRegistryBenchmark
+{
+	// Constants
+	private static final String CLASS_NAME_PREFIX = ComponentRegistryBenchmark.class.getName() + "$";
+	private static final int BUILDER_COUNT = 24;
+	private static final int ROUNDS = 5;
+	
+	
+	// Type to find.
+	private interface TestType
+	{}
+	
+	
+	// Base class of builders.
+	private static abstract class TestBuilder implements ComponentBuilder
+	{
+		private final Class<?> m_ComponentClass;
+		
+		protected TestBuilder(Class<?> componentClass)
+		{
+			m_ComponentClass = componentClass;
+		}
+		
+		@Override
+		public Component create(Object... args)
+		{
+			return null;
+		}
+		
+		@Override
+		public ComponentCreationPriority getPriority()
+		{
+			return ComponentCreationPriority.ON_DEMAND;
+		}
+		
+		@Override
+		public boolean isComponentTypeSupported(Class<?> componentType)
+		{
+			return componentType.isAssignableFrom(m_ComponentClass);
+		}
+	}
+	
+	
+	// Components.
+	static abstract class TestComponent
+	{
+		protected final Object[] fields = new Object[4];
+		public abstract void run();
+	}
+	static final class Component0 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component1 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component2 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component3 extends TestComponent { @Override public void run() { this.fields[3] = this; } }
+	static final class Component4 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component5 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component6 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component7 extends TestComponent { @Override public void run() { this.fields[3] = this; } }
+	static final class Component8 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component9 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component10 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component11 extends TestComponent { @Override public void run() { this.fields[3] = this; } }
+	static final class Component12 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component13 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component14 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component15 extends TestComponent { @Override public void run() { this.fields[3] = this; } }
+	static final class Component16 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component17 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component18 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component19 extends TestComponent { @Override public void run() { this.fields[3] = this; } }
+	static final class Component20 extends TestComponent { @Override public void run() { this.fields[0] = this; } }
+	static final class Component21 extends TestComponent { @Override public void run() { this.fields[1] = this; } }
+	static final class Component22 extends TestComponent { @Override public void run() { this.fields[2] = this; } }
+	static final class Component23 extends TestComponent implements TestType { @Override public void run() { this.fields[3] = this; } }
+	
+	
+	// Builders.
+	public static final class Builder0 extends TestBuilder { public Builder0() { super(Component0.class); } }
+	public static final class Builder1 extends TestBuilder { public Builder1() { super(Component1.class); } }
+	public static final class Builder2 extends TestBuilder { public Builder2() { super(Component2.class); } }
+	public static final class Builder3 extends TestBuilder { public Builder3() { super(Component3.class); } }
+	public static final class Builder4 extends TestBuilder { public Builder4() { super(Component4.class); } }
+	public static final class Builder5 extends TestBuilder { public Builder5() { super(Component5.class); } }
+	public static final class Builder6 extends TestBuilder { public Builder6() { super(Component6.class); } }
+	public static final class Builder7 extends TestBuilder { public Builder7() { super(Component7.class); } }
+	public static final class Builder8 extends TestBuilder { public Builder8() { super(Component8.class); } }
+	public static final class Builder9 extends TestBuilder { public Builder9() { super(Component9.class); } }
+	public static final class Builder10 extends TestBuilder { public Builder10() { super(Component10.class); } }
+	public static final class Builder11 extends TestBuilder { public Builder11() { super(Component11.class); } }
+	public static final class Builder12 extends TestBuilder { public Builder12() { super(Component12.class); } }
+	public static final class Builder13 extends TestBuilder { public Builder13() { super(Component13.class); } }
+	public static final class Builder14 extends TestBuilder { public Builder14() { super(Component14.class); } }
+	public static final class Builder15 extends TestBuilder { public Builder15() { super(Component15.class); } }
+	public static final class Builder16 extends TestBuilder { public Builder16() { super(Component16.class); } }
+	public static final class Builder17 extends TestBuilder { public Builder17() { super(Component17.class); } }
+	public static final class Builder18 extends TestBuilder { public Builder18() { super(Component18.class); } }
+	public static final class Builder19 extends TestBuilder { public Builder19() { super(Component19.class); } }
+	public static final class Builder20 extends TestBuilder { public Builder20() { super(Component20.class); } }
+	public static final class Builder21 extends TestBuilder { public Builder21() { super(Component21.class); } }
+	public static final class Builder22 extends TestBuilder { public Builder22() { super(Component22.class); } }
+	public static final class Builder23 extends TestBuilder { public Builder23() { super(Component23.class); } }
+	
+	
+	// Constructor
+	private ComponentRegistryBenchmark()
+	{}
+	
+	
+	// Create builders directly, as the table did before lazy loading.
+	private static ComponentBuilder[] createEagerBuilders()
+	{
+		return new ComponentBuilder[]{
+			new Builder0(), new Builder1(), new Builder2(), new Builder3(), new Builder4(), new Builder5(),
+			new Builder6(), new Builder7(), new Builder8(), new Builder9(), new Builder10(), new Builder11(),
+			new Builder12(), new Builder13(), new Builder14(), new Builder15(), new Builder16(), new Builder17(),
+			new Builder18(), new Builder19(), new Builder20(), new Builder21(), new Builder22(), new Builder23(),
+		};
+	}
+	
+	
+	// Describe builders by class name.
+	private static ComponentBuilder[] createLazyBuilders(String[] builderClassNames, String[] componentClassNames)
+	{
+		ComponentBuilder[] builders = new ComponentBuilder[BUILDER_COUNT];
+		for(int i = 0 ; i < BUILDER_COUNT ; ++i)
+		{
+			Class<?>[] componentTypes = (i == BUILDER_COUNT - 1 ? new Class<?>[]{ TestType.class } : null);
+			builders[i] = new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, builderClassNames[i], componentClassNames[i], componentTypes);
+		}
+		return builders;
+	}
+	
+	
+	/**
+	 * Entry point.
+	 * @param args Arguments : [eager|lazy].
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		// run both modes in child processes
+		if(args.length == 0)
+		{
+			String javaPath = System.getProperty("java.home") + "/bin/java";
+			String classPath = System.getProperty("java.class.path");
+			for(int i = 0 ; i < ROUNDS ; ++i)
+			{
+				for(String mode : new String[]{ "eager", "lazy" })
+				{
+					Process process = new ProcessBuilder(javaPath, "-cp", classPath, ComponentRegistryBenchmark.class.getName(), mode).inheritIO().start();
+					if(process.waitFor() != 0)
+						throw new RuntimeException("Fail to run " + mode + " mode");
+				}
+			}
+			return;
+		}
+		
+		// prepare class names, they are constants in real registry
+		boolean isLazy = "lazy".equals(args[0]);
+		String[] builderClassNames = new String[BUILDER_COUNT];
+		String[] componentClassNames = new String[BUILDER_COUNT];
+		for(int i = 0 ; i < BUILDER_COUNT ; ++i)
+		{
+			builderClassNames[i] = new StringBuilder(CLASS_NAME_PREFIX).append("Builder").append(i).toString();
+			componentClassNames[i] = new StringBuilder(CLASS_NAME_PREFIX).append("Component").append(i).toString();
+		}
+		
+		// start measuring
+		ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
+		long[] faults = readPageFaults();
+		long loadedClassCount = classLoadingBean.getTotalLoadedClassCount();
+		long startTime = System.nanoTime();
+		
+		// register builders and find on-demand component, as ComponentManager does
+		ComponentBuilder[] builders = (isLazy ? createLazyBuilders(builderClassNames, componentClassNames) : createEagerBuilders());
+		int supportedCount = 0;
+		for(int i = builders.length - 1 ; i >= 0 ; --i)
+		{
+			if(builders[i].isComponentTypeSupported(TestType.class))
+				++supportedCount;
+		}
+		
+		// print result
+		long time = (System.nanoTime() - startTime);
+		long[] newFaults = readPageFaults();
+		Benchmark.sink = builders;
+		System.out.println(String.format("%-6s %d builders, %d supported, %3d classes loaded, %4d minor faults, %d major faults, %6d us",
+				args[0], builders.length, supportedCount,
+				classLoadingBean.getTotalLoadedClassCount() - loadedClassCount,
+				newFaults[0] - faults[0], newFaults[1] - faults[1], time / 1000));
+	}
+	
+	
+	// Read minor and major page fault counts of this process.
+	private static long[] readPageFaults() throws IOException
+	{
+		try(BufferedReader reader = new BufferedReader(new FileReader("/proc/self/stat")))
+		{
+			String line = reader.readLine();
+			String[] fields = line.substring(line.lastIndexOf(')') + 2).split(" ");
+			return new long[]{ Long.parseLong(fields[7]), Long.parseLong(fields[9]) };
+		}
+	}
+}
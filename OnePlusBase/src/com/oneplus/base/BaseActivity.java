@@ -1,5 +1,11 @@
 package com.oneplus.base;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import android.app.Activity;
 import android.content.Intent;
 import android.content.res.Configuration;
@@ -109,16 +115,18 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	// Private fields
 	private final BaseObjectAdapter m_BaseObjectAdapter;
 	private InternalHandler m_Handler;
+	private IdleScheduler m_IdleScheduler;
 	private final Thread m_MainThread;
 	
 	
 	// Class for handler
-	private static final class InternalHandler extends Handler
+	private static final class InternalHandler extends InstrumentedHandler
 	{
 		private volatile BaseActivity m_Owner;
 		
 		public InternalHandler(BaseActivity owner)
 		{
+			super(owner.TAG);
 			m_Owner = owner;
 		}
 		
@@ -160,6 +168,38 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	// Add call-back for boolean property change.
+	@Override
+	public void addCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for int property change.
+	@Override
+	public void addCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for long property change.
+	@Override
+	public void addCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for float property change.
+	@Override
+	public void addCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
 	// Add handler to event.
 	@Override
 	public <TArgs extends EventArgs> void addHandler(EventKey<TArgs> key, EventHandler<TArgs> handler)
@@ -168,6 +208,15 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	/**
+	 * Start updating properties. Property changed call-backs will be deferred until calling {@link #endUpdate()}.
+	 */
+	protected final void beginUpdate()
+	{
+		m_BaseObjectAdapter.beginUpdate();
+	}
+	
+	
 	/**
 	 * Disable logs related to given event.
 	 * @param key Event key.
@@ -190,6 +239,35 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	// Dump activity state.
+	@Override
+	public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args)
+	{
+		super.dump(prefix, fd, writer, args);
+		List<String> argList = (args != null ? Arrays.asList(args) : Collections.<String>emptyList());
+		if(argList.contains("--enable-looper-profiler"))
+			LooperProfiler.setEnabled(true);
+		else if(argList.contains("--disable-looper-profiler"))
+			LooperProfiler.setEnabled(false);
+		if(LooperProfiler.isEnabled())
+			LooperProfiler.dump(writer);
+		ThreadMonitor.dump(writer);
+		ThreadLaneScheduler.dump(writer);
+		IdleScheduler.dump(writer);
+		if(DispatchProfiler.ENABLED)
+		{
+			if(argList.contains("--dispatch-profile-json"))
+				writer.println(DispatchProfiler.dumpJson());
+			else
+				DispatchProfiler.dump(writer);
+		}
+		if(ContentionProfiler.ENABLED)
+			ContentionProfiler.dump(writer);
+		if(SubscriptionScope.ENABLE_LEAK_REPORT)
+			SubscriptionScope.dumpLeaks(writer);
+	}
+	
+	
 	/**
 	 * Enable logs related to given event.
 	 * @param key Event key.
@@ -212,6 +290,15 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	/**
+	 * Complete updating properties started by {@link #beginUpdate()}.
+	 */
+	protected final void endUpdate()
+	{
+		m_BaseObjectAdapter.endUpdate();
+	}
+	
+	
 	// Get property value.
 	@Override
 	public <TValue> TValue get(PropertyKey<TValue> key)
@@ -220,6 +307,38 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	// Get boolean property value.
+	@Override
+	public boolean getBoolean(BooleanPropertyKey key)
+	{
+		return m_BaseObjectAdapter.getBoolean(key);
+	}
+	
+	
+	// Get int property value.
+	@Override
+	public int getInt(IntPropertyKey key)
+	{
+		return m_BaseObjectAdapter.getInt(key);
+	}
+	
+	
+	// Get long property value.
+	@Override
+	public long getLong(LongPropertyKey key)
+	{
+		return m_BaseObjectAdapter.getLong(key);
+	}
+	
+	
+	// Get float property value.
+	@Override
+	public float getFloat(FloatPropertyKey key)
+	{
+		return m_BaseObjectAdapter.getFloat(key);
+	}
+	
+	
 	// Get handler.
 	@Override
 	public Handler getHandler()
@@ -228,6 +347,16 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	/**
+	 * Get idle scheduler of main thread.
+	 * @return Idle scheduler, or Null if activity is not created yet.
+	 */
+	public final IdleScheduler getIdleScheduler()
+	{
+		return m_IdleScheduler;
+	}
+	
+	
 	/**
 	 * Handle message.
 	 * @param msg Message.
@@ -257,6 +386,58 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	/**
+	 * Notify that value of given {@code boolean} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(BooleanPropertyKey key, boolean oldValue, boolean newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code int} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(IntPropertyKey key, int oldValue, int newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code long} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(LongPropertyKey key, long oldValue, long newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code float} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(FloatPropertyKey key, float oldValue, float newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
 	// Called when configuration changes.
 	@Override
 	public void onConfigurationChanged(Configuration newConfig)
@@ -278,6 +459,7 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 		
 		// create handler
 		m_Handler = new InternalHandler(this);
+		m_IdleScheduler = new IdleScheduler(this.TAG);
 		
 		// setup initial state
 		this.setReadOnly(PROP_CONFIG_ORIENTATION, this.getResources().getConfiguration().orientation);
@@ -294,6 +476,8 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 		this.setReadOnly(PROP_STATE, State.DESTROYED);
 		
 		// release handler
+		if(m_IdleScheduler != null)
+			m_IdleScheduler.release();
 		if(m_Handler != null)
 			m_Handler.release();
 		
@@ -376,6 +560,38 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	// Remove boolean property change call-back.
+	@Override
+	public void removeCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove int property change call-back.
+	@Override
+	public void removeCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove long property change call-back.
+	@Override
+	public void removeCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove float property change call-back.
+	@Override
+	public void removeCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
 	// Remove handler from event.
 	@Override
 	public <TArgs extends EventArgs> void removeHandler(EventKey<TArgs> key, EventHandler<TArgs> handler)
@@ -392,6 +608,38 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	// Set boolean property value.
+	@Override
+	public boolean setBoolean(BooleanPropertyKey key, boolean value)
+	{
+		return m_BaseObjectAdapter.setBoolean(key, value);
+	}
+	
+	
+	// Set int property value.
+	@Override
+	public boolean setInt(IntPropertyKey key, int value)
+	{
+		return m_BaseObjectAdapter.setInt(key, value);
+	}
+	
+	
+	// Set long property value.
+	@Override
+	public boolean setLong(LongPropertyKey key, long value)
+	{
+		return m_BaseObjectAdapter.setLong(key, value);
+	}
+	
+	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		return m_BaseObjectAdapter.setFloat(key, value);
+	}
+	
+	
 	/**
 	 * Set read-only property.
 	 * @param key Property key.
@@ -404,6 +652,54 @@ public abstract class BaseActivity extends Activity implements BaseObject, Handl
 	}
 	
 	
+	/**
+	 * Set read-only {@code boolean} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(BooleanPropertyKey key, boolean value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code int} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(IntPropertyKey key, int value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code long} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(LongPropertyKey key, long value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code float} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(FloatPropertyKey key, float value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
 	/**
 	 * Throw {@link RuntimeException} if current thread is not main thread.
 	 */
@@ -22,6 +22,22 @@ public final class BaseObjectAdapter extends BasicBaseObject
 	}
 	
 	
+	// Start updating properties.
+	@Override
+	public void beginUpdate()
+	{
+		super.beginUpdate();
+	}
+	
+	
+	// Complete updating properties.
+	@Override
+	public void endUpdate()
+	{
+		super.endUpdate();
+	}
+	
+	
 	// Check whether there is at least one call-back added to property or not.
 	@Override
 	public boolean hasCallbacks(PropertyKey<?> key)
@@ -46,6 +62,38 @@ public final class BaseObjectAdapter extends BasicBaseObject
 	}
 	
 	
+	// Notify that value of given boolean property has been changed.
+	@Override
+	public boolean notifyPropertyChanged(BooleanPropertyKey key, boolean oldValue, boolean newValue)
+	{
+		return super.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	// Notify that value of given int property has been changed.
+	@Override
+	public boolean notifyPropertyChanged(IntPropertyKey key, int oldValue, int newValue)
+	{
+		return super.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	// Notify that value of given long property has been changed.
+	@Override
+	public boolean notifyPropertyChanged(LongPropertyKey key, long oldValue, long newValue)
+	{
+		return super.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	// Notify that value of given float property has been changed.
+	@Override
+	public boolean notifyPropertyChanged(FloatPropertyKey key, float oldValue, float newValue)
+	{
+		return super.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
 	// Raise event.
 	@Override
 	public <TArgs extends EventArgs> void raise(EventKey<TArgs> key, TArgs e)
@@ -62,11 +110,43 @@ public final class BaseObjectAdapter extends BasicBaseObject
 	}
 	
 	
+	// Set read-only boolean property value.
+	@Override
+	public boolean setReadOnly(BooleanPropertyKey key, boolean value)
+	{
+		return super.setReadOnly(key, value);
+	}
+	
+	
+	// Set read-only int property value.
+	@Override
+	public boolean setReadOnly(IntPropertyKey key, int value)
+	{
+		return super.setReadOnly(key, value);
+	}
+	
+	
+	// Set read-only long property value.
+	@Override
+	public boolean setReadOnly(LongPropertyKey key, long value)
+	{
+		return super.setReadOnly(key, value);
+	}
+	
+	
+	// Set read-only float property value.
+	@Override
+	public boolean setReadOnly(FloatPropertyKey key, float value)
+	{
+		return super.setReadOnly(key, value);
+	}
+	
+	
 	// Throws exception if given event key is invalid.
 	@Override
 	protected void verifyEvent(EventKey<?> key)
 	{
-		if(!key.ownerType.isAssignableFrom(this.ownerType))
+		if(!this.isOwnedBy(key.ownerSlotTable, this.ownerType))
 			throw new IllegalArgumentException("Event " + key + " is not owned by type " + this.ownerType + ".");
 	}
 	
@@ -75,7 +155,7 @@ public final class BaseObjectAdapter extends BasicBaseObject
 	@Override
 	protected void verifyProperty(PropertyKey<?> key)
 	{
-		if(!key.ownerType.isAssignableFrom(this.ownerType))
+		if(!this.isOwnedBy(key.ownerSlotTable, this.ownerType))
 			throw new IllegalArgumentException("Property " + key + " is not owned by type " + this.ownerType + ".");
 	}
 }
@@ -1,5 +1,7 @@
 package com.oneplus.base;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
@@ -57,6 +59,10 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	public static final EventKey<EventArgs> EVENT_STOPPING = new EventKey<>("Stopping", EventArgs.class, BaseThread.class);
 	
 	
+	// Package fields
+	final AtomicInteger queuedCommandCount = new AtomicInteger();
+	
+	
 	// Constants
 	private static final int MSG_QUIT = -1;
 	
@@ -64,19 +70,22 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	// Private fields
 	private volatile BaseObjectAdapter m_BaseObjectAdapter;
 	private volatile InternalHandler m_Handler;
+	private volatile IdleScheduler m_IdleScheduler;
 	private volatile boolean m_IsReleased;
 	private volatile boolean m_IsStartCalled;
+	private volatile ThreadLaneScheduler m_LaneScheduler;
 	private final ThreadStartCallback m_ThreadStartCallback;
 	private final Handler m_ThreadStartCallbackHandler;
 	
 	
 	// Class for Handler
-	private static final class InternalHandler extends Handler
+	private static final class InternalHandler extends InstrumentedHandler
 	{
 		private volatile BaseThread m_Owner;
 		
 		public InternalHandler(BaseThread owner)
 		{
+			super(owner.TAG);
 			m_Owner = owner;
 		}
 		
@@ -134,6 +143,42 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	// Add call-back for boolean property change.
+	@Override
+	public void addCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for int property change.
+	@Override
+	public void addCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for long property change.
+	@Override
+	public void addCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
+	// Add call-back for float property change.
+	@Override
+	public void addCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.addCallback(key, callback);
+	}
+	
+	
 	// Add handler to event.
 	@Override
 	public <TArgs extends EventArgs> void addHandler(EventKey<TArgs> key, EventHandler<TArgs> handler)
@@ -143,6 +188,15 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Start updating properties. Property changed call-backs will be deferred until calling {@link #endUpdate()}.
+	 */
+	protected final void beginUpdate()
+	{
+		m_BaseObjectAdapter.beginUpdate();
+	}
+	
+	
 	/**
 	 * Disable logs related to given event.
 	 * @param key Event key.
@@ -187,6 +241,15 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Complete updating properties started by {@link #beginUpdate()}.
+	 */
+	protected final void endUpdate()
+	{
+		m_BaseObjectAdapter.endUpdate();
+	}
+	
+	
 	// Get property value.
 	@SuppressWarnings("unchecked")
 	@Override
@@ -200,6 +263,46 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	// Get boolean property value.
+	@Override
+	public boolean getBoolean(BooleanPropertyKey key)
+	{
+		if(this.isDependencyThread())
+			return m_BaseObjectAdapter.getBoolean(key);
+		return key.defaultBooleanValue;
+	}
+	
+	
+	// Get int property value.
+	@Override
+	public int getInt(IntPropertyKey key)
+	{
+		if(this.isDependencyThread())
+			return m_BaseObjectAdapter.getInt(key);
+		return key.defaultIntValue;
+	}
+	
+	
+	// Get long property value.
+	@Override
+	public long getLong(LongPropertyKey key)
+	{
+		if(this.isDependencyThread())
+			return m_BaseObjectAdapter.getLong(key);
+		return key.defaultLongValue;
+	}
+	
+	
+	// Get float property value.
+	@Override
+	public float getFloat(FloatPropertyKey key)
+	{
+		if(this.isDependencyThread())
+			return m_BaseObjectAdapter.getFloat(key);
+		return key.defaultFloatValue;
+	}
+	
+	
 	// Get handler.
 	@Override
 	public final Handler getHandler()
@@ -208,6 +311,26 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Get idle scheduler of this thread.
+	 * @return Idle scheduler, or Null if thread is not started yet.
+	 */
+	public final IdleScheduler getIdleScheduler()
+	{
+		return m_IdleScheduler;
+	}
+	
+	
+	/**
+	 * Get lane scheduler of this thread.
+	 * @return Lane scheduler, or Null if thread is not started yet.
+	 */
+	public final ThreadLaneScheduler getLaneScheduler()
+	{
+		return m_LaneScheduler;
+	}
+	
+	
 	/**
 	 * Handle thread message.
 	 * @param msg Message.
@@ -233,6 +356,16 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Check whether {@link #start()} has been called or not.
+	 * @return Whether thread is started or not.
+	 */
+	public final boolean isStartCalled()
+	{
+		return m_IsStartCalled;
+	}
+	
+	
 	/**
 	 * Notify that value of given property has been changed.
 	 * @param key Property key.
@@ -246,6 +379,58 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Notify that value of given {@code boolean} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(BooleanPropertyKey key, boolean oldValue, boolean newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code int} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(IntPropertyKey key, int oldValue, int newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code long} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(LongPropertyKey key, long oldValue, long newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code float} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(FloatPropertyKey key, float oldValue, float newValue)
+	{
+		return m_BaseObjectAdapter.notifyPropertyChanged(key, oldValue, newValue);
+	}
+	
+	
 	/**
 	 * Called when thread starts.
 	 */
@@ -285,6 +470,24 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Post work to given lane of this thread, this method can be called in any thread.
+	 * @param lane Lane.
+	 * @param r Work to execute.
+	 * @return Whether work is posted successfully or not.
+	 */
+	public final boolean post(ThreadLane lane, Runnable r)
+	{
+		ThreadLaneScheduler scheduler = m_LaneScheduler;
+		if(scheduler == null)
+		{
+			Log.e(TAG, "post() - Thread is not started");
+			return false;
+		}
+		return scheduler.post(lane, r);
+	}
+	
+	
 	/**
 	 * Raise event.
 	 * @param key Key of event to raise.
@@ -329,6 +532,42 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	// Remove boolean property change call-back.
+	@Override
+	public void removeCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove int property change call-back.
+	@Override
+	public void removeCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove long property change call-back.
+	@Override
+	public void removeCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
+	// Remove float property change call-back.
+	@Override
+	public void removeCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		this.verifyAccess();
+		m_BaseObjectAdapter.removeCallback(key, callback);
+	}
+	
+	
 	// Remove handler from event.
 	@Override
 	public <TArgs extends EventArgs> void removeHandler(EventKey<TArgs> key, EventHandler<TArgs> handler)
@@ -361,6 +600,8 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 			// prepare handler
 			Looper.prepare();
 			m_Handler = new InternalHandler(this);
+			m_LaneScheduler = new ThreadLaneScheduler(this.TAG);
+			m_IdleScheduler = new IdleScheduler(this.TAG);
 			
 			// start thread monitor
 			ThreadMonitor.startMonitorCurrentThread();
@@ -377,6 +618,18 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 		}
 		finally
 		{
+			// release schedulers
+			if(m_IdleScheduler != null)
+			{
+				m_IdleScheduler.release();
+				m_IdleScheduler = null;
+			}
+			if(m_LaneScheduler != null)
+			{
+				m_LaneScheduler.release();
+				m_LaneScheduler = null;
+			}
+			
 			// release handler
 			if(m_Handler != null)
 			{
@@ -405,6 +658,42 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	// Set boolean property value.
+	@Override
+	public boolean setBoolean(BooleanPropertyKey key, boolean value)
+	{
+		this.verifyAccess();
+		return m_BaseObjectAdapter.setBoolean(key, value);
+	}
+	
+	
+	// Set int property value.
+	@Override
+	public boolean setInt(IntPropertyKey key, int value)
+	{
+		this.verifyAccess();
+		return m_BaseObjectAdapter.setInt(key, value);
+	}
+	
+	
+	// Set long property value.
+	@Override
+	public boolean setLong(LongPropertyKey key, long value)
+	{
+		this.verifyAccess();
+		return m_BaseObjectAdapter.setLong(key, value);
+	}
+	
+	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		this.verifyAccess();
+		return m_BaseObjectAdapter.setFloat(key, value);
+	}
+	
+	
 	/**
 	 * Set read-only property.
 	 * @param key Property key.
@@ -417,6 +706,54 @@ public abstract class BaseThread extends Thread implements BaseObject, HandlerOb
 	}
 	
 	
+	/**
+	 * Set read-only {@code boolean} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(BooleanPropertyKey key, boolean value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code int} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(IntPropertyKey key, int value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code long} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(LongPropertyKey key, long value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
+	/**
+	 * Set read-only {@code float} property.
+	 * @param key Property key.
+	 * @param value New value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(FloatPropertyKey key, float value)
+	{
+		return m_BaseObjectAdapter.setReadOnly(key, value);
+	}
+	
+	
 	// Start thread.
 	@Override
 	public synchronized void start()
@@ -1,10 +1,9 @@
 package com.oneplus.base;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import android.util.Log;
-import android.util.SparseArray;
 
 /**
  * Basic implementation of {@link BaseObject} interface.
@@ -37,22 +36,37 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	public static final int LOG_EVENT_HANDLER = 0x400;
 	
 	
+	// Constants
+	private static final Object[] EMPTY_CALLBACKS = new Object[0];
+	private static final Event[][] EMPTY_EVENT_TABLE = new Event[0][];
+	private static final EventHandler<?>[] EMPTY_HANDLERS = new EventHandler<?>[0];
+	private static final long[] EMPTY_OWNER_TYPE_BITS = new long[0];
+	private static final Property[][] EMPTY_PROPERTY_TABLE = new Property[0][];
+	
+	
 	// Private fields
-	private final SparseArray<Event> m_Events = new SparseArray<>();
+	private Event[][] m_Events = EMPTY_EVENT_TABLE;
 	private volatile boolean m_IsReleased;
-	private final SparseArray<Property> m_Properties = new SparseArray<>();
+	private volatile long[] m_OwnerTypeBits = EMPTY_OWNER_TYPE_BITS;
+	private ArrayList<Property> m_PendingProperties;
+	private Property[][] m_Properties = EMPTY_PROPERTY_TABLE;
+	private int m_UpdateCounter;
 	
 	
 	// Class for property.
 	private final static class Property
 	{
-		public List<PropertyChangedCallback<?>> addingCallbacks;
-		public List<PropertyChangedCallback<?>> callbacks;
+		public Object[] callbacks = EMPTY_CALLBACKS;
+		public boolean hasPendingChange;
 		public volatile boolean hasValue;
 		public final PropertyKey<?> key;
 		public int logFlags;
-		public List<PropertyChangedCallback<?>> removingCallbacks;
-		public int updatingCounter;
+		public Object pendingNewValue;
+		public long pendingNewRawValue;
+		public Object pendingOldValue;
+		public long pendingOldRawValue;
+		public DispatchProfiler.Record profilerRecord;
+		public volatile long rawValue;
 		public volatile Object value;
 		public int version;
 		
@@ -66,12 +80,10 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	// Class for event
 	private static final class Event
 	{
-		public List<EventHandler<?>> addingHandlers;
-		public List<EventHandler<?>> handlers;
+		public EventHandler<?>[] handlers = EMPTY_HANDLERS;
 		public final EventKey<?> key;
 		public int logFlags;
-		public int raisingCounter;
-		public List<EventHandler<?>> removingHandlers;
+		public DispatchProfiler.Record profilerRecord;
 		
 		public Event(EventKey<?> key)
 		{
@@ -100,6 +112,45 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	// Add property changed call-back.
 	@Override
 	public <TValue> void addCallback(PropertyKey<TValue> key, PropertyChangedCallback<TValue> callback)
+	{
+		this.addCallbackInternal(key, callback);
+	}
+	
+	
+	// Add property changed call-back.
+	@Override
+	public void addCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		this.addCallbackInternal(key, callback);
+	}
+	
+	
+	// Add property changed call-back.
+	@Override
+	public void addCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		this.addCallbackInternal(key, callback);
+	}
+	
+	
+	// Add property changed call-back.
+	@Override
+	public void addCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		this.addCallbackInternal(key, callback);
+	}
+	
+	
+	// Add property changed call-back.
+	@Override
+	public void addCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		this.addCallbackInternal(key, callback);
+	}
+	
+	
+	// Add property changed call-back.
+	private void addCallbackInternal(PropertyKey<?> key, Object callback)
 	{
 		// check parameter and state
 		if(callback == null)
@@ -109,36 +160,13 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 			return;
 		
 		// get property
-		Property property = m_Properties.get(key.id);
-		if(property == null)
-		{
-			property = new Property(key);
-			m_Properties.put(key.id, property);
-		}
+		Property property = this.obtainProperty(key);
 		
-		// add call-back
-		if(property.updatingCounter <= 0)
-		{
-			if(property.callbacks == null)
-				property.callbacks = new ArrayList<>();
-			if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-				this.printPropertyLog(Log.DEBUG, property, "Add call-back [" + property.callbacks.size() + "] " + callback);
-			property.callbacks.add(callback);
-		}
-		else
-		{
-			if(property.removingCallbacks != null && property.removingCallbacks.remove(callback))
-			{
-				if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-					this.printPropertyLog(Log.DEBUG, property, "Cancel deferred removing call-back " + callback);
-				return;
-			}
-			if(property.addingCallbacks == null)
-				property.addingCallbacks = new ArrayList<>();
-			if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-				this.printPropertyLog(Log.DEBUG, property, "Create deferred adding call-back " + callback);
-			property.addingCallbacks.add(callback);
-		}
+		// add call-back, call-backs being called keep using previous array
+		Object[] callbacks = property.callbacks;
+		if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
+			this.printPropertyLog(Log.DEBUG, property, "Add call-back [" + callbacks.length + "] " + callback);
+		property.callbacks = append(callbacks, callback);
 	}
 	
 	
@@ -154,36 +182,32 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 			return;
 		
 		// find event
-		Event event = m_Events.get(key.id);
-		if(event == null)
-		{
-			event = new Event(key);
-			m_Events.put(key.id, event);
-		}
+		Event event = this.obtainEvent(key);
 		
-		// add handler
-		if(event.raisingCounter <= 0)
-		{
-			if(event.handlers == null)
-				event.handlers = new ArrayList<>();
-			if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-				this.printEventLog(Log.DEBUG, key, "Add handler [" + event.handlers.size() + "] " + handler);
-			event.handlers.add(handler);
-		}
-		else
-		{
-			if(event.removingHandlers != null && event.removingHandlers.remove(handler))
-			{
-				if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-					this.printEventLog(Log.DEBUG, key, "Cancel deferred removing handler " + handler);
-				return;
-			}
-			if(event.addingHandlers == null)
-				event.addingHandlers = new ArrayList<>();
-			if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-				this.printEventLog(Log.DEBUG, key, "Create deferred adding handler " + handler);
-			event.addingHandlers.add(handler);
-		}
+		// add handler, handlers being called keep using previous array
+		EventHandler<?>[] handlers = event.handlers;
+		if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
+			this.printEventLog(Log.DEBUG, key, "Add handler [" + handlers.length + "] " + handler);
+		event.handlers = append(handlers, handler);
+	}
+	
+	
+	// Create new array with given element appended.
+	private static <T> T[] append(T[] array, T element)
+	{
+		T[] newArray = Arrays.copyOf(array, array.length + 1);
+		newArray[array.length] = element;
+		return newArray;
+	}
+	
+	
+	/**
+	 * Start updating properties. Property changed call-backs will be deferred until calling {@link #endUpdate()}, and will be called once for each changed property with its first old value and last new value.
+	 */
+	protected void beginUpdate()
+	{
+		this.verifyAccess();
+		++m_UpdateCounter;
 	}
 	
 	
@@ -207,7 +231,7 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		this.verifyAccess();
 		
 		// enable logs
-		Event event = m_Events.get(key.id);
+		Event event = this.findEvent(key);
 		if(event != null)
 			event.logFlags &= ~logs;
 	}
@@ -224,7 +248,7 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		this.verifyAccess();
 		
 		// enable logs
-		Property property = m_Properties.get(key.id);
+		Property property = this.findProperty(key);
 		if(property != null)
 			property.logFlags &= ~logs;
 	}
@@ -241,12 +265,7 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		this.verifyAccess();
 		
 		// enable logs
-		Event event = m_Events.get(key.id);
-		if(event == null)
-		{
-			event = new Event(key);
-			m_Events.put(key.id, event);
-		}
+		Event event = this.obtainEvent(key);
 		event.logFlags |= logs;
 	}
 	
@@ -262,13 +281,96 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		this.verifyAccess();
 		
 		// enable logs
-		Property property = m_Properties.get(key.id);
-		if(property == null)
+		Property property = this.obtainProperty(key);
+		property.logFlags |= logs;
+	}
+	
+	
+	/**
+	 * Complete updating properties started by {@link #beginUpdate()}. Deferred property changed call-backs will be called in the order of first change when the outermost update completes.
+	 */
+	protected void endUpdate()
+	{
+		// check state
+		this.verifyAccess();
+		if(m_UpdateCounter <= 0)
+			throw new IllegalStateException("No matched beginUpdate() call.");
+		if(--m_UpdateCounter > 0)
+			return;
+		
+		// get pending properties
+		ArrayList<Property> pendingProperties = m_PendingProperties;
+		if(pendingProperties == null)
+			return;
+		m_PendingProperties = null;
+		
+		// notify changes, changes made by call-backs to pending properties will be merged
+		int index = 0;
+		int count = pendingProperties.size();
+		try
 		{
-			property = new Property(key);
-			m_Properties.put(key.id, property);
+			for( ; index < count ; ++index)
+			{
+				Property property = pendingProperties.get(index);
+				property.hasPendingChange = false;
+				if(m_IsReleased)
+				{
+					property.pendingOldValue = null;
+					property.pendingNewValue = null;
+					continue;
+				}
+				if(property.key.isPrimitive)
+					this.notifyRawPropertyChanged(property, property.pendingOldRawValue, property.pendingNewRawValue);
+				else
+				{
+					Object oldValue = property.pendingOldValue;
+					Object newValue = property.pendingNewValue;
+					property.pendingOldValue = null;
+					property.pendingNewValue = null;
+					this.notifyPropertyChanged(property, oldValue, newValue);
+				}
+			}
 		}
-		property.logFlags |= logs;
+		finally
+		{
+			// clear pending state of properties which are not notified because call-back throws, otherwise their changes will be deferred forever
+			for(int i = index + 1 ; i < count ; ++i)
+			{
+				Property property = pendingProperties.get(i);
+				Log.w(TAG, "endUpdate() - Drop pending change of " + property.key + " because call-back throws");
+				property.hasPendingChange = false;
+				property.pendingOldValue = null;
+				property.pendingNewValue = null;
+			}
+		}
+	}
+	
+	
+	// Find event by key.
+	private Event findEvent(EventKey<?> key)
+	{
+		Event[][] table = m_Events;
+		int ownerIndex = key.ownerIndex;
+		if(ownerIndex >= table.length)
+			return null;
+		Event[] events = table[ownerIndex];
+		if(events == null || key.slot >= events.length)
+			return null;
+		return events[key.slot];
+	}
+	
+	
+	// Find property by key.
+	private Property findProperty(PropertyKey<?> key)
+	{
+		Property[][] table = m_Properties;
+		int ownerIndex = key.ownerIndex;
+		if(ownerIndex >= table.length)
+			return null;
+		Property[] properties = table[ownerIndex];
+		if(properties == null || key.slot >= properties.length)
+			return null;
+		return properties[key.slot];
 	}
 	
 	
@@ -281,16 +383,78 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 			return (TValue)(Boolean)m_IsReleased;
 		else
 		{
-			Property property = m_Properties.get(key.id);
-			while(property != null && property.key != key)
-				property = m_Properties.get(key.id);
+			Property property = this.findProperty(key);
 			if(property != null && property.hasValue)
+			{
+				if(key.isPrimitive)
+					return (TValue)key.fromRawValue(property.rawValue);
 				return (TValue)property.value;
+			}
 			return key.defaultValue;
 		}
 	}
 	
 	
+	// Get boolean property value.
+	@Override
+	public boolean getBoolean(BooleanPropertyKey key)
+	{
+		return BooleanPropertyKey.fromRawValueBoolean(this.getRawValue(key));
+	}
+	
+	
+	// Get int property value.
+	@Override
+	public int getInt(IntPropertyKey key)
+	{
+		return IntPropertyKey.fromRawValueInt(this.getRawValue(key));
+	}
+	
+	
+	// Get long property value.
+	@Override
+	public long getLong(LongPropertyKey key)
+	{
+		return LongPropertyKey.fromRawValueLong(this.getRawValue(key));
+	}
+	
+	
+	// Get float property value.
+	@Override
+	public float getFloat(FloatPropertyKey key)
+	{
+		return FloatPropertyKey.fromRawValueFloat(this.getRawValue(key));
+	}
+	
+	
+	// Get profiler record of event.
+	private DispatchProfiler.Record getProfilerRecord(Event event)
+	{
+		if(event.profilerRecord == null)
+			event.profilerRecord = DispatchProfiler.createRecord(this.TAG, this.TAG + "@" + Integer.toHexString(System.identityHashCode(this)), event.key);
+		return event.profilerRecord;
+	}
+	
+	
+	// Get profiler record of property.
+	private DispatchProfiler.Record getProfilerRecord(Property property)
+	{
+		if(property.profilerRecord == null)
+			property.profilerRecord = DispatchProfiler.createRecord(this.TAG, this.TAG + "@" + Integer.toHexString(System.identityHashCode(this)), property.key);
+		return property.profilerRecord;
+	}
+	
+	
+	// Get raw value of primitive property.
+	private long getRawValue(PropertyKey<?> key)
+	{
+		Property property = this.findProperty(key);
+		if(property != null && property.hasValue)
+			return property.rawValue;
+		return key.defaultRawValue;
+	}
+	
+	
 	/**
 	 * Notify that value of given property has been changed.
 	 * @param key Property key.
@@ -300,14 +464,68 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	 */
 	protected <TValue> boolean notifyPropertyChanged(PropertyKey<TValue> key, TValue oldValue, TValue newValue)
 	{
+		if(key.isPrimitive)
+			return this.notifyRawPropertyChanged(key, key.toRawValue(oldValue), key.toRawValue(newValue));
 		this.verifyAccess();
-		Property property = m_Properties.get(key.id);
+		Property property = this.findProperty(key);
 		if(property != null)
 			return this.notifyPropertyChanged(property, oldValue, newValue);
 		return this.checkValueChanges(oldValue, newValue);
 	}
 	
 	
+	/**
+	 * Notify that value of given {@code boolean} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(BooleanPropertyKey key, boolean oldValue, boolean newValue)
+	{
+		return this.notifyRawPropertyChanged(key, BooleanPropertyKey.toRawValue(oldValue), BooleanPropertyKey.toRawValue(newValue));
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code int} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(IntPropertyKey key, int oldValue, int newValue)
+	{
+		return this.notifyRawPropertyChanged(key, IntPropertyKey.toRawValue(oldValue), IntPropertyKey.toRawValue(newValue));
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code long} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(LongPropertyKey key, long oldValue, long newValue)
+	{
+		return this.notifyRawPropertyChanged(key, LongPropertyKey.toRawValue(oldValue), LongPropertyKey.toRawValue(newValue));
+	}
+	
+	
+	/**
+	 * Notify that value of given {@code float} property has been changed.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean notifyPropertyChanged(FloatPropertyKey key, float oldValue, float newValue)
+	{
+		return this.notifyRawPropertyChanged(key, FloatPropertyKey.toRawValue(oldValue), FloatPropertyKey.toRawValue(newValue));
+	}
+	
+	
 	/**
 	 * Check whether there is at least one call-back added to property or not.
 	 * @param key Property key.
@@ -315,13 +533,10 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	 */
 	protected boolean hasCallbacks(PropertyKey<?> key)
 	{
-		Property property = m_Properties.get(key.id);
-		while(property != null && property.key != key)
-			property = m_Properties.get(key.id);
+		Property property = this.findProperty(key);
 		if(property == null)
 			return false;
-		List<PropertyChangedCallback<?>> callbacks = property.callbacks;
-		return (callbacks != null && !callbacks.isEmpty());
+		return (property.callbacks.length > 0);
 	}
 	
 	
@@ -332,13 +547,50 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	 */
 	protected boolean hasHandlers(EventKey<?> key)
 	{
-		Event event = m_Events.get(key.id);
-		while(event != null && event.key != key)
-			event = m_Events.get(key.id);
+		Event event = this.findEvent(key);
 		if(event == null)
 			return false;
-		List<EventHandler<?>> handlers = event.handlers;
-		return (handlers != null && !handlers.isEmpty());
+		return (event.handlers.length > 0);
+	}
+	
+	
+	// Find index of given element.
+	private static int indexOf(Object[] array, Object element)
+	{
+		for(int i = 0 ; i < array.length ; ++i)
+		{
+			if(element.equals(array[i]))
+				return i;
+		}
+		return -1;
+	}
+	
+	
+	/**
+	 * Check whether given type extends or implements owner type in given table, the result is cached by owner index.
+	 * @param ownerSlotTable Slot table of owner type.
+	 * @param type Type to check, it must be the same type for all calls on this object.
+	 * @return Whether given type is owned by owner type or not.
+	 */
+	final boolean isOwnedBy(OwnerSlotTable ownerSlotTable, Class<?> type)
+	{
+		// check cached result
+		int ownerIndex = ownerSlotTable.ownerIndex;
+		int wordIndex = (ownerIndex >> 6);
+		long mask = (1L << (ownerIndex & 63));
+		long[] bits = m_OwnerTypeBits;
+		if(wordIndex < bits.length && (bits[wordIndex] & mask) != 0)
+			return true;
+		
+		// check type
+		if(!ownerSlotTable.ownerType.isAssignableFrom(type))
+			return false;
+		
+		// cache result, bits may be lost on race but they will be checked again later
+		bits = Arrays.copyOf(bits, Math.max(bits.length, Math.max(wordIndex + 1, (OwnerSlotTable.getOwnerCount() + 63) >> 6)));
+		bits[wordIndex] |= mask;
+		m_OwnerTypeBits = bits;
+		return true;
 	}
 	
 	
@@ -353,95 +605,231 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		// update version
 		++property.version;
 		
-		// call-backs
-		boolean result = true;
+		// defer call-backs while updating
+		if(m_UpdateCounter > 0 || property.hasPendingChange)
+		{
+			if(!property.hasPendingChange)
+			{
+				property.pendingOldValue = oldValue;
+				this.pendPropertyChange(property);
+			}
+			property.pendingNewValue = newValue;
+			return true;
+		}
+		
+		// print log
 		int logFlags = property.logFlags;
-		boolean printCallbackChangeLog = ((logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0);
-		++property.updatingCounter;
-		try
+		if((logFlags & LOG_PROPERTY_CHANGE) != 0)
+			this.printPropertyLog(Log.DEBUG, property, oldValue + " -> " + newValue);
+		
+		// update profiler
+		DispatchProfiler.Record profilerRecord = null;
+		if(DispatchProfiler.ENABLED)
 		{
-			// print log
-			if((logFlags & LOG_PROPERTY_CHANGE) != 0)
-				this.printPropertyLog(Log.DEBUG, property, oldValue + " -> " + newValue);
-			
-			// call-back
-			List<PropertyChangedCallback<?>> callbacks = property.callbacks;
-			if(callbacks != null && !callbacks.isEmpty())
+			profilerRecord = this.getProfilerRecord(property);
+			DispatchProfiler.onDispatched(profilerRecord);
+		}
+		
+		// call-backs, added or removed call-backs take effect on next change
+		boolean result = true;
+		Object[] callbacks = property.callbacks;
+		if(callbacks.length > 0)
+		{
+			int version = property.version;
+			PropertyChangeEventArgs<?> e = PropertyChangeEventArgs.obtain(oldValue, newValue);
+			PropertyKey<?> key = property.key;
+			boolean printCallbackLog = ((logFlags & LOG_PROPERTY_CALLBACK) != 0);
+			for(int i = 0 ; i < callbacks.length ; ++i)
 			{
-				int version = property.version;
-				PropertyChangeEventArgs<?> e = PropertyChangeEventArgs.obtain(oldValue, newValue);
-				PropertyKey<?> key = property.key;
-				boolean printCallbackLog = ((logFlags & LOG_PROPERTY_CALLBACK) != 0);
-				for(int i = 0, count = callbacks.size() ; i < count ; ++i)
+				// call-back
+				PropertyChangedCallback callback = (PropertyChangedCallback)callbacks[i];
+				if(printCallbackLog)
+					this.printPropertyLog(Log.DEBUG, key, "Call [" + i + "] " + callback);
+				if(SubscriptionScope.ENABLE_LEAK_REPORT)
+					SubscriptionScope.checkLeak(TAG, key, callback);
+				long startTime = (DispatchProfiler.ENABLED ? System.nanoTime() : 0);
+				callback.onPropertyChanged(this, (PropertyKey)key, (PropertyChangeEventArgs)e);
+				if(DispatchProfiler.ENABLED)
+					DispatchProfiler.onHandlerCalled(profilerRecord, callback, startTime);
+				
+				// check version
+				if(version != property.version)
 				{
-					// call-back
-					PropertyChangedCallback<?> callback = callbacks.get(i);
-					if(printCallbackLog)
-						this.printPropertyLog(Log.DEBUG, key, "Call [" + i + "] " + callback);
-					callback.onPropertyChanged(this, (PropertyKey)key, (PropertyChangeEventArgs)e);
-					
-					// check version
-					if(version != property.version)
-					{
-						if((logFlags & LOG_PROPERTY_CHANGE) != 0)
-							this.printPropertyLog(Log.WARN, key, "Value changed after calling call-back [" + i + "] " + callback);
-						result = this.checkValueChanges(oldValue, this.get(key));
-						break;
-					}
+					if((logFlags & LOG_PROPERTY_CHANGE) != 0)
+						this.printPropertyLog(Log.WARN, key, "Value changed after calling call-back [" + i + "] " + callback);
+					result = this.checkValueChanges(oldValue, this.get(key));
+					break;
 				}
-				e.recycle();
 			}
-			
-			// complete
-			return result;
+			e.recycle();
 		}
-		finally
+		
+		// complete
+		return result;
+	}
+	
+	
+	// Notify that value of given primitive property has been changed.
+	private boolean notifyRawPropertyChanged(PropertyKey<?> key, long oldRawValue, long newRawValue)
+	{
+		this.verifyAccess();
+		Property property = this.findProperty(key);
+		if(property != null)
+			return this.notifyRawPropertyChanged(property, oldRawValue, newRawValue);
+		return (oldRawValue != newRawValue);
+	}
+	
+	
+	// Notify that value of given primitive property has been changed.
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private boolean notifyRawPropertyChanged(Property property, long oldRawValue, long newRawValue)
+	{
+		// check values
+		if(oldRawValue == newRawValue)
+			return false;
+		
+		// update version
+		++property.version;
+		
+		// defer call-backs while updating
+		if(m_UpdateCounter > 0 || property.hasPendingChange)
+		{
+			if(!property.hasPendingChange)
+			{
+				property.pendingOldRawValue = oldRawValue;
+				this.pendPropertyChange(property);
+			}
+			property.pendingNewRawValue = newRawValue;
+			return true;
+		}
+		
+		// print log
+		int logFlags = property.logFlags;
+		PropertyKey<?> key = property.key;
+		if((logFlags & LOG_PROPERTY_CHANGE) != 0)
+			this.printPropertyLog(Log.DEBUG, property, key.fromRawValue(oldRawValue) + " -> " + key.fromRawValue(newRawValue));
+		
+		// update profiler
+		DispatchProfiler.Record profilerRecord = null;
+		if(DispatchProfiler.ENABLED)
+		{
+			profilerRecord = this.getProfilerRecord(property);
+			DispatchProfiler.onDispatched(profilerRecord);
+		}
+		
+		// call-backs, added or removed call-backs take effect on next change
+		boolean result = true;
+		Object[] callbacks = property.callbacks;
+		if(callbacks.length > 0)
 		{
-			// restore state
-			--property.updatingCounter;
-			
-			// add/remove deferred call-backs
-			if(property.updatingCounter <= 0)
+			int version = property.version;
+			PropertyChangeEventArgs<?> e = null;
+			boolean printCallbackLog = ((logFlags & LOG_PROPERTY_CALLBACK) != 0);
+			for(int i = 0 ; i < callbacks.length ; ++i)
 			{
-				// remove call-backs
-				if(property.removingCallbacks != null)
+				// call-back
+				Object callback = callbacks[i];
+				if(printCallbackLog)
+					this.printPropertyLog(Log.DEBUG, key, "Call [" + i + "] " + callback);
+				if(SubscriptionScope.ENABLE_LEAK_REPORT)
+					SubscriptionScope.checkLeak(TAG, key, callback);
+				long startTime = (DispatchProfiler.ENABLED ? System.nanoTime() : 0);
+				if(!key.invokePrimitiveCallback(callback, this, oldRawValue, newRawValue))
 				{
-					if(property.callbacks != null)
-					{
-						for(int i = property.removingCallbacks.size() - 1 ; i >= 0 ; --i)
-						{
-							PropertyChangedCallback<?> callback = property.removingCallbacks.get(i);
-							int index = property.callbacks.indexOf(callback);
-							if(index >= 0)
-							{
-								if(printCallbackChangeLog)
-									this.printPropertyLog(Log.DEBUG, property, "Remove deferred removing call-back [" + index + "] " + callback);
-								property.callbacks.remove(index);
-							}
-						}
-					}
-					property.removingCallbacks = null;
+					if(e == null)
+						e = PropertyChangeEventArgs.obtain(key.fromRawValue(oldRawValue), key.fromRawValue(newRawValue));
+					((PropertyChangedCallback)callback).onPropertyChanged(this, (PropertyKey)key, (PropertyChangeEventArgs)e);
 				}
+				if(DispatchProfiler.ENABLED)
+					DispatchProfiler.onHandlerCalled(profilerRecord, callback, startTime);
 				
-				// add call-backs
-				if(property.addingCallbacks != null)
+				// check version
+				if(version != property.version)
 				{
-					if(!property.addingCallbacks.isEmpty())
-					{
-						if(property.callbacks == null)
-							property.callbacks = new ArrayList<>();
-						for(int i = 0, count = property.addingCallbacks.size() ; i < count ; ++i)
-						{
-							PropertyChangedCallback<?> callback = property.addingCallbacks.get(i);
-							if(printCallbackChangeLog)
-								this.printPropertyLog(Log.DEBUG, property, "Add deferred adding call-back [" + property.callbacks.size() + "] " + callback);
-							property.callbacks.add(callback);
-						}
-					}
-					property.addingCallbacks = null;
+					if((logFlags & LOG_PROPERTY_CHANGE) != 0)
+						this.printPropertyLog(Log.WARN, key, "Value changed after calling call-back [" + i + "] " + callback);
+					result = (oldRawValue != key.toRawValue(this.get(key)));
+					break;
 				}
 			}
+			if(e != null)
+				e.recycle();
+		}
+		
+		// complete
+		return result;
+	}
+	
+	
+	// Get event by key, create new one if needed.
+	private Event obtainEvent(EventKey<?> key)
+	{
+		// find event
+		Event event = this.findEvent(key);
+		if(event != null)
+			return event;
+		
+		// expand table
+		OwnerSlotTable ownerSlotTable = key.ownerSlotTable;
+		int ownerIndex = key.ownerIndex;
+		Event[][] table = m_Events;
+		if(ownerIndex >= table.length)
+		{
+			Event[][] newTable = new Event[Math.max(ownerIndex + 1, OwnerSlotTable.getOwnerCount())][];
+			System.arraycopy(table, 0, newTable, 0, table.length);
+			table = newTable;
+		}
+		Event[] events = table[ownerIndex];
+		if(events == null || key.slot >= events.length)
+		{
+			Event[] newEvents = new Event[Math.max(key.slot + 1, ownerSlotTable.getEventSlotCount())];
+			if(events != null)
+				System.arraycopy(events, 0, newEvents, 0, events.length);
+			events = newEvents;
+			table[ownerIndex] = events;
+		}
+		
+		// create event
+		event = new Event(key);
+		events[key.slot] = event;
+		m_Events = table;
+		return event;
+	}
+	
+	
+	// Get property by key, create new one if needed.
+	private Property obtainProperty(PropertyKey<?> key)
+	{
+		// find property
+		Property property = this.findProperty(key);
+		if(property != null)
+			return property;
+		
+		// expand table
+		OwnerSlotTable ownerSlotTable = key.ownerSlotTable;
+		int ownerIndex = key.ownerIndex;
+		Property[][] table = m_Properties;
+		if(ownerIndex >= table.length)
+		{
+			Property[][] newTable = new Property[Math.max(ownerIndex + 1, OwnerSlotTable.getOwnerCount())][];
+			System.arraycopy(table, 0, newTable, 0, table.length);
+			table = newTable;
 		}
+		Property[] properties = table[ownerIndex];
+		if(properties == null || key.slot >= properties.length)
+		{
+			Property[] newProperties = new Property[Math.max(key.slot + 1, ownerSlotTable.getPropertySlotCount())];
+			if(properties != null)
+				System.arraycopy(properties, 0, newProperties, 0, properties.length);
+			properties = newProperties;
+			table[ownerIndex] = properties;
+		}
+		
+		// create property
+		property = new Property(key);
+		properties[key.slot] = property;
+		m_Properties = table;
+		return property;
 	}
 	
 	
@@ -452,6 +840,16 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	{}
 	
 	
+	// Add property to pending list.
+	private void pendPropertyChange(Property property)
+	{
+		if(m_PendingProperties == null)
+			m_PendingProperties = new ArrayList<>();
+		m_PendingProperties.add(property);
+		property.hasPendingChange = true;
+	}
+	
+	
 	// Print event related log
 	private void printEventLog(int priority, EventKey<?> key, String message)
 	{
@@ -486,80 +884,39 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		if(m_IsReleased)
 			return;
 		
-		// raise event
-		Event event = m_Events.get(key.id);
+		// raise event, added or removed handlers take effect on next raising
+		Event event = this.findEvent(key);
 		if(event != null)
 		{
-			++event.raisingCounter;
 			int logFlags = event.logFlags;
-			try
+			boolean printRaiseLog = ((logFlags & LOG_EVENT_RAISE) != 0);
+			EventHandler[] handlers = event.handlers;
+			if(printRaiseLog)
+				this.printEventLog(Log.DEBUG, key, "Raise [start]");
+			DispatchProfiler.Record profilerRecord = null;
+			if(DispatchProfiler.ENABLED)
 			{
-				boolean printRaiseLog = ((logFlags & LOG_EVENT_RAISE) != 0);
-				List<EventHandler<?>> handlers = event.handlers;
-				if(printRaiseLog)
-					this.printEventLog(Log.DEBUG, key, "Raise [start]");
-				if(handlers != null && !handlers.isEmpty())
-				{
-					boolean printHandlerLog = ((logFlags & LOG_EVENT_HANDLER) != 0);
-					for(int i = 0, count = handlers.size() ; i < count ; ++i)
-					{
-						EventHandler handler = handlers.get(i);
-						if(printHandlerLog)
-							this.printEventLog(Log.DEBUG, key, "Call [" + i + "] " + handler);
-						handler.onEventReceived(this, key, e);
-					}
-				}
-				if(printRaiseLog)
-					this.printEventLog(Log.DEBUG, key, "Raise [end]");
+				profilerRecord = this.getProfilerRecord(event);
+				DispatchProfiler.onDispatched(profilerRecord);
 			}
-			finally
+			if(handlers.length > 0)
 			{
-				// restore state
-				--event.raisingCounter;
-				
-				// add/remove deferred handlers
-				if(event.raisingCounter <= 0)
+				boolean printHandlerLog = ((logFlags & LOG_EVENT_HANDLER) != 0);
+				for(int i = 0 ; i < handlers.length ; ++i)
 				{
-					// remove handlers
-					boolean printHandlerChangeLog = ((logFlags & LOG_EVENT_HANDLER_CHANGE) != 0);
-					if(event.removingHandlers != null)
-					{
-						if(event.handlers != null)
-						{
-							for(int i = event.removingHandlers.size() - 1 ; i >= 0 ; --i)
-							{
-								EventHandler<?> handler = event.removingHandlers.get(i);
-								int index = event.handlers.indexOf(handler);
-								if(index >= 0)
-								{
-									if(printHandlerChangeLog)
-										this.printEventLog(Log.DEBUG, key, "Remove deferred removing handler [" + index + "] " + handler);
-									event.handlers.remove(index);
-								}
-							}
-						}
-						event.removingHandlers = null;
-					}
-					
-					// add handlers
-					if(event.addingHandlers != null)
-					{
-						if(!event.addingHandlers.isEmpty())
-						{
-							if(event.handlers == null)
-								event.handlers = new ArrayList<>();
-							for(int i = 0, count = event.addingHandlers.size() ; i < count ; ++i)
-							{
-								EventHandler<?> handler = event.addingHandlers.get(i);
-								if(printHandlerChangeLog)
-									this.printEventLog(Log.DEBUG, key, "Add deferred adding handler [" + event.handlers.size() + "] " + handler);
-								event.handlers.add(handler);
-							}
-						}
-						event.addingHandlers = null;
-					}
+					EventHandler handler = handlers[i];
+					if(printHandlerLog)
+						this.printEventLog(Log.DEBUG, key, "Call [" + i + "] " + handler);
+					if(SubscriptionScope.ENABLE_LEAK_REPORT)
+						SubscriptionScope.checkLeak(TAG, key, handler);
+					long startTime = (DispatchProfiler.ENABLED ? System.nanoTime() : 0);
+					handler.onEventReceived(this, key, e);
+					if(DispatchProfiler.ENABLED)
+						DispatchProfiler.onHandlerCalled(profilerRecord, handler, startTime);
 				}
 			}
+			if(printRaiseLog)
+				this.printEventLog(Log.DEBUG, key, "Raise [end]");
 		}
 	}
 	
@@ -577,21 +934,43 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 		this.onRelease();
 		
 		// clear property changed call-backs
-		for(int i = m_Properties.size() - 1 ; i >= 0 ; --i)
+		for(int i = m_Properties.length - 1 ; i >= 0 ; --i)
 		{
-			Property property = m_Properties.valueAt(i);
-			property.addingCallbacks = null;
-			property.removingCallbacks = null;
-			property.callbacks = null;
+			Property[] properties = m_Properties[i];
+			if(properties == null)
+				continue;
+			for(int j = properties.length - 1 ; j >= 0 ; --j)
+			{
+				Property property = properties[j];
+				if(property == null)
+					continue;
+				property.callbacks = EMPTY_CALLBACKS;
+				if(DispatchProfiler.ENABLED)
+				{
+					DispatchProfiler.releaseRecord(property.profilerRecord);
+					property.profilerRecord = null;
+				}
+			}
 		}
 		
 		// clear event handlers
-		for(int i = m_Events.size() - 1 ; i >= 0 ; --i)
+		for(int i = m_Events.length - 1 ; i >= 0 ; --i)
 		{
-			Event event = m_Events.valueAt(i);
-			event.addingHandlers = null;
-			event.removingHandlers = null;
-			event.handlers = null;
+			Event[] events = m_Events[i];
+			if(events == null)
+				continue;
+			for(int j = events.length - 1 ; j >= 0 ; --j)
+			{
+				Event event = events[j];
+				if(event == null)
+					continue;
+				event.handlers = EMPTY_HANDLERS;
+				if(DispatchProfiler.ENABLED)
+				{
+					DispatchProfiler.releaseRecord(event.profilerRecord);
+					event.profilerRecord = null;
+				}
+			}
 		}
 		
 		// update state
@@ -599,9 +978,57 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	}
 	
 	
+	// Create new array with element at given index removed.
+	private static <T> T[] remove(T[] array, int index)
+	{
+		T[] newArray = Arrays.copyOf(array, array.length - 1);
+		System.arraycopy(array, index + 1, newArray, index, array.length - index - 1);
+		return newArray;
+	}
+	
+	
 	// Remove property changed call-back
 	@Override
 	public <TValue> void removeCallback(PropertyKey<TValue> key, PropertyChangedCallback<TValue> callback)
+	{
+		this.removeCallbackInternal(key, callback);
+	}
+	
+	
+	// Remove property changed call-back
+	@Override
+	public void removeCallback(BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		this.removeCallbackInternal(key, callback);
+	}
+	
+	
+	// Remove property changed call-back
+	@Override
+	public void removeCallback(IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		this.removeCallbackInternal(key, callback);
+	}
+	
+	
+	// Remove property changed call-back
+	@Override
+	public void removeCallback(LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		this.removeCallbackInternal(key, callback);
+	}
+	
+	
+	// Remove property changed call-back
+	@Override
+	public void removeCallback(FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		this.removeCallbackInternal(key, callback);
+	}
+	
+	
+	// Remove property changed call-back
+	private void removeCallbackInternal(PropertyKey<?> key, Object callback)
 	{
 		// check parameter and state
 		if(callback == null)
@@ -611,37 +1038,18 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 			return;
 		
 		// get property
-		Property property = m_Properties.get(key.id);
+		Property property = this.findProperty(key);
 		if(property == null)
 			return;
 		
-		// remove call-back
-		if(property.updatingCounter <= 0)
-		{
-			if(property.callbacks != null)
-			{
-				int index = property.callbacks.indexOf(callback);
-				if(index >= 0)
-				{
-					if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-						this.printPropertyLog(Log.DEBUG, property, "Remove call-back [" + index + "] " + callback);
-					property.callbacks.remove(index);
-				}
-			}
-		}
-		else
+		// remove call-back, call-backs being called keep using previous array
+		Object[] callbacks = property.callbacks;
+		int index = indexOf(callbacks, callback);
+		if(index >= 0)
 		{
-			if(property.addingCallbacks != null && property.addingCallbacks.remove(callback))
-			{
-				if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-					this.printPropertyLog(Log.DEBUG, property, "Cancel deferred adding call-back " + callback);
-				return;
-			}
-			if(property.removingCallbacks == null)
-				property.removingCallbacks = new ArrayList<>();
 			if((property.logFlags & LOG_PROPERTY_CALLBACK_CHANGE) != 0)
-				this.printPropertyLog(Log.DEBUG, property, "Create deferred removing call-back " + callback);
-			property.removingCallbacks.add(callback);
+				this.printPropertyLog(Log.DEBUG, property, "Remove call-back [" + index + "] " + callback);
+			property.callbacks = (callbacks.length > 1 ? remove(callbacks, index) : EMPTY_CALLBACKS);
 		}
 	}
 	
@@ -656,37 +1064,18 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 			return;
 		
 		// find event
-		Event event = m_Events.get(key.id);
+		Event event = this.findEvent(key);
 		if(event == null)
 			return;
 		
-		// remove handler
-		if(event.raisingCounter <= 0)
-		{
-			if(event.handlers != null)
-			{
-				int index = event.handlers.indexOf(handler);
-				if(index >= 0)
-				{
-					if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-						this.printEventLog(Log.DEBUG, key, "Remove handler [" + index + "] " + handler);
-					event.handlers.remove(index);
-				}
-			}
-		}
-		else
+		// remove handler, handlers being called keep using previous array
+		EventHandler<?>[] handlers = event.handlers;
+		int index = indexOf(handlers, handler);
+		if(index >= 0)
 		{
-			if(event.addingHandlers != null && event.addingHandlers.remove(handler))
-			{
-				if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-					this.printEventLog(Log.DEBUG, key, "Cancel deferred adding handler " + handler);
-				return;
-			}
-			if(event.removingHandlers == null)
-				event.removingHandlers = new ArrayList<>();
 			if((event.logFlags & LOG_EVENT_HANDLER_CHANGE) != 0)
-				this.printEventLog(Log.DEBUG, key, "Create deferred removing handler " + handler);
-			event.removingHandlers.add(handler);
+				this.printEventLog(Log.DEBUG, key, "Remove handler [" + index + "] " + handler);
+			event.handlers = (handlers.length > 1 ? remove(handlers, index) : EMPTY_HANDLERS);
 		}
 	}
 	
@@ -701,25 +1090,61 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	}
 	
 	
+	// Set boolean property value
+	@Override
+	public boolean setBoolean(BooleanPropertyKey key, boolean value)
+	{
+		if(key.isReadOnly())
+			throw new RuntimeException("Property " + key + " is read-only.");
+		return this.setRawInternal(key, BooleanPropertyKey.toRawValue(value));
+	}
+	
+	
+	// Set int property value
+	@Override
+	public boolean setInt(IntPropertyKey key, int value)
+	{
+		if(key.isReadOnly())
+			throw new RuntimeException("Property " + key + " is read-only.");
+		return this.setRawInternal(key, IntPropertyKey.toRawValue(value));
+	}
+	
+	
+	// Set long property value
+	@Override
+	public boolean setLong(LongPropertyKey key, long value)
+	{
+		if(key.isReadOnly())
+			throw new RuntimeException("Property " + key + " is read-only.");
+		return this.setRawInternal(key, LongPropertyKey.toRawValue(value));
+	}
+	
+	
+	// Set float property value
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key.isReadOnly())
+			throw new RuntimeException("Property " + key + " is read-only.");
+		return this.setRawInternal(key, FloatPropertyKey.toRawValue(value));
+	}
+	
+	
 	// Set property value
 	@SuppressWarnings("unchecked")
 	private <TValue> boolean setInternal(PropertyKey<TValue> key, TValue value)
 	{
+		// check primitive property
+		if(key.isPrimitive)
+			return this.setRawInternal(key, key.toRawValue(value));
+		
 		// check key
 		this.verifyProperty(key);
 		
 		// find property
 		this.verifyAccess();
-		TValue oldValue;
-		Property property = m_Properties.get(key.id);
-		if(property != null)
-			oldValue = (TValue)(property.hasValue ? property.value : property.key.defaultValue);
-		else
-		{
-			property = new Property(key);
-			m_Properties.put(key.id, property);
-			oldValue = key.defaultValue;
-		}
+		Property property = this.obtainProperty(key);
+		TValue oldValue = (TValue)(property.hasValue ? property.value : key.defaultValue);
 		
 		// set value
 		property.hasValue = true;
@@ -730,6 +1155,26 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	}
 	
 	
+	// Set primitive property value
+	private boolean setRawInternal(PropertyKey<?> key, long rawValue)
+	{
+		// check key
+		this.verifyProperty(key);
+		
+		// find property
+		this.verifyAccess();
+		Property property = this.obtainProperty(key);
+		long oldRawValue = (property.hasValue ? property.rawValue : key.defaultRawValue);
+		
+		// set value
+		property.hasValue = true;
+		property.rawValue = rawValue;
+		
+		// notify change
+		return this.notifyRawPropertyChanged(property, oldRawValue, rawValue);
+	}
+	
+	
 	/**
 	 * Set read-only property value.
 	 * @param key Property key.
@@ -746,13 +1191,69 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	}
 	
 	
+	/**
+	 * Set read-only {@code boolean} property value.
+	 * @param key Property key.
+	 * @param value New value to set.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(BooleanPropertyKey key, boolean value)
+	{
+		if(!key.isReadOnly())
+			return this.setBoolean(key, value);
+		return this.setRawInternal(key, BooleanPropertyKey.toRawValue(value));
+	}
+	
+	
+	/**
+	 * Set read-only {@code int} property value.
+	 * @param key Property key.
+	 * @param value New value to set.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(IntPropertyKey key, int value)
+	{
+		if(!key.isReadOnly())
+			return this.setInt(key, value);
+		return this.setRawInternal(key, IntPropertyKey.toRawValue(value));
+	}
+	
+	
+	/**
+	 * Set read-only {@code long} property value.
+	 * @param key Property key.
+	 * @param value New value to set.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(LongPropertyKey key, long value)
+	{
+		if(!key.isReadOnly())
+			return this.setLong(key, value);
+		return this.setRawInternal(key, LongPropertyKey.toRawValue(value));
+	}
+	
+	
+	/**
+	 * Set read-only {@code float} property value.
+	 * @param key Property key.
+	 * @param value New value to set.
+	 * @return Whether property value changes or not.
+	 */
+	protected boolean setReadOnly(FloatPropertyKey key, float value)
+	{
+		if(!key.isReadOnly())
+			return this.setFloat(key, value);
+		return this.setRawInternal(key, FloatPropertyKey.toRawValue(value));
+	}
+	
+	
 	/**
 	 * Throws exception if given event key is invalid.
 	 * @param key Event key to check.
 	 */
 	protected void verifyEvent(EventKey<?> key)
 	{
-		if(!key.ownerType.isAssignableFrom(this.getClass()))
+		if(!this.isOwnedBy(key.ownerSlotTable, this.getClass()))
 			throw new IllegalArgumentException("Event " + key + " is not owned by type " + this.getClass() + ".");
 	}
 	
@@ -763,7 +1264,7 @@ public abstract class BasicBaseObject extends BasicThreadDependentObject impleme
 	 */
 	protected void verifyProperty(PropertyKey<?> key)
 	{
-		if(!key.ownerType.isAssignableFrom(this.getClass()))
+		if(!this.isOwnedBy(key.ownerSlotTable, this.getClass()))
 			throw new IllegalArgumentException("Property " + key + " is not owned by type " + this.getClass() + ".");
 	}
 	
@@ -0,0 +1,86 @@
+package com.oneplus.base;
+
+/**
+ * Key to represent a property with {@code boolean} value, which can be accessed without boxing.
+ */
+public final class BooleanPropertyKey extends PropertyKey<Boolean>
+{
+	/**
+	 * Default property value.
+	 */
+	public final boolean defaultBooleanValue;
+	
+	
+	/**
+	 * Initialize new BooleanPropertyKey instance with {@link #FLAG_NOT_NULL FLAG_NOT_NULL} | {@link #FLAG_READONLY FLAG_READONLY} flags.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param defaultValue Default property value.
+	 */
+	public BooleanPropertyKey(String name, Class<? extends PropertySource> ownerType, boolean defaultValue)
+	{
+		this(name, ownerType, FLAG_NOT_NULL | FLAG_READONLY, defaultValue);
+	}
+	
+	
+	/**
+	 * Initialize new BooleanPropertyKey instance.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param flags Property flags, {@link #FLAG_NOT_NULL FLAG_NOT_NULL} is always applied:
+	 * <ul>
+	 *   <li>{@link #FLAG_READONLY FLAG_READONLY}</li>
+	 * </ul>
+	 * @param defaultValue Default property value.
+	 */
+	public BooleanPropertyKey(String name, Class<? extends PropertySource> ownerType, int flags, boolean defaultValue)
+	{
+		super(name, Boolean.class, ownerType, (flags | FLAG_NOT_NULL), defaultValue, true, toRawValue(defaultValue));
+		this.defaultBooleanValue = defaultValue;
+	}
+	
+	
+	// Convert raw value to primitive value.
+	static boolean fromRawValueBoolean(long rawValue)
+	{
+		return (rawValue != 0);
+	}
+	
+	
+	// Convert raw primitive value to boxed value.
+	@Override
+	Object fromRawValue(long rawValue)
+	{
+		return fromRawValueBoolean(rawValue);
+	}
+	
+	
+	// Call primitive call-back.
+	@Override
+	boolean invokePrimitiveCallback(Object callback, PropertySource source, long oldRawValue, long newRawValue)
+	{
+		if(callback instanceof BooleanPropertyChangedCallback)
+		{
+			((BooleanPropertyChangedCallback)callback).onPropertyChanged(source, this, fromRawValueBoolean(oldRawValue), fromRawValueBoolean(newRawValue));
+			return true;
+		}
+		return false;
+	}
+	
+	
+	// Convert primitive value to raw value.
+	static long toRawValue(boolean value)
+	{
+		return (value ? 1 : 0);
+	}
+	
+	
+	// Convert boxed value to raw primitive value.
+	@Override
+	long toRawValue(Object value)
+	{
+		if(value == null)
+			throw new IllegalArgumentException("Property " + this + " cannot be null.");
+		return toRawValue(((Boolean)value).booleanValue());
+	}
+}
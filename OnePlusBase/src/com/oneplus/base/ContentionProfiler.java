@@ -0,0 +1,217 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profiler of lock acquisitions on hot spots. Acquisition which waits longer than threshold is treated as contended.
+ */
+public final class ContentionProfiler
+{
+	/**
+	 * Whether profiler is enabled or not.
+	 */
+	public static final boolean ENABLED = false;
+	/**
+	 * Minimum waiting time in nanoseconds to treat an acquisition as contended.
+	 */
+	public static final long CONTENTION_THRESHOLD = 10000;
+	
+	
+	// Private static fields
+	private static final ArrayList<Site> m_Sites = new ArrayList<>();
+	
+	
+	/**
+	 * Profiling record of single lock site.
+	 */
+	public static final class Site
+	{
+		/**
+		 * Name of site.
+		 */
+		public final String name;
+		
+		// Private fields
+		private final AtomicLong m_AcquisitionCount = new AtomicLong();
+		private final AtomicLong m_BlockedTime = new AtomicLong();
+		private final AtomicLong m_ContendedCount = new AtomicLong();
+		private volatile long m_MaxBlockedTime;
+		
+		// Constructor
+		private Site(String name)
+		{
+			this.name = name;
+		}
+		
+		/**
+		 * Get number of acquisitions.
+		 * @return Number of acquisitions.
+		 */
+		public long getAcquisitionCount()
+		{
+			return m_AcquisitionCount.get();
+		}
+		
+		/**
+		 * Get cumulative waiting time of contended acquisitions.
+		 * @return Time in nanoseconds.
+		 */
+		public long getBlockedTime()
+		{
+			return m_BlockedTime.get();
+		}
+		
+		/**
+		 * Get number of contended acquisitions.
+		 * @return Number of contended acquisitions.
+		 */
+		public long getContendedCount()
+		{
+			return m_ContendedCount.get();
+		}
+		
+		/**
+		 * Get maximum waiting time of single acquisition.
+		 * @return Time in nanoseconds.
+		 */
+		public long getMaxBlockedTime()
+		{
+			return m_MaxBlockedTime;
+		}
+	}
+	
+	
+	// Comparator to sort sites by blocked time.
+	private static final Comparator<Site> SITE_COMPARATOR = new Comparator<Site>()
+	{
+		@Override
+		public int compare(Site lhs, Site rhs)
+		{
+			long lhsTime = lhs.m_BlockedTime.get();
+			long rhsTime = rhs.m_BlockedTime.get();
+			if(lhsTime != rhsTime)
+				return (lhsTime > rhsTime ? -1 : 1);
+			long lhsCount = lhs.m_ContendedCount.get();
+			long rhsCount = rhs.m_ContendedCount.get();
+			return (lhsCount > rhsCount ? -1 : (lhsCount < rhsCount ? 1 : 0));
+		}
+	};
+	
+	
+	// Constructor
+	private ContentionProfiler()
+	{}
+	
+	
+	/**
+	 * Create new site. Site should be created once and kept in static field.
+	 * @param name Name of site.
+	 * @return New site.
+	 */
+	public static Site createSite(String name)
+	{
+		Site site = new Site(name);
+		synchronized(m_Sites)
+		{
+			m_Sites.add(site);
+		}
+		return site;
+	}
+	
+	
+	/**
+	 * Print profiling snapshot in text format.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		writer.println("Contention profile (enabled : " + ENABLED + ", threshold : " + (CONTENTION_THRESHOLD / 1000) + " us)");
+		writer.println("  Site, Acquisitions, Contended, Blocked time (us), Max blocked time (us)");
+		for(Site site : getSites())
+		{
+			writer.println("  " + site.name
+					+ ", " + site.m_AcquisitionCount.get()
+					+ ", " + site.m_ContendedCount.get()
+					+ ", " + (site.m_BlockedTime.get() / 1000)
+					+ ", " + (site.m_MaxBlockedTime / 1000));
+		}
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Get all sites sorted by cumulative blocked time.
+	 * @return List of sites.
+	 */
+	public static List<Site> getSites()
+	{
+		ArrayList<Site> sites;
+		synchronized(m_Sites)
+		{
+			sites = new ArrayList<>(m_Sites);
+		}
+		Collections.sort(sites, SITE_COMPARATOR);
+		return sites;
+	}
+	
+	
+	/**
+	 * Called when a lock-free operation is accessed.
+	 * @param site Site of operation.
+	 * @param isContended Whether operation lost a race with other thread and needed to retry or not.
+	 */
+	public static void onAccessed(Site site, boolean isContended)
+	{
+		site.m_AcquisitionCount.incrementAndGet();
+		if(isContended)
+			site.m_ContendedCount.incrementAndGet();
+	}
+	
+	
+	/**
+	 * Called after acquiring lock.
+	 * @param site Site of lock.
+	 * @param startTime Time before acquiring lock, got from {@link System#nanoTime()}.
+	 */
+	public static void onAcquired(Site site, long startTime)
+	{
+		long time = (System.nanoTime() - startTime);
+		site.m_AcquisitionCount.incrementAndGet();
+		if(time >= CONTENTION_THRESHOLD)
+			onContended(site, time);
+	}
+	
+	
+	// Record contended acquisition.
+	private static void onContended(Site site, long time)
+	{
+		site.m_ContendedCount.incrementAndGet();
+		site.m_BlockedTime.addAndGet(time);
+		if(time > site.m_MaxBlockedTime)
+			site.m_MaxBlockedTime = time;
+	}
+	
+	
+	/**
+	 * Clear all profiling data.
+	 */
+	public static void reset()
+	{
+		synchronized(m_Sites)
+		{
+			for(int i = m_Sites.size() - 1 ; i >= 0 ; --i)
+			{
+				Site site = m_Sites.get(i);
+				site.m_AcquisitionCount.set(0);
+				site.m_BlockedTime.set(0);
+				site.m_ContendedCount.set(0);
+				site.m_MaxBlockedTime = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,407 @@
+package com.oneplus.base;
+
+/**
+ * Recyclable command to perform operation in thread of a {@link HandlerObject} without allocating call-back objects.
+ */
+public final class CrossThreadCommand implements RecyclableObject, Runnable
+{
+	/**
+	 * Maximum number of object arguments.
+	 */
+	public static final int MAX_OBJECT_ARG_COUNT = 3;
+	
+	
+	// Constants
+	private static final String TAG = "CrossThreadCommand";
+	private static final int POOL_SIZE = 16;
+	
+	
+	// Private static fields
+	private static final ObjectPool<CrossThreadCommand> POOL = new ObjectPool<>("CrossThreadCommand", POOL_SIZE, new ObjectPool.Factory<CrossThreadCommand>()
+	{
+		@Override
+		public CrossThreadCommand create()
+		{
+			return new CrossThreadCommand();
+		}
+	});
+	
+	
+	// Private fields
+	private int m_Arg1;
+	private int m_Arg2;
+	private boolean m_IsAbandoned;
+	private boolean m_IsCompleted;
+	private boolean m_IsDetached;
+	private volatile boolean m_IsFreeInstance;
+	private boolean m_IsPerforming;
+	private boolean m_IsWaiting;
+	private final Object[] m_ObjectArgs = new Object[MAX_OBJECT_ARG_COUNT];
+	private Performer m_Performer;
+	private BaseThread m_QueuedThread;
+	private Object m_Result;
+	private int m_What;
+	
+	
+	/**
+	 * Object which performs commands.
+	 */
+	public interface Performer
+	{
+		/**
+		 * Perform command in target thread. Command completes after returning unless {@link CrossThreadCommand#detach()} is called.
+		 * @param command Command to perform.
+		 */
+		void performCommand(CrossThreadCommand command);
+	}
+	
+	
+	// Constructor
+	private CrossThreadCommand()
+	{}
+	
+	
+	/**
+	 * Complete command with given result, waiting thread will be notified.
+	 * @param result Result.
+	 */
+	public void complete(Object result)
+	{
+		synchronized(this)
+		{
+			if(m_IsCompleted)
+				return;
+			m_IsCompleted = true;
+			m_Result = result;
+			if(m_IsPerforming)
+				return;
+			if(m_IsWaiting && !m_IsAbandoned)
+			{
+				this.notifyAll();
+				return;
+			}
+		}
+		this.recycleInternal();
+	}
+	
+	
+	/**
+	 * Prevent command from completing after returning from {@link Performer#performCommand(CrossThreadCommand)}, {@link #complete(Object)} needs to be called later.
+	 */
+	public synchronized void detach()
+	{
+		m_IsDetached = true;
+	}
+	
+	
+	/**
+	 * Get first integer argument.
+	 * @return Argument.
+	 */
+	public int getArg1()
+	{
+		this.verifyState();
+		return m_Arg1;
+	}
+	
+	
+	/**
+	 * Get second integer argument.
+	 * @return Argument.
+	 */
+	public int getArg2()
+	{
+		this.verifyState();
+		return m_Arg2;
+	}
+	
+	
+	/**
+	 * Get object argument.
+	 * @param index Argument index, from 0 to {@link #MAX_OBJECT_ARG_COUNT} - 1.
+	 * @return Argument.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getObjectArg(int index)
+	{
+		this.verifyState();
+		return (T)m_ObjectArgs[index];
+	}
+	
+	
+	/**
+	 * Get result set by {@link #complete(Object)}.
+	 * @return Result.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T getResult()
+	{
+		this.verifyState();
+		return (T)m_Result;
+	}
+	
+	
+	/**
+	 * Get command type.
+	 * @return Command type.
+	 */
+	public int getWhat()
+	{
+		this.verifyState();
+		return m_What;
+	}
+	
+	
+	/**
+	 * Obtain a command from pool.
+	 * @param performer Object to perform command.
+	 * @param what Command type.
+	 * @return Command.
+	 */
+	public static CrossThreadCommand obtain(Performer performer, int what)
+	{
+		return obtain(performer, what, 0, 0, null, null, null);
+	}
+	
+	
+	/**
+	 * Obtain a command from pool.
+	 * @param performer Object to perform command.
+	 * @param what Command type.
+	 * @param obj Object argument.
+	 * @return Command.
+	 */
+	public static CrossThreadCommand obtain(Performer performer, int what, Object obj)
+	{
+		return obtain(performer, what, 0, 0, obj, null, null);
+	}
+	
+	
+	/**
+	 * Obtain a command from pool.
+	 * @param performer Object to perform command.
+	 * @param what Command type.
+	 * @param arg1 First integer argument.
+	 * @param arg2 Second integer argument.
+	 * @param obj1 First object argument.
+	 * @param obj2 Second object argument.
+	 * @param obj3 Third object argument.
+	 * @return Command.
+	 */
+	public static CrossThreadCommand obtain(Performer performer, int what, int arg1, int arg2, Object obj1, Object obj2, Object obj3)
+	{
+		if(performer == null)
+			throw new IllegalArgumentException("No performer.");
+		CrossThreadCommand command = POOL.obtain();
+		command.m_IsFreeInstance = false;
+		command.m_Performer = performer;
+		command.m_What = what;
+		command.m_Arg1 = arg1;
+		command.m_Arg2 = arg2;
+		command.m_ObjectArgs[0] = obj1;
+		command.m_ObjectArgs[1] = obj2;
+		command.m_ObjectArgs[2] = obj3;
+		return command;
+	}
+	
+	
+	// Post to thread of given object, commands queued on BaseThread are counted to keep order with commands sent to lanes.
+	private boolean post(HandlerObject target, ThreadLane lane)
+	{
+		BaseThread thread = (target instanceof BaseThread ? (BaseThread)target : null);
+		if(thread != null)
+		{
+			synchronized(this)
+			{
+				m_QueuedThread = thread;
+			}
+			thread.queuedCommandCount.incrementAndGet();
+		}
+		if(lane != null ? HandlerUtils.post(target, lane, this) : HandlerUtils.post(target, this))
+			return true;
+		if(thread != null)
+		{
+			synchronized(this)
+			{
+				m_QueuedThread = null;
+			}
+			thread.queuedCommandCount.decrementAndGet();
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * Recycle command. Command which is still being waited by a timed-out thread will be recycled after completion.
+	 */
+	@Override
+	public void recycle()
+	{
+		synchronized(this)
+		{
+			if(m_IsFreeInstance)
+			{
+				if(ObjectPool.ENABLE_RECYCLING_CHECK)
+					throw new IllegalStateException("Instance has already been recycled.");
+				return;
+			}
+			if(m_IsWaiting && !m_IsCompleted)
+			{
+				m_IsAbandoned = true;
+				return;
+			}
+		}
+		this.recycleInternal();
+	}
+	
+	
+	// Put back to pool.
+	private void recycleInternal()
+	{
+		synchronized(this)
+		{
+			m_Performer = null;
+			m_What = 0;
+			m_Arg1 = 0;
+			m_Arg2 = 0;
+			m_ObjectArgs[0] = null;
+			m_ObjectArgs[1] = null;
+			m_ObjectArgs[2] = null;
+			m_Result = null;
+			m_IsAbandoned = false;
+			m_IsCompleted = false;
+			m_IsDetached = false;
+			m_IsPerforming = false;
+			m_IsWaiting = false;
+			m_IsFreeInstance = true;
+		}
+		POOL.recycle(this);
+	}
+	
+	
+	// Perform command in target thread.
+	@Override
+	public void run()
+	{
+		// perform
+		Performer performer;
+		BaseThread queuedThread;
+		synchronized(this)
+		{
+			m_IsPerforming = true;
+			performer = m_Performer;
+			queuedThread = m_QueuedThread;
+			m_QueuedThread = null;
+		}
+		if(queuedThread != null)
+			queuedThread.queuedCommandCount.decrementAndGet();
+		boolean hasError = false;
+		try
+		{
+			performer.performCommand(this);
+		}
+		catch(Throwable ex)
+		{
+			Log.e(TAG, "run() - Error occurred while performing command " + m_What, ex);
+			hasError = true;
+		}
+		
+		// complete
+		synchronized(this)
+		{
+			m_IsPerforming = false;
+			if(!m_IsCompleted)
+			{
+				if(m_IsDetached && !hasError)
+					return;
+				m_IsCompleted = true;
+			}
+			if(m_IsWaiting && !m_IsAbandoned)
+			{
+				this.notifyAll();
+				return;
+			}
+		}
+		this.recycleInternal();
+	}
+	
+	
+	/**
+	 * Send command to thread of given object, command will be recycled after completion.
+	 * @param target Target {@link HandlerObject}.
+	 * @return Whether command is sent successfully or not.
+	 */
+	public boolean send(HandlerObject target)
+	{
+		if(this.post(target, null))
+			return true;
+		this.recycleInternal();
+		return false;
+	}
+	
+	
+	/**
+	 * Send command to given lane of thread of given object, command will be recycled after completion.
+	 * Command is sent as normal command if other commands are still queued on target thread, so commands are always performed in order.
+	 * @param target Target {@link HandlerObject}.
+	 * @param lane Lane.
+	 * @return Whether command is sent successfully or not.
+	 */
+	public boolean send(HandlerObject target, ThreadLane lane)
+	{
+		if(target instanceof BaseThread && ((BaseThread)target).queuedCommandCount.get() > 0)
+			lane = null;
+		if(this.post(target, lane))
+			return true;
+		this.recycleInternal();
+		return false;
+	}
+	
+	
+	/**
+	 * Send command to thread of given object and wait for completion. Caller should call {@link #recycle()} after getting result.
+	 * @param target Target {@link HandlerObject}.
+	 * @param timeoutMillis Maximum waiting time in milliseconds.
+	 * @return Whether command completes within given time or not.
+	 */
+	public boolean sendAndWait(HandlerObject target, long timeoutMillis)
+	{
+		synchronized(this)
+		{
+			// send
+			m_IsWaiting = true;
+			if(!this.post(target, null))
+			{
+				m_IsWaiting = false;
+				return false;
+			}
+			
+			// wait for completion
+			long endTime = (System.currentTimeMillis() + timeoutMillis);
+			try
+			{
+				while(!m_IsCompleted)
+				{
+					long waitTime = (endTime - System.currentTimeMillis());
+					if(waitTime <= 0)
+						return false;
+					this.wait(waitTime);
+				}
+				return true;
+			}
+			catch(InterruptedException ex)
+			{
+				Log.e(TAG, "sendAndWait() - Interrupted", ex);
+				return false;
+			}
+		}
+	}
+	
+	
+	// Check whether instance is available or not.
+	private void verifyState()
+	{
+		if(ObjectPool.ENABLE_RECYCLING_CHECK && m_IsFreeInstance)
+			throw new IllegalStateException("Instance has been recycled.");
+	}
+}
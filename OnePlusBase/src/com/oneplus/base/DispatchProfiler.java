@@ -0,0 +1,421 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profiler of property changes and events dispatched by {@link BasicBaseObject}.
+ */
+public final class DispatchProfiler
+{
+	/**
+	 * Whether profiler is enabled or not.
+	 */
+	public static final boolean ENABLED = false;
+	
+	
+	// Constants
+	private static final int MAX_RECORD_COUNT = 4096;
+	private static final int SLOWEST_HANDLER_COUNT = 16;
+	
+	
+	// Private static fields
+	private static final HashMap<String, Record> m_MergedRecords = new HashMap<>();
+	private static final ArrayList<Record> m_Records = new ArrayList<>();
+	private static final ArrayList<HandlerCall> m_SlowestHandlerCalls = new ArrayList<>();
+	private static volatile long m_SlowestHandlerThreshold;
+	
+	
+	/**
+	 * Profiling record of single property or event on single owner.
+	 */
+	public static final class Record
+	{
+		/**
+		 * Property or event key.
+		 */
+		public final Object key;
+		/**
+		 * Name of owner instance.
+		 */
+		public final String ownerName;
+		
+		// Private fields
+		private final AtomicLong m_DispatchCount = new AtomicLong();
+		private final AtomicLong m_HandlerCallCount = new AtomicLong();
+		private volatile long m_MaxHandlerTime;
+		private volatile String m_MaxHandlerName;
+		private final String m_OwnerTag;
+		private final AtomicLong m_TotalHandlerTime = new AtomicLong();
+		
+		// Constructor
+		private Record(String ownerTag, String ownerName, Object key)
+		{
+			m_OwnerTag = ownerTag;
+			this.ownerName = ownerName;
+			this.key = key;
+		}
+		
+		/**
+		 * Get number of property changes or event raises.
+		 * @return Number of dispatches.
+		 */
+		public long getDispatchCount()
+		{
+			return m_DispatchCount.get();
+		}
+		
+		/**
+		 * Get number of call-back or handler invocations.
+		 * @return Number of invocations.
+		 */
+		public long getHandlerCallCount()
+		{
+			return m_HandlerCallCount.get();
+		}
+		
+		/**
+		 * Get name of slowest call-back or handler.
+		 * @return Name of handler.
+		 */
+		public String getMaxHandlerName()
+		{
+			return m_MaxHandlerName;
+		}
+		
+		/**
+		 * Get maximum wall time of single call-back or handler invocation.
+		 * @return Time in nanoseconds.
+		 */
+		public long getMaxHandlerTime()
+		{
+			return m_MaxHandlerTime;
+		}
+		
+		/**
+		 * Get cumulative wall time of call-back and handler invocations.
+		 * @return Time in nanoseconds.
+		 */
+		public long getTotalHandlerTime()
+		{
+			return m_TotalHandlerTime.get();
+		}
+		
+		// Merge data from other record.
+		private void merge(Record record)
+		{
+			m_DispatchCount.addAndGet(record.m_DispatchCount.get());
+			m_HandlerCallCount.addAndGet(record.m_HandlerCallCount.get());
+			m_TotalHandlerTime.addAndGet(record.m_TotalHandlerTime.get());
+			this.updateMaxHandlerTime(record.m_MaxHandlerTime, record.m_MaxHandlerName);
+		}
+		
+		// Clear data.
+		private synchronized void reset()
+		{
+			m_DispatchCount.set(0);
+			m_HandlerCallCount.set(0);
+			m_TotalHandlerTime.set(0);
+			m_MaxHandlerTime = 0;
+			m_MaxHandlerName = null;
+		}
+		
+		// Update slowest call-back or handler.
+		private void updateMaxHandlerTime(long time, String handlerName)
+		{
+			if(time <= m_MaxHandlerTime)
+				return;
+			synchronized(this)
+			{
+				if(time > m_MaxHandlerTime)
+				{
+					m_MaxHandlerTime = time;
+					m_MaxHandlerName = handlerName;
+				}
+			}
+		}
+	}
+	
+	
+	// Class for single handler call.
+	private static final class HandlerCall
+	{
+		public final String handlerName;
+		public final Object key;
+		public final String ownerName;
+		public final long time;
+		
+		public HandlerCall(Record record, String handlerName, long time)
+		{
+			this.ownerName = record.ownerName;
+			this.key = record.key;
+			this.handlerName = handlerName;
+			this.time = time;
+		}
+	}
+	
+	
+	// Comparator to sort records by total handler time.
+	private static final Comparator<Record> RECORD_COMPARATOR = new Comparator<Record>()
+	{
+		@Override
+		public int compare(Record lhs, Record rhs)
+		{
+			long lhsTime = lhs.m_TotalHandlerTime.get();
+			long rhsTime = rhs.m_TotalHandlerTime.get();
+			return (lhsTime > rhsTime ? -1 : (lhsTime < rhsTime ? 1 : 0));
+		}
+	};
+	
+	
+	// Constructor
+	private DispatchProfiler()
+	{}
+	
+	
+	// Append string to JSON.
+	private static void appendJsonString(StringBuilder json, String str)
+	{
+		if(str == null)
+		{
+			json.append("null");
+			return;
+		}
+		json.append('"');
+		for(int i = 0, length = str.length() ; i < length ; ++i)
+		{
+			char c = str.charAt(i);
+			switch(c)
+			{
+				case '"':
+				case '\\':
+					json.append('\\').append(c);
+					break;
+				default:
+					if(c < 0x20)
+						json.append(String.format("\\u%04x", (int)c));
+					else
+						json.append(c);
+					break;
+			}
+		}
+		json.append('"');
+	}
+	
+	
+	/**
+	 * Create new record, or get shared record of owner type if there are too many records.
+	 * @param ownerTag Log tag of owner type.
+	 * @param ownerName Name of owner instance.
+	 * @param key Property or event key.
+	 * @return Record.
+	 */
+	static Record createRecord(String ownerTag, String ownerName, Object key)
+	{
+		synchronized(m_Records)
+		{
+			if(m_Records.size() >= MAX_RECORD_COUNT)
+				return getMergedRecord(ownerTag, key);
+			Record record = new Record(ownerTag, ownerName, key);
+			m_Records.add(record);
+			return record;
+		}
+	}
+	
+	
+	/**
+	 * Print profiling snapshot in text format.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		writer.println("Dispatch profile (enabled : " + ENABLED + ")");
+		writer.println("  Owner, Key, Dispatches, Handler calls, Total time (us), Max time (us), Slowest handler");
+		for(Record record : getRecords())
+		{
+			writer.println("  " + record.ownerName
+					+ ", " + record.key
+					+ ", " + record.m_DispatchCount.get()
+					+ ", " + record.m_HandlerCallCount.get()
+					+ ", " + (record.m_TotalHandlerTime.get() / 1000)
+					+ ", " + (record.m_MaxHandlerTime / 1000)
+					+ ", " + record.m_MaxHandlerName);
+		}
+		writer.println("Slowest handler calls");
+		for(HandlerCall call : getSlowestHandlerCalls())
+			writer.println("  " + (call.time / 1000) + " us, " + call.ownerName + ", " + call.key + ", " + call.handlerName);
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Get profiling snapshot in JSON format.
+	 * @return JSON string.
+	 */
+	public static String dumpJson()
+	{
+		StringBuilder json = new StringBuilder("{\"records\":[");
+		List<Record> records = getRecords();
+		for(int i = 0, count = records.size() ; i < count ; ++i)
+		{
+			Record record = records.get(i);
+			if(i > 0)
+				json.append(',');
+			json.append("{\"owner\":");
+			appendJsonString(json, record.ownerName);
+			json.append(",\"key\":");
+			appendJsonString(json, String.valueOf(record.key));
+			json.append(",\"dispatches\":").append(record.m_DispatchCount.get());
+			json.append(",\"handlerCalls\":").append(record.m_HandlerCallCount.get());
+			json.append(",\"totalTimeNs\":").append(record.m_TotalHandlerTime.get());
+			json.append(",\"maxTimeNs\":").append(record.m_MaxHandlerTime);
+			json.append(",\"maxHandler\":");
+			appendJsonString(json, record.m_MaxHandlerName);
+			json.append('}');
+		}
+		json.append("],\"slowestHandlerCalls\":[");
+		List<HandlerCall> calls = getSlowestHandlerCalls();
+		for(int i = 0, count = calls.size() ; i < count ; ++i)
+		{
+			HandlerCall call = calls.get(i);
+			if(i > 0)
+				json.append(',');
+			json.append("{\"owner\":");
+			appendJsonString(json, call.ownerName);
+			json.append(",\"key\":");
+			appendJsonString(json, String.valueOf(call.key));
+			json.append(",\"handler\":");
+			appendJsonString(json, call.handlerName);
+			json.append(",\"timeNs\":").append(call.time);
+			json.append('}');
+		}
+		json.append("]}");
+		return json.toString();
+	}
+	
+	
+	// Get shared record of owner type, must be called while holding m_Records.
+	private static Record getMergedRecord(String ownerTag, Object key)
+	{
+		String name = ownerTag + "/" + key;
+		Record record = m_MergedRecords.get(name);
+		if(record == null)
+		{
+			record = new Record(ownerTag, ownerTag + "@*", key);
+			m_MergedRecords.put(name, record);
+		}
+		return record;
+	}
+	
+	
+	/**
+	 * Get all records sorted by cumulative handler time. Records of released owners are merged by owner type.
+	 * @return List of records.
+	 */
+	public static List<Record> getRecords()
+	{
+		ArrayList<Record> records;
+		synchronized(m_Records)
+		{
+			records = new ArrayList<>(m_Records);
+			records.addAll(m_MergedRecords.values());
+		}
+		Collections.sort(records, RECORD_COMPARATOR);
+		return records;
+	}
+	
+	
+	// Get slowest handler calls.
+	private static List<HandlerCall> getSlowestHandlerCalls()
+	{
+		synchronized(m_SlowestHandlerCalls)
+		{
+			return new ArrayList<>(m_SlowestHandlerCalls);
+		}
+	}
+	
+	
+	/**
+	 * Called after calling a call-back or handler.
+	 * @param record Record of property or event.
+	 * @param handler Called call-back or handler.
+	 * @param startTime Time before calling handler, got from {@link System#nanoTime()}.
+	 */
+	static void onHandlerCalled(Record record, Object handler, long startTime)
+	{
+		// update record
+		long time = (System.nanoTime() - startTime);
+		record.m_HandlerCallCount.incrementAndGet();
+		record.m_TotalHandlerTime.addAndGet(time);
+		if(time > record.m_MaxHandlerTime)
+			record.updateMaxHandlerTime(time, handler.getClass().getName());
+		
+		// update slowest handler calls
+		if(time <= m_SlowestHandlerThreshold)
+			return;
+		synchronized(m_SlowestHandlerCalls)
+		{
+			int index = m_SlowestHandlerCalls.size();
+			while(index > 0 && m_SlowestHandlerCalls.get(index - 1).time < time)
+				--index;
+			if(index >= SLOWEST_HANDLER_COUNT)
+				return;
+			m_SlowestHandlerCalls.add(index, new HandlerCall(record, handler.getClass().getName(), time));
+			if(m_SlowestHandlerCalls.size() > SLOWEST_HANDLER_COUNT)
+				m_SlowestHandlerCalls.remove(SLOWEST_HANDLER_COUNT);
+			if(m_SlowestHandlerCalls.size() >= SLOWEST_HANDLER_COUNT)
+				m_SlowestHandlerThreshold = m_SlowestHandlerCalls.get(SLOWEST_HANDLER_COUNT - 1).time;
+		}
+	}
+	
+	
+	/**
+	 * Called when property changes or event raises.
+	 * @param record Record of property or event.
+	 */
+	static void onDispatched(Record record)
+	{
+		record.m_DispatchCount.incrementAndGet();
+	}
+	
+	
+	/**
+	 * Release record when its owner is released, data of record will be merged into shared record of owner type.
+	 * @param record Record to release, can be Null.
+	 */
+	static void releaseRecord(Record record)
+	{
+		if(record == null)
+			return;
+		synchronized(m_Records)
+		{
+			if(m_Records.remove(record))
+				getMergedRecord(record.m_OwnerTag, record.key).merge(record);
+		}
+	}
+	
+	
+	/**
+	 * Clear all profiling data.
+	 */
+	public static void reset()
+	{
+		synchronized(m_Records)
+		{
+			for(int i = m_Records.size() - 1 ; i >= 0 ; --i)
+				m_Records.get(i).reset();
+			for(Record record : m_MergedRecords.values())
+				record.reset();
+		}
+		synchronized(m_SlowestHandlerCalls)
+		{
+			m_SlowestHandlerCalls.clear();
+			m_SlowestHandlerThreshold = 0;
+		}
+	}
+}
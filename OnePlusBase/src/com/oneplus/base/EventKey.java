@@ -1,5 +1,7 @@
 package com.oneplus.base;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Key to represent an event.
  * @param <TArgs> Type of event data.
@@ -34,8 +36,14 @@ public final class EventKey<TArgs extends EventArgs>
 	public final Class<? extends EventSource> ownerType;
 	
 	
+	// Package fields
+	final int ownerIndex;
+	final OwnerSlotTable ownerSlotTable;
+	final int slot;
+	
+	
 	// Private static fields
-	private static volatile int m_NextId = 1;
+	private static final AtomicInteger m_NextId = new AtomicInteger(1);
 	
 	
 	/**
@@ -76,13 +84,16 @@ public final class EventKey<TArgs extends EventArgs>
 		this.id = generateId();
 		this.name = name;
 		this.ownerType = ownerType;
+		this.ownerSlotTable = OwnerSlotTable.fromOwnerType(ownerType);
+		this.ownerIndex = this.ownerSlotTable.ownerIndex;
+		this.slot = this.ownerSlotTable.allocateEventSlot();
 	}
 	
 	
 	// Generate ID
-	private static synchronized int generateId()
+	private static int generateId()
 	{
-		return (m_NextId++);
+		return m_NextId.getAndIncrement();
 	}
 	
 	
@@ -0,0 +1,16 @@
+package com.oneplus.base;
+
+/**
+ * Call-back after changing value of {@link FloatPropertyKey} property, without boxing values.
+ */
+public interface FloatPropertyChangedCallback
+{
+	/**
+	 * Called after changing property value.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 */
+	void onPropertyChanged(PropertySource source, FloatPropertyKey key, float oldValue, float newValue);
+}
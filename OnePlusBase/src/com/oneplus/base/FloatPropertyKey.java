@@ -0,0 +1,86 @@
+package com.oneplus.base;
+
+/**
+ * Key to represent a property with {@code float} value, which can be accessed without boxing.
+ */
+public final class FloatPropertyKey extends PropertyKey<Float>
+{
+	/**
+	 * Default property value.
+	 */
+	public final float defaultFloatValue;
+	
+	
+	/**
+	 * Initialize new FloatPropertyKey instance with {@link #FLAG_NOT_NULL FLAG_NOT_NULL} | {@link #FLAG_READONLY FLAG_READONLY} flags.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param defaultValue Default property value.
+	 */
+	public FloatPropertyKey(String name, Class<? extends PropertySource> ownerType, float defaultValue)
+	{
+		this(name, ownerType, FLAG_NOT_NULL | FLAG_READONLY, defaultValue);
+	}
+	
+	
+	/**
+	 * Initialize new FloatPropertyKey instance.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param flags Property flags, {@link #FLAG_NOT_NULL FLAG_NOT_NULL} is always applied:
+	 * <ul>
+	 *   <li>{@link #FLAG_READONLY FLAG_READONLY}</li>
+	 * </ul>
+	 * @param defaultValue Default property value.
+	 */
+	public FloatPropertyKey(String name, Class<? extends PropertySource> ownerType, int flags, float defaultValue)
+	{
+		super(name, Float.class, ownerType, (flags | FLAG_NOT_NULL), defaultValue, true, toRawValue(defaultValue));
+		this.defaultFloatValue = defaultValue;
+	}
+	
+	
+	// Convert raw value to primitive value.
+	static float fromRawValueFloat(long rawValue)
+	{
+		return Float.intBitsToFloat((int)rawValue);
+	}
+	
+	
+	// Convert raw primitive value to boxed value.
+	@Override
+	Object fromRawValue(long rawValue)
+	{
+		return fromRawValueFloat(rawValue);
+	}
+	
+	
+	// Call primitive call-back.
+	@Override
+	boolean invokePrimitiveCallback(Object callback, PropertySource source, long oldRawValue, long newRawValue)
+	{
+		if(callback instanceof FloatPropertyChangedCallback)
+		{
+			((FloatPropertyChangedCallback)callback).onPropertyChanged(source, this, fromRawValueFloat(oldRawValue), fromRawValueFloat(newRawValue));
+			return true;
+		}
+		return false;
+	}
+	
+	
+	// Convert primitive value to raw value.
+	static long toRawValue(float value)
+	{
+		return Float.floatToIntBits(value);
+	}
+	
+	
+	// Convert boxed value to raw primitive value.
+	@Override
+	long toRawValue(Object value)
+	{
+		if(value == null)
+			throw new IllegalArgumentException("Property " + this + " cannot be null.");
+		return toRawValue(((Float)value).floatValue());
+	}
+}
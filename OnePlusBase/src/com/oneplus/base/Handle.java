@@ -11,6 +11,10 @@ public abstract class Handle
 	public final String name;
 	
 	
+	// Private static fields
+	private static final ContentionProfiler.Site CONTENTION_SITE_CLOSE = (ContentionProfiler.ENABLED ? ContentionProfiler.createSite("Handle.close") : null);
+	
+	
 	// Private fields
 	private volatile boolean m_IsClosed;
 	
@@ -46,8 +50,11 @@ public abstract class Handle
 	{
 		if(handle != null)
 		{
+			long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 			synchronized(handle)
 			{
+				if(ContentionProfiler.ENABLED)
+					ContentionProfiler.onAcquired(CONTENTION_SITE_CLOSE, startTime);
 				Handle actualHandle = (Handle)handle;
 				if(actualHandle.m_IsClosed)
 					return null;
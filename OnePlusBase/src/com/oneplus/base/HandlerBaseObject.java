@@ -13,13 +13,14 @@ public abstract class HandlerBaseObject extends BasicBaseObject implements Handl
 	
 	
 	// Class for Handler
-	private static final class InternalHandler extends Handler
+	private static final class InternalHandler extends InstrumentedHandler
 	{
 		private final String m_Tag;
 		private volatile HandlerBaseObject m_Owner;
 		
 		public InternalHandler(HandlerBaseObject owner)
 		{
+			super(owner.TAG);
 			m_Owner = owner;
 			m_Tag = owner.TAG;
 		}
@@ -76,7 +76,22 @@ public final class HandlerUtils
 	
 	
 	/**
-	 * Remove call-back from {@link HandlerObject}.
+	 * Post call-back to given lane of {@link HandlerObject}. Lanes are only supported by {@link BaseThread}, call-back is posted as normal call-back to other objects.
+	 * @param target Target {@link HandlerObject}.
+	 * @param lane Lane.
+	 * @param r Call-back to post.
+	 * @return Whether call-back be post successfully or not.
+	 */
+	public static boolean post(HandlerObject target, ThreadLane lane, Runnable r)
+	{
+		if(target instanceof BaseThread)
+			return ((BaseThread)target).post(lane, r);
+		return post(target, r, 0);
+	}
+	
+	
+	/**
+	 * Remove call-back from {@link HandlerObject}, including call-backs posted to lanes of {@link BaseThread}.
 	 * @param target Target {@link HandlerObject}.
 	 * @param r Call-back to remove.
 	 */
@@ -84,6 +99,12 @@ public final class HandlerUtils
 	{
 		if(target == null)
 			return;
+		if(target instanceof BaseThread)
+		{
+			ThreadLaneScheduler scheduler = ((BaseThread)target).getLaneScheduler();
+			if(scheduler != null)
+				scheduler.removeCallbacks(r);
+		}
 		Handler handler = target.getHandler();
 		if(handler == null)
 			return;
@@ -0,0 +1,356 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+
+/**
+ * Scheduler to defer work until looper thread is idle. Work is executed in small time slices when there is no pending message, or executed immediately when its deadline passes.
+ */
+public final class IdleScheduler
+{
+	/**
+	 * High priority.
+	 */
+	public static final int PRIORITY_HIGH = 1;
+	/**
+	 * Normal priority.
+	 */
+	public static final int PRIORITY_NORMAL = 0;
+	/**
+	 * Low priority.
+	 */
+	public static final int PRIORITY_LOW = -1;
+	
+	
+	// Constants
+	private static final String TAG = "IdleScheduler";
+	private static final long TIME_SLICE = 4;
+	
+	
+	// Private static fields
+	private static final ArrayList<IdleScheduler> m_Schedulers = new ArrayList<>();
+	
+	
+	// Private fields
+	private final Runnable m_DeadlineRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			onDeadline();
+		}
+	};
+	private long m_ExecutedCount;
+	private long m_ForcedCount;
+	private final Handler m_Handler;
+	private final MessageQueue.IdleHandler m_IdleHandler = new MessageQueue.IdleHandler()
+	{
+		@Override
+		public boolean queueIdle()
+		{
+			return onIdle();
+		}
+	};
+	private boolean m_IsIdleHandlerAdded;
+	private boolean m_IsReleased;
+	private final MessageQueue m_MessageQueue;
+	private final String m_Name;
+	private long m_NextDeadline = Long.MAX_VALUE;
+	private long m_NextSequence;
+	private final PriorityQueue<TaskHandle> m_Tasks = new PriorityQueue<>(16, TASK_COMPARATOR);
+	private final Runnable m_WakeUpRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{}
+	};
+	
+	
+	// Class for deferred work.
+	private final class TaskHandle extends Handle
+	{
+		public final long deadline;
+		public final int priority;
+		public final Runnable runnable;
+		public final long sequence;
+		
+		public TaskHandle(Runnable runnable, int priority, long deadline, long sequence)
+		{
+			super("IdleTask");
+			this.runnable = runnable;
+			this.priority = priority;
+			this.deadline = deadline;
+			this.sequence = sequence;
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			synchronized(m_Tasks)
+			{
+				m_Tasks.remove(this);
+			}
+		}
+	}
+	
+	
+	// Comparator to sort work by priority, deadline and scheduling order.
+	private static final Comparator<TaskHandle> TASK_COMPARATOR = new Comparator<TaskHandle>()
+	{
+		@Override
+		public int compare(TaskHandle lhs, TaskHandle rhs)
+		{
+			if(lhs.priority != rhs.priority)
+				return (lhs.priority > rhs.priority ? -1 : 1);
+			if(lhs.deadline != rhs.deadline)
+				return (lhs.deadline < rhs.deadline ? -1 : 1);
+			return (lhs.sequence < rhs.sequence ? -1 : (lhs.sequence > rhs.sequence ? 1 : 0));
+		}
+	};
+	
+	
+	/**
+	 * Initialize new IdleScheduler instance for current looper thread.
+	 * @param name Scheduler name.
+	 */
+	IdleScheduler(String name)
+	{
+		m_Name = name;
+		m_MessageQueue = Looper.myQueue();
+		m_Handler = new InstrumentedHandler(name + " (idle)")
+		{};
+		synchronized(m_Schedulers)
+		{
+			m_Schedulers.add(this);
+		}
+	}
+	
+	
+	/**
+	 * Print deferred work of all schedulers.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		IdleScheduler[] schedulers;
+		synchronized(m_Schedulers)
+		{
+			schedulers = m_Schedulers.toArray(new IdleScheduler[m_Schedulers.size()]);
+		}
+		writer.println("Idle schedulers");
+		writer.println("  Scheduler, Pending, Executed, Forced by deadline");
+		for(IdleScheduler scheduler : schedulers)
+		{
+			synchronized(scheduler.m_Tasks)
+			{
+				writer.println("  " + scheduler.m_Name + ", " + scheduler.m_Tasks.size() + ", " + scheduler.m_ExecutedCount + ", " + scheduler.m_ForcedCount);
+			}
+		}
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Get number of deferred work which is not executed yet.
+	 * @return Number of pending work.
+	 */
+	public int getPendingTaskCount()
+	{
+		synchronized(m_Tasks)
+		{
+			return m_Tasks.size();
+		}
+	}
+	
+	
+	// Called when deadline of work passes (in looper thread).
+	private void onDeadline()
+	{
+		// collect expired work
+		ArrayList<TaskHandle> expiredTasks = null;
+		long currentTime = SystemClock.uptimeMillis();
+		synchronized(m_Tasks)
+		{
+			m_NextDeadline = Long.MAX_VALUE;
+			for(Iterator<TaskHandle> iterator = m_Tasks.iterator() ; iterator.hasNext() ; )
+			{
+				TaskHandle handle = iterator.next();
+				if(handle.deadline <= currentTime)
+				{
+					iterator.remove();
+					if(expiredTasks == null)
+						expiredTasks = new ArrayList<>();
+					expiredTasks.add(handle);
+				}
+			}
+			if(expiredTasks != null)
+				m_ForcedCount += expiredTasks.size();
+			this.scheduleDeadline();
+		}
+		
+		// execute
+		if(expiredTasks != null)
+		{
+			for(int i = 0, count = expiredTasks.size() ; i < count ; ++i)
+				this.runTask(expiredTasks.get(i));
+		}
+	}
+	
+	
+	// Called when looper becomes idle (in looper thread).
+	private boolean onIdle()
+	{
+		long endTime = (SystemClock.uptimeMillis() + TIME_SLICE);
+		while(true)
+		{
+			// get next work
+			TaskHandle handle;
+			synchronized(m_Tasks)
+			{
+				handle = m_Tasks.poll();
+				if(handle == null)
+				{
+					m_IsIdleHandlerAdded = false;
+					return false;
+				}
+			}
+			
+			// execute
+			this.runTask(handle);
+			
+			// yield to messages, and continue in next idle time
+			if(SystemClock.uptimeMillis() >= endTime)
+			{
+				synchronized(m_Tasks)
+				{
+					if(m_Tasks.isEmpty())
+					{
+						m_IsIdleHandlerAdded = false;
+						return false;
+					}
+				}
+				m_Handler.post(m_WakeUpRunnable);
+				return true;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Release scheduler and drop all deferred work, this method should be called in looper thread.
+	 */
+	void release()
+	{
+		synchronized(m_Tasks)
+		{
+			if(m_IsReleased)
+				return;
+			m_IsReleased = true;
+			if(!m_Tasks.isEmpty())
+			{
+				Log.w(TAG, "release() - Drop " + m_Tasks.size() + " deferred work of '" + m_Name + "'");
+				m_Tasks.clear();
+			}
+			if(m_IsIdleHandlerAdded)
+			{
+				m_MessageQueue.removeIdleHandler(m_IdleHandler);
+				m_IsIdleHandlerAdded = false;
+			}
+		}
+		m_Handler.removeCallbacks(m_DeadlineRunnable);
+		m_Handler.removeCallbacks(m_WakeUpRunnable);
+		synchronized(m_Schedulers)
+		{
+			m_Schedulers.remove(this);
+		}
+	}
+	
+	
+	// Execute deferred work.
+	private void runTask(TaskHandle handle)
+	{
+		if(!Handle.isValid(handle))
+			return;
+		handle.closeDirectly();
+		synchronized(m_Tasks)
+		{
+			++m_ExecutedCount;
+		}
+		handle.runnable.run();
+	}
+	
+	
+	/**
+	 * Schedule work to be executed when looper thread is idle, this method can be called in any thread.
+	 * @param r Work to execute.
+	 * @param priority Priority, work with higher priority is executed first. For example, {@link #PRIORITY_NORMAL}.
+	 * @param deadline Maximum delay in milliseconds before work is forced to execute, or 0 if work has no deadline.
+	 * @return Handle to deferred work, or Null if scheduler has been released.
+	 */
+	public Handle schedule(Runnable r, int priority, long deadline)
+	{
+		if(r == null)
+			throw new IllegalArgumentException("No runnable.");
+		synchronized(m_Tasks)
+		{
+			// check state
+			if(m_IsReleased)
+			{
+				Log.e(TAG, "schedule() - Scheduler '" + m_Name + "' has been released");
+				return null;
+			}
+			
+			// enqueue
+			long deadlineTime = (deadline > 0 ? SystemClock.uptimeMillis() + deadline : Long.MAX_VALUE);
+			TaskHandle handle = new TaskHandle(r, priority, deadlineTime, m_NextSequence++);
+			m_Tasks.add(handle);
+			
+			// wait for idle time, post message to make sure idle handler will be called
+			if(!m_IsIdleHandlerAdded)
+			{
+				m_IsIdleHandlerAdded = true;
+				m_MessageQueue.addIdleHandler(m_IdleHandler);
+				m_Handler.post(m_WakeUpRunnable);
+			}
+			
+			// update deadline
+			if(deadlineTime < m_NextDeadline)
+				this.scheduleDeadline();
+			return handle;
+		}
+	}
+	
+	
+	// Schedule call-back for nearest deadline.
+	private void scheduleDeadline()
+	{
+		long nextDeadline = Long.MAX_VALUE;
+		for(TaskHandle handle : m_Tasks)
+		{
+			if(handle.deadline < nextDeadline)
+				nextDeadline = handle.deadline;
+		}
+		if(nextDeadline == m_NextDeadline)
+			return;
+		m_NextDeadline = nextDeadline;
+		m_Handler.removeCallbacks(m_DeadlineRunnable);
+		if(nextDeadline != Long.MAX_VALUE)
+			m_Handler.postAtTime(m_DeadlineRunnable, nextDeadline);
+	}
+	
+	
+	// Get string represents this object.
+	@Override
+	public String toString()
+	{
+		return m_Name;
+	}
+}
@@ -0,0 +1,96 @@
+package com.oneplus.base;
+
+import java.util.HashMap;
+
+import android.os.Handler;
+import android.os.Message;
+import android.os.SystemClock;
+
+/**
+ * {@link Handler} which reports dispatched messages to {@link LooperProfiler}.
+ */
+abstract class InstrumentedHandler extends Handler
+{
+	// Private fields
+	private final String m_Name;
+	private HashMap<Object, LooperProfiler.Record> m_ProfilerRecords;
+	
+	
+	/**
+	 * Initialize new InstrumentedHandler instance.
+	 * @param name Handler name.
+	 */
+	protected InstrumentedHandler(String name)
+	{
+		m_Name = name;
+	}
+	
+	
+	// Dispatch message.
+	@Override
+	public void dispatchMessage(Message msg)
+	{
+		// check state
+		if(!LooperProfiler.isEnabled() || !this.isProfilingNeeded(msg))
+		{
+			super.dispatchMessage(msg);
+			return;
+		}
+		
+		// get record before dispatching because message may be changed by handler
+		Runnable callback = msg.getCallback();
+		LooperProfiler.Record record = (callback != null ? this.getProfilerRecord(callback.getClass(), null) : this.getProfilerRecord(Integer.valueOf(msg.what), "what=" + msg.what));
+		long when = msg.getWhen();
+		long startTime = System.nanoTime();
+		
+		// dispatch
+		super.dispatchMessage(msg);
+		
+		// update record, time is not set for messages posted at front of queue
+		record.executionTime.record((System.nanoTime() - startTime) / 1000);
+		if(when > 0)
+			record.queueWaitTime.record(Math.max(0, SystemClock.uptimeMillis() - when) * 1000);
+	}
+	
+	
+	// Get profiler record for given key (in handler thread).
+	private LooperProfiler.Record getProfilerRecord(Object key, String messageName)
+	{
+		if(m_ProfilerRecords == null)
+			m_ProfilerRecords = new HashMap<>();
+		LooperProfiler.Record record = m_ProfilerRecords.get(key);
+		if(record == null)
+		{
+			if(messageName == null)
+				messageName = ((Class<?>)key).getName();
+			record = LooperProfiler.createRecord(m_Name, messageName);
+			m_ProfilerRecords.put(key, record);
+		}
+		return record;
+	}
+	
+	
+	/**
+	 * Check whether dispatching of given message should be recorded or not.
+	 * @param msg Message.
+	 * @return Whether message should be recorded or not.
+	 */
+	boolean isProfilingNeeded(Message msg)
+	{
+		return true;
+	}
+	
+	
+	/**
+	 * Record work which is executed by other message of this handler (in handler thread).
+	 * @param work Executed work.
+	 * @param waitTime Time in milliseconds between posting and executing work.
+	 * @param startTime Time returned by {@link System#nanoTime()} before executing work.
+	 */
+	final void onWorkExecuted(Runnable work, long waitTime, long startTime)
+	{
+		LooperProfiler.Record record = this.getProfilerRecord(work.getClass(), null);
+		record.executionTime.record((System.nanoTime() - startTime) / 1000);
+		record.queueWaitTime.record(Math.max(0, waitTime) * 1000);
+	}
+}
@@ -0,0 +1,86 @@
+package com.oneplus.base;
+
+/**
+ * Key to represent a property with {@code int} value, which can be accessed without boxing.
+ */
+public final class IntPropertyKey extends PropertyKey<Integer>
+{
+	/**
+	 * Default property value.
+	 */
+	public final int defaultIntValue;
+	
+	
+	/**
+	 * Initialize new IntPropertyKey instance with {@link #FLAG_NOT_NULL FLAG_NOT_NULL} | {@link #FLAG_READONLY FLAG_READONLY} flags.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param defaultValue Default property value.
+	 */
+	public IntPropertyKey(String name, Class<? extends PropertySource> ownerType, int defaultValue)
+	{
+		this(name, ownerType, FLAG_NOT_NULL | FLAG_READONLY, defaultValue);
+	}
+	
+	
+	/**
+	 * Initialize new IntPropertyKey instance.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param flags Property flags, {@link #FLAG_NOT_NULL FLAG_NOT_NULL} is always applied:
+	 * <ul>
+	 *   <li>{@link #FLAG_READONLY FLAG_READONLY}</li>
+	 * </ul>
+	 * @param defaultValue Default property value.
+	 */
+	public IntPropertyKey(String name, Class<? extends PropertySource> ownerType, int flags, int defaultValue)
+	{
+		super(name, Integer.class, ownerType, (flags | FLAG_NOT_NULL), defaultValue, true, toRawValue(defaultValue));
+		this.defaultIntValue = defaultValue;
+	}
+	
+	
+	// Convert raw value to primitive value.
+	static int fromRawValueInt(long rawValue)
+	{
+		return (int)rawValue;
+	}
+	
+	
+	// Convert raw primitive value to boxed value.
+	@Override
+	Object fromRawValue(long rawValue)
+	{
+		return fromRawValueInt(rawValue);
+	}
+	
+	
+	// Call primitive call-back.
+	@Override
+	boolean invokePrimitiveCallback(Object callback, PropertySource source, long oldRawValue, long newRawValue)
+	{
+		if(callback instanceof IntPropertyChangedCallback)
+		{
+			((IntPropertyChangedCallback)callback).onPropertyChanged(source, this, fromRawValueInt(oldRawValue), fromRawValueInt(newRawValue));
+			return true;
+		}
+		return false;
+	}
+	
+	
+	// Convert primitive value to raw value.
+	static long toRawValue(int value)
+	{
+		return value;
+	}
+	
+	
+	// Convert boxed value to raw primitive value.
+	@Override
+	long toRawValue(Object value)
+	{
+		if(value == null)
+			throw new IllegalArgumentException("Property " + this + " cannot be null.");
+		return toRawValue(((Integer)value).intValue());
+	}
+}
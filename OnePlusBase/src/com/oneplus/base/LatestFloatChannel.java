@@ -0,0 +1,110 @@
+package com.oneplus.base;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link LatestValueChannel} for primitive float values, values are sent without boxing.
+ */
+public final class LatestFloatChannel
+{
+	// Constants
+	private static final String TAG = "LatestFloatChannel";
+	
+	
+	// Private fields
+	private final Runnable m_DeliveryRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			deliver();
+		}
+	};
+	private final AtomicBoolean m_IsPending = new AtomicBoolean();
+	private final Receiver m_Receiver;
+	private final HandlerObject m_Target;
+	private final AtomicInteger m_ValueBits = new AtomicInteger();
+	
+	
+	/**
+	 * Call-back to receive values.
+	 */
+	public interface Receiver
+	{
+		/**
+		 * Called when receiving value in target thread.
+		 * @param value Latest value.
+		 */
+		void onValueReceived(float value);
+	}
+	
+	
+	/**
+	 * Initialize new LatestFloatChannel instance.
+	 * @param target Object owns the thread to receive values.
+	 * @param receiver Call-back to receive values.
+	 */
+	public LatestFloatChannel(HandlerObject target, Receiver receiver)
+	{
+		if(target == null)
+			throw new IllegalArgumentException("No target.");
+		if(receiver == null)
+			throw new IllegalArgumentException("No receiver.");
+		m_Target = target;
+		m_Receiver = receiver;
+	}
+	
+	
+	/**
+	 * Discard pending value, this method can be called in any thread.
+	 */
+	public void clear()
+	{
+		HandlerUtils.removeCallbacks(m_Target, m_DeliveryRunnable);
+		m_IsPending.set(false);
+	}
+	
+	
+	// Deliver latest value (in target thread).
+	private void deliver()
+	{
+		// clear flag before reading value, value sent after this point will be delivered again
+		if(!m_IsPending.getAndSet(false))
+			return;
+		m_Receiver.onValueReceived(Float.intBitsToFloat(m_ValueBits.get()));
+	}
+	
+	
+	/**
+	 * Check whether there is value waiting for delivery or not.
+	 * @return Whether value is pending or not.
+	 */
+	public boolean hasPendingValue()
+	{
+		return m_IsPending.get();
+	}
+	
+	
+	/**
+	 * Send value to target thread, this method can be called in any thread.
+	 * @param value Value to send.
+	 * @return Whether value is sent or not.
+	 */
+	public boolean send(float value)
+	{
+		// replace pending value
+		m_ValueBits.set(Float.floatToRawIntBits(value));
+		if(!m_IsPending.compareAndSet(false, true))
+			return true;
+		
+		// schedule delivery
+		if(!HandlerUtils.post(m_Target, m_DeliveryRunnable))
+		{
+			Log.e(TAG, "send() - Fail to schedule delivery");
+			m_IsPending.set(false);
+			return false;
+		}
+		return true;
+	}
+}
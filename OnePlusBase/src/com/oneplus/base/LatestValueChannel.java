@@ -0,0 +1,110 @@
+package com.oneplus.base;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Channel to deliver values to the thread of given {@link HandlerObject}. Only the latest value is kept, and there is at most one pending delivery at any time, so bursts of values are collapsed into single delivery.
+ * @param <T> Type of value.
+ */
+public final class LatestValueChannel<T>
+{
+	// Constants
+	private static final String TAG = "LatestValueChannel";
+	private static final Object NO_VALUE = new Object();
+	
+	
+	// Private fields
+	private final Runnable m_DeliveryRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			deliver();
+		}
+	};
+	private final Receiver<? super T> m_Receiver;
+	private final HandlerObject m_Target;
+	private final AtomicReference<Object> m_Value = new AtomicReference<>(NO_VALUE);
+	
+	
+	/**
+	 * Call-back to receive values.
+	 * @param <T> Type of value.
+	 */
+	public interface Receiver<T>
+	{
+		/**
+		 * Called when receiving value in target thread.
+		 * @param value Latest value.
+		 */
+		void onValueReceived(T value);
+	}
+	
+	
+	/**
+	 * Initialize new LatestValueChannel instance.
+	 * @param target Object owns the thread to receive values.
+	 * @param receiver Call-back to receive values.
+	 */
+	public LatestValueChannel(HandlerObject target, Receiver<? super T> receiver)
+	{
+		if(target == null)
+			throw new IllegalArgumentException("No target.");
+		if(receiver == null)
+			throw new IllegalArgumentException("No receiver.");
+		m_Target = target;
+		m_Receiver = receiver;
+	}
+	
+	
+	/**
+	 * Discard pending value, this method can be called in any thread.
+	 */
+	public void clear()
+	{
+		HandlerUtils.removeCallbacks(m_Target, m_DeliveryRunnable);
+		m_Value.set(NO_VALUE);
+	}
+	
+	
+	// Deliver latest value (in target thread).
+	@SuppressWarnings("unchecked")
+	private void deliver()
+	{
+		Object value = m_Value.getAndSet(NO_VALUE);
+		if(value != NO_VALUE)
+			m_Receiver.onValueReceived((T)value);
+	}
+	
+	
+	/**
+	 * Check whether there is value waiting for delivery or not.
+	 * @return Whether value is pending or not.
+	 */
+	public boolean hasPendingValue()
+	{
+		return (m_Value.get() != NO_VALUE);
+	}
+	
+	
+	/**
+	 * Send value to target thread, this method can be called in any thread.
+	 * @param value Value to send.
+	 * @return Whether value is sent or not.
+	 */
+	public boolean send(T value)
+	{
+		// replace pending value
+		if(m_Value.getAndSet(value) != NO_VALUE)
+			return true;
+		
+		// schedule delivery
+		if(!HandlerUtils.post(m_Target, m_DeliveryRunnable))
+		{
+			Log.e(TAG, "send() - Fail to schedule delivery");
+			m_Value.compareAndSet(value, NO_VALUE);
+			return false;
+		}
+		return true;
+	}
+}
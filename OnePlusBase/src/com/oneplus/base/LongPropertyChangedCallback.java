@@ -0,0 +1,16 @@
+package com.oneplus.base;
+
+/**
+ * Call-back after changing value of {@link LongPropertyKey} property, without boxing values.
+ */
+public interface LongPropertyChangedCallback
+{
+	/**
+	 * Called after changing property value.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 */
+	void onPropertyChanged(PropertySource source, LongPropertyKey key, long oldValue, long newValue);
+}
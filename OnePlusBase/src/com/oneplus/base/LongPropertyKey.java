@@ -0,0 +1,86 @@
+package com.oneplus.base;
+
+/**
+ * Key to represent a property with {@code long} value, which can be accessed without boxing.
+ */
+public final class LongPropertyKey extends PropertyKey<Long>
+{
+	/**
+	 * Default property value.
+	 */
+	public final long defaultLongValue;
+	
+	
+	/**
+	 * Initialize new LongPropertyKey instance with {@link #FLAG_NOT_NULL FLAG_NOT_NULL} | {@link #FLAG_READONLY FLAG_READONLY} flags.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param defaultValue Default property value.
+	 */
+	public LongPropertyKey(String name, Class<? extends PropertySource> ownerType, long defaultValue)
+	{
+		this(name, ownerType, FLAG_NOT_NULL | FLAG_READONLY, defaultValue);
+	}
+	
+	
+	/**
+	 * Initialize new LongPropertyKey instance.
+	 * @param name Property name.
+	 * @param ownerType Type of object owns this property.
+	 * @param flags Property flags, {@link #FLAG_NOT_NULL FLAG_NOT_NULL} is always applied:
+	 * <ul>
+	 *   <li>{@link #FLAG_READONLY FLAG_READONLY}</li>
+	 * </ul>
+	 * @param defaultValue Default property value.
+	 */
+	public LongPropertyKey(String name, Class<? extends PropertySource> ownerType, int flags, long defaultValue)
+	{
+		super(name, Long.class, ownerType, (flags | FLAG_NOT_NULL), defaultValue, true, toRawValue(defaultValue));
+		this.defaultLongValue = defaultValue;
+	}
+	
+	
+	// Convert raw value to primitive value.
+	static long fromRawValueLong(long rawValue)
+	{
+		return rawValue;
+	}
+	
+	
+	// Convert raw primitive value to boxed value.
+	@Override
+	Object fromRawValue(long rawValue)
+	{
+		return fromRawValueLong(rawValue);
+	}
+	
+	
+	// Call primitive call-back.
+	@Override
+	boolean invokePrimitiveCallback(Object callback, PropertySource source, long oldRawValue, long newRawValue)
+	{
+		if(callback instanceof LongPropertyChangedCallback)
+		{
+			((LongPropertyChangedCallback)callback).onPropertyChanged(source, this, fromRawValueLong(oldRawValue), fromRawValueLong(newRawValue));
+			return true;
+		}
+		return false;
+	}
+	
+	
+	// Convert primitive value to raw value.
+	static long toRawValue(long value)
+	{
+		return value;
+	}
+	
+	
+	// Convert boxed value to raw primitive value.
+	@Override
+	long toRawValue(Object value)
+	{
+		if(value == null)
+			throw new IllegalArgumentException("Property " + this + " cannot be null.");
+		return toRawValue(((Long)value).longValue());
+	}
+}
@@ -0,0 +1,271 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Profiler of messages and call-backs dispatched by {@link InstrumentedHandler}.
+ */
+public final class LooperProfiler
+{
+	// Constants
+	private static final int MAX_RECORD_COUNT = 1024;
+	
+	
+	// Private static fields
+	private static volatile boolean m_IsEnabled;
+	private static Record m_OverflowRecord;
+	private static final LinkedHashMap<String, Record> m_Records = new LinkedHashMap<>();
+	
+	
+	/**
+	 * Histogram with logarithmic buckets, each power of 2 is divided into 8 linear sub-buckets.
+	 */
+	public static final class Histogram
+	{
+		// Constants
+		private static final int SUB_BUCKET_BITS = 3;
+		private static final int SUB_BUCKET_COUNT = (1 << SUB_BUCKET_BITS);
+		private static final int BUCKET_COUNT = ((64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT);
+		
+		// Private fields
+		private final long[] m_Counts = new long[BUCKET_COUNT];
+		private long m_MaxValue;
+		private long m_TotalCount;
+		private long m_TotalValue;
+		
+		// Constructor
+		Histogram()
+		{}
+		
+		// Get index of bucket for given value.
+		private static int getBucketIndex(long value)
+		{
+			if(value < SUB_BUCKET_COUNT)
+				return (int)Math.max(0, value);
+			int exponent = (63 - Long.numberOfLeadingZeros(value));
+			int subBucket = (int)((value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+			return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket);
+		}
+		
+		// Get upper bound of bucket.
+		private static long getBucketUpperBound(int index)
+		{
+			if(index < SUB_BUCKET_COUNT)
+				return index;
+			int exponent = (index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1);
+			long subBucket = (index % SUB_BUCKET_COUNT);
+			return ((1L << exponent) + ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1);
+		}
+		
+		/**
+		 * Get number of recorded values.
+		 * @return Number of values.
+		 */
+		public synchronized long getCount()
+		{
+			return m_TotalCount;
+		}
+		
+		/**
+		 * Get maximum recorded value.
+		 * @return Maximum value.
+		 */
+		public synchronized long getMax()
+		{
+			return m_MaxValue;
+		}
+		
+		/**
+		 * Get mean of recorded values.
+		 * @return Mean value.
+		 */
+		public synchronized long getMean()
+		{
+			return (m_TotalCount > 0 ? (m_TotalValue / m_TotalCount) : 0);
+		}
+		
+		/**
+		 * Get estimated value at given percentile.
+		 * @param percentile Percentile, from 0 to 100.
+		 * @return Upper bound of bucket which contains the percentile.
+		 */
+		public synchronized long getPercentile(double percentile)
+		{
+			if(m_TotalCount <= 0)
+				return 0;
+			long threshold = (long)Math.ceil(m_TotalCount * Math.max(0, Math.min(100, percentile)) / 100);
+			long count = 0;
+			for(int i = 0 ; i < BUCKET_COUNT ; ++i)
+			{
+				count += m_Counts[i];
+				if(count >= threshold && count > 0)
+					return Math.min(getBucketUpperBound(i), m_MaxValue);
+			}
+			return m_MaxValue;
+		}
+		
+		// Record value.
+		synchronized void record(long value)
+		{
+			++m_Counts[getBucketIndex(value)];
+			++m_TotalCount;
+			m_TotalValue += value;
+			if(value > m_MaxValue)
+				m_MaxValue = value;
+		}
+		
+		// Clear all values.
+		synchronized void reset()
+		{
+			for(int i = BUCKET_COUNT - 1 ; i >= 0 ; --i)
+				m_Counts[i] = 0;
+			m_TotalCount = 0;
+			m_TotalValue = 0;
+			m_MaxValue = 0;
+		}
+	}
+	
+	
+	/**
+	 * Profiling record of single message or call-back type on single handler.
+	 */
+	public static final class Record
+	{
+		/**
+		 * Histogram of execution time in microseconds.
+		 */
+		public final Histogram executionTime = new Histogram();
+		/**
+		 * Name of handler.
+		 */
+		public final String handlerName;
+		/**
+		 * Name of message, either message code or class of call-back.
+		 */
+		public final String messageName;
+		/**
+		 * Histogram of time in microseconds between the time message should be dispatched and the time message is actually dispatched.
+		 */
+		public final Histogram queueWaitTime = new Histogram();
+		/**
+		 * Name of thread which dispatches message.
+		 */
+		public final String threadName;
+		
+		// Constructor
+		private Record(String threadName, String handlerName, String messageName)
+		{
+			this.threadName = threadName;
+			this.handlerName = handlerName;
+			this.messageName = messageName;
+		}
+	}
+	
+	
+	// Constructor
+	private LooperProfiler()
+	{}
+	
+	
+	/**
+	 * Get record for current thread, records with same names are shared. All messages share single record if there are too many records.
+	 * @param handlerName Name of handler.
+	 * @param messageName Name of message.
+	 * @return Record.
+	 */
+	static Record createRecord(String handlerName, String messageName)
+	{
+		String threadName = Thread.currentThread().getName();
+		String name = (threadName + "/" + handlerName + "/" + messageName);
+		synchronized(m_Records)
+		{
+			Record record = m_Records.get(name);
+			if(record != null)
+				return record;
+			if(m_Records.size() >= MAX_RECORD_COUNT)
+			{
+				if(m_OverflowRecord == null)
+					m_OverflowRecord = new Record("*", "*", "(others)");
+				return m_OverflowRecord;
+			}
+			record = new Record(threadName, handlerName, messageName);
+			m_Records.put(name, record);
+			return record;
+		}
+	}
+	
+	
+	/**
+	 * Print profiling snapshot.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		writer.println("Looper profile (enabled : " + m_IsEnabled + ")");
+		writer.println("  Thread, Handler, Message, Count, Wait mean/p50/p99/max (us), Execution mean/p50/p99/max (us)");
+		for(Record record : getRecords())
+		{
+			Histogram wait = record.queueWaitTime;
+			Histogram execution = record.executionTime;
+			writer.println("  " + record.threadName
+					+ ", " + record.handlerName
+					+ ", " + record.messageName
+					+ ", " + execution.getCount()
+					+ ", " + wait.getMean() + "/" + wait.getPercentile(50) + "/" + wait.getPercentile(99) + "/" + wait.getMax()
+					+ ", " + execution.getMean() + "/" + execution.getPercentile(50) + "/" + execution.getPercentile(99) + "/" + execution.getMax());
+		}
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Get all records.
+	 * @return List of records.
+	 */
+	public static List<Record> getRecords()
+	{
+		synchronized(m_Records)
+		{
+			ArrayList<Record> records = new ArrayList<>(m_Records.values());
+			if(m_OverflowRecord != null)
+				records.add(m_OverflowRecord);
+			return records;
+		}
+	}
+	
+	
+	/**
+	 * Check whether profiler is enabled or not.
+	 * @return Whether profiler is enabled or not.
+	 */
+	public static boolean isEnabled()
+	{
+		return m_IsEnabled;
+	}
+	
+	
+	/**
+	 * Clear all profiling data.
+	 */
+	public static void reset()
+	{
+		for(Record record : getRecords())
+		{
+			record.queueWaitTime.reset();
+			record.executionTime.reset();
+		}
+	}
+	
+	
+	/**
+	 * Enable or disable profiler.
+	 * @param enabled Whether profiler should be enabled or not.
+	 */
+	public static void setEnabled(boolean enabled)
+	{
+		m_IsEnabled = enabled;
+	}
+}
@@ -0,0 +1,336 @@
+package com.oneplus.base;
+
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of {@link RecyclableObject} instances. Each thread keeps a small cache of recycled objects, objects exceed the thread cache are put into a shared lock-free storage.
+ * @param <T> Type of object.
+ */
+public final class ObjectPool<T extends RecyclableObject>
+{
+	/**
+	 * Whether double-recycle and use-after-recycle checking is enabled or not, enabled in debug build only.
+	 */
+	public static final boolean ENABLE_RECYCLING_CHECK = BuildConfig.DEBUG;
+	
+	
+	// Constants
+	private static final int DEFAULT_LOCAL_CAPACITY = 4;
+	
+	
+	/**
+	 * Pool name.
+	 */
+	public final String name;
+	
+	
+	// Private fields
+	private final ContentionProfiler.Site m_ContentionSite;
+	private final Factory<T> m_Factory;
+	private final int m_LocalCapacity;
+	private final ThreadLocal<LocalCache> m_LocalCache = new ThreadLocal<LocalCache>()
+	{
+		@Override
+		protected LocalCache initialValue()
+		{
+			LocalCache cache = new LocalCache(Thread.currentThread(), m_LocalCapacity);
+			pruneLocalCaches();
+			m_LocalCaches.add(cache);
+			return cache;
+		}
+	};
+	private final CopyOnWriteArrayList<LocalCache> m_LocalCaches = new CopyOnWriteArrayList<>();
+	private final IdentityHashMap<Object, Boolean> m_RecycledObjects;
+	private long m_RetiredHitCount;
+	private long m_RetiredMissCount;
+	private long m_RetiredOverflowCount;
+	private final AtomicReferenceArray<Object> m_SharedObjects;
+	
+	
+	/**
+	 * Factory to create new object.
+	 * @param <T> Type of object.
+	 */
+	public interface Factory<T>
+	{
+		/**
+		 * Create new object.
+		 * @return New object.
+		 */
+		T create();
+	}
+	
+	
+	// Per-thread cache.
+	private static final class LocalCache
+	{
+		public int count;
+		public long hitCount;
+		public long missCount;
+		public final Object[] objects;
+		public long overflowCount;
+		public final WeakReference<Thread> thread;
+		
+		public LocalCache(Thread thread, int capacity)
+		{
+			this.objects = new Object[capacity];
+			this.thread = new WeakReference<>(thread);
+		}
+		
+		public boolean isThreadAlive()
+		{
+			Thread thread = this.thread.get();
+			return (thread != null && thread.isAlive());
+		}
+	}
+	
+	
+	/**
+	 * Initialize new ObjectPool instance.
+	 * @param name Pool name.
+	 * @param capacity Capacity of shared storage.
+	 * @param factory Factory to create new object.
+	 */
+	public ObjectPool(String name, int capacity, Factory<T> factory)
+	{
+		this(name, capacity, Math.min(capacity, DEFAULT_LOCAL_CAPACITY), factory);
+	}
+	
+	
+	/**
+	 * Initialize new ObjectPool instance.
+	 * @param name Pool name.
+	 * @param capacity Capacity of shared storage.
+	 * @param localCapacity Capacity of cache for each thread.
+	 * @param factory Factory to create new object.
+	 */
+	public ObjectPool(String name, int capacity, int localCapacity, Factory<T> factory)
+	{
+		if(capacity < 0 || localCapacity < 0)
+			throw new IllegalArgumentException("Invalid capacity.");
+		if(factory == null)
+			throw new IllegalArgumentException("No factory.");
+		this.name = name;
+		m_ContentionSite = (ContentionProfiler.ENABLED ? ContentionProfiler.createSite("ObjectPool(" + name + ")") : null);
+		m_Factory = factory;
+		m_LocalCapacity = localCapacity;
+		m_SharedObjects = new AtomicReferenceArray<>(capacity);
+		if(ENABLE_RECYCLING_CHECK)
+			m_RecycledObjects = new IdentityHashMap<>();
+		else
+			m_RecycledObjects = null;
+	}
+	
+	
+	/**
+	 * Get number of objects obtained from pool.
+	 * @return Number of hits.
+	 */
+	public long getHitCount()
+	{
+		this.pruneLocalCaches();
+		long count;
+		synchronized(m_LocalCaches)
+		{
+			count = m_RetiredHitCount;
+		}
+		for(LocalCache cache : m_LocalCaches)
+			count += cache.hitCount;
+		return count;
+	}
+	
+	
+	/**
+	 * Get number of objects created because pool is empty.
+	 * @return Number of misses.
+	 */
+	public long getMissCount()
+	{
+		this.pruneLocalCaches();
+		long count;
+		synchronized(m_LocalCaches)
+		{
+			count = m_RetiredMissCount;
+		}
+		for(LocalCache cache : m_LocalCaches)
+			count += cache.missCount;
+		return count;
+	}
+	
+	
+	/**
+	 * Get number of recycled objects dropped because pool is full.
+	 * @return Number of overflows.
+	 */
+	public long getOverflowCount()
+	{
+		this.pruneLocalCaches();
+		long count;
+		synchronized(m_LocalCaches)
+		{
+			count = m_RetiredOverflowCount;
+		}
+		for(LocalCache cache : m_LocalCaches)
+			count += cache.overflowCount;
+		return count;
+	}
+	
+	
+	/**
+	 * Check whether given object has been recycled to this pool or not. This method only works when {@link #ENABLE_RECYCLING_CHECK} is True.
+	 * @param obj Object to check.
+	 * @return Whether object has been recycled or not.
+	 */
+	public boolean isRecycled(T obj)
+	{
+		if(ENABLE_RECYCLING_CHECK)
+		{
+			synchronized(m_RecycledObjects)
+			{
+				return m_RecycledObjects.containsKey(obj);
+			}
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * Obtain an object from pool, or create new one if pool is empty.
+	 * @return Object.
+	 */
+	@SuppressWarnings("unchecked")
+	public T obtain()
+	{
+		// get from thread cache
+		LocalCache cache = m_LocalCache.get();
+		Object obj = null;
+		if(cache.count > 0)
+		{
+			obj = cache.objects[--cache.count];
+			cache.objects[cache.count] = null;
+		}
+		
+		// get from shared storage
+		if(obj == null)
+		{
+			AtomicReferenceArray<Object> sharedObjects = m_SharedObjects;
+			for(int i = 0, count = sharedObjects.length() ; i < count ; ++i)
+			{
+				if(sharedObjects.get(i) != null)
+				{
+					obj = sharedObjects.getAndSet(i, null);
+					if(ContentionProfiler.ENABLED)
+						ContentionProfiler.onAccessed(m_ContentionSite, (obj == null));
+					if(obj != null)
+						break;
+				}
+			}
+		}
+		
+		// create new object
+		if(obj != null)
+			++cache.hitCount;
+		else
+		{
+			++cache.missCount;
+			return m_Factory.create();
+		}
+		if(ENABLE_RECYCLING_CHECK)
+			this.removeRecycledObject(obj);
+		return (T)obj;
+	}
+	
+	
+	// Remove caches of dead threads, objects in those caches are dropped.
+	private void pruneLocalCaches()
+	{
+		for(LocalCache cache : m_LocalCaches)
+		{
+			if(cache.isThreadAlive())
+				continue;
+			synchronized(m_LocalCaches)
+			{
+				if(!m_LocalCaches.remove(cache))
+					continue;
+				m_RetiredHitCount += cache.hitCount;
+				m_RetiredMissCount += cache.missCount;
+				m_RetiredOverflowCount += cache.overflowCount;
+			}
+			if(ENABLE_RECYCLING_CHECK)
+			{
+				for(int i = cache.count - 1 ; i >= 0 ; --i)
+					this.removeRecycledObject(cache.objects[i]);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Put object back to pool.
+	 * @param obj Object to put back.
+	 * @return Whether object is put back to pool or not.
+	 */
+	public boolean recycle(T obj)
+	{
+		// check parameter
+		if(obj == null)
+			return false;
+		if(ENABLE_RECYCLING_CHECK)
+		{
+			synchronized(m_RecycledObjects)
+			{
+				if(m_RecycledObjects.put(obj, Boolean.TRUE) != null)
+					throw new IllegalStateException("Object " + obj + " has already been recycled to " + this.name);
+			}
+		}
+		
+		// put into thread cache
+		LocalCache cache = m_LocalCache.get();
+		if(cache.count < cache.objects.length)
+		{
+			cache.objects[cache.count++] = obj;
+			return true;
+		}
+		
+		// put into shared storage
+		AtomicReferenceArray<Object> sharedObjects = m_SharedObjects;
+		for(int i = 0, count = sharedObjects.length() ; i < count ; ++i)
+		{
+			if(sharedObjects.get(i) == null)
+			{
+				boolean isSet = sharedObjects.compareAndSet(i, null, obj);
+				if(ContentionProfiler.ENABLED)
+					ContentionProfiler.onAccessed(m_ContentionSite, !isSet);
+				if(isSet)
+					return true;
+			}
+		}
+		
+		// drop object
+		++cache.overflowCount;
+		if(ENABLE_RECYCLING_CHECK)
+			this.removeRecycledObject(obj);
+		return false;
+	}
+	
+	
+	// Remove object from recycled objects.
+	private void removeRecycledObject(Object obj)
+	{
+		synchronized(m_RecycledObjects)
+		{
+			m_RecycledObjects.remove(obj);
+		}
+	}
+	
+	
+	// Get string represents this pool.
+	@Override
+	public String toString()
+	{
+		return this.name + "[hit=" + this.getHitCount() + ", miss=" + this.getMissCount() + ", overflow=" + this.getOverflowCount() + "]";
+	}
+}
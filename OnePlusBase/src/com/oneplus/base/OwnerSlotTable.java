@@ -0,0 +1,116 @@
+package com.oneplus.base;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Table to assign dense indices to owner types of {@link PropertyKey} and {@link EventKey}.
+ */
+final class OwnerSlotTable
+{
+	// Private static fields
+	private static volatile OwnerSlotTable m_LastTable;
+	private static final HashMap<Class<?>, OwnerSlotTable> m_Tables = new HashMap<>();
+	private static volatile int m_OwnerCount;
+	
+	
+	/**
+	 * Dense index of owner type.
+	 */
+	public final int ownerIndex;
+	/**
+	 * Owner type.
+	 */
+	public final Class<?> ownerType;
+	
+	
+	// Private fields
+	private final AtomicInteger m_EventSlotCount = new AtomicInteger();
+	private final AtomicInteger m_PropertySlotCount = new AtomicInteger();
+	
+	
+	// Constructor
+	private OwnerSlotTable(Class<?> ownerType, int ownerIndex)
+	{
+		this.ownerType = ownerType;
+		this.ownerIndex = ownerIndex;
+	}
+	
+	
+	/**
+	 * Allocate slot for new event.
+	 * @return Slot index.
+	 */
+	public int allocateEventSlot()
+	{
+		return m_EventSlotCount.getAndIncrement();
+	}
+	
+	
+	/**
+	 * Allocate slot for new property.
+	 * @return Slot index.
+	 */
+	public int allocatePropertySlot()
+	{
+		return m_PropertySlotCount.getAndIncrement();
+	}
+	
+	
+	/**
+	 * Get table for given owner type, create new one if needed.
+	 * @param ownerType Owner type.
+	 * @return Slot table.
+	 */
+	public static OwnerSlotTable fromOwnerType(Class<?> ownerType)
+	{
+		// use last table, keys of same owner type are usually initialized continuously
+		OwnerSlotTable table = m_LastTable;
+		if(table != null && table.ownerType == ownerType)
+			return table;
+		
+		// find or create table
+		synchronized(m_Tables)
+		{
+			table = m_Tables.get(ownerType);
+			if(table == null)
+			{
+				table = new OwnerSlotTable(ownerType, m_OwnerCount);
+				m_Tables.put(ownerType, table);
+				++m_OwnerCount;
+			}
+		}
+		m_LastTable = table;
+		return table;
+	}
+	
+	
+	/**
+	 * Get number of events allocated for this owner type.
+	 * @return Number of event slots.
+	 */
+	public int getEventSlotCount()
+	{
+		return m_EventSlotCount.get();
+	}
+	
+	
+	/**
+	 * Get number of owner types.
+	 * @return Number of owner types.
+	 */
+	public static int getOwnerCount()
+	{
+		return m_OwnerCount;
+	}
+	
+	
+	/**
+	 * Get number of properties allocated for this owner type.
+	 * @return Number of property slots.
+	 */
+	public int getPropertySlotCount()
+	{
+		return m_PropertySlotCount.get();
+	}
+}
@@ -1,6 +1,6 @@
 package com.oneplus.base;
 
-import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Event data for property changing.
@@ -12,21 +12,25 @@ public class PropertyChangeEventArgs<TValue> extends EventArgs implements Recycl
 	
 	
 	// Private static fields
-	private static final ArrayDeque<PropertyChangeEventArgs<?>> m_Pool = new ArrayDeque<>(POOL_CAPACITY);
+	private static final ObjectPool<PropertyChangeEventArgs<?>> m_Pool = new ObjectPool<>("PropertyChangeEventArgs", POOL_CAPACITY, new ObjectPool.Factory<PropertyChangeEventArgs<?>>()
+	{
+		@Override
+		public PropertyChangeEventArgs<?> create()
+		{
+			return new PropertyChangeEventArgs<Object>();
+		}
+	});
 	
 	
 	// Private fields
-	private volatile boolean m_IsAvailable;
+	private final AtomicBoolean m_IsAvailable = new AtomicBoolean();
 	private volatile TValue m_NewValue;
 	private volatile TValue m_OldValue;
 	
 	
 	// Constructor
-	private PropertyChangeEventArgs(TValue oldValue, TValue newValue)
-	{
-		m_OldValue = oldValue;
-		m_NewValue = newValue;
-	}
+	private PropertyChangeEventArgs()
+	{}
 	
 	
 	/**
@@ -36,17 +40,12 @@ public class PropertyChangeEventArgs<TValue> extends EventArgs implements Recycl
 	 * @return {@link PropertyChangeEventArgs} instance.
 	 */
 	@SuppressWarnings("unchecked")
-	public static synchronized <TValue> PropertyChangeEventArgs<TValue> obtain(TValue oldValue, TValue newValue)
+	public static <TValue> PropertyChangeEventArgs<TValue> obtain(TValue oldValue, TValue newValue)
 	{
-		PropertyChangeEventArgs<TValue> e = (PropertyChangeEventArgs<TValue>)m_Pool.pollLast();
-		if(e != null)
-		{
-			e.m_OldValue = oldValue;
-			e.m_NewValue = newValue;
-			e.m_IsAvailable = false;
-		}
-		else
-			e = new PropertyChangeEventArgs<TValue>(oldValue, newValue);
+		PropertyChangeEventArgs<TValue> e = (PropertyChangeEventArgs<TValue>)m_Pool.obtain();
+		e.m_OldValue = oldValue;
+		e.m_NewValue = newValue;
+		e.m_IsAvailable.set(false);
 		return e;
 	}
 	
@@ -57,7 +56,7 @@ public class PropertyChangeEventArgs<TValue> extends EventArgs implements Recycl
 	 */
 	public final TValue getNewValue()
 	{
-		if(m_IsAvailable)
+		if(m_IsAvailable.get())
 			throw new IllegalStateException();
 		return m_NewValue;
 	}
@@ -69,7 +68,7 @@ public class PropertyChangeEventArgs<TValue> extends EventArgs implements Recycl
 	 */
 	public final TValue getOldValue()
 	{
-		if(m_IsAvailable)
+		if(m_IsAvailable.get())
 			throw new IllegalStateException();
 		return m_OldValue;
 	}
@@ -80,20 +79,15 @@ public class PropertyChangeEventArgs<TValue> extends EventArgs implements Recycl
 	 */
 	public final void recycle()
 	{
-		recycle(this);
-	}
-	
-	
-	// Put instance back to pool.
-	private static synchronized void recycle(PropertyChangeEventArgs<?> e)
-	{
-		if(e.m_IsAvailable)
+		if(!m_IsAvailable.compareAndSet(false, true))
+		{
+			if(ObjectPool.ENABLE_RECYCLING_CHECK)
+				throw new IllegalStateException("Instance has already been recycled.");
 			return;
-		if(m_Pool.size() < POOL_CAPACITY)
-			m_Pool.push(e);
-		e.m_OldValue = null;
-		e.m_NewValue = null;
-		e.m_IsAvailable = true;
-		e.clearHandledState();
+		}
+		m_OldValue = null;
+		m_NewValue = null;
+		this.clearHandledState();
+		m_Pool.recycle(this);
 	}
 }
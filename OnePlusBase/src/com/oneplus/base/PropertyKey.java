@@ -1,10 +1,12 @@
 package com.oneplus.base;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Key to represent a property.
  * @param <TValue> Type of property value.
  */
-public final class PropertyKey<TValue>
+public class PropertyKey<TValue>
 {
 	/**
 	 * Flag to indicate that property is read-only.
@@ -42,8 +44,16 @@ public final class PropertyKey<TValue>
 	public final Class<TValue> valueType;
 	
 	
+	// Package fields
+	final long defaultRawValue;
+	final boolean isPrimitive;
+	final int ownerIndex;
+	final OwnerSlotTable ownerSlotTable;
+	final int slot;
+	
+	
 	// Private static fields
-	private static volatile int m_NextId = 1;
+	private static final AtomicInteger m_NextId = new AtomicInteger(1);
 	
 	
 	/**
@@ -72,6 +82,13 @@ public final class PropertyKey<TValue>
 	 * @param defaultValue Default property value.
 	 */
 	public PropertyKey(String name, Class<TValue> valueType, Class<? extends PropertySource> ownerType, int flags, TValue defaultValue)
+	{
+		this(name, valueType, ownerType, flags, defaultValue, false, 0);
+	}
+	
+	
+	// Constructor for primitive property keys.
+	PropertyKey(String name, Class<TValue> valueType, Class<? extends PropertySource> ownerType, int flags, TValue defaultValue, boolean isPrimitive, long defaultRawValue)
 	{
 		// check parameter
 		if(name == null)
@@ -85,18 +102,37 @@ public final class PropertyKey<TValue>
 		
 		// initialize
 		this.defaultValue = defaultValue;
+		this.defaultRawValue = defaultRawValue;
 		this.flags = flags;
+		this.isPrimitive = isPrimitive;
 		this.id = generateId();
 		this.name = name;
 		this.ownerType = ownerType;
+		this.ownerSlotTable = OwnerSlotTable.fromOwnerType(ownerType);
+		this.ownerIndex = this.ownerSlotTable.ownerIndex;
+		this.slot = this.ownerSlotTable.allocatePropertySlot();
 		this.valueType = valueType;
 	}
 	
 	
+	// Convert raw primitive value to boxed value.
+	Object fromRawValue(long rawValue)
+	{
+		throw new UnsupportedOperationException("Property " + this + " is not primitive.");
+	}
+	
+	
 	// Generate ID
-	private static synchronized int generateId()
+	private static int generateId()
+	{
+		return m_NextId.getAndIncrement();
+	}
+	
+	
+	// Call primitive call-back, return False if call-back is not primitive call-back.
+	boolean invokePrimitiveCallback(Object callback, PropertySource source, long oldRawValue, long newRawValue)
 	{
-		return (m_NextId++);
+		return false;
 	}
 	
 	
@@ -110,6 +146,13 @@ public final class PropertyKey<TValue>
 	}
 	
 	
+	// Convert boxed value to raw primitive value.
+	long toRawValue(Object value)
+	{
+		throw new UnsupportedOperationException("Property " + this + " is not primitive.");
+	}
+	
+	
 	// Get string represents this property.
 	@Override
 	public String toString()
@@ -0,0 +1,200 @@
+package com.oneplus.base;
+
+import java.util.List;
+
+import android.os.SystemClock;
+
+/**
+ * Channel to mirror property changes from one thread to another. Only the latest value of each changed property is delivered to consumer thread, and there is at most one pending delivery at any time.
+ */
+public final class PropertyMirror
+{
+	// Private fields
+	private final Callback m_Callback;
+	private final HandlerObject m_Consumer;
+	private final int[] m_DirtySlots;
+	private int m_DirtySlotCount;
+	private final Object[] m_DrainNewValues;
+	private final Object[] m_DrainOldValues;
+	private final int[] m_DrainSlots;
+	private final long[] m_DrainTimes;
+	private boolean m_IsDrainScheduled;
+	private final boolean[] m_IsSlotDirty;
+	private final PropertyKey<?>[] m_Keys;
+	private final Object m_Lock = new Object();
+	private final Object[] m_NewValues;
+	private final Object[] m_OldValues;
+	private final long[] m_Times;
+	
+	
+	// Call-backs
+	private final Runnable m_DrainRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drain();
+		}
+	};
+	@SuppressWarnings("rawtypes")
+	private final PropertyChangedCallback m_PropertyChangedCallback = new PropertyChangedCallback()
+	{
+		@Override
+		public void onPropertyChanged(PropertySource source, PropertyKey key, PropertyChangeEventArgs e)
+		{
+			update(key, e.getOldValue(), e.getNewValue());
+		}
+	};
+	
+	
+	/**
+	 * Call-back to receive mirrored property changes in consumer thread.
+	 */
+	public interface Callback
+	{
+		/**
+		 * Called when property changes.
+		 * @param key Property key.
+		 * @param time Time of latest change, use {@link SystemClock#elapsedRealtimeNanos()} to check with current time.
+		 * @param e Event data with first old value and latest new value since last delivery, it will be recycled after returning.
+		 */
+		void onPropertyChanged(PropertyKey<?> key, long time, PropertyChangeEventArgs<?> e);
+	}
+	
+	
+	/**
+	 * Initialize new PropertyMirror instance.
+	 * @param consumer Object owns the thread to receive property changes.
+	 * @param keys Keys of properties to mirror.
+	 * @param callback Call-back to receive property changes.
+	 */
+	public PropertyMirror(HandlerObject consumer, List<PropertyKey<?>> keys, Callback callback)
+	{
+		if(consumer == null)
+			throw new IllegalArgumentException("No consumer.");
+		if(callback == null)
+			throw new IllegalArgumentException("No call-back.");
+		int count = keys.size();
+		m_Consumer = consumer;
+		m_Callback = callback;
+		m_Keys = keys.toArray(new PropertyKey<?>[count]);
+		m_IsSlotDirty = new boolean[count];
+		m_OldValues = new Object[count];
+		m_NewValues = new Object[count];
+		m_Times = new long[count];
+		m_DirtySlots = new int[count];
+		m_DrainSlots = new int[count];
+		m_DrainOldValues = new Object[count];
+		m_DrainNewValues = new Object[count];
+		m_DrainTimes = new long[count];
+	}
+	
+	
+	/**
+	 * Start mirroring properties of given source, this method should be called in the thread which source depends on.
+	 * @param source Property source.
+	 */
+	@SuppressWarnings("unchecked")
+	public void bind(PropertySource source)
+	{
+		for(int i = m_Keys.length - 1 ; i >= 0 ; --i)
+			source.addCallback((PropertyKey<Object>)m_Keys[i], m_PropertyChangedCallback);
+	}
+	
+	
+	// Deliver pending changes (in consumer thread).
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void drain()
+	{
+		// collect changes
+		int count;
+		synchronized(m_Lock)
+		{
+			count = m_DirtySlotCount;
+			for(int i = 0 ; i < count ; ++i)
+			{
+				int slot = m_DirtySlots[i];
+				m_DrainSlots[i] = slot;
+				m_DrainOldValues[i] = m_OldValues[slot];
+				m_DrainNewValues[i] = m_NewValues[slot];
+				m_DrainTimes[i] = m_Times[slot];
+				m_OldValues[slot] = null;
+				m_NewValues[slot] = null;
+				m_IsSlotDirty[slot] = false;
+			}
+			m_DirtySlotCount = 0;
+			m_IsDrainScheduled = false;
+		}
+		
+		// deliver changes
+		for(int i = 0 ; i < count ; ++i)
+		{
+			PropertyChangeEventArgs e = PropertyChangeEventArgs.obtain(m_DrainOldValues[i], m_DrainNewValues[i]);
+			m_DrainOldValues[i] = null;
+			m_DrainNewValues[i] = null;
+			m_Callback.onPropertyChanged(m_Keys[m_DrainSlots[i]], m_DrainTimes[i], e);
+			e.recycle();
+		}
+	}
+	
+	
+	/**
+	 * Stop mirroring properties of given source, this method should be called in the thread which source depends on.
+	 * @param source Property source.
+	 */
+	@SuppressWarnings("unchecked")
+	public void unbind(PropertySource source)
+	{
+		for(int i = m_Keys.length - 1 ; i >= 0 ; --i)
+			source.removeCallback((PropertyKey<Object>)m_Keys[i], m_PropertyChangedCallback);
+	}
+	
+	
+	/**
+	 * Update property value to mirror, this method can be called in any thread.
+	 * @param key Property key.
+	 * @param oldValue Old property value.
+	 * @param newValue New property value.
+	 */
+	public void update(PropertyKey<?> key, Object oldValue, Object newValue)
+	{
+		// find slot
+		int slot = -1;
+		for(int i = m_Keys.length - 1 ; i >= 0 ; --i)
+		{
+			if(m_Keys[i] == key)
+			{
+				slot = i;
+				break;
+			}
+		}
+		if(slot < 0)
+			throw new IllegalArgumentException("Property " + key + " is not mirrored.");
+		
+		// update slot
+		long time = SystemClock.elapsedRealtimeNanos();
+		synchronized(m_Lock)
+		{
+			if(!m_IsSlotDirty[slot])
+			{
+				m_IsSlotDirty[slot] = true;
+				m_OldValues[slot] = oldValue;
+				m_DirtySlots[m_DirtySlotCount++] = slot;
+			}
+			m_NewValues[slot] = newValue;
+			m_Times[slot] = time;
+			if(m_IsDrainScheduled)
+				return;
+			m_IsDrainScheduled = true;
+		}
+		
+		// schedule delivery
+		if(!HandlerUtils.post(m_Consumer, m_DrainRunnable))
+		{
+			synchronized(m_Lock)
+			{
+				m_IsDrainScheduled = false;
+			}
+		}
+	}
+}
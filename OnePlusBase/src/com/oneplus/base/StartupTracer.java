@@ -0,0 +1,372 @@
+package com.oneplus.base;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.os.Process;
+
+/**
+ * Tracer to record startup spans across threads and find critical path of startup.
+ */
+public final class StartupTracer
+{
+	/**
+	 * Whether tracer is enabled or not.
+	 */
+	public static final boolean ENABLED = false;
+	
+	
+	// Constants
+	private static final long CONTINUOUS_THRESHOLD = 1000000;
+	private static final int MAX_SPAN_COUNT = 4096;
+	private static final String TAG = "StartupTracer";
+	private static final int TOP_SPAN_COUNT = 5;
+	
+	
+	// Private static fields
+	private static volatile boolean m_IsTracing;
+	private static final ArrayList<Span> m_Spans = new ArrayList<>();
+	private static long m_StartTime;
+	
+	
+	/**
+	 * Traced span.
+	 */
+	public static final class Span
+	{
+		/**
+		 * Name of span.
+		 */
+		public final String name;
+		/**
+		 * Start time got from {@link System#nanoTime()}.
+		 */
+		public final long startTime;
+		/**
+		 * Linux thread ID which starts the span.
+		 */
+		public final int threadId;
+		/**
+		 * Name of thread which starts the span.
+		 */
+		public final String threadName;
+		
+		// Private fields
+		private volatile long m_EndTime;
+		private final boolean m_IsInstant;
+		
+		// Constructor
+		private Span(String name, boolean isInstant)
+		{
+			this.name = name;
+			this.startTime = System.nanoTime();
+			this.threadId = Process.myTid();
+			this.threadName = Thread.currentThread().getName();
+			m_IsInstant = isInstant;
+			if(isInstant)
+				m_EndTime = this.startTime;
+		}
+		
+		/**
+		 * Get end time.
+		 * @return End time got from {@link System#nanoTime()}, or 0 if span is not ended yet.
+		 */
+		public long getEndTime()
+		{
+			return m_EndTime;
+		}
+	}
+	
+	
+	// Comparator to sort spans by duration.
+	private static final Comparator<Span> DURATION_COMPARATOR = new Comparator<Span>()
+	{
+		@Override
+		public int compare(Span lhs, Span rhs)
+		{
+			long lhsTime = (lhs.m_EndTime - lhs.startTime);
+			long rhsTime = (rhs.m_EndTime - rhs.startTime);
+			return (lhsTime > rhsTime ? -1 : (lhsTime < rhsTime ? 1 : 0));
+		}
+	};
+	
+	
+	// Constructor
+	private StartupTracer()
+	{}
+	
+	
+	// Add span to trace.
+	private static Span addSpan(String name, boolean isInstant)
+	{
+		if(!m_IsTracing)
+			return null;
+		Span span = new Span(name, isInstant);
+		synchronized(m_Spans)
+		{
+			if(!m_IsTracing || m_Spans.size() >= MAX_SPAN_COUNT)
+				return null;
+			m_Spans.add(span);
+		}
+		return span;
+	}
+	
+	
+	// Append string to JSON.
+	private static void appendJsonString(StringBuilder json, String str)
+	{
+		json.append('"');
+		for(int i = 0, length = str.length() ; i < length ; ++i)
+		{
+			char c = str.charAt(i);
+			switch(c)
+			{
+				case '"':
+				case '\\':
+					json.append('\\').append(c);
+					break;
+				default:
+					if(c < 0x20)
+						json.append(String.format("\\u%04x", (int)c));
+					else
+						json.append(c);
+					break;
+			}
+		}
+		json.append('"');
+	}
+	
+	
+	/**
+	 * Start a span in current thread. The span can be ended in any thread.
+	 * @param name Name of span.
+	 * @return Started span, or Null if tracer is not tracing.
+	 */
+	public static Span begin(String name)
+	{
+		return addSpan(name, false);
+	}
+	
+	
+	// Create trace in Chrome trace event format.
+	private static String createChromeTrace(List<Span> spans, List<Span> criticalPath, long endTime)
+	{
+		StringBuilder json = new StringBuilder("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+		int pid = Process.myPid();
+		HashMap<Integer, String> threadNames = new HashMap<>();
+		for(int i = 0, count = spans.size() ; i < count ; ++i)
+		{
+			Span span = spans.get(i);
+			long spanEndTime = span.m_EndTime;
+			if(i > 0)
+				json.append(',');
+			json.append("{\"name\":");
+			appendJsonString(json, span.name);
+			json.append(",\"cat\":\"").append(criticalPath.contains(span) ? "critical" : "startup").append('"');
+			json.append(",\"ph\":\"").append(span.m_IsInstant ? "i\",\"s\":\"t" : "X").append('"');
+			json.append(",\"ts\":").append((span.startTime - m_StartTime) / 1000);
+			if(!span.m_IsInstant)
+				json.append(",\"dur\":").append(((spanEndTime != 0 ? spanEndTime : endTime) - span.startTime) / 1000);
+			json.append(",\"pid\":").append(pid);
+			json.append(",\"tid\":").append(span.threadId);
+			if(spanEndTime == 0)
+				json.append(",\"args\":{\"unfinished\":true}");
+			json.append('}');
+			threadNames.put(span.threadId, span.threadName);
+		}
+		for(Map.Entry<Integer, String> entry : threadNames.entrySet())
+		{
+			json.append(",{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(pid);
+			json.append(",\"tid\":").append(entry.getKey());
+			json.append(",\"args\":{\"name\":");
+			appendJsonString(json, entry.getValue());
+			json.append("}}");
+		}
+		json.append("]}");
+		return json.toString();
+	}
+	
+	
+	/**
+	 * End given span.
+	 * @param span Span to end, can be Null.
+	 */
+	public static void end(Span span)
+	{
+		if(span != null && span.m_EndTime == 0)
+			span.m_EndTime = System.nanoTime();
+	}
+	
+	
+	// Find predecessor of span which starts at given time in given thread.
+	private static Span findPredecessor(List<Span> spans, List<Span> criticalPath, int threadId, long time)
+	{
+		// find latest finished span in same thread and other threads
+		Span sameThreadSpan = null;
+		Span otherThreadSpan = null;
+		for(int i = spans.size() - 1 ; i >= 0 ; --i)
+		{
+			Span span = spans.get(i);
+			long endTime = span.m_EndTime;
+			if(endTime == 0 || endTime > time || criticalPath.contains(span))
+				continue;
+			if(span.threadId == threadId)
+			{
+				if(sameThreadSpan == null || endTime > sameThreadSpan.m_EndTime || (endTime == sameThreadSpan.m_EndTime && span.startTime < sameThreadSpan.startTime))
+					sameThreadSpan = span;
+			}
+			else if(otherThreadSpan == null || endTime > otherThreadSpan.m_EndTime || (endTime == otherThreadSpan.m_EndTime && span.startTime < otherThreadSpan.startTime))
+				otherThreadSpan = span;
+		}
+		
+		// select predecessor, thread which was idle is treated as waiting for span finished in other thread
+		if(sameThreadSpan != null && (time - sameThreadSpan.m_EndTime) <= CONTINUOUS_THRESHOLD)
+			return sameThreadSpan;
+		if(otherThreadSpan != null && (sameThreadSpan == null || otherThreadSpan.m_EndTime > sameThreadSpan.m_EndTime))
+			return otherThreadSpan;
+		return sameThreadSpan;
+	}
+	
+	
+	/**
+	 * Finish tracing, print summary to log and write trace in Chrome trace event format to file.
+	 * @param name Name of final event.
+	 * @param file File to write trace, or Null to print summary only.
+	 */
+	public static void finish(String name, final File file)
+	{
+		// stop tracing
+		if(!m_IsTracing)
+			return;
+		Span finalSpan = new Span(name, true);
+		List<Span> spans;
+		synchronized(m_Spans)
+		{
+			if(!m_IsTracing)
+				return;
+			m_IsTracing = false;
+			m_Spans.add(finalSpan);
+			spans = new ArrayList<>(m_Spans);
+		}
+		
+		// find critical path
+		List<Span> criticalPath = new ArrayList<>();
+		criticalPath.add(finalSpan);
+		for(Span span = finalSpan ; ; )
+		{
+			span = findPredecessor(spans, criticalPath, span.threadId, span.startTime);
+			if(span == null)
+				break;
+			criticalPath.add(span);
+		}
+		Collections.reverse(criticalPath);
+		
+		// summarize critical path
+		long totalTime = (finalSpan.startTime - m_StartTime);
+		long idleTime = totalTime;
+		HashMap<String, Long> threadTimes = new HashMap<>();
+		for(int i = criticalPath.size() - 1 ; i >= 0 ; --i)
+		{
+			Span span = criticalPath.get(i);
+			long time = (span.m_EndTime - span.startTime);
+			Long threadTime = threadTimes.get(span.threadName);
+			threadTimes.put(span.threadName, (threadTime != null ? threadTime + time : time));
+			idleTime -= time;
+		}
+		List<Span> topSpans = new ArrayList<>(criticalPath);
+		Collections.sort(topSpans, DURATION_COMPARATOR);
+		StringBuilder summary = new StringBuilder("Startup trace - Total : ");
+		summary.append(totalTime / 1000000).append(" ms, critical path : ").append(criticalPath.size()).append(" spans (");
+		for(Map.Entry<String, Long> entry : threadTimes.entrySet())
+			summary.append(entry.getKey()).append(' ').append(entry.getValue() / 1000000).append(" ms, ");
+		summary.append("idle ").append(Math.max(0, idleTime) / 1000000).append(" ms), top :");
+		for(int i = 0, count = Math.min(TOP_SPAN_COUNT, topSpans.size()) ; i < count ; ++i)
+		{
+			Span span = topSpans.get(i);
+			if(span.m_IsInstant)
+				break;
+			summary.append(i > 0 ? ", " : " ").append(span.name).append(' ').append((span.m_EndTime - span.startTime) / 1000000).append(" ms");
+		}
+		if(file != null)
+			summary.append(", trace : ").append(file.getAbsolutePath());
+		Log.w(TAG, summary.toString());
+		
+		// write trace
+		if(file == null)
+			return;
+		final String trace = createChromeTrace(spans, criticalPath, finalSpan.startTime);
+		Thread thread = new Thread(TAG)
+		{
+			@Override
+			public void run()
+			{
+				Writer writer = null;
+				try
+				{
+					writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+					writer.write(trace);
+				}
+				catch(Throwable ex)
+				{
+					Log.e(TAG, "finish() - Fail to write trace to " + file, ex);
+				}
+				finally
+				{
+					if(writer != null)
+					{
+						try
+						{
+							writer.close();
+						}
+						catch(Throwable ex)
+						{}
+					}
+				}
+			}
+		};
+		thread.start();
+	}
+	
+	
+	/**
+	 * Check whether tracer is tracing or not.
+	 * @return Whether tracer is tracing or not.
+	 */
+	public static boolean isTracing()
+	{
+		return m_IsTracing;
+	}
+	
+	
+	/**
+	 * Add instant event in current thread.
+	 * @param name Name of event.
+	 */
+	public static void mark(String name)
+	{
+		addSpan(name, true);
+	}
+	
+	
+	/**
+	 * Start new tracing, spans of previous tracing will be dropped.
+	 */
+	public static void start()
+	{
+		synchronized(m_Spans)
+		{
+			m_Spans.clear();
+			m_StartTime = System.nanoTime();
+			m_IsTracing = true;
+		}
+		addSpan("Start", true);
+	}
+}
@@ -0,0 +1,336 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Handle to record property changed call-backs and event handlers, all of them will be removed when closing handle.
+ */
+public final class SubscriptionScope extends Handle
+{
+	/**
+	 * Whether call-backs and handlers which are still called after their enclosing objects have been released should be reported or not, enabled in debug build.
+	 */
+	public static final boolean ENABLE_LEAK_REPORT = BuildConfig.DEBUG;
+	
+	
+	// Constants
+	private static final String TAG = "SubscriptionScope";
+	
+	
+	// Private static fields
+	private static final HashMap<Class<?>, Field[]> m_EnclosingInstanceFields = new HashMap<>();
+	private static final LinkedHashMap<String, Leak> m_Leaks = new LinkedHashMap<>();
+	
+	
+	// Private fields
+	private final ArrayList<Subscription> m_Subscriptions = new ArrayList<>();
+	
+	
+	// Class for leaked call-back or handler.
+	private static final class Leak
+	{
+		public long callCount;
+		public final Object key;
+		public final String sourceName;
+		public final String subscriberName;
+		
+		public Leak(String sourceName, Object key, String subscriberName)
+		{
+			this.sourceName = sourceName;
+			this.key = key;
+			this.subscriberName = subscriberName;
+		}
+	}
+	
+	
+	// Class for added call-back or handler.
+	private static final class Subscription
+	{
+		public final Object key;
+		public final ThreadDependentObject source;
+		public final Object subscriber;
+		
+		public Subscription(ThreadDependentObject source, Object key, Object subscriber)
+		{
+			this.source = source;
+			this.key = key;
+			this.subscriber = subscriber;
+		}
+	}
+	
+	
+	/**
+	 * Initialize new SubscriptionScope instance.
+	 * @param name Scope name.
+	 */
+	public SubscriptionScope(String name)
+	{
+		super(name);
+	}
+	
+	
+	/**
+	 * Add property changed call-back to given source and record it.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param callback Call-back to add.
+	 */
+	public <TValue> void addCallback(PropertySource source, PropertyKey<TValue> key, PropertyChangedCallback<TValue> callback)
+	{
+		source.addCallback(key, callback);
+		this.addSubscription(source, key, callback);
+	}
+	
+	
+	/**
+	 * Add {@code boolean} property changed call-back to given source and record it.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param callback Call-back to add.
+	 */
+	public void addCallback(PropertySource source, BooleanPropertyKey key, BooleanPropertyChangedCallback callback)
+	{
+		source.addCallback(key, callback);
+		this.addSubscription(source, key, callback);
+	}
+	
+	
+	/**
+	 * Add {@code float} property changed call-back to given source and record it.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param callback Call-back to add.
+	 */
+	public void addCallback(PropertySource source, FloatPropertyKey key, FloatPropertyChangedCallback callback)
+	{
+		source.addCallback(key, callback);
+		this.addSubscription(source, key, callback);
+	}
+	
+	
+	/**
+	 * Add {@code int} property changed call-back to given source and record it.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param callback Call-back to add.
+	 */
+	public void addCallback(PropertySource source, IntPropertyKey key, IntPropertyChangedCallback callback)
+	{
+		source.addCallback(key, callback);
+		this.addSubscription(source, key, callback);
+	}
+	
+	
+	/**
+	 * Add {@code long} property changed call-back to given source and record it.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @param callback Call-back to add.
+	 */
+	public void addCallback(PropertySource source, LongPropertyKey key, LongPropertyChangedCallback callback)
+	{
+		source.addCallback(key, callback);
+		this.addSubscription(source, key, callback);
+	}
+	
+	
+	/**
+	 * Add event handler to given source and record it.
+	 * @param source Event source.
+	 * @param key Event key.
+	 * @param handler Handler to add.
+	 */
+	public <TArgs extends EventArgs> void addHandler(EventSource source, EventKey<TArgs> key, EventHandler<TArgs> handler)
+	{
+		source.addHandler(key, handler);
+		this.addSubscription(source, key, handler);
+	}
+	
+	
+	// Record call-back or handler.
+	private void addSubscription(ThreadDependentObject source, Object key, Object subscriber)
+	{
+		if(subscriber == null)
+			return;
+		Subscription subscription = new Subscription(source, key, subscriber);
+		synchronized(m_Subscriptions)
+		{
+			if(Handle.isValid(this))
+			{
+				m_Subscriptions.add(subscription);
+				return;
+			}
+		}
+		Log.w(TAG, "addSubscription() - Scope " + this.name + " has been closed, remove " + key + " directly");
+		removeSubscription(subscription);
+	}
+	
+	
+	/**
+	 * Called when property change or event is dispatched to given call-back or handler. This method only works when {@link #ENABLE_LEAK_REPORT} is True.
+	 * @param sourceName Name of property or event source.
+	 * @param key Property or event key.
+	 * @param subscriber Call-back or handler to check.
+	 */
+	static void checkLeak(String sourceName, Object key, Object subscriber)
+	{
+		if(!ENABLE_LEAK_REPORT)
+			return;
+		BaseObject enclosingObject = findReleasedEnclosingObject(subscriber);
+		if(enclosingObject == null)
+			return;
+		String subscriberName = subscriber.getClass().getName();
+		String leakKey = (sourceName + "|" + key + "|" + subscriberName);
+		synchronized(m_Leaks)
+		{
+			Leak leak = m_Leaks.get(leakKey);
+			if(leak == null)
+			{
+				Log.w(TAG, "checkLeak() - " + subscriberName + " on " + key + " of " + sourceName + " is still called after releasing " + enclosingObject);
+				leak = new Leak(sourceName, key, subscriberName);
+				m_Leaks.put(leakKey, leak);
+			}
+			++leak.callCount;
+		}
+	}
+	
+	
+	/**
+	 * Print leaked call-backs and handlers.
+	 * @param writer Writer to print report.
+	 */
+	public static void dumpLeaks(PrintWriter writer)
+	{
+		writer.println("Subscription leaks (enabled : " + ENABLE_LEAK_REPORT + ")");
+		synchronized(m_Leaks)
+		{
+			for(Leak leak : m_Leaks.values())
+				writer.println("  " + leak.subscriberName + " on " + leak.key + " of " + leak.sourceName + ", called " + leak.callCount + " times");
+		}
+		writer.flush();
+	}
+	
+	
+	// Find released object which encloses given call-back or handler.
+	private static BaseObject findReleasedEnclosingObject(Object subscriber)
+	{
+		for(Field field : getEnclosingInstanceFields(subscriber.getClass()))
+		{
+			try
+			{
+				Object instance = field.get(subscriber);
+				if(instance instanceof BaseObject)
+				{
+					BaseObject baseObject = (BaseObject)instance;
+					if(baseObject.get(BaseObject.PROP_IS_RELEASED))
+						return baseObject;
+				}
+			}
+			catch(IllegalAccessException ex)
+			{}
+		}
+		return null;
+	}
+	
+	
+	// Get fields which refer to enclosing instances.
+	private static Field[] getEnclosingInstanceFields(Class<?> type)
+	{
+		synchronized(m_EnclosingInstanceFields)
+		{
+			Field[] fields = m_EnclosingInstanceFields.get(type);
+			if(fields == null)
+			{
+				List<Field> fieldList = new ArrayList<>();
+				for(Field field : type.getDeclaredFields())
+				{
+					if(field.isSynthetic() && field.getName().startsWith("this$"))
+					{
+						field.setAccessible(true);
+						fieldList.add(field);
+					}
+				}
+				fields = fieldList.toArray(new Field[fieldList.size()]);
+				m_EnclosingInstanceFields.put(type, fields);
+			}
+			return fields;
+		}
+	}
+	
+	
+	/**
+	 * Get number of recorded call-backs and handlers.
+	 * @return Number of call-backs and handlers.
+	 */
+	public int getSubscriptionCount()
+	{
+		synchronized(m_Subscriptions)
+		{
+			return m_Subscriptions.size();
+		}
+	}
+	
+	
+	// Close scope.
+	@Override
+	protected void onClose(int flags)
+	{
+		Subscription[] subscriptions;
+		synchronized(m_Subscriptions)
+		{
+			subscriptions = m_Subscriptions.toArray(new Subscription[m_Subscriptions.size()]);
+			m_Subscriptions.clear();
+		}
+		for(int i = subscriptions.length - 1 ; i >= 0 ; --i)
+			removeSubscription(subscriptions[i]);
+	}
+	
+	
+	// Remove call-back or handler from source.
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static void removeSubscription(final Subscription subscription)
+	{
+		// remove in other thread
+		final ThreadDependentObject source = subscription.source;
+		if(!source.isDependencyThread())
+		{
+			if(source instanceof HandlerObject)
+			{
+				if(HandlerUtils.post((HandlerObject)source, new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						removeSubscription(subscription);
+					}
+				}))
+				{
+					return;
+				}
+			}
+			Log.w(TAG, "removeSubscription() - Cannot remove " + subscription.key + " from " + source + " in current thread");
+			return;
+		}
+		
+		// remove
+		Object key = subscription.key;
+		Object subscriber = subscription.subscriber;
+		if(key instanceof EventKey)
+			((EventSource)source).removeHandler((EventKey)key, (EventHandler)subscriber);
+		else if(key instanceof BooleanPropertyKey && subscriber instanceof BooleanPropertyChangedCallback)
+			((PropertySource)source).removeCallback((BooleanPropertyKey)key, (BooleanPropertyChangedCallback)subscriber);
+		else if(key instanceof FloatPropertyKey && subscriber instanceof FloatPropertyChangedCallback)
+			((PropertySource)source).removeCallback((FloatPropertyKey)key, (FloatPropertyChangedCallback)subscriber);
+		else if(key instanceof IntPropertyKey && subscriber instanceof IntPropertyChangedCallback)
+			((PropertySource)source).removeCallback((IntPropertyKey)key, (IntPropertyChangedCallback)subscriber);
+		else if(key instanceof LongPropertyKey && subscriber instanceof LongPropertyChangedCallback)
+			((PropertySource)source).removeCallback((LongPropertyKey)key, (LongPropertyChangedCallback)subscriber);
+		else
+			((PropertySource)source).removeCallback((PropertyKey)key, (PropertyChangedCallback)subscriber);
+	}
+}
@@ -0,0 +1,20 @@
+package com.oneplus.base;
+
+/**
+ * Lane of {@link ThreadLaneScheduler}.
+ */
+public enum ThreadLane
+{
+	/**
+	 * Latency-critical work, executed before all other lanes and ahead of pending messages.
+	 */
+	CRITICAL,
+	/**
+	 * Normal work.
+	 */
+	NORMAL,
+	/**
+	 * Background work, executed when there is no work in higher lanes.
+	 */
+	BACKGROUND,
+}
@@ -0,0 +1,471 @@
+package com.oneplus.base;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import android.os.Handler;
+import android.os.Message;
+import android.os.SystemClock;
+
+/**
+ * Scheduler which executes work in multiple {@link ThreadLane}s on a looper thread. Higher lanes are drained first, work waits too long in lower lanes is promoted to prevent starvation.
+ */
+public final class ThreadLaneScheduler
+{
+	// Constants
+	private static final String TAG = "ThreadLaneScheduler";
+	private static final long DRAIN_TIME_SLICE = 8;
+	private static final ThreadLane[] LANES = ThreadLane.values();
+	private static final long[] STARVATION_THRESHOLDS = new long[]{ 0, 100, 500 };
+	private static final int MAX_FREE_TASK_COUNT = 16;
+	
+	
+	// Private static fields
+	private static final ThreadLocal<ThreadLaneScheduler> m_CurrentScheduler = new ThreadLocal<>();
+	private static final ArrayList<ThreadLaneScheduler> m_Schedulers = new ArrayList<>();
+	
+	
+	// Private fields
+	private final InstrumentedHandler m_DrainHandler;
+	private final Runnable m_DrainRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drain(false);
+		}
+	};
+	private final Runnable m_FrontDrainRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drain(true);
+		}
+	};
+	private final ArrayDeque<Task> m_FreeTasks = new ArrayDeque<>(MAX_FREE_TASK_COUNT);
+	private boolean m_IsDrainScheduled;
+	private boolean m_IsFrontDrainScheduled;
+	private boolean m_IsReleased;
+	private final Handler[] m_LaneHandlers = new Handler[LANES.length];
+	private final LaneInfo[] m_LaneInfos = new LaneInfo[LANES.length];
+	private final Object m_Lock = new Object();
+	private final String m_Name;
+	private final Thread m_Thread;
+	
+	
+	// Class for queued work, instances are reused to avoid allocation.
+	private static final class Task
+	{
+		public long postTime;
+		public Runnable runnable;
+	}
+	
+	
+	// Class for lane queue and metrics.
+	private static final class LaneInfo
+	{
+		public long executedCount;
+		public int maxQueueDepth;
+		public long promotedCount;
+		public final ArrayDeque<Task> queue = new ArrayDeque<>();
+		public final LooperProfiler.Histogram queueWaitTime = new LooperProfiler.Histogram();
+	}
+	
+	
+	// Handler which routes immediate call-backs to lane.
+	private final class LaneHandler extends Handler
+	{
+		private final ThreadLane m_Lane;
+		
+		public LaneHandler(ThreadLane lane)
+		{
+			m_Lane = lane;
+		}
+		
+		@Override
+		public boolean sendMessageAtTime(Message msg, long uptimeMillis)
+		{
+			Runnable callback = msg.getCallback();
+			if(callback != null && uptimeMillis <= SystemClock.uptimeMillis() && ThreadLaneScheduler.this.post(m_Lane, callback))
+			{
+				msg.recycle();
+				return true;
+			}
+			return super.sendMessageAtTime(msg, uptimeMillis);
+		}
+	}
+	
+	
+	/**
+	 * Initialize new ThreadLaneScheduler instance for current looper thread.
+	 * @param name Scheduler name.
+	 */
+	ThreadLaneScheduler(String name)
+	{
+		m_Name = name;
+		m_Thread = Thread.currentThread();
+		m_DrainHandler = new InstrumentedHandler(name + " (lanes)")
+		{
+			@Override
+			boolean isProfilingNeeded(Message msg)
+			{
+				// work in lanes is recorded separately
+				Runnable callback = msg.getCallback();
+				return (callback != m_DrainRunnable && callback != m_FrontDrainRunnable);
+			}
+		};
+		for(int i = LANES.length - 1 ; i >= 0 ; --i)
+		{
+			m_LaneInfos[i] = new LaneInfo();
+			m_LaneHandlers[i] = new LaneHandler(LANES[i]);
+		}
+		m_CurrentScheduler.set(this);
+		synchronized(m_Schedulers)
+		{
+			m_Schedulers.add(this);
+		}
+	}
+	
+	
+	/**
+	 * Get scheduler of current thread.
+	 * @return Scheduler of current thread, or Null if there is no scheduler.
+	 */
+	public static ThreadLaneScheduler current()
+	{
+		return m_CurrentScheduler.get();
+	}
+	
+	
+	// Execute queued work (in looper thread).
+	private void drain(boolean isFront)
+	{
+		// update state
+		synchronized(m_Lock)
+		{
+			if(isFront)
+				m_IsFrontDrainScheduled = false;
+			else
+				m_IsDrainScheduled = false;
+		}
+		
+		// execute work
+		long endTime = (SystemClock.uptimeMillis() + DRAIN_TIME_SLICE);
+		while(true)
+		{
+			// select work
+			long currentTime = SystemClock.uptimeMillis();
+			ThreadLane lane;
+			Runnable runnable;
+			long postTime;
+			LaneInfo laneInfo;
+			synchronized(m_Lock)
+			{
+				if(m_IsReleased)
+					return;
+				lane = this.selectLane(currentTime, isFront);
+				if(lane == null)
+					break;
+				laneInfo = m_LaneInfos[lane.ordinal()];
+				Task task = laneInfo.queue.pollFirst();
+				runnable = task.runnable;
+				postTime = task.postTime;
+				this.recycleTask(task);
+				++laneInfo.executedCount;
+			}
+			laneInfo.queueWaitTime.record(Math.max(0, currentTime - postTime) * 1000);
+			
+			// execute
+			if(LooperProfiler.isEnabled())
+			{
+				long startTime = System.nanoTime();
+				runnable.run();
+				m_DrainHandler.onWorkExecuted(runnable, currentTime - postTime, startTime);
+			}
+			else
+				runnable.run();
+			
+			// yield to other messages, only one background work is executed each time
+			if(lane == ThreadLane.BACKGROUND || SystemClock.uptimeMillis() >= endTime)
+				break;
+		}
+		
+		// schedule remaining work, critical work goes ahead of pending messages again
+		synchronized(m_Lock)
+		{
+			if(m_IsReleased)
+				return;
+			if(!m_IsFrontDrainScheduled && !m_LaneInfos[ThreadLane.CRITICAL.ordinal()].queue.isEmpty())
+			{
+				m_IsFrontDrainScheduled = true;
+				m_DrainHandler.postAtFrontOfQueue(m_FrontDrainRunnable);
+			}
+			if(!m_IsDrainScheduled && (!m_LaneInfos[ThreadLane.NORMAL.ordinal()].queue.isEmpty() || !m_LaneInfos[ThreadLane.BACKGROUND.ordinal()].queue.isEmpty()))
+			{
+				m_IsDrainScheduled = true;
+				m_DrainHandler.post(m_DrainRunnable);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Print queue depth and waiting time of all lanes of all schedulers.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		ThreadLaneScheduler[] schedulers;
+		synchronized(m_Schedulers)
+		{
+			schedulers = m_Schedulers.toArray(new ThreadLaneScheduler[m_Schedulers.size()]);
+		}
+		writer.println("Thread lanes");
+		writer.println("  Scheduler, Lane, Depth, Max depth, Executed, Promoted, Wait mean/p50/p99/max (us)");
+		for(ThreadLaneScheduler scheduler : schedulers)
+		{
+			for(ThreadLane lane : LANES)
+			{
+				LooperProfiler.Histogram wait = scheduler.getQueueWaitTime(lane);
+				long executedCount;
+				long promotedCount;
+				synchronized(scheduler.m_Lock)
+				{
+					LaneInfo laneInfo = scheduler.m_LaneInfos[lane.ordinal()];
+					executedCount = laneInfo.executedCount;
+					promotedCount = laneInfo.promotedCount;
+				}
+				writer.println("  " + scheduler.m_Name
+						+ ", " + lane
+						+ ", " + scheduler.getQueueDepth(lane)
+						+ ", " + scheduler.getMaxQueueDepth(lane)
+						+ ", " + executedCount
+						+ ", " + promotedCount
+						+ ", " + wait.getMean() + "/" + wait.getPercentile(50) + "/" + wait.getPercentile(99) + "/" + wait.getMax());
+			}
+		}
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Get {@link Handler} which executes call-backs posted without delay in given lane. It can be passed to framework APIs which accept a {@link Handler} for call-backs.
+	 * Delayed call-backs and messages are handled as normal messages, and call-backs in lane cannot be removed by {@link Handler#removeCallbacks(Runnable)}.
+	 * @param lane Lane.
+	 * @return Handler for lane.
+	 */
+	public Handler getHandler(ThreadLane lane)
+	{
+		return m_LaneHandlers[lane.ordinal()];
+	}
+	
+	
+	/**
+	 * Get maximum number of queued work in given lane.
+	 * @param lane Lane.
+	 * @return Maximum queue depth.
+	 */
+	public int getMaxQueueDepth(ThreadLane lane)
+	{
+		synchronized(m_Lock)
+		{
+			return m_LaneInfos[lane.ordinal()].maxQueueDepth;
+		}
+	}
+	
+	
+	/**
+	 * Get number of queued work in given lane.
+	 * @param lane Lane.
+	 * @return Queue depth.
+	 */
+	public int getQueueDepth(ThreadLane lane)
+	{
+		synchronized(m_Lock)
+		{
+			return m_LaneInfos[lane.ordinal()].queue.size();
+		}
+	}
+	
+	
+	/**
+	 * Get histogram of time in microseconds between posting and executing work in given lane.
+	 * @param lane Lane.
+	 * @return Histogram of waiting time.
+	 */
+	public LooperProfiler.Histogram getQueueWaitTime(ThreadLane lane)
+	{
+		return m_LaneInfos[lane.ordinal()].queueWaitTime;
+	}
+	
+	
+	// Check whether there is queued work in given lane or higher lanes.
+	private boolean hasQueuedTasks(ThreadLane lowestLane)
+	{
+		for(int i = lowestLane.ordinal() ; i >= 0 ; --i)
+		{
+			if(!m_LaneInfos[i].queue.isEmpty())
+				return true;
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * Post work to given lane, this method can be called in any thread.
+	 * @param lane Lane.
+	 * @param r Work to execute.
+	 * @return Whether work is posted successfully or not.
+	 */
+	public boolean post(ThreadLane lane, Runnable r)
+	{
+		if(lane == null)
+			throw new IllegalArgumentException("No lane.");
+		if(r == null)
+			throw new IllegalArgumentException("No runnable.");
+		synchronized(m_Lock)
+		{
+			// check state
+			if(m_IsReleased)
+			{
+				Log.e(TAG, "post() - Scheduler '" + m_Name + "' has been released");
+				return false;
+			}
+			
+			// enqueue
+			LaneInfo laneInfo = m_LaneInfos[lane.ordinal()];
+			Task task = m_FreeTasks.pollFirst();
+			if(task == null)
+				task = new Task();
+			task.runnable = r;
+			task.postTime = SystemClock.uptimeMillis();
+			laneInfo.queue.addLast(task);
+			if(laneInfo.queue.size() > laneInfo.maxQueueDepth)
+				laneInfo.maxQueueDepth = laneInfo.queue.size();
+			
+			// schedule drain, critical work goes ahead of pending messages
+			if(lane == ThreadLane.CRITICAL)
+			{
+				if(!m_IsFrontDrainScheduled)
+				{
+					m_IsFrontDrainScheduled = true;
+					m_DrainHandler.postAtFrontOfQueue(m_FrontDrainRunnable);
+				}
+			}
+			else if(!m_IsDrainScheduled)
+			{
+				m_IsDrainScheduled = true;
+				m_DrainHandler.post(m_DrainRunnable);
+			}
+		}
+		return true;
+	}
+	
+	
+	// Put task back to free list, this method should be called with lock held.
+	private void recycleTask(Task task)
+	{
+		task.runnable = null;
+		if(m_FreeTasks.size() < MAX_FREE_TASK_COUNT)
+			m_FreeTasks.addLast(task);
+	}
+	
+	
+	/**
+	 * Release scheduler and drop all queued work, this method should be called in looper thread.
+	 */
+	void release()
+	{
+		synchronized(m_Lock)
+		{
+			if(m_IsReleased)
+				return;
+			m_IsReleased = true;
+			for(int i = LANES.length - 1 ; i >= 0 ; --i)
+			{
+				int queueDepth = m_LaneInfos[i].queue.size();
+				if(queueDepth > 0)
+				{
+					Log.w(TAG, "release() - Drop " + queueDepth + " work in " + LANES[i] + " lane of '" + m_Name + "'");
+					m_LaneInfos[i].queue.clear();
+				}
+			}
+		}
+		m_DrainHandler.removeCallbacks(m_DrainRunnable);
+		m_DrainHandler.removeCallbacks(m_FrontDrainRunnable);
+		if(m_CurrentScheduler.get() == this)
+			m_CurrentScheduler.remove();
+		synchronized(m_Schedulers)
+		{
+			m_Schedulers.remove(this);
+		}
+	}
+	
+	
+	/**
+	 * Remove queued work from all lanes, this method can be called in any thread.
+	 * @param r Work to remove.
+	 * @return Whether work is removed or not.
+	 */
+	public boolean removeCallbacks(Runnable r)
+	{
+		boolean removed = false;
+		synchronized(m_Lock)
+		{
+			for(int i = LANES.length - 1 ; i >= 0 ; --i)
+			{
+				Iterator<Task> iterator = m_LaneInfos[i].queue.iterator();
+				while(iterator.hasNext())
+				{
+					Task task = iterator.next();
+					if(task.runnable == r)
+					{
+						iterator.remove();
+						this.recycleTask(task);
+						removed = true;
+					}
+				}
+			}
+		}
+		return removed;
+	}
+	
+	
+	// Select lane to execute next work, lower lanes waiting too long are promoted.
+	private ThreadLane selectLane(long currentTime, boolean criticalOnly)
+	{
+		// promote starved lanes
+		if(!criticalOnly)
+		{
+			for(int i = LANES.length - 1 ; i > 0 ; --i)
+			{
+				Task task = m_LaneInfos[i].queue.peekFirst();
+				if(task != null && currentTime - task.postTime >= STARVATION_THRESHOLDS[i])
+				{
+					if(this.hasQueuedTasks(LANES[i - 1]))
+						++m_LaneInfos[i].promotedCount;
+					return LANES[i];
+				}
+			}
+		}
+		
+		// select highest lane
+		for(int i = 0, count = (criticalOnly ? 1 : LANES.length) ; i < count ; ++i)
+		{
+			if(!m_LaneInfos[i].queue.isEmpty())
+				return LANES[i];
+		}
+		return null;
+	}
+	
+	
+	// Get string represents this object.
+	@Override
+	public String toString()
+	{
+		return m_Name + " (" + m_Thread.getName() + ")";
+	}
+}
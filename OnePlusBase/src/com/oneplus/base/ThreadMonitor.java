@@ -1,66 +1,103 @@
 package com.oneplus.base;
 
-import java.util.LinkedList;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import android.os.Handler;
 import android.os.Process;
-import android.os.SystemClock;
 
 /**
  * Thread monitor.
  */
 public final class ThreadMonitor
 {
+	/**
+	 * Default interval to check threads in milliseconds.
+	 */
+	public static final long DEFAULT_CHECK_INTERVAL = 100;
+	/**
+	 * Default duration in milliseconds without response to treat thread as stalled.
+	 */
+	public static final long DEFAULT_STALL_THRESHOLD = 1000;
+	
+	
 	// Constants
 	private static final String TAG = "ThreadMonitor";
-	private static final long THREAD_CHECK_INTERVAL = 3000;
+	private static final ThreadInfo[] EMPTY_THREAD_INFOS = new ThreadInfo[0];
+	private static final int MAX_REPORTED_STACKS = 8;
+	private static final int MAX_STACK_DEPTH = 32;
 	
 	
 	// Private static fields
-	private static final LinkedList<ThreadInfo> m_AllThreadInfos = new LinkedList<>();
+	private static final AtomicReference<ThreadInfo[]> m_AllThreadInfos = new AtomicReference<>(EMPTY_THREAD_INFOS);
+	private static volatile long m_CheckInterval = DEFAULT_CHECK_INTERVAL;
 	private static final ThreadLocal<ThreadInfo> m_CurrentThreadInfo = new ThreadLocal<>();
+	private static volatile int m_Generation;
 	private static volatile boolean m_IsPrepared;
 	private static volatile Thread m_MonitorThread;
+	private static volatile long m_StallThreshold = DEFAULT_STALL_THRESHOLD;
 	
 	
 	// Class for monitored thread info
-	private static final class ThreadInfo
+	private static final class ThreadInfo implements Runnable
 	{
+		public final int generation;
 		public final Handler handler;
-		public volatile long lastResponseTime;
-		public volatile boolean notResponding;
-		public volatile int pendingResponseCount;
+		public volatile StallReport lastStallReport;
+		public final LooperProfiler.Histogram latency = new LooperProfiler.Histogram();
+		public volatile long pingTime;
+		public StallReport stallReport;
 		public final Thread thread;
 		public final int threadId;
 		
-		public ThreadInfo()
+		public ThreadInfo(int generation)
 		{
+			this.generation = generation;
 			this.thread = Thread.currentThread();
 			this.threadId = Process.myTid();
 			this.handler = new Handler();
-			this.lastResponseTime = SystemClock.elapsedRealtime();
-			m_CurrentThreadInfo.set(this);
+		}
+		
+		@Override
+		public void run()
+		{
+			long pingTime = this.pingTime;
+			if(pingTime != 0)
+				this.latency.record((System.nanoTime() - pingTime) / 1000);
+			this.pingTime = 0;
+		}
+	}
+	
+	
+	// Class for stall report, stacks are folded as "root;...;leaf".
+	private static final class StallReport
+	{
+		public long duration;
+		public final HashMap<String, Integer> foldedStacks = new HashMap<>();
+		public int sampleCount;
+		public final long startTime;
+		
+		public StallReport(long startTime)
+		{
+			this.startTime = startTime;
 		}
 	}
 	
 	
-	// Response call-back
-	private static final Runnable m_ResponseCallback = new Runnable()
+	// Comparator to sort folded stacks by sample count.
+	private static final Comparator<Map.Entry<String, Integer>> FOLDED_STACK_COMPARATOR = new Comparator<Map.Entry<String, Integer>>()
 	{
 		@Override
-		public void run()
+		public int compare(Map.Entry<String, Integer> lhs, Map.Entry<String, Integer> rhs)
 		{
-			ThreadInfo threadInfo = m_CurrentThreadInfo.get();
-			synchronized(threadInfo)
-			{
-				--threadInfo.pendingResponseCount;
-				threadInfo.lastResponseTime = SystemClock.elapsedRealtime();
-				if(threadInfo.notResponding && threadInfo.pendingResponseCount <= 0)
-				{
-					threadInfo.notResponding = false;
-					Log.w(TAG, "Get response from thread '" + threadInfo.thread.getName() + "' (" + threadInfo.threadId + ")");
-				}
-			}
+			return (rhs.getValue() - lhs.getValue());
 		}
 	};
 	
@@ -70,12 +107,115 @@ public final class ThreadMonitor
 	{}
 	
 	
+	// Check all monitored threads (in monitor thread).
+	private static void checkThreads()
+	{
+		ThreadInfo[] threadInfos = m_AllThreadInfos.get();
+		long currentTime = System.nanoTime();
+		long stallThreshold = (m_StallThreshold * 1000000);
+		for(int i = threadInfos.length - 1 ; i >= 0 ; --i)
+		{
+			ThreadInfo threadInfo = threadInfos[i];
+			long pingTime = threadInfo.pingTime;
+			
+			// request response
+			if(pingTime == 0)
+			{
+				if(threadInfo.stallReport != null)
+					completeStallReport(threadInfo, currentTime);
+				threadInfo.pingTime = currentTime;
+				if(!threadInfo.handler.post(threadInfo))
+					threadInfo.pingTime = 0;
+				continue;
+			}
+			
+			// sample stack while stalled
+			if(currentTime - pingTime >= stallThreshold)
+			{
+				if(threadInfo.stallReport == null)
+				{
+					threadInfo.stallReport = new StallReport(pingTime);
+					Log.w(TAG, "Thread '" + threadInfo.thread.getName() + "' (" + threadInfo.threadId + ") is not responding");
+				}
+				sampleStack(threadInfo);
+			}
+		}
+	}
+	
+	
+	// Complete and print stall report (in monitor thread).
+	private static void completeStallReport(ThreadInfo threadInfo, long currentTime)
+	{
+		StallReport report = threadInfo.stallReport;
+		threadInfo.stallReport = null;
+		report.duration = (currentTime - report.startTime);
+		threadInfo.lastStallReport = report;
+		Log.w(TAG, String.format("Get response from thread '%s' (%d) after %.2f seconds, %d stack samples :", threadInfo.thread.getName(), threadInfo.threadId, (report.duration / 1000000000.0), report.sampleCount));
+		for(Map.Entry<String, Integer> entry : getSortedStacks(report))
+			Log.w(TAG, "  " + entry.getValue() + " " + entry.getKey());
+	}
+	
+	
+	/**
+	 * Print response latency and last stall report of all monitored threads.
+	 * @param writer Writer to print snapshot.
+	 */
+	public static void dump(PrintWriter writer)
+	{
+		writer.println("Thread monitor (prepared : " + m_IsPrepared + ", interval : " + m_CheckInterval + " ms)");
+		for(ThreadInfo threadInfo : m_AllThreadInfos.get())
+		{
+			LooperProfiler.Histogram latency = threadInfo.latency;
+			writer.println("  '" + threadInfo.thread.getName() + "' (" + threadInfo.threadId + "), pings : " + latency.getCount()
+					+ ", latency mean/p50/p99/max (us) : " + latency.getMean() + "/" + latency.getPercentile(50) + "/" + latency.getPercentile(99) + "/" + latency.getMax());
+			StallReport report = threadInfo.lastStallReport;
+			if(report != null)
+			{
+				writer.println("    Last stall : " + (report.duration / 1000000) + " ms, " + report.sampleCount + " stack samples");
+				for(Map.Entry<String, Integer> entry : getSortedStacks(report))
+					writer.println("      " + entry.getValue() + " " + entry.getKey());
+			}
+		}
+		writer.flush();
+	}
+	
+	
+	// Get folded stacks sorted by sample count.
+	private static List<Map.Entry<String, Integer>> getSortedStacks(StallReport report)
+	{
+		List<Map.Entry<String, Integer>> entries = new ArrayList<>(report.foldedStacks.entrySet());
+		Collections.sort(entries, FOLDED_STACK_COMPARATOR);
+		if(entries.size() > MAX_REPORTED_STACKS)
+			entries = entries.subList(0, MAX_REPORTED_STACKS);
+		return entries;
+	}
+	
+	
 	/**
 	 * Prepare thread monitor in order to monitor threads.
 	 */
-	public static synchronized void prepare()
+	public static void prepare()
 	{
+		prepare(DEFAULT_CHECK_INTERVAL, DEFAULT_STALL_THRESHOLD);
+	}
+	
+	
+	/**
+	 * Prepare thread monitor in order to monitor threads.
+	 * @param checkInterval Interval to check threads in milliseconds, stacks of stalled threads are also sampled in this interval.
+	 * @param stallThreshold Duration in milliseconds without response to treat thread as stalled.
+	 */
+	public static synchronized void prepare(long checkInterval, long stallThreshold)
+	{
+		// check parameters
+		if(checkInterval <= 0)
+			throw new IllegalArgumentException("Invalid check interval : " + checkInterval);
+		if(stallThreshold <= 0)
+			throw new IllegalArgumentException("Invalid stall threshold : " + stallThreshold);
+		
 		// check state
+		m_CheckInterval = checkInterval;
+		m_StallThreshold = stallThreshold;
 		if(m_IsPrepared)
 			return;
 		
@@ -96,22 +236,6 @@ public final class ThreadMonitor
 	}
 	
 	
-	// Print logs for thread blocking.
-	private static void printThreadBlockedLogs(ThreadInfo threadInfo)
-	{
-		// check response time
-		long duration = (SystemClock.elapsedRealtime() - threadInfo.lastResponseTime);
-		
-		// print header
-		Log.w(TAG, String.format("Thread '%s' (%d) is not responding, last response time is %.2f seconds ago. Stack trace :", threadInfo.thread.getName(), threadInfo.threadId, (duration / 1000.0)));
-		
-		// print stack trace
-		StackTraceElement[] stackTrace = threadInfo.thread.getStackTrace();
-		for(int i = 0 ; i < stackTrace.length ; ++i)
-			Log.w(TAG, "  -> " + Log.formatStackTraceElement(stackTrace[i]));
-	}
-	
-	
 	/**
 	 * Release all resources used by thread monitor.
 	 */
@@ -130,48 +254,101 @@ public final class ThreadMonitor
 			m_MonitorThread = null;
 		}
 		
-		// clear thread info
-		m_AllThreadInfos.clear();
+		// clear thread info, threads registered before will be registered again after next preparation
+		m_AllThreadInfos.set(EMPTY_THREAD_INFOS);
+		++m_Generation;
 		m_IsPrepared = false;
 	}
 	
 	
+	// Remove thread info from monitored threads.
+	private static void removeThreadInfo(ThreadInfo threadInfo)
+	{
+		while(true)
+		{
+			ThreadInfo[] threadInfos = m_AllThreadInfos.get();
+			int index = Arrays.asList(threadInfos).indexOf(threadInfo);
+			if(index < 0)
+				break;
+			ThreadInfo[] newThreadInfos = new ThreadInfo[threadInfos.length - 1];
+			System.arraycopy(threadInfos, 0, newThreadInfos, 0, index);
+			System.arraycopy(threadInfos, index + 1, newThreadInfos, index, newThreadInfos.length - index);
+			if(m_AllThreadInfos.compareAndSet(threadInfos, newThreadInfos))
+				break;
+		}
+	}
+	
+	
+	// Sample stack of stalled thread (in monitor thread).
+	private static void sampleStack(ThreadInfo threadInfo)
+	{
+		StackTraceElement[] stackTrace = threadInfo.thread.getStackTrace();
+		StringBuilder foldedStack = new StringBuilder();
+		for(int i = Math.min(stackTrace.length, MAX_STACK_DEPTH) - 1 ; i >= 0 ; --i)
+		{
+			StackTraceElement element = stackTrace[i];
+			if(foldedStack.length() > 0)
+				foldedStack.append(';');
+			foldedStack.append(element.getClassName()).append('.').append(element.getMethodName()).append(':').append(element.getLineNumber());
+		}
+		StallReport report = threadInfo.stallReport;
+		String key = foldedStack.toString();
+		Integer count = report.foldedStacks.get(key);
+		report.foldedStacks.put(key, (count != null ? count + 1 : 1));
+		++report.sampleCount;
+	}
+	
+	
 	/**
 	 * Start monitoring current thread.
 	 */
-	public static synchronized void startMonitorCurrentThread()
+	public static void startMonitorCurrentThread()
 	{
 		// check state
 		if(!m_IsPrepared)
 			return;
+		int generation = m_Generation;
 		ThreadInfo threadInfo = m_CurrentThreadInfo.get();
-		if(threadInfo != null)
+		if(threadInfo != null && threadInfo.generation == generation)
 			return;
 		
 		// create thread info
-		threadInfo = new ThreadInfo();
-		m_AllThreadInfos.add(threadInfo);
+		threadInfo = new ThreadInfo(generation);
+		m_CurrentThreadInfo.set(threadInfo);
+		while(true)
+		{
+			ThreadInfo[] threadInfos = m_AllThreadInfos.get();
+			ThreadInfo[] newThreadInfos = Arrays.copyOf(threadInfos, threadInfos.length + 1);
+			newThreadInfos[threadInfos.length] = threadInfo;
+			if(m_AllThreadInfos.compareAndSet(threadInfos, newThreadInfos))
+				break;
+		}
+		
+		// check whether monitor is released while registering
+		if(m_Generation != generation)
+		{
+			removeThreadInfo(threadInfo);
+			return;
+		}
 		
-		Log.w(TAG, "Start monitor '" + threadInfo.thread.getName() + "' (" + threadInfo.threadId + ")");
+		Log.v(TAG, "Start monitor '", threadInfo.thread.getName(), "' (", threadInfo.threadId, ")");
 	}
 	
 	
 	/**
 	 * Stop monitoring current thread.
 	 */
-	public static synchronized void stopMonitorCurrentThread()
+	public static void stopMonitorCurrentThread()
 	{
-		// check state
-		if(!m_IsPrepared)
-			return;
-		
 		// get thread info
 		ThreadInfo threadInfo = m_CurrentThreadInfo.get();
 		if(threadInfo == null)
 			return;
-		m_AllThreadInfos.remove(threadInfo);
+		m_CurrentThreadInfo.remove();
+		removeThreadInfo(threadInfo);
+		threadInfo.handler.removeCallbacks(threadInfo);
 		
-		Log.w(TAG, "Stop monitor '" + threadInfo.thread.getName() + "' (" + threadInfo.threadId + ")");
+		Log.v(TAG, "Stop monitor '", threadInfo.thread.getName(), "' (", threadInfo.threadId, ")");
 	}
 	
 	
@@ -183,25 +360,8 @@ public final class ThreadMonitor
 		{
 			while(true)
 			{
-				synchronized(ThreadMonitor.class)
-				{
-					for(int i = m_AllThreadInfos.size() - 1 ; i >= 0 ; --i)
-					{
-						// check response
-						ThreadInfo threadInfo = m_AllThreadInfos.get(i);
-						if(threadInfo.pendingResponseCount > 0)
-						{
-							threadInfo.notResponding = true;
-							printThreadBlockedLogs(threadInfo);
-							continue;
-						}
-						
-						// request response
-						threadInfo.handler.post(m_ResponseCallback);
-						++threadInfo.pendingResponseCount;
-					}
-				}
-				Thread.sleep(THREAD_CHECK_INTERVAL);
+				checkThreads();
+				Thread.sleep(m_CheckInterval);
 			}
 		}
 		catch(InterruptedException ex)
@@ -0,0 +1,540 @@
+package com.oneplus.base;
+
+/**
+ * Stream of values produced by property changes or events. Values are delivered to subscriber in the thread of given {@link HandlerObject}, and only the latest value is kept if subscriber cannot keep up with source.
+ * @param <T> Type of value.
+ */
+public abstract class ValueStream<T>
+{
+	// Private fields
+	private final ValueStream<?> m_Upstream;
+	
+	
+	/**
+	 * Call-back to map value.
+	 * @param <TIn> Type of input value.
+	 * @param <TOut> Type of output value.
+	 */
+	public interface Mapper<TIn, TOut>
+	{
+		/**
+		 * Map value.
+		 * @param value Input value.
+		 * @return Output value.
+		 */
+		TOut map(TIn value);
+	}
+	
+	
+	/**
+	 * Call-back to receive values from stream.
+	 * @param <T> Type of value.
+	 */
+	public interface Subscriber<T>
+	{
+		/**
+		 * Called when receiving value.
+		 * @param value Value.
+		 */
+		void onNext(T value);
+	}
+	
+	
+	// Receiver of values in pipeline, all methods except cancel() are called in target thread.
+	private static abstract class Sink
+	{
+		public final Sink downstream;
+		public final SubscriptionHandle handle;
+		
+		public Sink(SubscriptionHandle handle, Sink downstream)
+		{
+			this.handle = handle;
+			this.downstream = downstream;
+		}
+		
+		public void cancel()
+		{}
+		
+		public abstract void onNext(Object value);
+	}
+	
+	
+	// Sink which drops values those are equal to previous one.
+	private static final class DistinctSink extends Sink
+	{
+		private boolean m_HasValue;
+		private Object m_Value;
+		
+		public DistinctSink(SubscriptionHandle handle, Sink downstream)
+		{
+			super(handle, downstream);
+		}
+		
+		@Override
+		public void onNext(Object value)
+		{
+			if(m_HasValue && (m_Value == value || (m_Value != null && m_Value.equals(value))))
+				return;
+			m_HasValue = true;
+			m_Value = value;
+			this.downstream.onNext(value);
+		}
+	}
+	
+	
+	// Sink which delivers value only after source stops changing for a while.
+	private static final class DebounceSink extends Sink implements Runnable
+	{
+		private final long m_Timeout;
+		private Object m_Value;
+		
+		public DebounceSink(SubscriptionHandle handle, Sink downstream, long timeout)
+		{
+			super(handle, downstream);
+			m_Timeout = timeout;
+		}
+		
+		@Override
+		public void cancel()
+		{
+			HandlerUtils.removeCallbacks(this.handle.target, this);
+		}
+		
+		@Override
+		public void onNext(Object value)
+		{
+			m_Value = value;
+			HandlerUtils.removeCallbacks(this.handle.target, this);
+			HandlerUtils.post(this.handle.target, this, m_Timeout);
+		}
+		
+		@Override
+		public void run()
+		{
+			Object value = m_Value;
+			m_Value = null;
+			if(Handle.isValid(this.handle))
+				this.downstream.onNext(value);
+		}
+	}
+	
+	
+	// Sink which maps values.
+	private static final class MapSink extends Sink
+	{
+		@SuppressWarnings("rawtypes")
+		private final Mapper m_Mapper;
+		
+		@SuppressWarnings("rawtypes")
+		public MapSink(SubscriptionHandle handle, Sink downstream, Mapper mapper)
+		{
+			super(handle, downstream);
+			m_Mapper = mapper;
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public void onNext(Object value)
+		{
+			this.downstream.onNext(m_Mapper.map(value));
+		}
+	}
+	
+	
+	// Sink which delivers latest value periodically.
+	private static final class SampleSink extends Sink implements Runnable
+	{
+		private boolean m_HasValue;
+		private final long m_Interval;
+		private boolean m_IsTimerScheduled;
+		private Object m_Value;
+		
+		public SampleSink(SubscriptionHandle handle, Sink downstream, long interval)
+		{
+			super(handle, downstream);
+			m_Interval = interval;
+		}
+		
+		@Override
+		public void cancel()
+		{
+			HandlerUtils.removeCallbacks(this.handle.target, this);
+		}
+		
+		@Override
+		public void onNext(Object value)
+		{
+			m_Value = value;
+			m_HasValue = true;
+			if(!m_IsTimerScheduled)
+				m_IsTimerScheduled = HandlerUtils.post(this.handle.target, this, m_Interval);
+		}
+		
+		@Override
+		public void run()
+		{
+			if(!m_HasValue || !Handle.isValid(this.handle))
+			{
+				m_IsTimerScheduled = false;
+				return;
+			}
+			Object value = m_Value;
+			m_Value = null;
+			m_HasValue = false;
+			m_IsTimerScheduled = HandlerUtils.post(this.handle.target, this, m_Interval);
+			this.downstream.onNext(value);
+		}
+	}
+	
+	
+	// Sink which delivers first value immediately, then delivers latest value at most once per interval.
+	private static final class ThrottleLatestSink extends Sink implements Runnable
+	{
+		private boolean m_HasValue;
+		private final long m_Interval;
+		private boolean m_IsWindowOpened;
+		private Object m_Value;
+		
+		public ThrottleLatestSink(SubscriptionHandle handle, Sink downstream, long interval)
+		{
+			super(handle, downstream);
+			m_Interval = interval;
+		}
+		
+		@Override
+		public void cancel()
+		{
+			HandlerUtils.removeCallbacks(this.handle.target, this);
+		}
+		
+		@Override
+		public void onNext(Object value)
+		{
+			if(m_IsWindowOpened)
+			{
+				m_Value = value;
+				m_HasValue = true;
+				return;
+			}
+			m_IsWindowOpened = HandlerUtils.post(this.handle.target, this, m_Interval);
+			this.downstream.onNext(value);
+		}
+		
+		@Override
+		public void run()
+		{
+			if(!m_HasValue || !Handle.isValid(this.handle))
+			{
+				m_IsWindowOpened = false;
+				return;
+			}
+			Object value = m_Value;
+			m_Value = null;
+			m_HasValue = false;
+			m_IsWindowOpened = HandlerUtils.post(this.handle.target, this, m_Interval);
+			this.downstream.onNext(value);
+		}
+	}
+	
+	
+	// Handle of subscription.
+	private static final class SubscriptionHandle extends Handle implements Runnable
+	{
+		public Sink firstSink;
+		public final SubscriptionScope scope;
+		public final HandlerObject target;
+		private boolean m_IsDeliveryScheduled;
+		private final Object m_Lock = new Object();
+		private Object m_Value;
+		
+		public SubscriptionHandle(HandlerObject target)
+		{
+			super("ValueStreamSubscription");
+			this.target = target;
+			this.scope = new SubscriptionScope(this.name);
+		}
+		
+		public void deliver(Object value)
+		{
+			synchronized(m_Lock)
+			{
+				m_Value = value;
+				if(m_IsDeliveryScheduled)
+					return;
+				m_IsDeliveryScheduled = true;
+			}
+			if(!HandlerUtils.post(this.target, this))
+			{
+				synchronized(m_Lock)
+				{
+					m_IsDeliveryScheduled = false;
+				}
+			}
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			Handle.close(this.scope);
+			HandlerUtils.removeCallbacks(this.target, this);
+			for(Sink sink = this.firstSink ; sink != null ; sink = sink.downstream)
+				sink.cancel();
+		}
+		
+		@Override
+		public void run()
+		{
+			Object value;
+			synchronized(m_Lock)
+			{
+				value = m_Value;
+				m_Value = null;
+				m_IsDeliveryScheduled = false;
+			}
+			if(Handle.isValid(this))
+				this.firstSink.onNext(value);
+		}
+	}
+	
+	
+	// Stream of events.
+	private static final class EventStream<TArgs extends EventArgs> extends ValueStream<TArgs>
+	{
+		private final EventKey<TArgs> m_Key;
+		private final EventSource m_Source;
+		
+		public EventStream(EventSource source, EventKey<TArgs> key)
+		{
+			super(null);
+			m_Source = source;
+			m_Key = key;
+		}
+		
+		@Override
+		void attach(final SubscriptionHandle handle)
+		{
+			handle.scope.addHandler(m_Source, m_Key, new EventHandler<TArgs>()
+			{
+				@Override
+				public void onEventReceived(EventSource source, EventKey<TArgs> key, TArgs e)
+				{
+					handle.deliver(e.clone());
+				}
+			});
+		}
+	}
+	
+	
+	// Stream of property values.
+	private static final class PropertyStream<TValue> extends ValueStream<TValue>
+	{
+		private final PropertyKey<TValue> m_Key;
+		private final PropertySource m_Source;
+		
+		public PropertyStream(PropertySource source, PropertyKey<TValue> key)
+		{
+			super(null);
+			m_Source = source;
+			m_Key = key;
+		}
+		
+		@Override
+		void attach(final SubscriptionHandle handle)
+		{
+			handle.scope.addCallback(m_Source, m_Key, new PropertyChangedCallback<TValue>()
+			{
+				@Override
+				public void onPropertyChanged(PropertySource source, PropertyKey<TValue> key, PropertyChangeEventArgs<TValue> e)
+				{
+					handle.deliver(e.getNewValue());
+				}
+			});
+		}
+	}
+	
+	
+	// Constructor
+	private ValueStream(ValueStream<?> upstream)
+	{
+		m_Upstream = upstream;
+	}
+	
+	
+	// Attach to source.
+	void attach(SubscriptionHandle handle)
+	{
+		throw new IllegalStateException("Not a source stream.");
+	}
+	
+	
+	// Create sink for this stream.
+	Sink createSink(SubscriptionHandle handle, Sink downstream)
+	{
+		return downstream;
+	}
+	
+	
+	/**
+	 * Create stream which delivers value only after this stream stops changing for given time.
+	 * @param timeout Time in milliseconds.
+	 * @return New stream.
+	 */
+	public final ValueStream<T> debounce(final long timeout)
+	{
+		if(timeout < 0)
+			throw new IllegalArgumentException("Invalid timeout : " + timeout);
+		return new ValueStream<T>(this)
+		{
+			@Override
+			Sink createSink(SubscriptionHandle handle, Sink downstream)
+			{
+				return new DebounceSink(handle, downstream, timeout);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Create stream which drops values those are equal to previous one.
+	 * @return New stream.
+	 */
+	public final ValueStream<T> distinctUntilChanged()
+	{
+		return new ValueStream<T>(this)
+		{
+			@Override
+			Sink createSink(SubscriptionHandle handle, Sink downstream)
+			{
+				return new DistinctSink(handle, downstream);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Create stream of given event. Event data will be cloned before delivering to other thread.
+	 * @param source Event source.
+	 * @param key Event key.
+	 * @return New stream.
+	 */
+	public static <TArgs extends EventArgs> ValueStream<TArgs> fromEvent(EventSource source, EventKey<TArgs> key)
+	{
+		if(source == null)
+			throw new IllegalArgumentException("No source.");
+		if(key == null)
+			throw new IllegalArgumentException("No key.");
+		return new EventStream<>(source, key);
+	}
+	
+	
+	/**
+	 * Create stream of values of given property.
+	 * @param source Property source.
+	 * @param key Property key.
+	 * @return New stream.
+	 */
+	public static <TValue> ValueStream<TValue> fromProperty(PropertySource source, PropertyKey<TValue> key)
+	{
+		if(source == null)
+			throw new IllegalArgumentException("No source.");
+		if(key == null)
+			throw new IllegalArgumentException("No key.");
+		return new PropertyStream<>(source, key);
+	}
+	
+	
+	/**
+	 * Create stream which maps values of this stream.
+	 * @param mapper Call-back to map value, it will be called in target thread.
+	 * @return New stream.
+	 */
+	public final <TOut> ValueStream<TOut> map(final Mapper<? super T, ? extends TOut> mapper)
+	{
+		if(mapper == null)
+			throw new IllegalArgumentException("No mapper.");
+		return new ValueStream<TOut>(this)
+		{
+			@Override
+			Sink createSink(SubscriptionHandle handle, Sink downstream)
+			{
+				return new MapSink(handle, downstream, mapper);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Create stream which delivers latest value of this stream periodically. Nothing will be delivered if value is not changed in an interval.
+	 * @param interval Interval in milliseconds.
+	 * @return New stream.
+	 */
+	public final ValueStream<T> sample(final long interval)
+	{
+		if(interval <= 0)
+			throw new IllegalArgumentException("Invalid interval : " + interval);
+		return new ValueStream<T>(this)
+		{
+			@Override
+			Sink createSink(SubscriptionHandle handle, Sink downstream)
+			{
+				return new SampleSink(handle, downstream, interval);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Start receiving values. This method should be called in the thread which source depends on.
+	 * @param target Object owns the thread to receive values.
+	 * @param subscriber Call-back to receive values.
+	 * @return Handle to stop receiving values.
+	 */
+	public final Handle subscribe(HandlerObject target, final Subscriber<? super T> subscriber)
+	{
+		// check parameters
+		if(target == null)
+			throw new IllegalArgumentException("No target.");
+		if(subscriber == null)
+			throw new IllegalArgumentException("No subscriber.");
+		
+		// create sinks
+		SubscriptionHandle handle = new SubscriptionHandle(target);
+		Sink sink = new Sink(handle, null)
+		{
+			@SuppressWarnings("unchecked")
+			@Override
+			public void onNext(Object value)
+			{
+				subscriber.onNext((T)value);
+			}
+		};
+		ValueStream<?> stream = this;
+		for( ; stream.m_Upstream != null ; stream = stream.m_Upstream)
+			sink = stream.createSink(handle, sink);
+		handle.firstSink = sink;
+		
+		// attach to source
+		stream.attach(handle);
+		return handle;
+	}
+	
+	
+	/**
+	 * Create stream which delivers first value immediately, then delivers latest value at most once per interval.
+	 * @param interval Interval in milliseconds.
+	 * @return New stream.
+	 */
+	public final ValueStream<T> throttleLatest(final long interval)
+	{
+		if(interval <= 0)
+			throw new IllegalArgumentException("Invalid interval : " + interval);
+		return new ValueStream<T>(this)
+		{
+			@Override
+			Sink createSink(SubscriptionHandle handle, Sink downstream)
+			{
+				return new ThrottleLatestSink(handle, downstream, interval);
+			}
+		};
+	}
+}
@@ -1,8 +1,10 @@
 package com.oneplus.base.component;
 
+import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerBaseObject;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyKey;
+import com.oneplus.base.SubscriptionScope;
 
 /**
  * Basic implementation of {@link Component}.
@@ -13,6 +15,7 @@ public abstract class BasicComponent extends HandlerBaseObject implements Compon
 	private final String m_Name;
 	private final ComponentOwner m_Owner;
 	private volatile ComponentState m_State = ComponentState.NEW;
+	private SubscriptionScope m_SubscriptionScope;
 	
 	
 	/**
@@ -81,6 +84,19 @@ public abstract class BasicComponent extends HandlerBaseObject implements Compon
 	}
 	
 	
+	/**
+	 * Get scope to record property changed call-backs and event handlers, all of them will be removed after deinitializing component.
+	 * @return Subscription scope.
+	 */
+	protected final SubscriptionScope getSubscriptionScope()
+	{
+		this.verifyAccess();
+		if(m_SubscriptionScope == null)
+			m_SubscriptionScope = new SubscriptionScope(m_Name);
+		return m_SubscriptionScope;
+	}
+	
+	
 	// Initialize component.
 	@Override
 	public boolean initialize()
@@ -173,6 +189,9 @@ public abstract class BasicComponent extends HandlerBaseObject implements Compon
 				break;
 		}
 		
+		// remove call-backs and handlers
+		m_SubscriptionScope = Handle.close(m_SubscriptionScope);
+		
 		// change state
 		this.changeState(ComponentState.RELEASED);
 		
@@ -1,13 +1,24 @@
 package com.oneplus.base.component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.oneplus.base.BaseObject;
+import com.oneplus.base.ContentionProfiler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.HandlerBaseObject;
 import com.oneplus.base.Log;
+import com.oneplus.base.StartupTracer;
 
 /**
  * Component manager to host components and builders.
@@ -26,12 +37,123 @@ public class ComponentManager extends HandlerBaseObject
 	public static final EventKey<ComponentEventArgs<Component>> EVENT_COMPONENT_REMOVED = new EventKey<>("ComponentRemoved", (Class)ComponentEventArgs.class, ComponentManager.class);
 	
 	
+	// Constants
+	private static final int PREPARATION_THREAD_COUNT = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+	
+	
+	// Private static fields
+	private static ThreadPoolExecutor m_PreparationExecutor;
+	private static final ContentionProfiler.Site CONTENTION_SITE_FIND_COMPONENT = (ContentionProfiler.ENABLED ? ContentionProfiler.createSite("ComponentManager.findComponent") : null);
+	private static final ContentionProfiler.Site CONTENTION_SITE_FIND_COMPONENTS = (ContentionProfiler.ENABLED ? ContentionProfiler.createSite("ComponentManager.findComponents") : null);
+	
+	
 	// Private fields
+	private volatile Map<Class<?>, IndexEntry> m_ComponentIndex = Collections.emptyMap();
 	private final List<Component> m_Components = new ArrayList<>();
 	private final HashSet<ComponentCreationPriority> m_CreatePriorities = new HashSet<>();
 	private final List<ComponentBuilder> m_Builders = new ArrayList<>();
 	
 	
+	// Entry of type-indexed components, instance is immutable after publishing.
+	private static final class IndexEntry
+	{
+		public final Component[] components;
+		public final boolean hasOnDemandBuilders;
+		
+		public IndexEntry(Component[] components, boolean hasOnDemandBuilders)
+		{
+			this.components = components;
+			this.hasOnDemandBuilders = hasOnDemandBuilders;
+		}
+	}
+	
+	
+	// Node of component creation graph.
+	private static final class CreationNode implements Runnable
+	{
+		public final Object[] args;
+		public final ComponentBuilder builder;
+		public long createDuration; // including initialization
+		public final List<CreationNode> dependencies = new ArrayList<>();
+		public final List<CreationNode> dependents = new ArrayList<>();
+		public long pathDuration;
+		public CreationNode pathPrevious;
+		public final AtomicInteger pendingDependencies = new AtomicInteger();
+		public volatile long prepareDuration;
+		public volatile Throwable prepareError;
+		public final CountDownLatch preparedLatch = new CountDownLatch(1);
+		
+		public CreationNode(ComponentBuilder builder, Object[] args)
+		{
+			this.args = args;
+			this.builder = builder;
+		}
+		
+		@Override
+		public void run()
+		{
+			// prepare
+			long startTime = System.nanoTime();
+			try
+			{
+				((ParallelComponentBuilder)this.builder).prepare(this.args);
+			}
+			catch(Throwable ex)
+			{
+				this.prepareError = ex;
+			}
+			this.prepareDuration = (System.nanoTime() - startTime);
+			
+			// complete
+			this.onPrepared();
+		}
+		
+		public void onPrepared()
+		{
+			this.preparedLatch.countDown();
+			for(int i = 0, count = this.dependents.size() ; i < count ; ++i)
+			{
+				CreationNode dependent = this.dependents.get(i);
+				if(dependent.pendingDependencies.decrementAndGet() == 0)
+					dependent.startPreparation();
+			}
+		}
+		
+		public void startPreparation()
+		{
+			if(this.builder instanceof ParallelComponentBuilder)
+				getPreparationExecutor().execute(this);
+			else
+				this.onPrepared();
+		}
+		
+		@Override
+		public String toString()
+		{
+			return getBuilderName(this.builder);
+		}
+		
+		public void waitForPreparation()
+		{
+			boolean isInterrupted = false;
+			while(true)
+			{
+				try
+				{
+					this.preparedLatch.await();
+					break;
+				}
+				catch(InterruptedException ex)
+				{
+					isInterrupted = true;
+				}
+			}
+			if(isInterrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+	
+	
 	/**
 	 * Initialize new ComponentManager instance.
 	 */
@@ -56,7 +178,10 @@ public class ComponentManager extends HandlerBaseObject
 		if(m_CreatePriorities.contains(builder.getPriority()))
 			this.createComponent(builder, true, args);
 		else
+		{
 			m_Builders.add(builder);
+			this.invalidateComponentIndex();
+		}
 	}
 	
 	
@@ -76,10 +201,15 @@ public class ComponentManager extends HandlerBaseObject
 	private Component createComponent(ComponentBuilder builder, boolean needInit, Object... args)
 	{
 		Component component = null;
+		StartupTracer.Span traceSpan = null;
 		try
 		{
 			// create component
+			if(StartupTracer.ENABLED)
+				traceSpan = StartupTracer.begin("ComponentManager.createComponent(" + getBuilderName(builder) + ")");
 			component = builder.create(args);
+			if(StartupTracer.ENABLED)
+				StartupTracer.end(traceSpan);
 			if(component == null)
 			{
 				Log.w(TAG, "createComponent() - Component is unsupported, builder : " + builder);
@@ -89,7 +219,7 @@ public class ComponentManager extends HandlerBaseObject
 			Log.d(TAG, "createComponent() - Component : " + component);
 			
 			// initialize
-			if(needInit && !component.initialize())
+			if(needInit && !this.initializeComponentDirectly(component))
 			{
 				Log.w(TAG, "createComponent() - Release " + component);
 				component.release();
@@ -98,10 +228,13 @@ public class ComponentManager extends HandlerBaseObject
 			
 			// complete
 			m_Components.add(component);
+			this.invalidateComponentIndex();
 			return component;
 		}
 		catch(Throwable ex)
 		{
+			if(StartupTracer.ENABLED)
+				StartupTracer.end(traceSpan);
 			Log.e(TAG, "createComponent() - Fail to create component by builder " + builder, ex);
 			if(component != null)
 			{
@@ -127,54 +260,135 @@ public class ComponentManager extends HandlerBaseObject
 		// check category
 		if(m_CreatePriorities.contains(priority))
 			return;
-		
-		Log.w(TAG, "createComponents(" + priority + ") - Start");
+		if(priority == ComponentCreationPriority.ON_DEMAND)
+			throw new IllegalArgumentException("Cannot create on-demand components.");
 		
 		// create components higher with higher priority
-		switch(priority)
+		List<ComponentCreationPriority> priorities = new ArrayList<>();
+		for(ComponentCreationPriority createPriority : ComponentCreationPriority.values())
 		{
-			case LAUNCH:
-				break;
-			case HIGH:
-				this.createComponents(ComponentCreationPriority.LAUNCH, args);
-				break;
-			case NORMAL:
-				this.createComponents(ComponentCreationPriority.HIGH, args);
-				break;
-			case LOW:
-				this.createComponents(ComponentCreationPriority.NORMAL, args);
+			if(!m_CreatePriorities.contains(createPriority))
+				priorities.add(createPriority);
+			if(createPriority == priority)
 				break;
-			case ON_DEMAND:
-				throw new IllegalArgumentException("Cannot create on-demand components.");
 		}
 		
+		// start preparing components of all priorities
+		List<CreationNode> nodes = this.prepareComponents(priorities, args);
+		
 		// create components
-		m_CreatePriorities.add(priority);
-		ArrayList<Component> newComponents = new ArrayList<>();
+		for(int i = 0, count = priorities.size() ; i < count ; ++i)
+			this.createComponents(priorities.get(i), nodes, args);
+	}
+	
+	
+	// Create and initialize prepared components with specific priority.
+	private void createComponents(ComponentCreationPriority priority, List<CreationNode> nodes, Object[] args)
+	{
+		Log.w(TAG, "createComponents(" + priority + ") - Start");
+		
+		long startTime = System.nanoTime();
+		
+		// collect nodes, builders added while creating components with higher priority are prepared here
+		List<CreationNode> priorityNodes = new ArrayList<>();
 		for(int i = m_Builders.size() - 1 ; i >= 0 ; --i)
 		{
 			ComponentBuilder builder = m_Builders.get(i);
-			if(builder.getPriority() == priority)
+			if(builder.getPriority() != priority)
+				continue;
+			CreationNode node = null;
+			for(int j = nodes.size() - 1 ; j >= 0 && node == null ; --j)
 			{
-				Component component = this.createComponent(builder, false, args);
-				if(component != null)
-				{
-					newComponents.add(component);
-					m_Builders.remove(i);
-				}
+				if(nodes.get(j).builder == builder)
+					node = nodes.get(j);
 			}
+			if(node == null)
+			{
+				node = new CreationNode(builder, args);
+				node.startPreparation();
+			}
+			priorityNodes.add(node);
 		}
 		
-		// initialize components
-		for(int i = newComponents.size() - 1 ; i >= 0 ; --i)
+		// create components after creating dependencies
+		m_CreatePriorities.add(priority);
+		List<CreationNode> sortedNodes = this.sortCreationNodes(priorityNodes, false);
+		HashMap<CreationNode, Component> newComponents = new HashMap<>();
+		long prepareDuration = 0;
+		long createDuration = 0;
+		for(int i = 0, count = sortedNodes.size() ; i < count ; ++i)
 		{
-			Component component = newComponents.get(i);
+			CreationNode node = sortedNodes.get(i);
+			node.waitForPreparation();
+			if(node.prepareError != null)
+				Log.e(TAG, "createComponents() - Fail to prepare component by builder " + node.builder, node.prepareError);
+			long createStartTime = System.nanoTime();
+			Component component = this.createComponent(node.builder, false, node.args);
+			node.createDuration = (System.nanoTime() - createStartTime);
+			prepareDuration += node.prepareDuration;
+			createDuration += node.createDuration;
+			if(component != null)
+			{
+				newComponents.put(node, component);
+				m_Builders.remove(node.builder);
+			}
+		}
+		
+		// initialize components after initializing dependencies
+		List<CreationNode> initNodes = this.sortCreationNodes(priorityNodes, true);
+		long initStartTime = System.nanoTime();
+		for(int i = 0, count = initNodes.size() ; i < count ; ++i)
+		{
+			CreationNode node = initNodes.get(i);
+			Component component = newComponents.get(node);
+			if(component == null)
+				continue;
+			long nodeStartTime = System.nanoTime();
 			if(!this.initializeComponent(component))
 			{
 				m_Components.remove(component);
+				this.invalidateComponentIndex();
 				Log.w(TAG, "createComponents() - Release " + component);
 				component.release();
 			}
+			node.createDuration += (System.nanoTime() - nodeStartTime);
+		}
+		long initDuration = (System.nanoTime() - initStartTime);
+		
+		// find critical path
+		CreationNode lastNode = null;
+		for(int i = 0, count = sortedNodes.size() ; i < count ; ++i)
+		{
+			CreationNode node = sortedNodes.get(i);
+			for(int j = node.dependencies.size() - 1 ; j >= 0 ; --j)
+			{
+				CreationNode dependency = node.dependencies.get(j);
+				if(dependency.builder.getPriority() != priority)
+					continue;
+				if(node.pathPrevious == null || dependency.pathDuration > node.pathPrevious.pathDuration)
+					node.pathPrevious = dependency;
+			}
+			node.pathDuration = (node.prepareDuration + node.createDuration);
+			if(node.pathPrevious != null)
+				node.pathDuration += node.pathPrevious.pathDuration;
+			if(lastNode == null || node.pathDuration > lastNode.pathDuration)
+				lastNode = node;
+		}
+		if(lastNode != null)
+		{
+			StringBuilder path = new StringBuilder();
+			for(CreationNode node = lastNode ; node != null ; node = node.pathPrevious)
+			{
+				if(path.length() > 0)
+					path.insert(0, " -> ");
+				path.insert(0, node);
+			}
+			Log.w(TAG, "createComponents(" + priority + ") - Components : " + sortedNodes.size()
+					+ ", prepare : " + (prepareDuration / 1000) + " us (" + PREPARATION_THREAD_COUNT + " threads)"
+					+ ", create : " + (createDuration / 1000) + " us"
+					+ ", initialize : " + (initDuration / 1000) + " us"
+					+ ", total : " + ((System.nanoTime() - startTime) / 1000) + " us"
+					+ ", critical path : " + (lastNode.pathDuration / 1000) + " us [" + path + "]");
 		}
 		
 		Log.w(TAG, "createComponents(" + priority + ") - End");
@@ -188,37 +402,82 @@ public class ComponentManager extends HandlerBaseObject
 	 * @return Found component, or Null if no component extends or implements given type.
 	 */
 	@SuppressWarnings("unchecked")
-	public final synchronized <TComponent extends Component> TComponent findComponent(Class<TComponent> componentType, Object... args)
+	public final <TComponent extends Component> TComponent findComponent(Class<TComponent> componentType, Object... args)
+	{
+		// find in index without lock
+		IndexEntry entry = m_ComponentIndex.get(componentType);
+		if(entry != null)
+		{
+			Component[] components = entry.components;
+			boolean needSearch = (entry.hasOnDemandBuilders && this.isDependencyThread());
+			for(int i = 0 ; i < components.length ; ++i)
+			{
+				Component component = components[i];
+				ComponentState state = component.get(Component.PROP_STATE);
+				if(state == ComponentState.INITIALIZING || state == ComponentState.RUNNING)
+					return (TComponent)component;
+				if(state == ComponentState.NEW)
+				{
+					needSearch = true;
+					break;
+				}
+			}
+			if(!needSearch)
+				return null;
+		}
+		
+		// search with lock
+		if(ContentionProfiler.ENABLED)
+		{
+			long startTime = System.nanoTime();
+			synchronized(this)
+			{
+				ContentionProfiler.onAcquired(CONTENTION_SITE_FIND_COMPONENT, startTime);
+				return this.findComponentInternal(componentType, args);
+			}
+		}
+		return this.findComponentInternal(componentType, args);
+	}
+	
+	
+	// Find component.
+	@SuppressWarnings("unchecked")
+	private synchronized <TComponent extends Component> TComponent findComponentInternal(Class<TComponent> componentType, Object... args)
 	{
 		// search created components
+		Component foundComponent = null;
 		for(int i = m_Components.size() - 1 ; i >= 0 ; --i)
 		{
 			Component component = m_Components.get(i);
 			if(componentType.isAssignableFrom(component.getClass()) && this.initializeComponent(component))
-				return (TComponent)component;
+			{
+				foundComponent = component;
+				break;
+			}
 		}
 		
-		// check thread
-		if(!this.isDependencyThread())
-			return null;
-		
 		// create on-demand component
-		for(int i = m_Builders.size() - 1 ; i >= 0 ; --i)
+		if(foundComponent == null && this.isDependencyThread())
 		{
-			ComponentBuilder builder = m_Builders.get(i);
-			if(builder.getPriority() == ComponentCreationPriority.ON_DEMAND && builder.isComponentTypeSupported(componentType))
+			for(int i = m_Builders.size() - 1 ; i >= 0 ; --i)
 			{
-				Component component = this.createComponent(builder, true, args);
-				if(component != null)
+				ComponentBuilder builder = m_Builders.get(i);
+				if(builder.getPriority() == ComponentCreationPriority.ON_DEMAND && builder.isComponentTypeSupported(componentType))
 				{
-					m_Builders.remove(i);
-					return (TComponent)component;
+					Component component = this.createComponent(builder, true, args);
+					if(component != null)
+					{
+						m_Builders.remove(i);
+						foundComponent = component;
+						break;
+					}
 				}
 			}
 		}
 		
-		// fail
-		return null;
+		// complete
+		this.updateComponentIndex(componentType);
+		return (TComponent)foundComponent;
 	}
 	
 	
@@ -229,7 +488,56 @@ public class ComponentManager extends HandlerBaseObject
 	 * @return All matched components, or Null if no component extend or implement given type.
 	 */
 	@SuppressWarnings("unchecked")
-	public final synchronized <TComponent extends Component> TComponent[] findComponents(Class<TComponent> componentType, Object... args)
+	public final <TComponent extends Component> TComponent[] findComponents(Class<TComponent> componentType, Object... args)
+	{
+		// find in index without lock
+		IndexEntry entry = m_ComponentIndex.get(componentType);
+		if(entry != null && !(entry.hasOnDemandBuilders && this.isDependencyThread()))
+		{
+			Component[] components = entry.components;
+			Component[] foundComponents = new Component[components.length];
+			int count = 0;
+			for(int i = 0 ; i < components.length ; ++i)
+			{
+				Component component = components[i];
+				ComponentState state = component.get(Component.PROP_STATE);
+				if(state == ComponentState.INITIALIZING || state == ComponentState.RUNNING)
+					foundComponents[count++] = component;
+				else if(state == ComponentState.NEW)
+				{
+					foundComponents = null;
+					break;
+				}
+			}
+			if(foundComponents != null)
+			{
+				if(count < foundComponents.length)
+				{
+					Component[] array = new Component[count];
+					System.arraycopy(foundComponents, 0, array, 0, count);
+					foundComponents = array;
+				}
+				return (TComponent[])foundComponents;
+			}
+		}
+		
+		// search with lock
+		if(ContentionProfiler.ENABLED)
+		{
+			long startTime = System.nanoTime();
+			synchronized(this)
+			{
+				ContentionProfiler.onAcquired(CONTENTION_SITE_FIND_COMPONENTS, startTime);
+				return this.findComponentsInternal(componentType, args);
+			}
+		}
+		return this.findComponentsInternal(componentType, args);
+	}
+	
+	
+	// Find all components.
+	@SuppressWarnings("unchecked")
+	private synchronized <TComponent extends Component> TComponent[] findComponentsInternal(Class<TComponent> componentType, Object... args)
 	{
 		// search created components
 		List<Component> foundComponents = null;
@@ -265,6 +573,7 @@ public class ComponentManager extends HandlerBaseObject
 		}
 		
 		// complete
+		this.updateComponentIndex(componentType);
 		if(foundComponents != null)
 		{
 			TComponent[] array = (TComponent[])new Component[foundComponents.size()];
@@ -275,6 +584,48 @@ public class ComponentManager extends HandlerBaseObject
 	}
 	
 	
+	// Get name of builder for logging, anonymous builder has no simple name and lazy builder names the real builder.
+	private static String getBuilderName(ComponentBuilder builder)
+	{
+		if(builder instanceof LazyComponentBuilder)
+			return builder.toString();
+		String name = builder.getClass().getSimpleName();
+		return (name.length() > 0 ? name : builder.getClass().getName());
+	}
+	
+	
+	// Get executor to prepare components in worker threads.
+	private static synchronized ThreadPoolExecutor getPreparationExecutor()
+	{
+		if(m_PreparationExecutor == null)
+		{
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(PREPARATION_THREAD_COUNT, PREPARATION_THREAD_COUNT, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+			{
+				private final AtomicInteger m_ThreadCount = new AtomicInteger();
+				
+				@Override
+				public Thread newThread(Runnable runnable)
+				{
+					Thread thread = new Thread(runnable, "Component preparation " + m_ThreadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			executor.allowCoreThreadTimeOut(true);
+			m_PreparationExecutor = executor;
+		}
+		return m_PreparationExecutor;
+	}
+	
+	
+	// Drop all indexed components, should be called with lock after changing components or builders.
+	private void invalidateComponentIndex()
+	{
+		if(!m_ComponentIndex.isEmpty())
+			m_ComponentIndex = Collections.emptyMap();
+	}
+	
+	
 	// Initialize given component.
 	private boolean initializeComponent(Component component)
 	{
@@ -296,7 +647,7 @@ public class ComponentManager extends HandlerBaseObject
 		boolean result;
 		try
 		{
-			result = component.initialize();
+			result = this.initializeComponentDirectly(component);
 			if(!result)
 				Log.e(TAG, "initializeComponent() - Fail to initialize " + component);
 			this.raise(EVENT_COMPONENT_ADDED, new ComponentEventArgs<Component>(component));
@@ -310,6 +661,23 @@ public class ComponentManager extends HandlerBaseObject
 	}
 	
 	
+	// Initialize given component without checking state.
+	private boolean initializeComponentDirectly(Component component)
+	{
+		if(!StartupTracer.ENABLED)
+			return component.initialize();
+		StartupTracer.Span traceSpan = StartupTracer.begin("ComponentManager.initializeComponent(" + component.getClass().getSimpleName() + ")");
+		try
+		{
+			return component.initialize();
+		}
+		finally
+		{
+			StartupTracer.end(traceSpan);
+		}
+	}
+	
+	
 	/**
 	 * Release and remove given component.
 	 * @param component Component to remove.
@@ -327,6 +695,7 @@ public class ComponentManager extends HandlerBaseObject
 	{
 		// release all builders
 		m_Builders.clear();
+		this.invalidateComponentIndex();
 		
 		// release all components
 		Component[] components = new Component[m_Components.size()];
@@ -339,6 +708,69 @@ public class ComponentManager extends HandlerBaseObject
 	}
 	
 	
+	// Build creation graph of components with given priorities and start preparing them.
+	private List<CreationNode> prepareComponents(List<ComponentCreationPriority> priorities, Object[] args)
+	{
+		// create nodes
+		List<CreationNode> nodes = new ArrayList<>();
+		for(int i = m_Builders.size() - 1 ; i >= 0 ; --i)
+		{
+			ComponentBuilder builder = m_Builders.get(i);
+			if(priorities.contains(builder.getPriority()))
+				nodes.add(new CreationNode(builder, args));
+		}
+		
+		// link dependencies
+		for(int i = 0, count = nodes.size() ; i < count ; ++i)
+		{
+			CreationNode node = nodes.get(i);
+			if(!(node.builder instanceof ParallelComponentBuilder))
+				continue;
+			Class<?>[] dependencies = ((ParallelComponentBuilder)node.builder).getDependencies();
+			if(dependencies == null)
+				continue;
+			for(int j = 0 ; j < dependencies.length ; ++j)
+			{
+				for(int k = 0 ; k < count ; ++k)
+				{
+					CreationNode dependency = nodes.get(k);
+					if(dependency != node && !node.dependencies.contains(dependency) && dependency.builder.isComponentTypeSupported(dependencies[j]))
+					{
+						node.dependencies.add(dependency);
+						dependency.dependents.add(node);
+					}
+				}
+			}
+		}
+		
+		// break dependency cycles
+		List<CreationNode> sortedNodes = this.sortCreationNodes(nodes, false);
+		for(int i = 0, count = sortedNodes.size() ; i < count ; ++i)
+		{
+			CreationNode node = sortedNodes.get(i);
+			for(int j = node.dependencies.size() - 1 ; j >= 0 ; --j)
+			{
+				CreationNode dependency = node.dependencies.get(j);
+				if(sortedNodes.indexOf(dependency) > i)
+				{
+					node.dependencies.remove(j);
+					dependency.dependents.remove(node);
+				}
+			}
+			node.pendingDependencies.set(node.dependencies.size());
+		}
+		
+		// start preparing components without dependency
+		for(int i = 0, count = sortedNodes.size() ; i < count ; ++i)
+		{
+			CreationNode node = sortedNodes.get(i);
+			if(node.dependencies.isEmpty())
+				node.startPreparation();
+		}
+		return nodes;
+	}
+	
+	
 	// Remove given component.
 	private void removeComponentInternal(Component component)
 	{
@@ -349,6 +781,7 @@ public class ComponentManager extends HandlerBaseObject
 		// remove from table
 		if(!m_Components.remove(component))
 			return;
+		this.invalidateComponentIndex();
 		
 		Log.w(TAG, "removeComponentInternal() - Component : " + component);
 		
@@ -358,4 +791,76 @@ public class ComponentManager extends HandlerBaseObject
 		// release component
 		component.release();
 	}
+	
+	
+	// Sort nodes in dependency order, nodes without dependency between them keep given order or reversed order.
+	private List<CreationNode> sortCreationNodes(List<CreationNode> nodes, boolean reverse)
+	{
+		List<CreationNode> remainingNodes = new ArrayList<>(nodes);
+		if(reverse)
+			Collections.reverse(remainingNodes);
+		List<CreationNode> sortedNodes = new ArrayList<>(nodes.size());
+		while(!remainingNodes.isEmpty())
+		{
+			// find first node whose dependencies are sorted
+			int index = -1;
+			for(int i = 0, count = remainingNodes.size() ; i < count && index < 0 ; ++i)
+			{
+				List<CreationNode> dependencies = remainingNodes.get(i).dependencies;
+				index = i;
+				for(int j = dependencies.size() - 1 ; j >= 0 ; --j)
+				{
+					if(remainingNodes.contains(dependencies.get(j)))
+					{
+						index = -1;
+						break;
+					}
+				}
+			}
+			
+			// take first node to break dependency cycle
+			if(index < 0)
+			{
+				Log.e(TAG, "sortCreationNodes() - Dependency cycle in " + remainingNodes);
+				index = 0;
+			}
+			sortedNodes.add(remainingNodes.remove(index));
+		}
+		return sortedNodes;
+	}
+	
+	
+	// Index components extend or implement given type, should be called with lock.
+	private void updateComponentIndex(Class<?> componentType)
+	{
+		// collect components in search order
+		List<Component> components = null;
+		for(int i = m_Components.size() - 1 ; i >= 0 ; --i)
+		{
+			Component component = m_Components.get(i);
+			if(componentType.isAssignableFrom(component.getClass()))
+			{
+				if(components == null)
+					components = new ArrayList<>();
+				components.add(component);
+			}
+		}
+		
+		// check on-demand builders
+		boolean hasOnDemandBuilders = false;
+		for(int i = m_Builders.size() - 1 ; i >= 0 ; --i)
+		{
+			ComponentBuilder builder = m_Builders.get(i);
+			if(builder.getPriority() == ComponentCreationPriority.ON_DEMAND && builder.isComponentTypeSupported(componentType))
+			{
+				hasOnDemandBuilders = true;
+				break;
+			}
+		}
+		
+		// publish new index
+		HashMap<Class<?>, IndexEntry> index = new HashMap<>(m_ComponentIndex);
+		index.put(componentType, new IndexEntry((components != null ? components.toArray(new Component[components.size()]) : new Component[0]), hasOnDemandBuilders));
+		m_ComponentIndex = index;
+	}
 }
@@ -0,0 +1,226 @@
+package com.oneplus.base.component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.oneplus.base.BuildConfig;
+import com.oneplus.base.Log;
+import com.oneplus.base.StartupTracer;
+
+/**
+ * Component builder which describes actual builder by class name, actual builder and component classes will be loaded when creating or preparing component.
+ * In debug build, declaration is verified against actual builder when loading it, and {@link IllegalStateException} is thrown if they are mismatched.
+ */
+public final class LazyComponentBuilder implements ParallelComponentBuilder
+{
+	// Constants
+	private static final boolean ENABLE_VERIFICATION = BuildConfig.DEBUG;
+	private static final String TAG = "LazyComponentBuilder";
+	
+	
+	// Private fields
+	private volatile ComponentBuilder m_Builder;
+	private final String m_BuilderClassName;
+	private final String m_ComponentClassName;
+	private final Class<?>[] m_ComponentTypes;
+	private final Class<?>[] m_Dependencies;
+	private final ComponentCreationPriority m_Priority;
+	
+	
+	/**
+	 * Initialize new LazyComponentBuilder instance.
+	 * @param priority Creation priority, must be same as priority of actual builder.
+	 * @param builderClassName Name of actual builder class, the class must have public constructor without parameters.
+	 * @param componentClassName Name of component class, or Null if component class depends on creation arguments.
+	 * @param componentTypes Types (usually interfaces) implemented by component, or Null if component can only be found by its class.
+	 * @param dependencies Types of components which should be created before this component, or Null if there is no dependency.
+	 */
+	public LazyComponentBuilder(ComponentCreationPriority priority, String builderClassName, String componentClassName, Class<?>[] componentTypes, Class<?>... dependencies)
+	{
+		if(priority == null)
+			throw new IllegalArgumentException("No creation priority.");
+		if(builderClassName == null)
+			throw new IllegalArgumentException("No builder class name.");
+		m_Priority = priority;
+		m_BuilderClassName = builderClassName;
+		m_ComponentClassName = componentClassName;
+		m_ComponentTypes = componentTypes;
+		m_Dependencies = dependencies;
+	}
+	
+	
+	// Create component.
+	@Override
+	public Component create(Object... args)
+	{
+		Component component = this.getBuilder().create(args);
+		if(ENABLE_VERIFICATION && component != null && m_ComponentClassName != null && !m_ComponentClassName.equals(component.getClass().getName()))
+			this.onDeclarationMismatched("Component created by " + m_BuilderClassName + " is " + component.getClass().getName() + ", but " + m_ComponentClassName + " is declared");
+		return component;
+	}
+	
+	
+	/**
+	 * Get actual builder, the builder will be loaded if it is not loaded yet.
+	 * @return Actual builder.
+	 */
+	public ComponentBuilder getBuilder()
+	{
+		ComponentBuilder builder = m_Builder;
+		if(builder != null)
+			return builder;
+		synchronized(this)
+		{
+			if(m_Builder != null)
+				return m_Builder;
+			StartupTracer.Span traceSpan = null;
+			if(StartupTracer.ENABLED)
+				traceSpan = StartupTracer.begin("LazyComponentBuilder.load(" + m_BuilderClassName + ")");
+			try
+			{
+				builder = (ComponentBuilder)Class.forName(m_BuilderClassName).getDeclaredConstructor().newInstance();
+			}
+			catch(Throwable ex)
+			{
+				throw new RuntimeException("Fail to load builder " + m_BuilderClassName, ex);
+			}
+			finally
+			{
+				if(StartupTracer.ENABLED)
+					StartupTracer.end(traceSpan);
+			}
+			this.verifyBuilder(builder);
+			m_Builder = builder;
+			return builder;
+		}
+	}
+	
+	
+	// Get types of depended components.
+	@Override
+	public Class<?>[] getDependencies()
+	{
+		return m_Dependencies;
+	}
+	
+	
+	// Get priority.
+	@Override
+	public ComponentCreationPriority getPriority()
+	{
+		return m_Priority;
+	}
+	
+	
+	/**
+	 * Check whether actual builder is loaded or not.
+	 * @return Whether actual builder is loaded or not.
+	 */
+	public boolean isBuilderLoaded()
+	{
+		return (m_Builder != null);
+	}
+	
+	
+	// Check whether given component type is supported or not.
+	@Override
+	public boolean isComponentTypeSupported(Class<?> componentType)
+	{
+		// check component class without loading it
+		if(componentType == null)
+			return false;
+		if(m_ComponentClassName != null && m_ComponentClassName.equals(componentType.getName()))
+			return true;
+		
+		// check declared types
+		if(m_ComponentTypes != null)
+		{
+			for(int i = m_ComponentTypes.length - 1 ; i >= 0 ; --i)
+			{
+				if(componentType.isAssignableFrom(m_ComponentTypes[i]))
+					return true;
+			}
+		}
+		return false;
+	}
+	
+	
+	// Called when declaration is different from actual builder.
+	private void onDeclarationMismatched(String message)
+	{
+		if(ENABLE_VERIFICATION)
+			throw new IllegalStateException(message);
+		Log.e(TAG, message);
+	}
+	
+	
+	// Load actual builder and prepare in worker thread.
+	@Override
+	public void prepare(Object... args)
+	{
+		ComponentBuilder builder = this.getBuilder();
+		if(builder instanceof ParallelComponentBuilder)
+			((ParallelComponentBuilder)builder).prepare(args);
+	}
+	
+	
+	// Get string represents this builder.
+	@Override
+	public String toString()
+	{
+		return "Lazy(" + m_BuilderClassName + ")";
+	}
+	
+	
+	// Convert types to set.
+	private static Set<Class<?>> toTypeSet(Class<?>[] types)
+	{
+		if(types == null)
+			return new HashSet<>();
+		return new HashSet<>(Arrays.asList(types));
+	}
+	
+	
+	// Verify declaration against actual builder.
+	private void verifyBuilder(ComponentBuilder builder)
+	{
+		// check priority
+		if(builder.getPriority() != m_Priority)
+			this.onDeclarationMismatched("Priority of " + m_BuilderClassName + " is " + builder.getPriority() + ", but " + m_Priority + " is declared");
+		if(!ENABLE_VERIFICATION)
+			return;
+		
+		// check dependencies
+		Class<?>[] dependencies = (builder instanceof ParallelComponentBuilder ? ((ParallelComponentBuilder)builder).getDependencies() : null);
+		if(!toTypeSet(dependencies).equals(toTypeSet(m_Dependencies)))
+			this.onDeclarationMismatched("Dependencies of " + m_BuilderClassName + " are " + toTypeSet(dependencies) + ", but " + toTypeSet(m_Dependencies) + " are declared");
+		
+		// check component types
+		if(m_ComponentTypes != null)
+		{
+			for(int i = m_ComponentTypes.length - 1 ; i >= 0 ; --i)
+			{
+				if(!builder.isComponentTypeSupported(m_ComponentTypes[i]))
+					this.onDeclarationMismatched(m_BuilderClassName + " doesn't support declared type " + m_ComponentTypes[i].getName());
+			}
+		}
+		
+		// check component class
+		if(m_ComponentClassName != null)
+		{
+			Class<?> componentClass;
+			try
+			{
+				componentClass = Class.forName(m_ComponentClassName, false, builder.getClass().getClassLoader());
+			}
+			catch(ClassNotFoundException ex)
+			{
+				this.onDeclarationMismatched("Declared component class " + m_ComponentClassName + " of " + m_BuilderClassName + " is not found");
+				return;
+			}
+			if(!builder.isComponentTypeSupported(componentClass))
+				this.onDeclarationMismatched(m_BuilderClassName + " doesn't support declared component class " + m_ComponentClassName);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.oneplus.base.component;
+
+/**
+ * Component builder which declares its dependencies and supports preparing component in worker thread.
+ */
+public interface ParallelComponentBuilder extends ComponentBuilder
+{
+	/**
+	 * Get types of components which should be created before this component.
+	 * @return Types of depended components, or Null if there is no dependency.
+	 */
+	Class<?>[] getDependencies();
+	
+	/**
+	 * Prepare for creating component. This method will be called in worker thread before calling {@link #create(Object...)} in owner thread, so it must be thread-safe and must not touch views or handlers.
+	 * @param args Creation arguments.
+	 */
+	void prepare(Object... args);
+}
@@ -8,7 +8,7 @@ import android.app.Application;
 /**
  * Camera application.
  */
-public final class CameraApplication extends Application
+public final class CameraApplication extends Application implements CameraRuntime.Host
 {
 	/**
 	 * Debug flag.
@@ -20,6 +20,18 @@ public final class CameraApplication extends Application
 	private static final String TAG = "CameraApplication";
 	
 	
+	// Private fields
+	private CameraRuntime m_CameraRuntime;
+	
+	
+	// Get camera runtime.
+	@Override
+	public CameraRuntime getCameraRuntime()
+	{
+		return m_CameraRuntime;
+	}
+	
+	
 	// Called when creating application.
 	@Override
 	public void onCreate()
@@ -32,5 +44,23 @@ public final class CameraApplication extends Application
 		// initialize thread monitor
 		if(DEBUG)
 			ThreadMonitor.prepare();
+		
+		// create camera runtime
+		m_CameraRuntime = new CameraRuntime(this);
+	}
+	
+	
+	// Called when system asks to trim memory.
+	@Override
+	public void onTrimMemory(int level)
+	{
+		Log.v(TAG, "onTrimMemory() - Level : ", level);
+		
+		// call super
+		super.onTrimMemory(level);
+		
+		// release camera thread kept in grace period
+		if(m_CameraRuntime != null)
+			m_CameraRuntime.onTrimMemory(level);
 	}
 }
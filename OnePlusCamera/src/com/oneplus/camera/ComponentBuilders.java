@@ -1,58 +1,56 @@
 package com.oneplus.camera;
 
 import com.oneplus.base.component.ComponentBuilder;
-import com.oneplus.camera.capturemode.CaptureModeManagerBuilder;
-import com.oneplus.camera.location.LocationManagerBuilder;
-import com.oneplus.camera.media.AudioManagerBuilder;
-import com.oneplus.camera.scene.SceneManagerBuilder;
-import com.oneplus.camera.slowmotion.SlowMotionControllerBuilder;
-import com.oneplus.camera.slowmotion.SlowMotionUIBuilder;
-import com.oneplus.camera.timelapse.TimelapseControllerBuilder;
-import com.oneplus.camera.timelapse.TimelapseUIBuilder;
-import com.oneplus.camera.ui.CameraPreviewGridBuilder;
-import com.oneplus.camera.ui.CaptureBarBuilder;
-import com.oneplus.camera.ui.CaptureModeSwitcherBuilder;
-import com.oneplus.camera.ui.CountDownTimerIndicatorBuilder;
-import com.oneplus.camera.ui.OptionsPanelBuilder;
-import com.oneplus.camera.ui.PinchZoomingUIBuilder;
-import com.oneplus.camera.ui.PreviewGalleryBuilder;
-import com.oneplus.camera.ui.FocusExposureIndicatorBuilder;
-import com.oneplus.camera.ui.RecordingTimerUIBuilder;
-import com.oneplus.camera.ui.TouchFocusExposureUIBuilder;
-import com.oneplus.camera.ui.ZoomBarBuilder;
+import com.oneplus.base.component.ComponentCreationPriority;
+import com.oneplus.base.component.LazyComponentBuilder;
+import com.oneplus.camera.capturemode.CaptureModeManager;
+import com.oneplus.camera.location.LocationManager;
+import com.oneplus.camera.media.AudioManager;
+import com.oneplus.camera.scene.SceneManager;
+import com.oneplus.camera.ui.CameraPreviewGrid;
+import com.oneplus.camera.ui.CameraPreviewOverlay;
+import com.oneplus.camera.ui.CaptureButtons;
+import com.oneplus.camera.ui.OptionsPanel;
+import com.oneplus.camera.ui.TouchAutoExposureUI;
+import com.oneplus.camera.ui.TouchAutoFocusUI;
+import com.oneplus.camera.ui.Viewfinder;
 
+/**
+ * Component registry. Builders are described by class name so builder and component classes won't be loaded until component is prepared or created.
+ * Each entry must be kept in sync with priority, component class and dependencies of its builder, mismatches are thrown when loading builder in debug build.
+ */
 final class ComponentBuilders
 {
 	static final ComponentBuilder[] BUILDERS_CAMERA_THREAD = new ComponentBuilder[]{
-		new AudioManagerBuilder(),
-		new LocationManagerBuilder(),
-		new SlowMotionControllerBuilder(),
-		new TimelapseControllerBuilder(),
-		new ZoomControllerBuilder(),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.media.AudioManagerBuilder", null, new Class<?>[]{ AudioManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.location.LocationManagerBuilder", null, new Class<?>[]{ LocationManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.slowmotion.SlowMotionControllerBuilder", "com.oneplus.camera.slowmotion.SlowMotionController", null),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.timelapse.TimelapseControllerBuilder", "com.oneplus.camera.timelapse.TimelapseController", null),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ZoomControllerBuilder", null, new Class<?>[]{ ZoomController.class }),
 	};
 	
 	
 	static final ComponentBuilder[] BUILDERS_MAIN_ACTIVITY = new ComponentBuilder[]{
-		//new AudioManagerBuilder(),
-		new CameraPreviewGridBuilder(),
-		new CaptureBarBuilder(),
-		new CaptureModeManagerBuilder(),
-		new CaptureModeSwitcherBuilder(),
-		new CountDownTimerBuilder(),
-		new CountDownTimerIndicatorBuilder(),
-		new FlashControllerBuilder(),
-		new FocusExposureIndicatorBuilder(),
-		new LocationManagerBuilder(),
-		new OptionsPanelBuilder(),
-		new PinchZoomingUIBuilder(),
-		new PreviewGalleryBuilder(),
-		new RecordingTimerUIBuilder(),
-		new SceneManagerBuilder(),
-		new SensorFocusControllerBuilder(),
-		new SlowMotionUIBuilder(),
-		new TimelapseUIBuilder(),
-		new TouchFocusExposureUIBuilder(),
-		new ZoomBarBuilder(),
-		new ZoomControllerBuilder(),
+		//new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.media.AudioManagerBuilder", null, new Class<?>[]{ AudioManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.CameraPreviewGridBuilder", "com.oneplus.camera.ui.CameraPreviewGridImpl", new Class<?>[]{ CameraPreviewGrid.class }, CameraPreviewOverlay.class),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.CaptureBarBuilder", "com.oneplus.camera.ui.CaptureBar", new Class<?>[]{ CaptureButtons.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.LAUNCH, "com.oneplus.camera.capturemode.CaptureModeManagerBuilder", "com.oneplus.camera.capturemode.CaptureModeManagerImpl", new Class<?>[]{ CaptureModeManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.CaptureModeSwitcherBuilder", "com.oneplus.camera.ui.CaptureModeSwitcher", null, CaptureModeManager.class),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.CountDownTimerBuilder", "com.oneplus.camera.CountDownTimerImpl", new Class<?>[]{ CountDownTimer.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.CountDownTimerIndicatorBuilder", "com.oneplus.camera.ui.CountDownTimerIndicator", null, CountDownTimer.class, Viewfinder.class),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.FlashControllerBuilder", "com.oneplus.camera.FlashControllerImpl", new Class<?>[]{ FlashController.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.FocusExposureIndicatorBuilder", "com.oneplus.camera.ui.FocusExposureIndicator", null, ExposureController.class, FocusController.class, Viewfinder.class),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.location.LocationManagerBuilder", null, new Class<?>[]{ LocationManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.OptionsPanelBuilder", "com.oneplus.camera.ui.OptionsPanelImpl", new Class<?>[]{ OptionsPanel.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.PinchZoomingUIBuilder", "com.oneplus.camera.ui.PinchZoomingUI", null, ZoomController.class),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.PreviewGalleryBuilder", "com.oneplus.camera.ui.PreviewGallery", null),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.RecordingTimerUIBuilder", "com.oneplus.camera.ui.RecordingTimerUI", null),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.scene.SceneManagerBuilder", "com.oneplus.camera.scene.SceneManagerImpl", new Class<?>[]{ SceneManager.class }),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.SensorFocusControllerBuilder", "com.oneplus.camera.SensorFocusControllerImpl", null),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.slowmotion.SlowMotionUIBuilder", "com.oneplus.camera.slowmotion.SlowMotionUI", null),
+		new LazyComponentBuilder(ComponentCreationPriority.ON_DEMAND, "com.oneplus.camera.timelapse.TimelapseUIBuilder", "com.oneplus.camera.timelapse.TimelapseUI", null),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.TouchFocusExposureUIBuilder", "com.oneplus.camera.ui.TouchFocusExposureUI", new Class<?>[]{ TouchAutoFocusUI.class, TouchAutoExposureUI.class }, ExposureController.class, FocusController.class),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ui.ZoomBarBuilder", "com.oneplus.camera.ui.ZoomBarImpl", null, ZoomController.class),
+		new LazyComponentBuilder(ComponentCreationPriority.NORMAL, "com.oneplus.camera.ZoomControllerBuilder", null, new Class<?>[]{ ZoomController.class }),
 	};
 }
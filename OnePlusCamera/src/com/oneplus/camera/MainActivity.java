@@ -86,15 +86,20 @@ public class MainActivity extends CameraActivity
 		if(captureModeManager != null)
 			captureModeManager.changeToInitialCaptureMode(0);
 		
-		// start camera thread
-		CameraThread.ResourceIdTable resIdTable = new CameraThread.ResourceIdTable();
+		// start camera thread, camera thread kept by camera runtime is already set up and only needs current media type
 		CameraThread cameraThread = this.getCameraThread();
-		cameraThread.addComponentBuilders(ComponentBuilders.BUILDERS_CAMERA_THREAD);
-		resIdTable.photoShutterSound = R.raw.shutter_photo;
-		resIdTable.videoStartSound = R.raw.record_start;
-		resIdTable.videoStopSound = R.raw.record_end;
-		cameraThread.setResourceIdTable(resIdTable);
-		cameraThread.start(this.get(PROP_MEDIA_TYPE));
+		if(!cameraThread.isStartCalled())
+		{
+			CameraThread.ResourceIdTable resIdTable = new CameraThread.ResourceIdTable();
+			cameraThread.addComponentBuilders(ComponentBuilders.BUILDERS_CAMERA_THREAD);
+			resIdTable.photoShutterSound = R.raw.shutter_photo;
+			resIdTable.videoStartSound = R.raw.record_start;
+			resIdTable.videoStopSound = R.raw.record_end;
+			cameraThread.setResourceIdTable(resIdTable);
+			cameraThread.start(this.get(PROP_MEDIA_TYPE));
+		}
+		else
+			cameraThread.setMediaType(this.get(PROP_MEDIA_TYPE));
 		
 		// setup scene builders
 		m_SceneManager = this.findComponent(SceneManager.class);
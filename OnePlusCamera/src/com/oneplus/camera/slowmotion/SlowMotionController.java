@@ -11,6 +11,7 @@ import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
 import com.oneplus.base.PropertySource;
 import com.oneplus.base.Rotation;
+import com.oneplus.base.SubscriptionScope;
 import com.oneplus.camera.Camera;
 import com.oneplus.camera.CameraThread;
 import com.oneplus.camera.ModeController;
@@ -76,8 +77,9 @@ final class SlowMotionController extends ModeController<SlowMotionUI> implements
 		super.onInitialize();
 		
 		// add property changed call-backs.
+		SubscriptionScope subscriptionScope = this.getSubscriptionScope();
 		CameraThread cameraThread = this.getCameraThread();
-		cameraThread.addCallback(CameraThread.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
+		subscriptionScope.addCallback(cameraThread, CameraThread.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
 		{
 			@SuppressWarnings("incomplete-switch")
 			@Override
@@ -21,6 +21,7 @@ import com.oneplus.base.EventHandler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.EventSource;
 import com.oneplus.base.Handle;
+import com.oneplus.base.IdleScheduler;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
@@ -211,6 +212,16 @@ class CaptureModeSwitcher extends UIComponent
 		
 		// setup swipe thresholds
 		this.updateDirectionThreshold(cameraActivity.get(CameraActivity.PROP_SCREEN_SIZE));
+		
+		// setup panel when UI thread is idle
+		cameraActivity.getIdleScheduler().schedule(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				setupCaptureModesPanel();
+			}
+		}, IdleScheduler.PRIORITY_LOW, 0);
 	}
 	
 	
@@ -388,39 +399,7 @@ class CaptureModeSwitcher extends UIComponent
 	private void openCaptureModesPanel()
 	{
 		// setup panel
-		if(m_CaptureModesPanel instanceof ViewStub)
-		{
-			// setup views
-			m_CaptureModesPanel = ((ViewStub)m_CaptureModesPanel).inflate();
-			m_CaptureModesPanel.setOnTouchListener(new View.OnTouchListener()
-			{
-				@Override
-				public boolean onTouch(View v, MotionEvent event)
-				{
-					return true;
-				}
-			});
-			m_CaptureModeItemsContainer = (ViewGroup)m_CaptureModesPanel.findViewById(R.id.capture_modes_panel_items_container);
-			m_CaptureModeItemsRotateContainer = (RotateRelativeLayout)m_CaptureModeItemsContainer.getParent();
-			View advSettingsButton = m_CaptureModesPanel.findViewById(R.id.advanced_settings_button);
-			advSettingsButton.setOnClickListener(new View.OnClickListener()
-			{
-				@Override
-				public void onClick(View v)
-				{
-					onAdvancedSettingsButtonClicked();
-				}
-			});
-			this.addAutoRotateView(advSettingsButton);
-			
-			// show capture modes
-			if(m_CaptureModeManager != null)
-			{
-				List<CaptureMode> captureModes = m_CaptureModeManager.get(CaptureModeManager.PROP_CAPTURE_MODES);
-				for(int i = 0, count = captureModes.size() ; i < count ; ++i)
-					this.onCaptureModeAdded(captureModes.get(i));
-			}
-		}
+		this.setupCaptureModesPanel();
 		
 		// disable capture UI
 		m_CaptureUIDisableHandle = this.getCameraActivity().disableCaptureUI();
@@ -442,6 +421,47 @@ class CaptureModeSwitcher extends UIComponent
 	}
 	
 	
+	// Setup capture modes panel.
+	private void setupCaptureModesPanel()
+	{
+		// check state
+		if(!(m_CaptureModesPanel instanceof ViewStub))
+			return;
+		
+		// setup views
+		m_CaptureModesPanel = ((ViewStub)m_CaptureModesPanel).inflate();
+		m_CaptureModesPanel.setVisibility(View.GONE);
+		m_CaptureModesPanel.setOnTouchListener(new View.OnTouchListener()
+		{
+			@Override
+			public boolean onTouch(View v, MotionEvent event)
+			{
+				return true;
+			}
+		});
+		m_CaptureModeItemsContainer = (ViewGroup)m_CaptureModesPanel.findViewById(R.id.capture_modes_panel_items_container);
+		m_CaptureModeItemsRotateContainer = (RotateRelativeLayout)m_CaptureModeItemsContainer.getParent();
+		View advSettingsButton = m_CaptureModesPanel.findViewById(R.id.advanced_settings_button);
+		advSettingsButton.setOnClickListener(new View.OnClickListener()
+		{
+			@Override
+			public void onClick(View v)
+			{
+				onAdvancedSettingsButtonClicked();
+			}
+		});
+		this.addAutoRotateView(advSettingsButton);
+		
+		// show capture modes
+		if(m_CaptureModeManager != null)
+		{
+			List<CaptureMode> captureModes = m_CaptureModeManager.get(CaptureModeManager.PROP_CAPTURE_MODES);
+			for(int i = 0, count = captureModes.size() ; i < count ; ++i)
+				this.onCaptureModeAdded(captureModes.get(i));
+		}
+	}
+	
+	
 	// Switch capture mode.
 	private boolean switchCaptureMode(int direction)
 	{
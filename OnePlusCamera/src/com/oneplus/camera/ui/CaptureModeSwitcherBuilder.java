@@ -4,12 +4,13 @@ import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
 import com.oneplus.camera.UIComponentBuilder;
+import com.oneplus.camera.capturemode.CaptureModeManager;
 
 public final class CaptureModeSwitcherBuilder extends UIComponentBuilder
 {
 	public CaptureModeSwitcherBuilder()
 	{
-		super(ComponentCreationPriority.NORMAL, CaptureModeSwitcher.class);
+		super(ComponentCreationPriority.NORMAL, CaptureModeSwitcher.class, CaptureModeManager.class);
 	}
 
 	@Override
@@ -1,7 +1,9 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
+import com.oneplus.camera.CountDownTimer;
 import com.oneplus.camera.UIComponentBuilder;
 
 /**
@@ -14,7 +16,7 @@ public final class CountDownTimerIndicatorBuilder extends UIComponentBuilder
 	 */
 	public CountDownTimerIndicatorBuilder()
 	{
-		super(CountDownTimerIndicator.class);
+		super(ComponentCreationPriority.NORMAL, CountDownTimerIndicator.class, CountDownTimer.class, Viewfinder.class);
 	}
 
 	
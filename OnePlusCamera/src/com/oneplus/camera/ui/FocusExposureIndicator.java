@@ -32,6 +32,7 @@ import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
 import com.oneplus.base.PropertySource;
 import com.oneplus.base.Rotation;
+import com.oneplus.base.SubscriptionScope;
 import com.oneplus.camera.Camera.MeteringRect;
 import com.oneplus.camera.widget.RotateRelativeLayout;
 import com.oneplus.camera.CameraActivity;
@@ -291,7 +292,7 @@ final class FocusExposureIndicator extends UIComponent
 	private void onExposureCompChanged()
 	{
 		// calculate relative exposure compensation
-		float ev = m_ExposureController.get(ExposureController.PROP_EXPOSURE_COMPENSATION);
+		float ev = m_ExposureController.getFloat(ExposureController.PROP_EXPOSURE_COMPENSATION);
 		Range<Float> evRange = m_ExposureController.get(ExposureController.PROP_EXPOSURE_COMPENSATION_RANGE);
 		float evStep = m_ExposureController.get(ExposureController.PROP_EXPOSURE_COMPENSATION_STEP);
 		float relativeExposureComp = (ev >= 0 ? (ev / evRange.getUpper()) : (-ev / evRange.getLower()));
@@ -467,7 +468,8 @@ final class FocusExposureIndicator extends UIComponent
 		this.addAutoRotateView(m_IndicatorContainer);
 		
 		// add property changed call-backs
-		cameraActivity.addCallback(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED, new PropertyChangedCallback<Boolean>()
+		SubscriptionScope subscriptionScope = this.getSubscriptionScope();
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED, new PropertyChangedCallback<Boolean>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<Boolean> key, PropertyChangeEventArgs<Boolean> e)
@@ -486,7 +488,7 @@ final class FocusExposureIndicator extends UIComponent
 				}
 			}
 		});
-		cameraActivity.addCallback(CameraActivity.PROP_PHOTO_CAPTURE_STATE, new PropertyChangedCallback<PhotoCaptureState>()
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_PHOTO_CAPTURE_STATE, new PropertyChangedCallback<PhotoCaptureState>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<PhotoCaptureState> key, PropertyChangeEventArgs<PhotoCaptureState> e)
@@ -498,7 +500,7 @@ final class FocusExposureIndicator extends UIComponent
 				}
 			}
 		});
-		cameraActivity.addCallback(CameraActivity.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<VideoCaptureState> key, PropertyChangeEventArgs<VideoCaptureState> e)
@@ -528,10 +530,10 @@ final class FocusExposureIndicator extends UIComponent
 					onExposureCompChanged();
 				}
 			};
-			m_ExposureController.addCallback(ExposureController.PROP_EXPOSURE_COMPENSATION, callback);
-			m_ExposureController.addCallback(ExposureController.PROP_EXPOSURE_COMPENSATION_RANGE, callback);
-			m_ExposureController.addCallback(ExposureController.PROP_EXPOSURE_COMPENSATION_STEP, callback);
-			m_ExposureController.addCallback(ExposureController.PROP_IS_AE_LOCKED, new PropertyChangedCallback<Boolean>()
+			subscriptionScope.addCallback(m_ExposureController, ExposureController.PROP_EXPOSURE_COMPENSATION, callback);
+			subscriptionScope.addCallback(m_ExposureController, ExposureController.PROP_EXPOSURE_COMPENSATION_RANGE, callback);
+			subscriptionScope.addCallback(m_ExposureController, ExposureController.PROP_EXPOSURE_COMPENSATION_STEP, callback);
+			subscriptionScope.addCallback(m_ExposureController, ExposureController.PROP_IS_AE_LOCKED, new PropertyChangedCallback<Boolean>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<Boolean> key, PropertyChangeEventArgs<Boolean> e)
@@ -543,7 +545,7 @@ final class FocusExposureIndicator extends UIComponent
 		}
 		if(m_FocusController != null)
 		{
-			m_FocusController.addCallback(FocusController.PROP_AF_REGIONS, new PropertyChangedCallback<List<MeteringRect>>()
+			subscriptionScope.addCallback(m_FocusController, FocusController.PROP_AF_REGIONS, new PropertyChangedCallback<List<MeteringRect>>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<List<MeteringRect>> key, PropertyChangeEventArgs<List<MeteringRect>> e)
@@ -551,7 +553,7 @@ final class FocusExposureIndicator extends UIComponent
 					onAfRegionsChanged(e.getNewValue());
 				}
 			});
-			m_FocusController.addCallback(FocusController.PROP_FOCUS_STATE, new PropertyChangedCallback<FocusState>()
+			subscriptionScope.addCallback(m_FocusController, FocusController.PROP_FOCUS_STATE, new PropertyChangedCallback<FocusState>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<FocusState> key, PropertyChangeEventArgs<FocusState> e)
@@ -559,7 +561,7 @@ final class FocusExposureIndicator extends UIComponent
 					onFocusStateChanged(e.getNewValue());
 				}
 			});
-			m_FocusController.addCallback(FocusController.PROP_IS_FOCUS_LOCKED, new PropertyChangedCallback<Boolean>()
+			subscriptionScope.addCallback(m_FocusController, FocusController.PROP_IS_FOCUS_LOCKED, new PropertyChangedCallback<Boolean>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<Boolean> key, PropertyChangeEventArgs<Boolean> e)
@@ -712,7 +714,7 @@ final class FocusExposureIndicator extends UIComponent
 			{
 				Range<Float> evRange = m_ExposureController.get(ExposureController.PROP_EXPOSURE_COMPENSATION_RANGE);
 				float ev = (exposureComp >= 0 ? (exposureComp * evRange.getUpper()) : (-exposureComp * evRange.getLower()));
-				m_ExposureController.set(ExposureController.PROP_EXPOSURE_COMPENSATION, ev);
+				m_ExposureController.setFloat(ExposureController.PROP_EXPOSURE_COMPENSATION, ev);
 			}
 		}
 		else
@@ -743,7 +745,7 @@ final class FocusExposureIndicator extends UIComponent
 		
 		// check preview state
 		CameraActivity cameraActivity = this.getCameraActivity();
-		if(!cameraActivity.get(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
+		if(!cameraActivity.getBoolean(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
 			return;
 		
 		// check self-timer
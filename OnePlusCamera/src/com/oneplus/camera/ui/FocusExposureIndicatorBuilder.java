@@ -1,7 +1,10 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
+import com.oneplus.camera.ExposureController;
+import com.oneplus.camera.FocusController;
 import com.oneplus.camera.UIComponentBuilder;
 
 /**
@@ -12,7 +15,7 @@ public final class FocusExposureIndicatorBuilder extends UIComponentBuilder
 	// Constructor.
 	public FocusExposureIndicatorBuilder()
 	{
-		super(FocusExposureIndicator.class);
+		super(ComponentCreationPriority.NORMAL, FocusExposureIndicator.class, ExposureController.class, FocusController.class, Viewfinder.class);
 	}
 
 	
@@ -13,11 +13,14 @@ import android.widget.TextView;
 import com.oneplus.base.EventHandler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.EventSource;
+import com.oneplus.base.Handle;
+import com.oneplus.base.IdleScheduler;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
 import com.oneplus.base.PropertySource;
+import com.oneplus.base.SubscriptionScope;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.MainActivity;
 import com.oneplus.camera.PhotoCaptureState;
@@ -33,12 +36,17 @@ import com.oneplus.camera.scene.SceneManager;
 
 final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 {
+	// Constants.
+	private static final long IDLE_DEADLINE_SETUP_RESOLUTION_ITEMS = 1000;
+	
+	
 	// Private fields.
 	private View m_OptionsPanel;
 	private ResolutionManager m_ResolutionManager;
 	private final List<Item> m_SceneItems = new ArrayList<>();
 	private ViewGroup m_SceneItemsContainer;
 	private SceneManager m_SceneManager;
+	private Handle m_SetupResolutionItemsHandle;
 	private final List<Item> m_VideoResolutionItems = new ArrayList<>();
 	private ViewGroup m_VideoResolutionItemsContainer;
 	
@@ -159,6 +167,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 		m_VideoResolutionItemsContainer = (ViewGroup)m_OptionsPanel.findViewById(R.id.options_panel_video_resolution_items_container);
 		
 		// add property changed call-backs.
+		SubscriptionScope subscriptionScope = this.getSubscriptionScope();
 		PropertyChangedCallback closePanelCallback = new PropertyChangedCallback()
 		{
 			@Override
@@ -167,8 +176,8 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 				closeOptionsPanel(0);
 			}
 		};
-		cameraActivity.addCallback(CameraActivity.PROP_CAMERA, closePanelCallback);
-		cameraActivity.addCallback(CameraActivity.PROP_MEDIA_TYPE, new PropertyChangedCallback<MediaType>()
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_CAMERA, closePanelCallback);
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_MEDIA_TYPE, new PropertyChangedCallback<MediaType>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<MediaType> key, PropertyChangeEventArgs<MediaType> e)
@@ -176,7 +185,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 				updateItemsContainerVisibility();
 			}
 		});
-		cameraActivity.addCallback(CameraActivity.PROP_PHOTO_CAPTURE_STATE, new PropertyChangedCallback<PhotoCaptureState>()
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_PHOTO_CAPTURE_STATE, new PropertyChangedCallback<PhotoCaptureState>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<PhotoCaptureState> key, PropertyChangeEventArgs<PhotoCaptureState> e)
@@ -192,7 +201,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 				}
 			}
 		});
-		cameraActivity.addCallback(CameraActivity.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
 		{
 			@Override
 			public void onPropertyChanged(PropertySource source, PropertyKey<VideoCaptureState> key, PropertyChangeEventArgs<VideoCaptureState> e)
@@ -208,10 +217,10 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 				}
 			}
 		});
-		cameraActivity.addCallback(CameraActivity.PROP_MEDIA_TYPE, closePanelCallback);
+		subscriptionScope.addCallback(cameraActivity, CameraActivity.PROP_MEDIA_TYPE, closePanelCallback);
 		if(m_ResolutionManager != null)
 		{
-			m_ResolutionManager.addCallback(ResolutionManager.PROP_VIDEO_RESOLUTION, new PropertyChangedCallback<Resolution>()
+			subscriptionScope.addCallback(m_ResolutionManager, ResolutionManager.PROP_VIDEO_RESOLUTION, new PropertyChangedCallback<Resolution>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<Resolution> key, PropertyChangeEventArgs<Resolution> e)
@@ -219,7 +228,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 					onVideoResolutionChanged(e.getNewValue());
 				}
 			});
-			m_ResolutionManager.addCallback(ResolutionManager.PROP_VIDEO_RESOLUTION_LIST, new PropertyChangedCallback<List<Resolution>>()
+			subscriptionScope.addCallback(m_ResolutionManager, ResolutionManager.PROP_VIDEO_RESOLUTION_LIST, new PropertyChangedCallback<List<Resolution>>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<List<Resolution>> key, PropertyChangeEventArgs<List<Resolution>> e)
@@ -232,7 +241,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 			Log.e(TAG, "onInitialize() - No ResolutionManager");
 		if(m_SceneManager != null)
 		{
-			m_SceneManager.addCallback(SceneManager.PROP_SCENE, new PropertyChangedCallback<Scene>()
+			subscriptionScope.addCallback(m_SceneManager, SceneManager.PROP_SCENE, new PropertyChangedCallback<Scene>()
 			{
 				@Override
 				public void onPropertyChanged(PropertySource source, PropertyKey<Scene> key, PropertyChangeEventArgs<Scene> e)
@@ -247,7 +256,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 		// Add event handlers
 		if(m_SceneManager != null)
 		{
-			m_SceneManager.addHandler(SceneManager.EVENT_SCENE_ADDED, new EventHandler<SceneEventArgs>()
+			subscriptionScope.addHandler(m_SceneManager, SceneManager.EVENT_SCENE_ADDED, new EventHandler<SceneEventArgs>()
 			{
 				@Override
 				public void onEventReceived(EventSource source, EventKey<SceneEventArgs> key, SceneEventArgs e)
@@ -255,7 +264,7 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 					onSceneAdded(e.getScene());
 				}
 			});
-			m_SceneManager.addHandler(SceneManager.EVENT_SCENE_REMOVED, new EventHandler<SceneEventArgs>()
+			subscriptionScope.addHandler(m_SceneManager, SceneManager.EVENT_SCENE_REMOVED, new EventHandler<SceneEventArgs>()
 			{
 				@Override
 				public void onEventReceived(EventSource source, EventKey<SceneEventArgs> key, SceneEventArgs e)
@@ -273,9 +282,18 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 				this.onSceneAdded(sceneList.get(i));
 		}
 		
-		// Setup resolution items
+		// Setup resolution items when UI thread is idle
 		if(m_ResolutionManager != null)
-			this.onVideoResolutionListChanged(m_ResolutionManager.get(ResolutionManager.PROP_VIDEO_RESOLUTION_LIST));
+		{
+			m_SetupResolutionItemsHandle = cameraActivity.getIdleScheduler().schedule(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					onVideoResolutionListChanged(m_ResolutionManager.get(ResolutionManager.PROP_VIDEO_RESOLUTION_LIST));
+				}
+			}, IdleScheduler.PRIORITY_NORMAL, IDLE_DEADLINE_SETUP_RESOLUTION_ITEMS);
+		}
 		
 		// Setup containers state
 		this.updateItemsContainerVisibility();
@@ -393,6 +411,9 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 	// Called when video resolution list changed.
 	private void onVideoResolutionListChanged(List<Resolution> resolutions)
 	{
+		// cancel deferred setup
+		m_SetupResolutionItemsHandle = Handle.close(m_SetupResolutionItemsHandle);
+		
 		// remove old items
 		for(int i = m_VideoResolutionItems.size() - 1 ; i >= 0 ; --i)
 		{
@@ -436,6 +457,10 @@ final class OptionsPanelImpl extends UIComponent implements OptionsPanel
 			return false;
 		}
 		
+		// setup resolution items immediately
+		if(Handle.isValid(m_SetupResolutionItemsHandle))
+			this.onVideoResolutionListChanged(m_ResolutionManager.get(ResolutionManager.PROP_VIDEO_RESOLUTION_LIST));
+		
 		// show panel
 		this.setViewVisibility(m_OptionsPanel, true);
 		this.setReadOnly(PROP_IS_VISIBLE, true);
@@ -38,6 +38,7 @@ import com.oneplus.base.component.ComponentSearchCallback;
 import com.oneplus.base.component.ComponentUtils;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.R;
+import com.oneplus.camera.ThreadPolicyManager;
 import com.oneplus.camera.UIComponent;
 import com.oneplus.camera.io.FileManager;
 import com.oneplus.camera.io.FileManager.PhotoCallback;
@@ -61,6 +62,8 @@ final class PreviewGallery extends UIComponent {
 	private FileManager m_FileManager;
 	private int m_OrignalZ, m_PreviousPosition;
 	private boolean MultiTouch;
+	private boolean m_IsGalleryVisible;
+	private ThreadPolicyManager m_ThreadPolicyManager;
 	//
 	static final private int PAGE_OFFSET = 2, TARGET = PAGE_OFFSET+1;;
 
@@ -241,6 +244,16 @@ final class PreviewGallery extends UIComponent {
 			}
 		});
 
+		ComponentUtils.findComponent(getCameraThread(), ThreadPolicyManager.class, this, new ComponentSearchCallback<ThreadPolicyManager>() {
+
+			@Override
+			public void onComponentFound(ThreadPolicyManager component) {
+				m_ThreadPolicyManager = component;
+				if (m_IsGalleryVisible)
+					notifyGalleryVisibility(true);
+			}
+		});
+
 		initPortrait(cameraActivity);
 		initLandscape(cameraActivity);
 		if (Rotation.PORTRAIT == getRotation() || Rotation.INVERSE_PORTRAIT == getRotation()) {
@@ -476,11 +489,38 @@ final class PreviewGallery extends UIComponent {
 		ViewGroup parent = ((ViewGroup) m_PreviewGallery.getParent());
 		parent.removeView(m_PreviewGallery);
 		parent.addView(m_PreviewGallery, m_OrignalZ);
+		setGalleryVisible(false);
 	}
 
 	void bringToFront() {
 		m_BG.setAlpha(ALPHA_MAX);
 		m_PreviewGallery.bringToFront();
+		setGalleryVisible(true);
+	}
+
+	// Notify thread policy manager that gallery visibility changes.
+	private void notifyGalleryVisibility(final boolean isVisible) {
+		final ThreadPolicyManager threadPolicyManager = m_ThreadPolicyManager;
+		if (threadPolicyManager == null)
+			return;
+		// thread policy manager has no handler, post to camera thread which owns it
+		if (!HandlerUtils.post(getCameraThread(), new Runnable() {
+
+			@Override
+			public void run() {
+				threadPolicyManager.set(ThreadPolicyManager.PROP_IS_GALLERY_VISIBLE, isVisible);
+			}
+		})) {
+			Log.e(TAG, "notifyGalleryVisibility() - Fail to post gallery visibility " + isVisible + " to camera thread");
+		}
+	}
+
+	// Update gallery visibility.
+	private void setGalleryVisible(boolean isVisible) {
+		if (m_IsGalleryVisible == isVisible)
+			return;
+		m_IsGalleryVisible = isVisible;
+		notifyGalleryVisibility(isVisible);
 	}
 
 	private static class PreviewPagerAdapter extends PagerAdapter {
@@ -6,6 +6,8 @@ import android.view.ViewStub;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import com.oneplus.base.LongPropertyChangedCallback;
+import com.oneplus.base.LongPropertyKey;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
@@ -48,12 +50,12 @@ final class RecordingTimerUI extends UIComponent
 		
 		// add property changed call-backs
 		CameraActivity cameraActivity = this.getCameraActivity();
-		cameraActivity.addCallback(CameraActivity.PROP_ELAPSED_RECORDING_SECONDS, new PropertyChangedCallback<Long>()
+		cameraActivity.addCallback(CameraActivity.PROP_ELAPSED_RECORDING_SECONDS, new LongPropertyChangedCallback()
 		{
 			@Override
-			public void onPropertyChanged(PropertySource source, PropertyKey<Long> key, PropertyChangeEventArgs<Long> e)
+			public void onPropertyChanged(PropertySource source, LongPropertyKey key, long oldValue, long newValue)
 			{
-				updateRecordingTimer(e.getNewValue());
+				updateRecordingTimer(newValue);
 			}
 		});
 		cameraActivity.addCallback(CameraActivity.PROP_VIDEO_CAPTURE_STATE, new PropertyChangedCallback<VideoCaptureState>()
@@ -85,7 +87,7 @@ final class RecordingTimerUI extends UIComponent
 		{
 			m_Container = (RotateRelativeLayout)((ViewStub)((MainActivity)cameraActivity).getCaptureUIContainer().findViewById(R.id.recording_timer_container)).inflate();
 			m_TimerTextView = (TextView)m_Container.findViewById(R.id.recording_timer);
-			this.updateRecordingTimer(cameraActivity.get(CameraActivity.PROP_ELAPSED_RECORDING_SECONDS));
+			this.updateRecordingTimer(cameraActivity.getLong(CameraActivity.PROP_ELAPSED_RECORDING_SECONDS));
 		}
 		
 		// update rotation
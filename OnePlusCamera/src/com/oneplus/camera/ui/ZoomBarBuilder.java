@@ -1,8 +1,10 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
 import com.oneplus.camera.UIComponentBuilder;
+import com.oneplus.camera.ZoomController;
 
 /**
  * Component builder for zoom bar.
@@ -14,7 +16,7 @@ public final class ZoomBarBuilder extends UIComponentBuilder
 	 */
 	public ZoomBarBuilder()
 	{
-		super(ZoomBarImpl.class);
+		super(ComponentCreationPriority.NORMAL, ZoomBarImpl.class, ZoomController.class);
 	}
 	
 	
@@ -13,6 +13,8 @@ import android.view.Gravity;
 import android.view.View;
 import android.widget.SeekBar;
 
+import com.oneplus.base.FloatPropertyChangedCallback;
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.HandlerUtils;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
@@ -147,7 +149,7 @@ final class ZoomBarImpl extends UIComponent
 				{
 					m_UpdatingZoom = true;
 					float zoom = (1 + ((float)progress / seekBar.getMax() * (m_ZoomController.get(ZoomController.PROP_MAX_DIGITAL_ZOOM) - 1)));
-					m_ZoomController.set(ZoomController.PROP_DIGITAL_ZOOM, zoom);
+					m_ZoomController.setFloat(ZoomController.PROP_DIGITAL_ZOOM, zoom);
 					m_UpdatingZoom = false;
 				}
 			}
@@ -183,10 +185,10 @@ final class ZoomBarImpl extends UIComponent
 		});
 		if(m_ZoomController != null)
 		{
-			m_ZoomController.addCallback(ZoomController.PROP_DIGITAL_ZOOM, new PropertyChangedCallback<Float>()
+			m_ZoomController.addCallback(ZoomController.PROP_DIGITAL_ZOOM, new FloatPropertyChangedCallback()
 			{
 				@Override
-				public void onPropertyChanged(PropertySource source, PropertyKey<Float> key, PropertyChangeEventArgs<Float> e)
+				public void onPropertyChanged(PropertySource source, FloatPropertyKey key, float oldValue, float newValue)
 				{
 					showCurrentZoom();
 					if(getCameraActivity().get(CameraActivity.PROP_CAMERA_PREVIEW_STATE) == OperationState.STARTED
@@ -233,7 +235,7 @@ final class ZoomBarImpl extends UIComponent
 		if(m_UpdatingZoom || m_ZoomController == null || m_ZoomBar == null)
 			return;
 		float maxDigitalZoom = m_ZoomController.get(ZoomController.PROP_MAX_DIGITAL_ZOOM);
-		float digitalZoom = m_ZoomController.get(ZoomController.PROP_DIGITAL_ZOOM);
+		float digitalZoom = m_ZoomController.getFloat(ZoomController.PROP_DIGITAL_ZOOM);
 		m_UpdatingZoom = true;
 		m_ZoomBar.setProgress((int)(m_ZoomBar.getMax() * ((digitalZoom - 1) / (maxDigitalZoom - 1))));
 		m_UpdatingZoom = false;
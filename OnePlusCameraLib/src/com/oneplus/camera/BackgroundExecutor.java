@@ -0,0 +1,114 @@
+package com.oneplus.camera;
+
+import com.oneplus.base.Handle;
+import com.oneplus.base.HandlerObject;
+import com.oneplus.base.component.Component;
+
+/**
+ * Shared executor for background work. All methods can be called in any thread.
+ */
+public interface BackgroundExecutor extends Component
+{
+	/**
+	 * Flag to execute task ahead of waiting tasks which are not urgent, only supported by sequential queues.
+	 */
+	int FLAG_URGENT = 0x1;
+	/**
+	 * Flag to keep task even if queue is full, it should be used for tasks which cannot be dropped such as saving media.
+	 */
+	int FLAG_NO_DROP = 0x2;
+	
+	
+	/**
+	 * Call-back to receive result of background task.
+	 * @param <TResult> Type of result.
+	 */
+	public interface Callback<TResult>
+	{
+		/**
+		 * Called in thread of call-back target after executing task.
+		 * @param handle Handle returned by {@link BackgroundExecutor#execute(TaskQueue, Task, HandlerObject, Callback)}.
+		 * @param result Result of task, or Null if task failed.
+		 * @param error Error thrown by task, or Null if task completed successfully.
+		 */
+		void onTaskCompleted(Handle handle, TResult result, Throwable error);
+	}
+	
+	
+	/**
+	 * Task which produces result.
+	 * @param <TResult> Type of result.
+	 */
+	public interface Task<TResult>
+	{
+		/**
+		 * Execute task in background thread.
+		 * @param handle Handle of task, task can check {@link Handle#isValid(Handle)} to stop early after cancellation.
+		 * @return Result.
+		 * @throws Exception Error occurred while executing task.
+		 */
+		TResult execute(Handle handle) throws Exception;
+	}
+	
+	
+	/**
+	 * Queue of background tasks.
+	 */
+	public enum TaskQueue
+	{
+		/**
+		 * File and media store access, tasks are executed sequentially in posting order.
+		 */
+		IO,
+		/**
+		 * CPU-bound work such as decoding, tasks are executed in parallel by work-stealing threads.
+		 */
+		DECODE,
+		/**
+		 * Low priority work, tasks are executed sequentially in lowest priority thread.
+		 */
+		LOW_PRIORITY,
+	}
+	
+	
+	/**
+	 * Execute task in background, close returned handle to cancel task.
+	 * @param queue Queue to execute task.
+	 * @param task Task to execute.
+	 * @return Handle to task, or Null if queue is full or executor is not running.
+	 */
+	Handle execute(TaskQueue queue, Runnable task);
+	
+	
+	/**
+	 * Execute task in background, close returned handle to cancel task.
+	 * @param queue Queue to execute task.
+	 * @param task Task to execute.
+	 * @param flags Flags :
+	 * <ul>
+	 *   <li>{@link #FLAG_URGENT}</li>
+	 *   <li>{@link #FLAG_NO_DROP}</li>
+	 * </ul>
+	 * @return Handle to task, or Null if queue is full or executor is not running.
+	 */
+	Handle execute(TaskQueue queue, Runnable task, int flags);
+	
+	
+	/**
+	 * Execute task in background, close returned handle to cancel task and its call-back.
+	 * @param queue Queue to execute task.
+	 * @param task Task to execute.
+	 * @param callbackTarget Object owns the thread to receive result.
+	 * @param callback Call-back to receive result.
+	 * @return Handle to task, or Null if queue is full or executor is not running.
+	 */
+	<TResult> Handle execute(TaskQueue queue, Task<TResult> task, HandlerObject callbackTarget, Callback<? super TResult> callback);
+	
+	
+	/**
+	 * Get number of tasks which are waiting or executing in given queue.
+	 * @param queue Queue.
+	 * @return Number of pending tasks.
+	 */
+	int getPendingTaskCount(TaskQueue queue);
+}
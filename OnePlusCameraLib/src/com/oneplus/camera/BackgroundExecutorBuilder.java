@@ -0,0 +1,20 @@
+package com.oneplus.camera;
+
+import com.oneplus.base.component.ComponentCreationPriority;
+
+final class BackgroundExecutorBuilder extends CameraThreadComponentBuilder
+{
+	// Constructor.
+	BackgroundExecutorBuilder()
+	{
+		super(ComponentCreationPriority.LAUNCH, BackgroundExecutorImpl.class, ThreadPolicyManager.class);
+	}
+	
+	
+	// Create component.
+	@Override
+	protected CameraThreadComponent create(CameraThread cameraThread)
+	{
+		return new BackgroundExecutorImpl(cameraThread);
+	}
+}
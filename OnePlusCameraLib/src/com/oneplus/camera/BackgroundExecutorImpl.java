@@ -0,0 +1,429 @@
+package com.oneplus.camera;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.os.Process;
+
+import com.oneplus.base.Handle;
+import com.oneplus.base.HandlerObject;
+import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.Log;
+import com.oneplus.base.component.ComponentSearchCallback;
+import com.oneplus.base.component.ComponentUtils;
+import com.oneplus.camera.ThreadPolicyManager.ThreadRole;
+
+final class BackgroundExecutorImpl extends CameraThreadComponent implements BackgroundExecutor
+{
+	// Constants.
+	private static final int DECODE_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private static final int[] MAX_PENDING_TASK_COUNTS = new int[]{ 64, 32, 64 };
+	private static final TaskQueue[] QUEUES = TaskQueue.values();
+	
+	
+	// Private fields.
+	private volatile ExecutorService[] m_Executors;
+	private final AtomicLong m_NextTaskSequence = new AtomicLong();
+	private final AtomicInteger[] m_PendingTaskCounts = new AtomicInteger[QUEUES.length];
+	private volatile ThreadPolicyManager m_ThreadPolicyManager;
+	private final List<WorkerThreadHandle> m_WorkerThreadHandles = new ArrayList<>();
+	
+	
+	// Class for task handle.
+	private final class TaskHandle<TResult> extends Handle implements Runnable
+	{
+		public final Callback<? super TResult> callback;
+		public final HandlerObject callbackTarget;
+		public final int flags;
+		private final AtomicBoolean m_IsDequeued = new AtomicBoolean();
+		public final TaskQueue queue;
+		public final long sequence;
+		public final Object task;
+		
+		public TaskHandle(TaskQueue queue, Object task, HandlerObject callbackTarget, Callback<? super TResult> callback, int flags)
+		{
+			super("BackgroundTask");
+			this.queue = queue;
+			this.task = task;
+			this.callbackTarget = callbackTarget;
+			this.callback = callback;
+			this.flags = flags;
+			this.sequence = m_NextTaskSequence.getAndIncrement();
+		}
+		
+		public boolean dequeue()
+		{
+			if(m_IsDequeued.getAndSet(true))
+				return false;
+			m_PendingTaskCounts[this.queue.ordinal()].decrementAndGet();
+			return true;
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			// task will be skipped when it is dequeued by executor
+			this.dequeue();
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public void run()
+		{
+			// check state
+			if(!Handle.isValid(this))
+				return;
+			
+			// execute
+			TResult result = null;
+			Throwable error = null;
+			try
+			{
+				if(this.task instanceof Runnable)
+					((Runnable)this.task).run();
+				else
+					result = ((Task<TResult>)this.task).execute(this);
+			}
+			catch(Throwable ex)
+			{
+				Log.e(TAG, "run() - Error occurred while executing " + this.task, ex);
+				error = ex;
+			}
+			finally
+			{
+				this.dequeue();
+			}
+			
+			// post result
+			if(this.callback == null)
+				this.closeDirectly();
+			else if(Handle.isValid(this))
+				this.postResult(result, error);
+		}
+		
+		private void postResult(final TResult result, final Throwable error)
+		{
+			if(!HandlerUtils.post(this.callbackTarget, new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					if(Handle.isValid(TaskHandle.this))
+					{
+						TaskHandle.this.closeDirectly();
+						callback.onTaskCompleted(TaskHandle.this, result, error);
+					}
+				}
+			}))
+			{
+				Log.e(TAG, "postResult() - Fail to post result of " + this.task);
+			}
+		}
+	}
+	
+	
+	// Class for worker thread registered to ThreadPolicyManager.
+	private final class WorkerThreadHandle extends Handle
+	{
+		public Handle policyHandle;
+		public final ThreadRole role;
+		public final int threadId;
+		
+		public WorkerThreadHandle(ThreadRole role)
+		{
+			super("WorkerThread");
+			this.role = role;
+			this.threadId = Process.myTid();
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			synchronized(m_WorkerThreadHandles)
+			{
+				m_WorkerThreadHandles.remove(this);
+				this.policyHandle = Handle.close(this.policyHandle);
+			}
+		}
+	}
+	
+	
+	// Thread for CPU-bound tasks.
+	private final class DecodeThread extends ForkJoinWorkerThread
+	{
+		private Handle m_WorkerThreadHandle;
+		
+		public DecodeThread(ForkJoinPool pool)
+		{
+			super(pool);
+		}
+		
+		@Override
+		protected void onStart()
+		{
+			super.onStart();
+			Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+			m_WorkerThreadHandle = registerWorkerThread(ThreadRole.DECODE);
+		}
+		
+		@Override
+		protected void onTermination(Throwable exception)
+		{
+			m_WorkerThreadHandle = Handle.close(m_WorkerThreadHandle);
+			super.onTermination(exception);
+		}
+	}
+	
+	
+	// Comparator to order waiting tasks of sequential queues, urgent tasks first and then in posting order.
+	private static final Comparator<Runnable> TASK_COMPARATOR = new Comparator<Runnable>()
+	{
+		@Override
+		public int compare(Runnable lhs, Runnable rhs)
+		{
+			TaskHandle<?> lhsHandle = (TaskHandle<?>)lhs;
+			TaskHandle<?> rhsHandle = (TaskHandle<?>)rhs;
+			boolean isLhsUrgent = ((lhsHandle.flags & FLAG_URGENT) != 0);
+			boolean isRhsUrgent = ((rhsHandle.flags & FLAG_URGENT) != 0);
+			if(isLhsUrgent != isRhsUrgent)
+				return (isLhsUrgent ? -1 : 1);
+			return Long.compare(lhsHandle.sequence, rhsHandle.sequence);
+		}
+	};
+	
+	
+	// Constructor.
+	BackgroundExecutorImpl(CameraThread cameraThread)
+	{
+		super("Background Executor", cameraThread, false);
+		for(int i = QUEUES.length - 1 ; i >= 0 ; --i)
+			m_PendingTaskCounts[i] = new AtomicInteger();
+	}
+	
+	
+	// Create executor for sequential tasks.
+	private ExecutorService createSequentialExecutor(final String name, final int threadPriority, final ThreadRole threadRole)
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(11, TASK_COMPARATOR), new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(final Runnable r)
+			{
+				return new Thread(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						Process.setThreadPriority(threadPriority);
+						Handle workerThreadHandle = (threadRole != null ? registerWorkerThread(threadRole) : null);
+						try
+						{
+							r.run();
+						}
+						finally
+						{
+							Handle.close(workerThreadHandle);
+						}
+					}
+				}, name);
+			}
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	
+	// Execute task.
+	@Override
+	public Handle execute(TaskQueue queue, Runnable task)
+	{
+		return this.execute(queue, task, 0);
+	}
+	
+	
+	// Execute task.
+	@Override
+	public Handle execute(TaskQueue queue, Runnable task, int flags)
+	{
+		if(task == null)
+		{
+			Log.e(TAG, "execute() - No task");
+			return null;
+		}
+		return this.executeInternal(new TaskHandle<Object>(queue, task, null, null, flags));
+	}
+	
+	
+	// Execute task.
+	@Override
+	public <TResult> Handle execute(TaskQueue queue, Task<TResult> task, HandlerObject callbackTarget, Callback<? super TResult> callback)
+	{
+		if(task == null)
+		{
+			Log.e(TAG, "execute() - No task");
+			return null;
+		}
+		if(callback != null && callbackTarget == null)
+		{
+			Log.e(TAG, "execute() - No call-back target");
+			return null;
+		}
+		return this.executeInternal(new TaskHandle<TResult>(queue, task, callbackTarget, callback, 0));
+	}
+	
+	
+	// Submit task to executor.
+	private Handle executeInternal(TaskHandle<?> handle)
+	{
+		// check state
+		ExecutorService[] executors = m_Executors;
+		if(executors == null)
+		{
+			Log.e(TAG, "executeInternal() - Executor is not running");
+			return null;
+		}
+		
+		// check queue capacity
+		int queueIndex = handle.queue.ordinal();
+		AtomicInteger pendingTaskCount = m_PendingTaskCounts[queueIndex];
+		if(pendingTaskCount.incrementAndGet() > MAX_PENDING_TASK_COUNTS[queueIndex] && (handle.flags & FLAG_NO_DROP) == 0)
+		{
+			pendingTaskCount.decrementAndGet();
+			Log.e(TAG, "executeInternal() - Queue " + handle.queue + " is full, drop " + handle.task);
+			return null;
+		}
+		
+		// submit
+		try
+		{
+			executors[queueIndex].execute(handle);
+			return handle;
+		}
+		catch(RejectedExecutionException ex)
+		{
+			Log.e(TAG, "executeInternal() - Fail to submit " + handle.task, ex);
+			handle.dequeue();
+			return null;
+		}
+	}
+	
+	
+	// Get number of pending tasks.
+	@Override
+	public int getPendingTaskCount(TaskQueue queue)
+	{
+		return m_PendingTaskCounts[queue.ordinal()].get();
+	}
+	
+	
+	// Deinitialize.
+	@Override
+	protected void onDeinitialize()
+	{
+		// detach from thread policy manager
+		synchronized(m_WorkerThreadHandles)
+		{
+			m_ThreadPolicyManager = null;
+			for(int i = m_WorkerThreadHandles.size() - 1 ; i >= 0 ; --i)
+			{
+				WorkerThreadHandle handle = m_WorkerThreadHandles.get(i);
+				handle.policyHandle = Handle.close(handle.policyHandle);
+			}
+		}
+		
+		// shutdown executors, waiting IO tasks such as saving media are still executed
+		ExecutorService[] executors = m_Executors;
+		m_Executors = null;
+		if(executors != null)
+		{
+			for(int i = executors.length - 1 ; i >= 0 ; --i)
+			{
+				if(QUEUES[i] == TaskQueue.IO)
+					executors[i].shutdown();
+				else
+					executors[i].shutdownNow();
+			}
+		}
+		
+		// call super
+		super.onDeinitialize();
+	}
+	
+	
+	// Initialize.
+	@Override
+	protected void onInitialize()
+	{
+		// call super
+		super.onInitialize();
+		
+		// create executors
+		ExecutorService[] executors = new ExecutorService[QUEUES.length];
+		executors[TaskQueue.IO.ordinal()] = this.createSequentialExecutor("Background IO", Process.THREAD_PRIORITY_DEFAULT, ThreadRole.SAVE);
+		executors[TaskQueue.DECODE.ordinal()] = new ForkJoinPool(DECODE_THREAD_COUNT, new ForkJoinPool.ForkJoinWorkerThreadFactory()
+		{
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool)
+			{
+				return new DecodeThread(pool);
+			}
+		}, null, true);
+		executors[TaskQueue.LOW_PRIORITY.ordinal()] = this.createSequentialExecutor("Background low priority", Process.THREAD_PRIORITY_LOWEST, null);
+		m_Executors = executors;
+		
+		// find thread policy manager to manage priorities of worker threads
+		ComponentUtils.findComponent(this.getCameraThread(), ThreadPolicyManager.class, null, new ComponentSearchCallback<ThreadPolicyManager>()
+		{
+			@Override
+			public void onComponentFound(ThreadPolicyManager component)
+			{
+				onThreadPolicyManagerFound(component);
+			}
+		});
+	}
+	
+	
+	// Called when ThreadPolicyManager is found.
+	private void onThreadPolicyManagerFound(ThreadPolicyManager threadPolicyManager)
+	{
+		if(m_Executors == null)
+			return;
+		synchronized(m_WorkerThreadHandles)
+		{
+			m_ThreadPolicyManager = threadPolicyManager;
+			for(int i = m_WorkerThreadHandles.size() - 1 ; i >= 0 ; --i)
+			{
+				WorkerThreadHandle handle = m_WorkerThreadHandles.get(i);
+				if(handle.policyHandle == null)
+					handle.policyHandle = threadPolicyManager.registerThread(handle.role, handle.threadId);
+			}
+		}
+	}
+	
+	
+	// Register current worker thread to ThreadPolicyManager.
+	private Handle registerWorkerThread(ThreadRole role)
+	{
+		WorkerThreadHandle handle = new WorkerThreadHandle(role);
+		synchronized(m_WorkerThreadHandles)
+		{
+			m_WorkerThreadHandles.add(handle);
+			ThreadPolicyManager threadPolicyManager = m_ThreadPolicyManager;
+			if(threadPolicyManager != null)
+				handle.policyHandle = threadPolicyManager.registerThread(role, handle.threadId);
+		}
+		return handle;
+	}
+}
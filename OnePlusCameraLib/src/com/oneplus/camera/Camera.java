@@ -13,8 +13,10 @@ import android.util.Size;
 import android.view.Surface;
 
 import com.oneplus.base.BaseObject;
+import com.oneplus.base.BooleanPropertyKey;
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.EventKey;
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerObject;
 import com.oneplus.base.PropertyKey;
@@ -43,7 +45,7 @@ public interface Camera extends BaseObject, HandlerObject
 	/**
 	 * Property to get or set exposure compensation in EV.
 	 */
-	PropertyKey<Float> PROP_EXPOSURE_COMPENSATION = new PropertyKey<>("ExposureCompensation", Float.class, Camera.class, PropertyKey.FLAG_NOT_NULL, 0f);
+	FloatPropertyKey PROP_EXPOSURE_COMPENSATION = new FloatPropertyKey("ExposureCompensation", Camera.class, PropertyKey.FLAG_NOT_NULL, 0f);
 	/**
 	 * Read-only property to get exposure compensation range in EV.
 	 */
@@ -97,7 +99,7 @@ public interface Camera extends BaseObject, HandlerObject
 	/**
 	 * Read-only property to check whether first preview frame is received or not.
 	 */
-	PropertyKey<Boolean> PROP_IS_PREVIEW_RECEIVED = new PropertyKey<>("IsPreviewReceived", Boolean.class, Camera.class, false);
+	BooleanPropertyKey PROP_IS_PREVIEW_RECEIVED = new BooleanPropertyKey("IsPreviewReceived", Camera.class, false);
 	/**
 	 * Property to get or set whether camera is in recording mode or not.
 	 */
@@ -1,5 +1,6 @@
 package com.oneplus.camera;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -8,19 +9,25 @@ import java.util.List;
 
 import com.oneplus.base.BaseActivity;
 import com.oneplus.base.BaseThread;
+import com.oneplus.base.BooleanPropertyKey;
+import com.oneplus.base.CrossThreadCommand;
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.EventHandler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.EventSource;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.IdleScheduler;
 import com.oneplus.base.Log;
+import com.oneplus.base.LongPropertyKey;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
+import com.oneplus.base.PropertyMirror;
 import com.oneplus.base.PropertySource;
 import com.oneplus.base.Rotation;
 import com.oneplus.base.ScreenSize;
+import com.oneplus.base.StartupTracer;
 import com.oneplus.base.ThreadMonitor;
 import com.oneplus.base.component.Component;
 import com.oneplus.base.component.ComponentBuilder;
@@ -37,6 +44,7 @@ import com.oneplus.camera.ui.MotionEventArgs;
 import com.oneplus.camera.ui.Viewfinder;
 import com.oneplus.camera.ui.ViewfinderBuilder;
 
+import android.app.Application;
 import android.content.pm.ActivityInfo;
 import android.content.res.Configuration;
 import android.hardware.Sensor;
@@ -113,7 +121,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	/**
 	 * Read-only property to get elapsed recording time in seconds.
 	 */
-	public static final PropertyKey<Long> PROP_ELAPSED_RECORDING_SECONDS = new PropertyKey<>("ElapsedRecordingSeconds", Long.class, CameraActivity.class, 0L);
+	public static final LongPropertyKey PROP_ELAPSED_RECORDING_SECONDS = new LongPropertyKey("ElapsedRecordingSeconds", CameraActivity.class, 0L);
 	/**
 	 * Read-only property to check whether camera is locked (cannot to be switched) or not.
 	 */
@@ -121,7 +129,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	/**
 	 * Read-only property to check whether first camera preview frame is received or not.
 	 */
-	public static final PropertyKey<Boolean> PROP_IS_CAMERA_PREVIEW_RECEIVED = new PropertyKey<>("IsCameraPreviewReceived", Boolean.class, CameraActivity.class, false);
+	public static final BooleanPropertyKey PROP_IS_CAMERA_PREVIEW_RECEIVED = new BooleanPropertyKey("IsCameraPreviewReceived", CameraActivity.class, false);
 	/**
 	 * Read-only property to check whether camera thread is started or not.
 	 */
@@ -203,17 +211,24 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	
 	
 	// Constants
+	private static final int CMD_CAPTURE_PHOTO = 1;
+	private static final int CMD_CAPTURE_VIDEO = 2;
+	private static final int CMD_NOTIFY_AVAILABLE_CAMERAS = 3;
+	private static final int CMD_NOTIFY_PHOTO_CAPTURE_STARTED = 4;
+	private static final int CMD_NOTIFY_VIDEO_CAPTURE_STARTED = 5;
+	private static final int CMD_SET_CAPTURE_ROTATION = 6;
+	private static final int CMD_START_CAMERA_PREVIEW = 7;
+	private static final long IDLE_DEADLINE_LOW_PRIORITY_COMPONENTS = 5000;
 	private static final String SETTINGS_KEY_CAMERA_LENS_FACING = "CameraLensFacing";
 	private static final String SETTINGS_KEY_SELF_TIMER_INTERVAL_BACK = "SelfTimer.Back";
 	private static final String SETTINGS_KEY_SELF_TIMER_INTERVAL_FRONT = "SelfTimer.Front";
+	private static final String STARTUP_TRACE_FILE_NAME = "startup_trace.json";
 	private static final int MSG_CAMERA_THREAD_EVENT_RAISED = -1;
 	private static final int MSG_CAMERA_THREAD_PROP_CHANGED = -2;
 	private static final int MSG_CAMERA_PREVIEW_START_FAILED = -10;
 	private static final int MSG_CAMERA_PREVIEW_STARTED = -11;
 	private static final int MSG_PHOTO_CAPTURE_FAILED = -20;
-	private static final int MSG_PHOTO_CAPTURE_STARTED = -21;
 	private static final int MSG_VIDEO_CAPTURE_FAILED = -30;
-	private static final int MSG_VIDEO_CAPTURE_STARTED = -31;
 	private static final int MSG_UPDATE_ELAPSED_RECORDING_TIME = -40;
 	
 	
@@ -224,13 +239,20 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	private final LinkedList<CameraLockHandle> m_CameraLockHandles = new LinkedList<>();
 	private Handle m_CameraPreviewStartCUDHandle;
 	private OperationState m_CameraPreviewState = OperationState.STOPPED;
+	private CameraRuntime m_CameraRuntime;
 	private CameraThread m_CameraThread;
+	private EventHandler<?> m_CameraThreadEventHandler; // camera thread only
+	private List<EventKey<?>> m_CameraThreadEventKeys; // camera thread only
+	private PropertyChangedCallback<?> m_CameraThreadPropertyCallback; // camera thread only
+	private List<PropertyKey<?>> m_CameraThreadPropertyKeys; // camera thread only
+	private PropertyMirror m_CameraThreadPropertyMirror; // camera thread only
 	private final LinkedList<UIDisableHandle> m_CaptureUIDisableHandles = new LinkedList<>();
 	private ComponentManager m_ComponentManager;
 	private CountDownTimer m_CountDownTimer;
 	private final List<ComponentBuilder> m_InitialComponentBuilders = new ArrayList<>();
 	private boolean m_IsAccelerometerStarted;
 	private boolean m_IsCameraPreviewReceiverReady;
+	private boolean m_IsDetachedFromCameraThread;
 	private boolean m_IsOrientationListenerStarted;
 	private OrientationEventListener m_OrientationListener;
 	private CaptureHandleImpl m_PendingPhotoCaptureHandle;
@@ -261,6 +283,14 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		public void onAccuracyChanged(Sensor sensor, int accuracy)
 		{}
 	};
+	private final CrossThreadCommand.Performer m_CommandPerformer = new CrossThreadCommand.Performer()
+	{
+		@Override
+		public void performCommand(CrossThreadCommand command)
+		{
+			CameraActivity.this.performCommand(command);
+		}
+	};
 	
 	
 	// Class for capture handle.
@@ -437,6 +467,9 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	{
 		Log.v(TAG, "bindToCameraThread()");
 		
+		// start tracing
+		StartupTracer.Span traceSpan = (StartupTracer.ENABLED ? StartupTracer.begin("CameraActivity.bindToCameraThread") : null);
+		
 		// add event handlers
 		if(!eventKeys.isEmpty())
 		{
@@ -450,9 +483,11 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 			};
 			for(int i = eventKeys.size() - 1 ; i >= 0 ; --i)
 				m_CameraThread.addHandler(eventKeys.get(i), handler);
+			m_CameraThreadEventHandler = handler;
+			m_CameraThreadEventKeys = eventKeys;
 		}
 		
-		// add property changed call-backs
+		// add property changed call-backs, capture states are sent for each change to keep all state transitions
 		if(!propKeys.isEmpty())
 		{
 			PropertyChangedCallback callback = new PropertyChangedCallback()
@@ -463,8 +498,32 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 					HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_THREAD_PROP_CHANGED, 0, 0, new Object[]{ key, e.clone() });
 				}
 			};
+			List<PropertyKey<?>> mirroredKeys = new ArrayList<>();
 			for(int i = propKeys.size() - 1 ; i >= 0 ; --i)
-				m_CameraThread.addCallback(propKeys.get(i), callback);
+			{
+				PropertyKey<?> key = propKeys.get(i);
+				if(key == CameraThread.PROP_PHOTO_CAPTURE_STATE || key == CameraThread.PROP_VIDEO_CAPTURE_STATE)
+					m_CameraThread.addCallback((PropertyKey)key, callback);
+				else
+					mirroredKeys.add(key);
+			}
+			m_CameraThreadPropertyCallback = callback;
+			m_CameraThreadPropertyKeys = propKeys;
+			
+			// mirror other properties, only latest values will be applied in UI thread
+			if(!mirroredKeys.isEmpty())
+			{
+				PropertyMirror mirror = new PropertyMirror(this, mirroredKeys, new PropertyMirror.Callback()
+				{
+					@Override
+					public void onPropertyChanged(PropertyKey<?> key, long time, PropertyChangeEventArgs<?> e)
+					{
+						onCameraThreadPropertyChanged(key, e);
+					}
+				});
+				mirror.bind(m_CameraThread);
+				m_CameraThreadPropertyMirror = mirror;
+			}
 		}
 		
 		// set initial media type
@@ -473,6 +532,10 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		
 		// notify
 		this.onBindToCameraThread();
+		
+		// end tracing
+		if(StartupTracer.ENABLED)
+			StartupTracer.end(traceSpan);
 	}
 	
 	
@@ -740,19 +803,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		
 		// capture
 		Log.w(TAG, "capturePhoto() - Capture");
-		if(!HandlerUtils.post(m_CameraThread, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				Log.w(TAG, "capturePhoto() - Capture in camera thread");
-				CaptureHandle internalHandle = m_CameraThread.capturePhoto(handle.frameCount, 0);
-				if(Handle.isValid(internalHandle))
-					HandlerUtils.sendMessage(CameraActivity.this, MSG_PHOTO_CAPTURE_STARTED, 0, 0, new Object[]{ handle, internalHandle });
-				else
-					HandlerUtils.sendMessage(CameraActivity.this, MSG_PHOTO_CAPTURE_FAILED, 0, 0, handle);
-			}
-		}))
+		if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_CAPTURE_PHOTO, handle).send(m_CameraThread))
 		{
 			Log.e(TAG, "capturePhoto() - Fail to perform cross-thread operation");
 			this.resetPhotoCaptureState();
@@ -807,7 +858,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	
 	
 	// Start capturing video.
-	private boolean captureVideo(final CaptureHandleImpl handle)
+	private boolean captureVideo(CaptureHandleImpl handle)
 	{
 		Log.v(TAG, "captureVideo() - Handle : ", handle);
 		
@@ -817,7 +868,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 			Log.e(TAG, "captureVideo() - No ResolutionManager");
 			return false;
 		}
-		final Resolution resolution = m_ResolutionManager.get(ResolutionManager.PROP_VIDEO_RESOLUTION);
+		Resolution resolution = m_ResolutionManager.get(ResolutionManager.PROP_VIDEO_RESOLUTION);
 		
 		// lock rotation
 		m_VideoRotationLockHandle = this.lockRotation(null);
@@ -830,19 +881,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		
 		// capture
 		Log.w(TAG, "captureVideo() - Capture");
-		if(!HandlerUtils.post(m_CameraThread, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				Log.w(TAG, "captureVideo() - Capture in camera thread");
-				CaptureHandle internalHandle = m_CameraThread.captureVideo(resolution);
-				if(Handle.isValid(internalHandle))
-					HandlerUtils.sendMessage(CameraActivity.this, MSG_VIDEO_CAPTURE_STARTED, 0, 0, new Object[]{ handle, internalHandle });
-				else
-					HandlerUtils.sendMessage(CameraActivity.this, MSG_VIDEO_CAPTURE_FAILED, 0, 0, handle);
-			}
-		}))
+		if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_CAPTURE_VIDEO, 0, 0, handle, resolution, null).send(m_CameraThread))
 		{
 			Log.e(TAG, "captureVideo() - Fail to perform cross-thread operation");
 			m_VideoRotationLockHandle = Handle.close(m_VideoRotationLockHandle);
@@ -1014,6 +1053,29 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Detach from camera thread kept by camera runtime, unbinding will be performed in camera thread.
+	final void detachFromCameraThread()
+	{
+		// check state
+		if(m_IsDetachedFromCameraThread)
+			return;
+		m_IsDetachedFromCameraThread = true;
+		
+		// unbind in camera thread
+		if(m_CameraThread.getHandler() != null && !HandlerUtils.post(m_CameraThread, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				unbindFromCameraThread();
+			}
+		}))
+		{
+			Log.e(TAG, "detachFromCameraThread() - Fail to unbind from camera thread");
+		}
+	}
+	
+	
 	/**
 	 * Disable capture UI.
 	 * @return Handle to capture UI disable.
@@ -1129,6 +1191,16 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Finish startup tracing and write trace to external files directory.
+	private void finishStartupTrace()
+	{
+		File directory = this.getExternalFilesDir(null);
+		if(directory == null)
+			directory = this.getFilesDir();
+		StartupTracer.finish("CameraActivity.previewReceived", new File(directory, STARTUP_TRACE_FILE_NAME));
+	}
+	
+	
 	// Get property value.
 	@SuppressWarnings("unchecked")
 	@Override
@@ -1258,13 +1330,6 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 				this.onPhotoCaptureFailed((CaptureHandleImpl)msg.obj);
 				break;
 				
-			case MSG_PHOTO_CAPTURE_STARTED:
-			{
-				Object[] array = (Object[])msg.obj;
-				this.onPhotoCaptureStarted((CaptureHandleImpl)array[0], (CaptureHandle)array[1]);
-				break;
-			}
-			
 			case MSG_UPDATE_ELAPSED_RECORDING_TIME:
 			{
 				Object[] array = (Object[])msg.obj;
@@ -1275,13 +1340,6 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 			case MSG_VIDEO_CAPTURE_FAILED:
 				this.onVideoCaptureFailed((CaptureHandleImpl)msg.obj);
 				break;
-				
-			case MSG_VIDEO_CAPTURE_STARTED:
-			{
-				Object[] array = (Object[])msg.obj;
-				this.onVideoCaptureStarted((CaptureHandleImpl)array[0], (CaptureHandle)array[1]);
-				break;
-			}
 		}
 	}
 	
@@ -1375,6 +1433,14 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Called when camera thread starts or activity is attached to started camera thread.
+	final void notifyCameraThreadStarted()
+	{
+		this.setReadOnly(PROP_IS_CAMERA_THREAD_STARTED, true);
+		this.onCameraThreadStarted();
+	}
+	
+	
 	// Called when accelerometer values changed.
 	private void onAccelerometerValuesChanged(float[] values)
 	{
@@ -1456,15 +1522,8 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	protected void onBindToCameraThread()
 	{
 		// get initial camera list
-		final List<Camera> cameras = m_CameraThread.get(CameraThread.PROP_AVAILABLE_CAMERAS);
-		HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				onAvailableCamerasChanged(cameras);
-			}
-		});
+		List<Camera> cameras = m_CameraThread.get(CameraThread.PROP_AVAILABLE_CAMERAS);
+		CrossThreadCommand.obtain(m_CommandPerformer, CMD_NOTIFY_AVAILABLE_CAMERAS, cameras).send(this);
 	}
 	
 	
@@ -1662,7 +1721,11 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		if(key == CameraThread.PROP_AVAILABLE_CAMERAS)
 			this.onAvailableCamerasChanged((List<Camera>)e.getNewValue());
 		else if(key == CameraThread.PROP_IS_CAMERA_PREVIEW_RECEIVED)
+		{
+			if(StartupTracer.ENABLED && (Boolean)e.getNewValue())
+				this.finishStartupTrace();
 			this.setReadOnly(PROP_IS_CAMERA_PREVIEW_RECEIVED, (Boolean)e.getNewValue());
+		}
 		else if(key == CameraThread.PROP_IS_VIDEO_SNAPSHOT_ENABLED)
 			this.setReadOnly(PROP_IS_VIDEO_SNAPSHOT_ENABLED, (Boolean)e.getNewValue());
 		else if(key == CameraThread.PROP_PHOTO_CAPTURE_STATE)
@@ -1900,6 +1963,11 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	@Override
 	protected void onCreate(Bundle savedInstanceState)
 	{
+		// start tracing
+		if(StartupTracer.ENABLED)
+			StartupTracer.start();
+		StartupTracer.Span traceSpan = (StartupTracer.ENABLED ? StartupTracer.begin("CameraActivity.onCreate") : null);
+		
 		// start monitor thread
 		ThreadMonitor.startMonitorCurrentThread();
 		
@@ -1944,16 +2012,23 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		m_SettingsHandles.add(new SettingsHandle(settings));
 		this.setReadOnly(PROP_SETTINGS, settings);
 		
-		// create camera thread
-		m_CameraThread = new CameraThread(this, new BaseThread.ThreadStartCallback()
+		// create camera thread, or reuse the one kept by camera runtime
+		Application application = this.getApplication();
+		if(application instanceof CameraRuntime.Host)
+			m_CameraRuntime = ((CameraRuntime.Host)application).getCameraRuntime();
+		if(m_CameraRuntime != null)
+			m_CameraThread = m_CameraRuntime.attach(this);
+		else
 		{
-			@Override
-			public void onCameraThreadStarted(BaseThread cameraThread)
+			m_CameraThread = new CameraThread(this, new BaseThread.ThreadStartCallback()
 			{
-				CameraActivity.this.setReadOnly(PROP_IS_CAMERA_THREAD_STARTED, true);
-				CameraActivity.this.onCameraThreadStarted();
-			}
-		}, this.getHandler());
+				@Override
+				public void onCameraThreadStarted(BaseThread cameraThread)
+				{
+					CameraActivity.this.notifyCameraThreadStarted();
+				}
+			}, this.getHandler());
+		}
 		
 		// update screen size
 		this.updateScreenSize();
@@ -1990,6 +2065,10 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		
 		// create component with LAUNCH priority
 		m_ComponentManager.createComponents(ComponentCreationPriority.LAUNCH, this);
+		
+		// end tracing
+		if(StartupTracer.ENABLED)
+			StartupTracer.end(traceSpan);
 	}
 	
 	
@@ -2032,8 +2111,13 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		// change state
 		this.setReadOnly(PROP_STATE, State.DESTROYING);
 		
-		// release camera thread
-		if(m_CameraThread != null)
+		// detach from camera thread which is kept by camera runtime for next activity, or release it directly
+		if(m_CameraRuntime != null)
+		{
+			this.detachFromCameraThread();
+			m_CameraRuntime.detach(this);
+		}
+		else if(m_CameraThread != null)
 		{
 			m_CameraThread.release();
 			try
@@ -2152,11 +2236,13 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		switch(this.get(PROP_PHOTO_CAPTURE_STATE))
 		{
 			case CAPTURING:
+				handle.completeFailed();
 				this.raise(EVENT_CAPTURE_FAILED, new CaptureEventArgs(handle));
 				this.stopPhotoCapture(handle);
 				this.completeCapture(handle);
 				break;
 			case STOPPING:
+				handle.completeFailed();
 				this.raise(EVENT_CAPTURE_FAILED, new CaptureEventArgs(handle));
 				this.completeCapture(handle);
 				break;
@@ -2256,17 +2342,10 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	 * @param prevRotation Previous rotation.
 	 * @param newRotation New rotation.
 	 */
-	protected void onRotationChanged(final Rotation prevRotation, final Rotation newRotation)
+	protected void onRotationChanged(Rotation prevRotation, Rotation newRotation)
 	{
 		// notify camera thread
-		HandlerUtils.post(m_CameraThread, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				m_CameraThread.set(CameraThread.PROP_CAPTURE_ROTATION, newRotation);
-			}
-		});
+		CrossThreadCommand.obtain(m_CommandPerformer, CMD_SET_CAPTURE_ROTATION, newRotation).send(m_CameraThread);
 		
 		// notify property change
 		this.notifyPropertyChanged(PROP_ROTATION, prevRotation, newRotation);
@@ -2309,12 +2388,14 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		{
 			case STARTING:
 			case CAPTURING:
+				handle.completeFailed();
 				this.raise(EVENT_CAPTURE_FAILED, new CaptureEventArgs(handle));
 				this.stopVideoCapture(handle, false, true);
 				this.completeCapture(handle);
 				m_VideoCaptureCUDHandle = Handle.close(m_VideoCaptureCUDHandle);
 				break;
 			case STOPPING:
+				handle.completeFailed();
 				this.raise(EVENT_CAPTURE_FAILED, new CaptureEventArgs(handle));
 				this.completeCapture(handle);
 				m_VideoCaptureCUDHandle = Handle.close(m_VideoCaptureCUDHandle);
@@ -2361,6 +2442,68 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Perform cross-thread command.
+	private void performCommand(CrossThreadCommand command)
+	{
+		switch(command.getWhat())
+		{
+			case CMD_CAPTURE_PHOTO:
+			{
+				Log.w(TAG, "capturePhoto() - Capture in camera thread");
+				CaptureHandleImpl handle = command.getObjectArg(0);
+				CaptureHandle internalHandle = m_CameraThread.capturePhoto(handle.frameCount, 0);
+				if(Handle.isValid(internalHandle))
+				{
+					handle.followStages(internalHandle);
+					CrossThreadCommand.obtain(m_CommandPerformer, CMD_NOTIFY_PHOTO_CAPTURE_STARTED, 0, 0, handle, internalHandle, null).send(this);
+				}
+				else
+					HandlerUtils.sendMessage(this, MSG_PHOTO_CAPTURE_FAILED, 0, 0, handle);
+				break;
+			}
+			
+			case CMD_CAPTURE_VIDEO:
+			{
+				Log.w(TAG, "captureVideo() - Capture in camera thread");
+				CaptureHandleImpl handle = command.getObjectArg(0);
+				CaptureHandle internalHandle = m_CameraThread.captureVideo(command.<Resolution>getObjectArg(1));
+				if(Handle.isValid(internalHandle))
+				{
+					handle.followStages(internalHandle);
+					CrossThreadCommand.obtain(m_CommandPerformer, CMD_NOTIFY_VIDEO_CAPTURE_STARTED, 0, 0, handle, internalHandle, null).send(this);
+				}
+				else
+					HandlerUtils.sendMessage(this, MSG_VIDEO_CAPTURE_FAILED, 0, 0, handle);
+				break;
+			}
+			
+			case CMD_NOTIFY_AVAILABLE_CAMERAS:
+				this.onAvailableCamerasChanged(command.<List<Camera>>getObjectArg(0));
+				break;
+				
+			case CMD_NOTIFY_PHOTO_CAPTURE_STARTED:
+				this.onPhotoCaptureStarted(command.<CaptureHandleImpl>getObjectArg(0), command.<CaptureHandle>getObjectArg(1));
+				break;
+				
+			case CMD_NOTIFY_VIDEO_CAPTURE_STARTED:
+				this.onVideoCaptureStarted(command.<CaptureHandleImpl>getObjectArg(0), command.<CaptureHandle>getObjectArg(1));
+				break;
+				
+			case CMD_SET_CAPTURE_ROTATION:
+				m_CameraThread.set(CameraThread.PROP_CAPTURE_ROTATION, command.<Rotation>getObjectArg(0));
+				break;
+				
+			case CMD_START_CAMERA_PREVIEW:
+				this.startCameraPreviewInCameraThread(command.<Camera>getObjectArg(0), command.<Size>getObjectArg(1), command.getObjectArg(2));
+				break;
+				
+			default:
+				Log.e(TAG, "performCommand() - Unknown command : " + command.getWhat());
+				break;
+		}
+	}
+	
+	
 	// Release and remove given component.
 	@Override
 	public void removeComponent(Component component)
@@ -2772,7 +2915,7 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		}
 		
 		// check camera
-		final Camera camera = this.get(PROP_CAMERA);
+		Camera camera = this.get(PROP_CAMERA);
 		if(camera == null)
 		{
 			Log.w(TAG, "startCameraPreview() - No camera to start preview");
@@ -2787,61 +2930,9 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		}
 		
 		// start preview
-		final Size previewSize = this.get(PROP_CAMERA_PREVIEW_SIZE);
-		final Object previewReceiver = m_Viewfinder.get(Viewfinder.PROP_PREVIEW_RECEIVER);
-		if(!HandlerUtils.post(m_CameraThread, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				switch(camera.get(Camera.PROP_PREVIEW_STATE))
-				{
-					case STARTING:
-						break;
-					case STARTED:
-						HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
-						break;
-					default:
-						if(m_CameraThread.startCameraPreview(camera, previewSize, previewReceiver))
-						{
-							switch(camera.get(Camera.PROP_PREVIEW_STATE))
-							{
-								case STARTED:
-									HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
-									break;
-								case STARTING:
-									Log.v(TAG, "startCameraPreview() - Wait for camera preview start");
-									camera.addCallback(Camera.PROP_PREVIEW_STATE, new PropertyChangedCallback<OperationState>()
-									{
-										@Override
-										public void onPropertyChanged(PropertySource source, PropertyKey<OperationState> key, PropertyChangeEventArgs<OperationState> e)
-										{
-											if(e.getNewValue() == OperationState.STARTED)
-												HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
-											else
-											{
-												Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
-												HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
-											}
-											camera.removeCallback(Camera.PROP_PREVIEW_STATE, this);
-										}
-									});
-									break;
-								default:
-									Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
-									HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
-									break;
-							}
-						}
-						else
-						{
-							Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
-							HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
-						}
-						break;
-				}
-			}
-		}))
+		Size previewSize = this.get(PROP_CAMERA_PREVIEW_SIZE);
+		Object previewReceiver = m_Viewfinder.get(Viewfinder.PROP_PREVIEW_RECEIVER);
+		if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_START_CAMERA_PREVIEW, 0, 0, camera, previewSize, previewReceiver).send(m_CameraThread))
 		{
 			Log.e(TAG, "startCameraPreview() - Fail to perform cross-thread operation");
 			if(m_CameraPreviewState == OperationState.STARTING)
@@ -2853,11 +2944,19 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 		if(!Handle.isValid(m_CameraPreviewStartCUDHandle))
 			m_CameraPreviewStartCUDHandle = this.disableCaptureUI();
 		
-		// change state and create components with NORMAL priority
+		// change state and create components with NORMAL priority, then LOW priority when idle
 		if(this.setReadOnly(PROP_IS_LAUNCHING, false))
 		{
 			m_ComponentManager.createComponents(ComponentCreationPriority.NORMAL, this);
 			this.bindToNormalComponents();
+			this.getIdleScheduler().schedule(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					m_ComponentManager.createComponents(ComponentCreationPriority.LOW, CameraActivity.this);
+				}
+			}, IdleScheduler.PRIORITY_LOW, IDLE_DEADLINE_LOW_PRIORITY_COMPONENTS);
 		}
 		
 		// start accelerometer
@@ -2868,6 +2967,58 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Start camera preview (in camera thread).
+	private void startCameraPreviewInCameraThread(final Camera camera, Size previewSize, Object previewReceiver)
+	{
+		switch(camera.get(Camera.PROP_PREVIEW_STATE))
+		{
+			case STARTING:
+				break;
+			case STARTED:
+				HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
+				break;
+			default:
+				if(m_CameraThread.startCameraPreview(camera, previewSize, previewReceiver))
+				{
+					switch(camera.get(Camera.PROP_PREVIEW_STATE))
+					{
+						case STARTED:
+							HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
+							break;
+						case STARTING:
+							Log.v(TAG, "startCameraPreview() - Wait for camera preview start");
+							camera.addCallback(Camera.PROP_PREVIEW_STATE, new PropertyChangedCallback<OperationState>()
+							{
+								@Override
+								public void onPropertyChanged(PropertySource source, PropertyKey<OperationState> key, PropertyChangeEventArgs<OperationState> e)
+								{
+									if(e.getNewValue() == OperationState.STARTED)
+										HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_STARTED, 0, 0, camera);
+									else
+									{
+										Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
+										HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
+									}
+									camera.removeCallback(Camera.PROP_PREVIEW_STATE, this);
+								}
+							});
+							break;
+						default:
+							Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
+							HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
+							break;
+					}
+				}
+				else
+				{
+					Log.e(TAG, "startCameraPreview() - Fail to start camera preview");
+					HandlerUtils.sendMessage(CameraActivity.this, MSG_CAMERA_PREVIEW_START_FAILED, 0, 0, camera);
+				}
+				break;
+		}
+	}
+	
+	
 	// Start orientation listener.
 	private void startOrientationListener()
 	{
@@ -3280,6 +3431,43 @@ public abstract class CameraActivity extends BaseActivity implements ComponentOw
 	}
 	
 	
+	// Unbind from camera thread (called in camera thread).
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void unbindFromCameraThread()
+	{
+		Log.v(TAG, "unbindFromCameraThread()");
+		
+		// remove event handlers
+		if(m_CameraThreadEventHandler != null)
+		{
+			for(int i = m_CameraThreadEventKeys.size() - 1 ; i >= 0 ; --i)
+				m_CameraThread.removeHandler((EventKey)m_CameraThreadEventKeys.get(i), (EventHandler)m_CameraThreadEventHandler);
+			m_CameraThreadEventHandler = null;
+			m_CameraThreadEventKeys = null;
+		}
+		
+		// remove property changed call-backs
+		if(m_CameraThreadPropertyCallback != null)
+		{
+			for(int i = m_CameraThreadPropertyKeys.size() - 1 ; i >= 0 ; --i)
+			{
+				PropertyKey<?> key = m_CameraThreadPropertyKeys.get(i);
+				if(key == CameraThread.PROP_PHOTO_CAPTURE_STATE || key == CameraThread.PROP_VIDEO_CAPTURE_STATE)
+					m_CameraThread.removeCallback((PropertyKey)key, (PropertyChangedCallback)m_CameraThreadPropertyCallback);
+			}
+			m_CameraThreadPropertyCallback = null;
+			m_CameraThreadPropertyKeys = null;
+		}
+		
+		// stop mirroring properties
+		if(m_CameraThreadPropertyMirror != null)
+		{
+			m_CameraThreadPropertyMirror.unbind(m_CameraThread);
+			m_CameraThreadPropertyMirror = null;
+		}
+	}
+	
+	
 	// Unlock camera.
 	private void unlockCamera(CameraLockHandle handle)
 	{
@@ -1,7 +1,6 @@
 package com.oneplus.camera;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import android.graphics.ImageFormat;
 import android.hardware.camera2.CaptureResult;
@@ -9,25 +8,34 @@ import android.util.Size;
 
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.Handle;
+import com.oneplus.base.ObjectPool;
+import com.oneplus.base.RecyclableObject;
 
 /**
  * Data for capture related events.
  */
-public class CameraCaptureEventArgs extends EventArgs
+public class CameraCaptureEventArgs extends EventArgs implements RecyclableObject
 {
 	// Constants
 	private static final int POOL_SIZE = 8;
 	
 	
 	// Static fields
-	private static final Queue<CameraCaptureEventArgs> POOL = new ArrayDeque<>(POOL_SIZE);
+	private static final ObjectPool<CameraCaptureEventArgs> POOL = new ObjectPool<>("CameraCaptureEventArgs", POOL_SIZE, new ObjectPool.Factory<CameraCaptureEventArgs>()
+	{
+		@Override
+		public CameraCaptureEventArgs create()
+		{
+			return new CameraCaptureEventArgs();
+		}
+	});
 	
 	
 	// Private fields
 	private volatile CaptureResult m_CaptureResult;
 	private volatile int m_FrameIndex;
 	private volatile Handle m_Handle;
-	private volatile boolean m_IsFreeInstance;
+	private final AtomicBoolean m_IsFreeInstance = new AtomicBoolean();
 	private volatile byte[] m_Picture;
 	private volatile int m_PictureFormat;
 	private volatile Size m_PictureSize;
@@ -44,6 +52,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final CaptureResult getCaptureResult()
 	{
+		this.verifyState();
 		return m_CaptureResult;
 	}
 	
@@ -54,6 +63,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final int getFrameIndex()
 	{
+		this.verifyState();
 		return m_FrameIndex;
 	}
 	
@@ -64,6 +74,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final Handle getHandle()
 	{
+		this.verifyState();
 		return m_Handle;
 	}
 	
@@ -74,6 +85,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final byte[] getPicture()
 	{
+		this.verifyState();
 		return m_Picture;
 	}
 	
@@ -84,6 +96,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final int getPictureFormat()
 	{
+		this.verifyState();
 		return m_PictureFormat;
 	}
 	
@@ -94,6 +107,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public final Size getPictureSize()
 	{
+		this.verifyState();
 		return m_PictureSize;
 	}
 	
@@ -105,7 +119,7 @@ public class CameraCaptureEventArgs extends EventArgs
 	 * @param result Capture result.
 	 * @return CameraCaptureEventArgs instance.
 	 */
-	public static synchronized CameraCaptureEventArgs obtain(Handle handle, int frameIndex, CaptureResult result)
+	public static CameraCaptureEventArgs obtain(Handle handle, int frameIndex, CaptureResult result)
 	{
 		return obtain(handle, frameIndex, result, null, 0, null);
 	}
@@ -121,13 +135,10 @@ public class CameraCaptureEventArgs extends EventArgs
 	 * @param pictureSize Picture size, or Null if there is no related picture.
 	 * @return CameraCaptureEventArgs instance.
 	 */
-	public static synchronized CameraCaptureEventArgs obtain(Handle handle, int frameIndex, CaptureResult result, byte[] picture, int pictureFormat, Size pictureSize)
+	public static CameraCaptureEventArgs obtain(Handle handle, int frameIndex, CaptureResult result, byte[] picture, int pictureFormat, Size pictureSize)
 	{
-		CameraCaptureEventArgs e = POOL.poll();
-		if(e != null)
-			e.m_IsFreeInstance = false;
-		else
-			e = new CameraCaptureEventArgs();
+		CameraCaptureEventArgs e = POOL.obtain();
+		e.m_IsFreeInstance.set(false);
 		e.m_Handle = handle;
 		e.m_FrameIndex = frameIndex;
 		e.m_CaptureResult = result;
@@ -143,19 +154,27 @@ public class CameraCaptureEventArgs extends EventArgs
 	 */
 	public void recycle()
 	{
-		synchronized(CameraCaptureEventArgs.class)
+		if(!m_IsFreeInstance.compareAndSet(false, true))
 		{
-			if(!m_IsFreeInstance && POOL.size() < POOL_SIZE)
-			{
-				m_Handle = null;
-				m_FrameIndex = -1;
-				m_CaptureResult = null;
-				m_Picture = null;
-				m_PictureFormat = 0;
-				m_PictureSize = null;
-				m_IsFreeInstance = true;
-				POOL.add(this);
-			}
+			if(ObjectPool.ENABLE_RECYCLING_CHECK)
+				throw new IllegalStateException("Instance has already been recycled.");
+			return;
 		}
+		m_Handle = null;
+		m_FrameIndex = -1;
+		m_CaptureResult = null;
+		m_Picture = null;
+		m_PictureFormat = 0;
+		m_PictureSize = null;
+		this.clearHandledState();
+		POOL.recycle(this);
+	}
+	
+	
+	// Check whether instance is available or not.
+	private void verifyState()
+	{
+		if(ObjectPool.ENABLE_RECYCLING_CHECK && m_IsFreeInstance.get())
+			throw new IllegalStateException("Instance has been recycled.");
 	}
 }
@@ -36,7 +36,7 @@ public abstract class CameraComponent extends CameraThreadComponent
 	protected CameraComponent(String name, CameraThread cameraThread, boolean hasHandler)
 	{
 		super(name, cameraThread, hasHandler);
-		m_CameraActivity = (CameraActivity)cameraThread.getContext();
+		m_CameraActivity = null;
 		m_IsCameraThreadComponent = true;
 	}
 	
@@ -52,11 +52,13 @@ public abstract class CameraComponent extends CameraThreadComponent
 	
 	
 	/**
-	 * Get related {@link CameraActivity} instance.
-	 * @return {@link CameraActivity} instance.
+	 * Get related {@link CameraActivity} instance. For component in camera thread, it is the activity currently attached to camera thread.
+	 * @return {@link CameraActivity} instance, or Null if camera thread is not attached to any activity.
 	 */
 	public final CameraActivity getCameraActivity()
 	{
+		if(m_IsCameraThreadComponent)
+			return this.getCameraThread().getCameraActivity();
 		return m_CameraActivity;
 	}
 	
@@ -82,11 +84,14 @@ public abstract class CameraComponent extends CameraThreadComponent
 	
 	
 	/**
-	 * Get current settings.
-	 * @return Settings.
+	 * Get current settings. For component in camera thread, settings are got from the activity currently attached to camera thread.
+	 * @return Settings, or Null if camera thread is not attached to any activity (for example, while camera thread is kept in grace period).
 	 */
 	protected final Settings getSettings()
 	{
-		return m_CameraActivity.get(CameraActivity.PROP_SETTINGS);
+		CameraActivity cameraActivity = this.getCameraActivity();
+		if(cameraActivity == null)
+			return null;
+		return cameraActivity.get(CameraActivity.PROP_SETTINGS);
 	}
 }
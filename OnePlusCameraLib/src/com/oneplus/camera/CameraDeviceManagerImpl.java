@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.oneplus.base.Log;
+import com.oneplus.base.StartupTracer;
 import com.oneplus.base.component.ComponentCreationPriority;
 
 import android.content.Context;
@@ -67,6 +68,7 @@ final class CameraDeviceManagerImpl extends CameraThreadComponent implements Cam
 		
 		// create new list
 		long time = SystemClock.elapsedRealtime();
+		StartupTracer.Span traceSpan = (StartupTracer.ENABLED ? StartupTracer.begin("CameraDeviceManagerImpl.refreshCameraList") : null);
 		List<Camera> newList;
 		try
 		{
@@ -100,6 +102,8 @@ final class CameraDeviceManagerImpl extends CameraThreadComponent implements Cam
 		}
 		
 		// check time
+		if(StartupTracer.ENABLED)
+			StartupTracer.end(traceSpan);
 		time = (SystemClock.elapsedRealtime() - time);
 		Log.v(TAG, "refreshCameraList() - Takes ", time, "ms to refresh list, cameras : ", newList);
 		
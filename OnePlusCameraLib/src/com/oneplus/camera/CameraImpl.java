@@ -26,6 +26,7 @@ import android.location.Location;
 import android.media.Image;
 import android.media.ImageReader;
 import android.media.MediaRecorder;
+import android.os.Handler;
 import android.os.Message;
 import android.renderscript.Allocation;
 import android.renderscript.Element;
@@ -36,14 +37,19 @@ import android.util.Size;
 import android.view.Surface;
 import android.view.SurfaceHolder;
 
+import com.oneplus.base.BooleanPropertyKey;
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.EventHandler;
 import com.oneplus.base.EventKey;
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerBaseObject;
 import com.oneplus.base.HandlerUtils;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyKey;
+import com.oneplus.base.StartupTracer;
+import com.oneplus.base.ThreadLane;
+import com.oneplus.base.ThreadLaneScheduler;
 import com.oneplus.renderscript.RenderScriptManager;
 import com.oneplus.util.AspectRatio;
 import com.oneplus.util.ListUtils;
@@ -88,6 +94,7 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		}
 	};
 	private OperationState m_CaptureSessionState = OperationState.STOPPED;
+	private StartupTracer.Span m_CaptureSessionTraceSpan;
 	private final CameraCharacteristics m_Characteristics;
 	private final CameraManager m_CameraManager;
 	private Context m_Context;
@@ -124,6 +131,7 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	private volatile boolean m_IsPreviewReceived;
 	private boolean m_IsRecordingMode;
 	private final LensFacing m_LensFacing;
+	private StartupTracer.Span m_OpenTraceSpan;
 	private final ImageReader.OnImageAvailableListener m_PictureAvailableListener = new ImageReader.OnImageAvailableListener()
 	{
 		@Override
@@ -176,6 +184,7 @@ class CameraImpl extends HandlerBaseObject implements Camera
 			CameraImpl.this.onCaptureSequenceCompleted();
 		}
 	};
+	private Handler m_PictureCaptureHandler;
 	private CaptureRequest m_PictureCaptureRequest;
 	private ImageReader m_PictureReader;
 	private Size m_PictureSize = new Size(0, 0);
@@ -712,15 +721,15 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		try
 		{
 			if(m_TargetCapturedFrameCount == 1)
-				m_CaptureSession.capture(m_PictureCaptureRequest, m_PictureCaptureCallback, this.getHandler());
+				m_CaptureSession.capture(m_PictureCaptureRequest, m_PictureCaptureCallback, this.getPictureCaptureHandler());
 			else if(m_TargetCapturedFrameCount < 0)
-				m_CaptureSession.setRepeatingRequest(m_PictureCaptureRequest, m_PictureCaptureCallback, this.getHandler());
+				m_CaptureSession.setRepeatingRequest(m_PictureCaptureRequest, m_PictureCaptureCallback, this.getPictureCaptureHandler());
 			else
 			{
 				List<CaptureRequest> requestList = new ArrayList<>();
 				for(int i = m_TargetCapturedFrameCount ; i > 0 ; --i)
 					requestList.add(m_PictureCaptureRequest);
-				m_CaptureSession.captureBurst(requestList, m_PictureCaptureCallback, this.getHandler());
+				m_CaptureSession.captureBurst(requestList, m_PictureCaptureCallback, this.getPictureCaptureHandler());
 			}
 		}
 		catch(Throwable ex)
@@ -918,6 +927,8 @@ class CameraImpl extends HandlerBaseObject implements Camera
 			return (TValue)m_Id;
 		if(key == PROP_IS_AE_LOCKED)
 			return (TValue)(Boolean)m_IsAELocked;
+		if(key == PROP_IS_PREVIEW_RECEIVED)
+			return (TValue)(Boolean)m_IsPreviewReceived;
 		if(key == PROP_IS_RECORDING_MODE)
 			return (TValue)(Boolean)m_IsRecordingMode;
 		if(key == PROP_LENS_FACING)
@@ -944,6 +955,38 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	}
 	
 	
+	// Get boolean property value.
+	@Override
+	public boolean getBoolean(BooleanPropertyKey key)
+	{
+		if(key == PROP_IS_PREVIEW_RECEIVED)
+			return m_IsPreviewReceived;
+		return super.getBoolean(key);
+	}
+	
+	
+	// Get float property value.
+	@Override
+	public float getFloat(FloatPropertyKey key)
+	{
+		if(key == PROP_EXPOSURE_COMPENSATION)
+			return m_ExposureCompensation;
+		return super.getFloat(key);
+	}
+	
+	
+	// Get handler to receive picture capture call-backs, use critical lane of camera thread if available.
+	private Handler getPictureCaptureHandler()
+	{
+		if(m_PictureCaptureHandler == null)
+		{
+			ThreadLaneScheduler scheduler = ThreadLaneScheduler.current();
+			m_PictureCaptureHandler = (scheduler != null ? scheduler.getHandler(ThreadLane.CRITICAL) : this.getHandler());
+		}
+		return m_PictureCaptureHandler;
+	}
+	
+	
 	// Handle message.
 	@Override
 	protected void handleMessage(Message msg)
@@ -1202,6 +1245,13 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	// Called when capture session configured.
 	private void onCaptureSessionConfigured(CameraCaptureSession session)
 	{
+		// end tracing
+		if(StartupTracer.ENABLED)
+		{
+			StartupTracer.end(m_CaptureSessionTraceSpan);
+			m_CaptureSessionTraceSpan = null;
+		}
+		
 		// check state
 		if(m_CaptureSessionState != OperationState.STARTING)
 		{
@@ -1230,6 +1280,13 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	// Called when capture session configure failed.
 	private void onCaptureSessionConfigureFailed(CameraCaptureSession session)
 	{
+		// end tracing
+		if(StartupTracer.ENABLED)
+		{
+			StartupTracer.end(m_CaptureSessionTraceSpan);
+			m_CaptureSessionTraceSpan = null;
+		}
+		
 		// close session
 		if(session != null)
 			session.close();
@@ -1292,7 +1349,9 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		}
 		
 		// raise event
-		this.raise(EVENT_SHUTTER, CameraCaptureEventArgs.obtain(m_CaptureHandle, m_ReceivedCaptureStartedCount - 1, null));
+		CameraCaptureEventArgs e = CameraCaptureEventArgs.obtain(m_CaptureHandle, m_ReceivedCaptureStartedCount - 1, null);
+		this.raise(EVENT_SHUTTER, e);
+		e.recycle();
 	}
 	
 	
@@ -1300,6 +1359,13 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	@SuppressWarnings("incomplete-switch")
 	private void onDeviceError(CameraDevice camera, int error, boolean disconnected)
 	{
+		// end tracing
+		if(StartupTracer.ENABLED)
+		{
+			StartupTracer.end(m_OpenTraceSpan);
+			m_OpenTraceSpan = null;
+		}
+		
 		// check state
 		if(m_State != State.OPENING)
 		{
@@ -1359,6 +1425,13 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	// Called when device opened.
 	private void onDeviceOpened(CameraDevice camera)
 	{
+		// end tracing
+		if(StartupTracer.ENABLED)
+		{
+			StartupTracer.end(m_OpenTraceSpan);
+			m_OpenTraceSpan = null;
+		}
+		
 		// check state
 		if(m_State != State.OPENING)
 		{
@@ -1570,6 +1643,8 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		if(!m_IsPreviewReceived)
 		{
 			Log.v(TAG, "onPreviewFrameReceived() - First preview frame received");
+			if(StartupTracer.ENABLED)
+				StartupTracer.mark("CameraImpl.firstPreviewFrame(" + m_Id + ")");
 			m_IsPreviewReceived = true;
 			this.notifyPropertyChanged(PROP_IS_PREVIEW_RECEIVED, false, true);
 		}
@@ -1581,7 +1656,9 @@ class CameraImpl extends HandlerBaseObject implements Camera
 			if(m_PreviewCallbackData == null || m_PreviewCallbackData.length != dataSize)
 				m_PreviewCallbackData = new byte[dataSize];
 			m_PreviewCallbackAllocation.copyTo(m_PreviewCallbackData);
-			this.raise(EVENT_PREVIEW_RECEIVED, CameraCaptureEventArgs.obtain(null, -1, null, m_PreviewCallbackData, ImageFormat.YUV_420_888, m_PreviewSize));
+			CameraCaptureEventArgs e = CameraCaptureEventArgs.obtain(null, -1, null, m_PreviewCallbackData, ImageFormat.YUV_420_888, m_PreviewSize);
+			this.raise(EVENT_PREVIEW_RECEIVED, e);
+			e.recycle();
 		}
 	}
 	
@@ -1637,6 +1714,8 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		try
 		{
 			Log.w(TAG, "openInternal() - Start opening camera '" + m_Id + "'");
+			if(StartupTracer.ENABLED)
+				m_OpenTraceSpan = StartupTracer.begin("CameraImpl.open(" + m_Id + ")");
 			m_CameraManager.openCamera(m_Id, m_DeviceStateCallback, this.getHandler());
 			return true;
 		}
@@ -1778,6 +1857,16 @@ class CameraImpl extends HandlerBaseObject implements Camera
 	}
 	
 	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key == PROP_EXPOSURE_COMPENSATION)
+			return this.setExposureCompensationProp(value);
+		return super.setFloat(key, value);
+	}
+	
+	
 	// Set PROP_IS_AE_LOCKED property.
 	private boolean setAELockedProp(boolean isLocked)
 	{
@@ -2497,6 +2586,8 @@ class CameraImpl extends HandlerBaseObject implements Camera
 		try
 		{
 			Log.w(TAG, "startCaptureSession() - Create capture session for camera '" + m_Id + "'");
+			if(StartupTracer.ENABLED)
+				m_CaptureSessionTraceSpan = StartupTracer.begin("CameraImpl.configureCaptureSession(" + m_Id + ")");
 			m_Device.createCaptureSession(surfaces, m_CaptureSessionCallback, this.getHandler());
 		} 
 		catch (Throwable ex)
@@ -0,0 +1,293 @@
+package com.oneplus.camera;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Message;
+
+import com.oneplus.base.BaseThread;
+import com.oneplus.base.HandlerBaseObject;
+import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.Log;
+
+/**
+ * Process-scoped camera runtime which keeps {@link CameraThread} and its components alive across {@link CameraActivity} instances.
+ */
+public final class CameraRuntime extends HandlerBaseObject
+{
+	/**
+	 * Default grace period to keep camera thread after detaching from last activity, in milliseconds.
+	 */
+	public static final long DEFAULT_GRACE_PERIOD = 30000;
+	
+	
+	// Constants
+	private static final long MAX_RELEASING_WAIT_TIME = 1000;
+	private static final int MSG_NOTIFY_CAMERA_THREAD_STARTED = 10000;
+	private static final int MSG_RELEASE_CAMERA_THREAD = 10001;
+	
+	
+	// Private fields
+	private CameraActivity m_AttachedActivity;
+	private CameraThread m_CameraThread;
+	private final Context m_Context;
+	private long m_GracePeriod = DEFAULT_GRACE_PERIOD;
+	private boolean m_IsCameraThreadStarted;
+	private CameraThread m_ReleasingCameraThread;
+	
+	
+	// Call-backs
+	private final BaseThread.ThreadStartCallback m_CameraThreadStartCallback = new BaseThread.ThreadStartCallback()
+	{
+		@Override
+		public void onCameraThreadStarted(BaseThread thread)
+		{
+			CameraRuntime.this.onCameraThreadStarted((CameraThread)thread);
+		}
+	};
+	
+	
+	/**
+	 * Interface for application which owns camera runtime.
+	 */
+	public interface Host
+	{
+		/**
+		 * Get camera runtime of this process.
+		 * @return Camera runtime.
+		 */
+		CameraRuntime getCameraRuntime();
+	}
+	
+	
+	/**
+	 * Initialize new CameraRuntime instance.
+	 * @param context Application context.
+	 */
+	public CameraRuntime(Context context)
+	{
+		super(true);
+		if(context == null)
+			throw new IllegalArgumentException("No context.");
+		m_Context = context;
+	}
+	
+	
+	/**
+	 * Attach activity to camera thread, camera thread which is kept in grace period will be reused.
+	 * @param activity Activity to attach.
+	 * @return Camera thread, use {@link BaseThread#isStartCalled()} to check whether it is reused or not.
+	 */
+	public CameraThread attach(CameraActivity activity)
+	{
+		// check state
+		this.verifyAccess();
+		this.verifyReleaseState();
+		if(activity == null)
+			throw new IllegalArgumentException("No activity.");
+		
+		// cancel releasing
+		HandlerUtils.removeMessages(this, MSG_RELEASE_CAMERA_THREAD);
+		
+		// detach previous activity first, so it unbinds in camera thread before new activity is attached
+		if(m_AttachedActivity != null && m_AttachedActivity != activity)
+		{
+			Log.w(TAG, "attach() - Detach previous activity " + m_AttachedActivity);
+			this.detachInternal(m_AttachedActivity);
+		}
+		
+		// create or reuse camera thread
+		if(m_CameraThread == null)
+		{
+			this.waitForReleasingCameraThread();
+			Log.w(TAG, "attach() - Create camera thread for " + activity);
+			m_CameraThread = new CameraThread(m_Context, m_CameraThreadStartCallback, this.getHandler());
+			m_IsCameraThreadStarted = false;
+		}
+		else
+			Log.w(TAG, "attach() - Reuse camera thread for " + activity);
+		
+		// attach
+		m_AttachedActivity = activity;
+		m_CameraThread.attachToActivity(activity);
+		
+		// notify activity after creation if camera thread is already started
+		if(m_IsCameraThreadStarted)
+			HandlerUtils.sendMessage(this, MSG_NOTIFY_CAMERA_THREAD_STARTED, 0, 0, activity);
+		
+		// complete
+		return m_CameraThread;
+	}
+	
+	
+	/**
+	 * Detach activity from camera thread, camera thread will be released after grace period if there is no activity attached.
+	 * @param activity Activity to detach.
+	 */
+	public void detach(CameraActivity activity)
+	{
+		// check state
+		this.verifyAccess();
+		if(activity == null || m_AttachedActivity != activity)
+			return;
+		
+		// detach
+		this.detachInternal(activity);
+		if(m_CameraThread == null)
+			return;
+		
+		// release camera thread later
+		if(!m_CameraThread.isStartCalled() || m_GracePeriod <= 0)
+			this.releaseCameraThread("No grace period");
+		else
+		{
+			Log.w(TAG, "detach() - Release camera thread after " + m_GracePeriod + " ms");
+			HandlerUtils.sendMessage(this, MSG_RELEASE_CAMERA_THREAD, true, m_GracePeriod);
+		}
+	}
+	
+	
+	// Detach activity from camera thread.
+	private void detachInternal(CameraActivity activity)
+	{
+		m_AttachedActivity = null;
+		HandlerUtils.removeMessages(this, MSG_NOTIFY_CAMERA_THREAD_STARTED);
+		activity.detachFromCameraThread();
+		if(m_CameraThread != null)
+			m_CameraThread.detachFromActivity(activity);
+	}
+	
+	
+	/**
+	 * Get grace period to keep camera thread after detaching from last activity.
+	 * @return Grace period in milliseconds.
+	 */
+	public long getGracePeriod()
+	{
+		return m_GracePeriod;
+	}
+	
+	
+	// Handle message.
+	@Override
+	protected void handleMessage(Message msg)
+	{
+		switch(msg.what)
+		{
+			case MSG_NOTIFY_CAMERA_THREAD_STARTED:
+				if(msg.obj == m_AttachedActivity)
+					m_AttachedActivity.notifyCameraThreadStarted();
+				break;
+			
+			case MSG_RELEASE_CAMERA_THREAD:
+				if(m_AttachedActivity == null)
+					this.releaseCameraThread("Grace period expired");
+				break;
+			
+			default:
+				super.handleMessage(msg);
+				break;
+		}
+	}
+	
+	
+	// Called when camera thread starts.
+	private void onCameraThreadStarted(CameraThread cameraThread)
+	{
+		if(cameraThread != m_CameraThread)
+			return;
+		m_IsCameraThreadStarted = true;
+		if(m_AttachedActivity != null)
+			m_AttachedActivity.notifyCameraThreadStarted();
+	}
+	
+	
+	// Called when releasing.
+	@Override
+	protected void onRelease()
+	{
+		// release camera thread
+		m_AttachedActivity = null;
+		this.releaseCameraThread("Runtime released");
+		
+		// call super
+		super.onRelease();
+	}
+	
+	
+	/**
+	 * Called when system asks to trim memory, camera thread will be released if there is no activity attached.
+	 * @param level Trim level defined in {@link ComponentCallbacks2}.
+	 */
+	public void onTrimMemory(int level)
+	{
+		// check state
+		this.verifyAccess();
+		if(m_AttachedActivity != null || m_CameraThread == null)
+			return;
+		
+		// release camera thread, UI hidden is expected while keeping camera thread in grace period
+		switch(level)
+		{
+			case ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN:
+			case ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE:
+				break;
+			default:
+				this.releaseCameraThread("Trim memory, level : " + level);
+				break;
+		}
+	}
+	
+	
+	// Release camera thread without waiting for it to exit.
+	private void releaseCameraThread(String reason)
+	{
+		// check state
+		HandlerUtils.removeMessages(this, MSG_RELEASE_CAMERA_THREAD);
+		CameraThread cameraThread = m_CameraThread;
+		if(cameraThread == null)
+			return;
+		
+		Log.w(TAG, "releaseCameraThread() - " + reason);
+		
+		// release, new camera thread will wait for this one to exit when attaching
+		m_CameraThread = null;
+		m_IsCameraThreadStarted = false;
+		m_ReleasingCameraThread = cameraThread;
+		cameraThread.release();
+	}
+	
+	
+	/**
+	 * Set grace period to keep camera thread after detaching from last activity, new value will be applied in next detaching.
+	 * @param millis Grace period in milliseconds, 0 to release camera thread immediately.
+	 */
+	public void setGracePeriod(long millis)
+	{
+		this.verifyAccess();
+		if(millis < 0)
+			throw new IllegalArgumentException("Invalid grace period : " + millis);
+		m_GracePeriod = millis;
+	}
+	
+	
+	// Wait for previous camera thread to exit before creating new one.
+	private void waitForReleasingCameraThread()
+	{
+		CameraThread cameraThread = m_ReleasingCameraThread;
+		if(cameraThread == null)
+			return;
+		m_ReleasingCameraThread = null;
+		try
+		{
+			cameraThread.join(MAX_RELEASING_WAIT_TIME);
+		}
+		catch(InterruptedException ex)
+		{
+			Log.e(TAG, "waitForReleasingCameraThread() - Interrupted", ex);
+			Thread.currentThread().interrupt();
+			return;
+		}
+		if(cameraThread.isAlive())
+			Log.w(TAG, "waitForReleasingCameraThread() - Previous camera thread is still running after " + MAX_RELEASING_WAIT_TIME + " ms");
+	}
+}
@@ -18,12 +18,16 @@ import android.os.SystemClock;
 import android.util.Size;
 
 import com.oneplus.base.BaseThread;
+import com.oneplus.base.BooleanPropertyChangedCallback;
+import com.oneplus.base.BooleanPropertyKey;
+import com.oneplus.base.CrossThreadCommand;
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.EventHandler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.EventSource;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.IdleScheduler;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
@@ -31,6 +35,8 @@ import com.oneplus.base.PropertyKey;
 import com.oneplus.base.PropertySource;
 import com.oneplus.base.Rotation;
 import com.oneplus.base.ScreenSize;
+import com.oneplus.base.StartupTracer;
+import com.oneplus.base.ThreadLane;
 import com.oneplus.base.component.Component;
 import com.oneplus.base.component.ComponentBuilder;
 import com.oneplus.base.component.ComponentCreationPriority;
@@ -43,6 +49,7 @@ import com.oneplus.camera.io.PhotoSaveTask;
 import com.oneplus.camera.io.VideoSaveTask;
 import com.oneplus.camera.location.LocationManager;
 import com.oneplus.camera.media.AudioManager;
+import com.oneplus.camera.media.MediaEventArgs;
 import com.oneplus.camera.media.MediaType;
 import com.oneplus.camera.media.Resolution;
 
@@ -53,17 +60,32 @@ public class CameraThread extends BaseThread implements ComponentOwner
 {
 	// Default component builders
 	private static final ComponentBuilder[] DEFAULT_COMPONENT_BUILDERS = new ComponentBuilder[]{
+		new BackgroundExecutorBuilder(),
 		new CameraDeviceManagerBuilder(),
 		new ExposureControllerBuilder(),
 		new FileManagerBuilder(),
 		new FocusControllerBuilder(),
+		new ThreadPolicyManagerBuilder(),
 	};
 	
 	
 	// Constants
+	private static final int CMD_ADD_COMPONENT_BUILDERS = 1;
+	private static final int CMD_CAPTURE_PHOTO = 2;
+	private static final int CMD_CAPTURE_VIDEO = 3;
+	private static final int CMD_CLOSE_CAMERA = 4;
+	private static final int CMD_OPEN_CAMERA = 5;
+	private static final int CMD_SET_MEDIA_TYPE = 6;
+	private static final int CMD_START_CAMERA_PREVIEW = 7;
+	private static final int CMD_STOP_CAMERA_PREVIEW = 8;
+	private static final int CMD_STOP_PHOTO_CAPTURE = 9;
+	private static final int CMD_STOP_VIDEO_CAPTURE = 10;
 	private static final long DURATION_VIDEO_CAPTURE_DELAY = 300;
+	private static final long IDLE_DEADLINE_LOAD_SOUNDS = 1000;
+	private static final long IDLE_DEADLINE_LOW_PRIORITY_COMPONENTS = 5000;
 	private static final int MSG_SCREEN_SIZE_CHANGED = 10000;
 	private static final int MSG_CAPTURE_VIDEO = 10010;
+	private static final long TIMEOUT_STOP_CAMERA_PREVIEW = 5000;
 	
 	
 	/**
@@ -102,7 +124,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	/**
 	 * Read-only property to check whether first camera preview frame is received or not.
 	 */
-	public static final PropertyKey<Boolean> PROP_IS_CAMERA_PREVIEW_RECEIVED = new PropertyKey<>("IsCameraPreviewReceived", Boolean.class, CameraThread.class, false);
+	public static final BooleanPropertyKey PROP_IS_CAMERA_PREVIEW_RECEIVED = new BooleanPropertyKey("IsCameraPreviewReceived", CameraThread.class, false);
 	/**
 	 * Read-only property to check whether video snapshot is enabled or not.
 	 */
@@ -143,6 +165,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	private AudioManager m_AudioManager;
 	private Handle m_BurstCaptureSoundStreamHandle;
 	private final Context m_Context;
+	private volatile CameraActivity m_CameraActivity;
 	private Handle m_CameraCaptureHandle;
 	private CameraDeviceManager m_CameraDeviceManager;
 	private volatile ComponentManager m_ComponentManager;
@@ -151,7 +174,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	private final VideoCaptureHandlerHandle m_DefaultVideoCaptureHandlerHandle = new VideoCaptureHandlerHandle(null);
 	private FocusController m_FocusController;
 	private boolean m_IsCapturingBurstPhotos;
+	private boolean m_IsLowComponentsCreated;
 	private boolean m_IsNormalComponentsCreated;
+	private boolean m_IsSoundsLoaded;
 	private final List<ComponentBuilder> m_InitialComponentBuilders = new ArrayList<>();
 	private volatile MediaType m_InitialMediaType;
 	private volatile ScreenSize m_InitialScreenSize;
@@ -183,13 +208,24 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	};
 	
 	
+	// Cross-thread command performer.
+	private final CrossThreadCommand.Performer m_CommandPerformer = new CrossThreadCommand.Performer()
+	{
+		@Override
+		public void performCommand(CrossThreadCommand command)
+		{
+			CameraThread.this.performCommand(command);
+		}
+	};
+	
+	
 	// Property call-backs.
-	private final PropertyChangedCallback<Boolean> m_CameraPreviewReceivedChangedCallback = new PropertyChangedCallback<Boolean>()
+	private final BooleanPropertyChangedCallback m_CameraPreviewReceivedChangedCallback = new BooleanPropertyChangedCallback()
 	{
 		@Override
-		public void onPropertyChanged(PropertySource source, PropertyKey<Boolean> key, PropertyChangeEventArgs<Boolean> e)
+		public void onPropertyChanged(PropertySource source, BooleanPropertyKey key, boolean oldValue, boolean newValue)
 		{
-			onCameraPreviewReceivedStateChanged((Camera)source, e.getNewValue());
+			onCameraPreviewReceivedStateChanged((Camera)source, newValue);
 		}
 	};
 	private final PropertyChangedCallback<OperationState> m_CameraPreviewStateChangedCallback = new PropertyChangedCallback<OperationState>()
@@ -369,9 +405,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	{
 		public final Camera camera;
 		public final int flags;
-		public final boolean[] result;
+		public final CrossThreadCommand result;
 		
-		public CameraPreviewStopRequest(Camera camera, boolean[] result, int flags)
+		public CameraPreviewStopRequest(Camera camera, CrossThreadCommand result, int flags)
 		{
 			this.camera = camera;
 			this.flags = flags;
@@ -389,7 +425,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	
 	/**
 	 * Initialize new CameraThread instance.
-	 * @param context Related {@link android.content.Context Context}.
+	 * @param context Related {@link android.content.Context Context}, it will also be the attached activity if it is a {@link CameraActivity}.
 	 * @param callback Call-back when camera thread starts.
 	 * @param callbackHandler Handler for call-back.
 	 */
@@ -399,6 +435,8 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		if(context == null)
 			throw new IllegalArgumentException("No context.");
 		m_Context = context;
+		if(context instanceof CameraActivity)
+			m_CameraActivity = (CameraActivity)context;
 	}
 	
 	
@@ -406,7 +444,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * Add component builders to camera thread.
 	 * @param builders Component builders to add.
 	 */
-	public final void addComponentBuilders(final ComponentBuilder[] builders)
+	public final void addComponentBuilders(ComponentBuilder[] builders)
 	{
 		if(this.isDependencyThread())
 			m_ComponentManager.addComponentBuilders(builders, this);
@@ -416,14 +454,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			{
 				if(m_ComponentManager != null)
 				{
-					HandlerUtils.post(this, new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							m_ComponentManager.addComponentBuilders(builders, CameraThread.this);
-						}
-					});
+					CrossThreadCommand.obtain(m_CommandPerformer, CMD_ADD_COMPONENT_BUILDERS, builders).send(this, ThreadLane.BACKGROUND);
 				}
 				else
 					m_InitialComponentBuilders.addAll(Arrays.asList(builders));
@@ -432,6 +463,33 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	}
 	
 	
+	// Attach to given activity (called by CameraRuntime).
+	final void attachToActivity(final CameraActivity activity)
+	{
+		// check parameter
+		if(activity == null)
+			throw new IllegalArgumentException("No activity.");
+		
+		// update state
+		m_CameraActivity = activity;
+		
+		// rebind activity-bound components, components created later will get activity directly
+		if(this.isDependencyThread())
+			this.onActivityAttached(activity);
+		else if(this.getHandler() != null && !HandlerUtils.post(this, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				onActivityAttached(activity);
+			}
+		}))
+		{
+			Log.e(TAG, "attachToActivity() - Fail to perform cross-thread operation");
+		}
+	}
+	
+	
 	// Bind to initial components.
 	@SuppressWarnings("unchecked")
 	private boolean bindToInitialComponents()
@@ -440,15 +498,15 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		m_AudioManager = m_ComponentManager.findComponent(AudioManager.class, this);
 		if(m_AudioManager != null)
 		{
-			if(m_ResourceIdTable != null)
+			// load sounds after opening camera, capture will load them directly if needed
+			this.getIdleScheduler().schedule(new Runnable()
 			{
-				if(m_ResourceIdTable.photoShutterSound != 0)
-					m_DefaultShutterSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.photoShutterSound, AudioManager.STREAM_RING, 0);
-				if(m_ResourceIdTable.videoStartSound != 0)
-					m_VideoStartSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.videoStartSound, AudioManager.STREAM_RING, 0);
-				if(m_ResourceIdTable.videoStopSound != 0)
-					m_VideoStopSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.videoStopSound, AudioManager.STREAM_RING, 0);
-			}
+				@Override
+				public void run()
+				{
+					loadSounds();
+				}
+			}, IdleScheduler.PRIORITY_NORMAL, IDLE_DEADLINE_LOAD_SOUNDS);
 		}
 		else
 			Log.w(TAG, "bindToInitialComponents() - No AudioManager");
@@ -474,7 +532,30 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		}
 		
 		// bind to FileManager
-		m_ComponentManager.findComponent(FileManager.class , this);
+		FileManager fileManager = m_ComponentManager.findComponent(FileManager.class , this);
+		if(fileManager != null)
+		{
+			fileManager.addHandler(FileManager.EVENT_MEDIA_SAVE_FAILED, new EventHandler<MediaEventArgs>()
+			{
+				@Override
+				public void onEventReceived(EventSource source, EventKey<MediaEventArgs> key, MediaEventArgs e)
+				{
+					CaptureHandle handle = e.getCaptureHandle();
+					if(handle != null)
+						handle.completeFailed();
+				}
+			});
+			fileManager.addHandler(FileManager.EVENT_MEDIA_SAVED, new EventHandler<MediaEventArgs>()
+			{
+				@Override
+				public void onEventReceived(EventSource source, EventKey<MediaEventArgs> key, MediaEventArgs e)
+				{
+					CaptureHandle handle = e.getCaptureHandle();
+					if(handle != null)
+						handle.completeSaved(e);
+				}
+			});
+		}
 		
 		// complete
 		return true;
@@ -507,6 +588,16 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	}
 	
 	
+	/**
+	 * Get {@link CameraActivity} which is currently attached to this thread.
+	 * @return {@link CameraActivity}, or Null if there is no attached activity.
+	 */
+	public final CameraActivity getCameraActivity()
+	{
+		return m_CameraActivity;
+	}
+	
+	
 	/**
 	 * Get internal component manager.
 	 * @return Component manager.
@@ -554,7 +645,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * @param flags Flags, reserved.
 	 * @return Capture handle.
 	 */
-	public final CaptureHandle capturePhoto(final int frameCount, final int flags)
+	public final CaptureHandle capturePhoto(int frameCount, int flags)
 	{
 		// check parameter
 		if(frameCount == 0)
@@ -564,7 +655,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		}
 		
 		// create handle
-		final PhotoCaptureHandle handle = new PhotoCaptureHandle(frameCount);
+		PhotoCaptureHandle handle = new PhotoCaptureHandle(frameCount);
 		
 		// capture
 		if(this.isDependencyThread())
@@ -573,14 +664,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 				return handle;
 			return null;
 		}
-		else if(HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				capturePhotoInternal(handle, false);
-			}
-		}))
+		else if(CrossThreadCommand.obtain(m_CommandPerformer, CMD_CAPTURE_PHOTO, handle).send(this, ThreadLane.CRITICAL))
 		{
 			Log.v(TAG, "capturePhoto() - Create handle ", handle);
 			return handle;
@@ -596,6 +680,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		// clear state
 		m_PhotoCaptureHandle = null;
 		
+		// make sure that shutter sound is ready
+		this.loadSounds();
+		
 		// check state
 		switch(this.get(PROP_PHOTO_CAPTURE_STATE))
 		{
@@ -740,7 +827,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * @param resolution Video resolution.
 	 * @return Capture handle.
 	 */
-	public final CaptureHandle captureVideo(final Resolution resolution)
+	public final CaptureHandle captureVideo(Resolution resolution)
 	{
 		if(resolution == null)
 		{
@@ -752,21 +839,14 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			Log.e(TAG, "captureVideo() - Invalid resolution : " + resolution);
 			return null;
 		}
-		final VideoCaptureHandle handle = new VideoCaptureHandle();
+		VideoCaptureHandle handle = new VideoCaptureHandle();
 		if(this.isDependencyThread())
 		{
 			if(this.captureVideoInternal(handle, resolution, false))
 				return handle;
 			return null;
 		}
-		else if(HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				captureVideoInternal(handle, resolution, false);
-			}
-		}))
+		else if(CrossThreadCommand.obtain(m_CommandPerformer, CMD_CAPTURE_VIDEO, 0, 0, handle, resolution, null).send(this, ThreadLane.CRITICAL))
 		{
 			return handle;
 		}
@@ -778,6 +858,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	// Start video capture.
 	private boolean captureVideoInternal(VideoCaptureHandle handle, Resolution resolution, boolean isShutterSoundPlayed)
 	{
+		// make sure that video sounds are ready
+		this.loadSounds();
+		
 		// check state
 		switch(this.get(PROP_VIDEO_CAPTURE_STATE))
 		{
@@ -893,7 +976,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * Close given camera.
 	 * @param camera Camera to close.
 	 */
-	public final void closeCamera(final Camera camera)
+	public final void closeCamera(Camera camera)
 	{
 		// check parameter
 		if(camera == null)
@@ -905,14 +988,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		// close camera
 		if(this.isDependencyThread())
 			this.closeCameraInternal(camera);
-		else if(!HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				closeCameraInternal(camera);
-			}
-		}))
+		else if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_CLOSE_CAMERA, camera).send(this))
 		{
 			Log.e(TAG, "closeCamera() - Fail to perform cross-thread operation");
 		}
@@ -1030,6 +1106,33 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	}
 	
 	
+	// Detach from given activity (called by CameraRuntime).
+	final void detachFromActivity(final CameraActivity activity)
+	{
+		// check state
+		if(activity == null || m_CameraActivity != activity)
+			return;
+		
+		// update state
+		m_CameraActivity = null;
+		
+		// unbind activity-bound components
+		if(this.isDependencyThread())
+			this.onActivityDetached(activity);
+		else if(this.getHandler() != null && !HandlerUtils.post(this, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				onActivityDetached(activity);
+			}
+		}))
+		{
+			Log.e(TAG, "detachFromActivity() - Fail to perform cross-thread operation");
+		}
+	}
+	
+	
 	/**
 	 * Disable video snapshot.
 	 * @return Handle to this operation.
@@ -1124,6 +1227,24 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	}
 	
 	
+	// Load capture sounds.
+	private void loadSounds()
+	{
+		if(m_IsSoundsLoaded || m_AudioManager == null)
+			return;
+		m_IsSoundsLoaded = true;
+		if(m_ResourceIdTable != null)
+		{
+			if(m_ResourceIdTable.photoShutterSound != 0)
+				m_DefaultShutterSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.photoShutterSound, AudioManager.STREAM_RING, 0);
+			if(m_ResourceIdTable.videoStartSound != 0)
+				m_VideoStartSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.videoStartSound, AudioManager.STREAM_RING, 0);
+			if(m_ResourceIdTable.videoStopSound != 0)
+				m_VideoStopSoundHandle = m_AudioManager.loadSound(m_ResourceIdTable.videoStopSound, AudioManager.STREAM_RING, 0);
+		}
+	}
+	
+	
 	// Called when available camera list changes.
 	private void onAvailableCamerasChanged(List<Camera> oldCameras, List<Camera> cameras)
 	{
@@ -1258,7 +1379,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	// Called when capture failed.
 	private void onCaptureFailed(CameraCaptureEventArgs e)
 	{
-		//
+		// complete stage
+		if(m_PhotoCaptureHandle != null)
+			m_PhotoCaptureHandle.completeFailed();
 	}
 	
 	
@@ -1281,7 +1404,12 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	{
 		Log.v(TAG, "onPictureReceived() - Index : ", e.getFrameIndex());
 		
-		m_ComponentManager.findComponent(FileManager.class, this).saveMedia(new PhotoSaveTask(this.getContext(), e), 0);
+		// complete stage
+		if(m_PhotoCaptureHandle != null)
+			m_PhotoCaptureHandle.completePictureReceived(e);
+		
+		// save picture
+		m_ComponentManager.findComponent(FileManager.class, this).saveMedia(new PhotoSaveTask(this.getContext(), m_PhotoCaptureHandle, e), 0);
 	}
 	
 	
@@ -1305,6 +1433,57 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			else
 				this.playDefaultShutterSound();
 		}
+		
+		// complete stage
+		if(m_PhotoCaptureHandle != null)
+			m_PhotoCaptureHandle.completeShutter(e);
+	}
+	
+	
+	// Called when activity attached (in camera thread).
+	@SuppressWarnings("rawtypes")
+	private void onActivityAttached(CameraActivity activity)
+	{
+		// check state
+		if(m_ComponentManager == null || m_CameraActivity != activity)
+			return;
+		
+		Log.v(TAG, "onActivityAttached() - Activity : ", activity);
+		
+		// bind proxies to components in activity
+		Component[] components = m_ComponentManager.findComponents(ProxyComponent.class, this);
+		if(components == null)
+			return;
+		for(int i = components.length - 1 ; i >= 0 ; --i)
+		{
+			ProxyComponent component = (ProxyComponent)components[i];
+			ComponentOwner targetOwner = component.getTargetOwner();
+			if(targetOwner == null || targetOwner instanceof CameraActivity)
+				component.setTargetOwner(activity);
+		}
+	}
+	
+	
+	// Called when activity detached (in camera thread).
+	@SuppressWarnings("rawtypes")
+	private void onActivityDetached(CameraActivity activity)
+	{
+		// check state
+		if(m_ComponentManager == null)
+			return;
+		
+		Log.v(TAG, "onActivityDetached() - Activity : ", activity);
+		
+		// unbind proxies from components in activity
+		Component[] components = m_ComponentManager.findComponents(ProxyComponent.class, this);
+		if(components == null)
+			return;
+		for(int i = components.length - 1 ; i >= 0 ; --i)
+		{
+			ProxyComponent component = (ProxyComponent)components[i];
+			if(component.getTargetOwner() == activity)
+				component.setTargetOwner(null);
+		}
 	}
 	
 	
@@ -1312,6 +1491,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	@Override
 	protected void onStarted()
 	{
+		// start tracing
+		StartupTracer.Span traceSpan = (StartupTracer.ENABLED ? StartupTracer.begin("CameraThread.onStarted") : null);
+		
 		// call super
 		super.onStarted();
 		
@@ -1322,6 +1504,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		if(!this.bindToInitialComponents())
 			throw new RuntimeException("Fail to bind components.");
 		
+		// end tracing
+		if(StartupTracer.ENABLED)
+			StartupTracer.end(traceSpan);
 	}
 	
 	
@@ -1329,6 +1514,9 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	@Override
 	protected void onStarting()
 	{
+		// start tracing
+		StartupTracer.Span traceSpan = (StartupTracer.ENABLED ? StartupTracer.begin("CameraThread.onStarting") : null);
+		
 		// call super
 		super.onStarting();
 		
@@ -1394,6 +1582,10 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		
 		// create component with LAUNCH priority
 		m_ComponentManager.createComponents(ComponentCreationPriority.LAUNCH, this);
+		
+		// end tracing
+		if(StartupTracer.ENABLED)
+			StartupTracer.end(traceSpan);
 	}
 	
 	
@@ -1433,7 +1625,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * @param flags Flags, reserved.
 	 * @return Whether camera opening starts successfully or not.
 	 */
-	public final boolean openCamera(final Camera camera, final int flags)
+	public final boolean openCamera(Camera camera, int flags)
 	{
 		if(camera == null)
 		{
@@ -1442,14 +1634,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		}
 		if(this.isDependencyThread())
 			return this.openCameraInternal(camera, flags);
-		else if(HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				openCameraInternal(camera, flags);
-			}
-		}))
+		else if(CrossThreadCommand.obtain(m_CommandPerformer, CMD_OPEN_CAMERA, flags, 0, camera, null, null).send(this))
 		{
 			return true;
 		}
@@ -1497,7 +1682,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		camera.set(Camera.PROP_IS_RECORDING_MODE, this.get(PROP_MEDIA_TYPE) == MediaType.VIDEO);
 		
 		// update property
-		this.setReadOnly(PROP_IS_CAMERA_PREVIEW_RECEIVED, camera.get(Camera.PROP_IS_PREVIEW_RECEIVED));
+		this.setReadOnly(PROP_IS_CAMERA_PREVIEW_RECEIVED, camera.getBoolean(Camera.PROP_IS_PREVIEW_RECEIVED));
 		this.setReadOnly(PROP_CAMERA, camera);
 		
 		// complete
@@ -1505,6 +1690,51 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	}
 	
 	
+	// Perform cross-thread command.
+	private void performCommand(CrossThreadCommand command)
+	{
+		switch(command.getWhat())
+		{
+			case CMD_ADD_COMPONENT_BUILDERS:
+				m_ComponentManager.addComponentBuilders(command.<ComponentBuilder[]>getObjectArg(0), this);
+				break;
+			case CMD_CAPTURE_PHOTO:
+				this.capturePhotoInternal(command.<PhotoCaptureHandle>getObjectArg(0), false);
+				break;
+			case CMD_CAPTURE_VIDEO:
+				this.captureVideoInternal(command.<VideoCaptureHandle>getObjectArg(0), command.<Resolution>getObjectArg(1), false);
+				break;
+			case CMD_CLOSE_CAMERA:
+				this.closeCameraInternal(command.<Camera>getObjectArg(0));
+				break;
+			case CMD_OPEN_CAMERA:
+				this.openCameraInternal(command.<Camera>getObjectArg(0), command.getArg1());
+				break;
+			case CMD_SET_MEDIA_TYPE:
+				this.setMediaTypeInternal(command.<MediaType>getObjectArg(0));
+				break;
+			case CMD_START_CAMERA_PREVIEW:
+				this.startCameraPreviewInternal(command.<Camera>getObjectArg(0), command.<Size>getObjectArg(1), command.getObjectArg(2), command.getArg1());
+				break;
+			case CMD_STOP_CAMERA_PREVIEW:
+			{
+				int flags = command.getArg1();
+				this.stopCameraPreviewInternal(command.<Camera>getObjectArg(0), ((flags & FLAG_SYNCHRONOUS) != 0 ? command : null), flags);
+				break;
+			}
+			case CMD_STOP_PHOTO_CAPTURE:
+				this.stopPhotoCaptureInternal(command.<PhotoCaptureHandle>getObjectArg(0));
+				break;
+			case CMD_STOP_VIDEO_CAPTURE:
+				this.stopVideoCaptureInternal(command.<VideoCaptureHandle>getObjectArg(0), command.getArg1());
+				break;
+			default:
+				Log.e(TAG, "performCommand() - Unknown command : " + command.getWhat());
+				break;
+		}
+	}
+	
+	
 	/**
 	 * Play default shutter sound.
 	 */
@@ -1512,6 +1742,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	{
 		// check state
 		this.verifyAccess();
+		this.loadSounds();
 		if(!Handle.isValid(m_DefaultShutterSoundHandle))
 		{
 			Log.w(TAG, "playDefaultShutterSound() - No shutter sound to play");
@@ -1654,18 +1885,11 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * @param mediaType New media type.
 	 * @return Whether media type changes successfully or not.
 	 */
-	public boolean setMediaType(final MediaType mediaType)
+	public boolean setMediaType(MediaType mediaType)
 	{
 		if(this.isDependencyThread())
 			return this.setMediaTypeInternal(mediaType);
-		else if(HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				setMediaTypeInternal(mediaType);
-			}
-		}))
+		else if(CrossThreadCommand.obtain(m_CommandPerformer, CMD_SET_MEDIA_TYPE, mediaType).send(this))
 		{
 			return true;
 		}
@@ -1839,6 +2063,8 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	// Start camera thread with given media type.
 	public synchronized void start(MediaType mediaType)
 	{
+		if(StartupTracer.ENABLED)
+			StartupTracer.mark("CameraThread.start");
 		this.start();
 		m_InitialMediaType = mediaType;
 	}
@@ -1865,7 +2091,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * @param flags Flags, reserved.
 	 * @return Whether camera preview starts successfully or not.
 	 */
-	public final boolean startCameraPreview(final Camera camera, final Size previewSize, final Object receiver, final int flags)
+	public final boolean startCameraPreview(Camera camera, Size previewSize, Object receiver, int flags)
 	{
 		// check parameter
 		if(camera == null)
@@ -1875,14 +2101,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		}
 		if(this.isDependencyThread())
 			return this.startCameraPreviewInternal(camera, previewSize, receiver, flags);
-		else if(HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				startCameraPreviewInternal(camera, previewSize, receiver, flags);
-			}
-		}))
+		else if(CrossThreadCommand.obtain(m_CommandPerformer, CMD_START_CAMERA_PREVIEW, flags, 0, camera, previewSize, receiver).send(this))
 		{
 			return true;
 		}
@@ -1951,6 +2170,20 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			this.bindToNormalComponents();
 		}
 		
+		// create component with LOW priority when idle
+		if(!m_IsLowComponentsCreated)
+		{
+			m_IsLowComponentsCreated = true;
+			this.getIdleScheduler().schedule(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					m_ComponentManager.createComponents(ComponentCreationPriority.LOW, CameraThread.this);
+				}
+			}, IdleScheduler.PRIORITY_LOW, IDLE_DEADLINE_LOW_PRIORITY_COMPONENTS);
+		}
+		
 		// complete
 		return true;
 	}
@@ -1976,7 +2209,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	 * </ul>
 	 * @return Camera preview stops successfully or not.
 	 */
-	public final boolean stopCameraPreview(final Camera camera, final int flags)
+	public final boolean stopCameraPreview(Camera camera, int flags)
 	{
 		if(camera == null)
 		{
@@ -1987,48 +2220,42 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			return this.stopCameraPreviewInternal(camera, null, flags);
 		else
 		{
-			final boolean isSync = ((flags & FLAG_SYNCHRONOUS) != 0);
-			final boolean[] result = new boolean[]{ false };
-			synchronized(result)
+			CrossThreadCommand command = CrossThreadCommand.obtain(m_CommandPerformer, CMD_STOP_CAMERA_PREVIEW, flags, 0, camera, null, null);
+			if((flags & FLAG_SYNCHRONOUS) == 0)
 			{
-				if(!HandlerUtils.post(this, new Runnable()
-				{
-					@Override
-					public void run()
-					{
-						stopCameraPreviewInternal(camera, (isSync ? result : null), flags);
-					}
-				}))
+				if(command.send(this))
+					return true;
+				Log.e(TAG, "stopCameraPreview() - Fail to perform cross-thread operation");
+				return false;
+			}
+			try
+			{
+				Log.w(TAG, "stopCameraPreview() - Wait for camera thread [start]");
+				boolean isCompleted = command.sendAndWait(this, TIMEOUT_STOP_CAMERA_PREVIEW);
+				Log.w(TAG, "stopCameraPreview() - Wait for camera thread [end]");
+				if(!isCompleted)
 				{
-					Log.e(TAG, "stopCameraPreview() - Fail to perform cross-thread operation");
+					Log.e(TAG, "stopCameraPreview() - Fail to perform cross-thread operation or timeout");
 					return false;
 				}
-				if(isSync)
+				Boolean result = command.getResult();
+				if(result == null || !result)
 				{
-					try
-					{
-						Log.w(TAG, "stopCameraPreview() - Wait for camera thread [start]");
-						result.wait(5000);
-						Log.w(TAG, "stopCameraPreview() - Wait for camera thread [end]");
-						if(result[0])
-							return true;
-						Log.e(TAG, "stopCameraPreview() - Timeout");
-						return false;
-					}
-					catch(InterruptedException ex)
-					{
-						Log.e(TAG, "stopCameraPreview() - Interrupted", ex);
-						return false;
-					}
+					Log.e(TAG, "stopCameraPreview() - Fail to stop camera preview");
+					return false;
 				}
 				return true;
 			}
+			finally
+			{
+				command.recycle();
+			}
 		}
 	}
 	
 	
 	// Stop camera preview
-	private boolean stopCameraPreviewInternal(final Camera camera, final boolean[] result, int flags)
+	private boolean stopCameraPreviewInternal(final Camera camera, final CrossThreadCommand result, int flags)
 	{
 		try
 		{
@@ -2038,6 +2265,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 				if(result != null)
 				{
 					Log.w(TAG, "stopCameraPreviewInternal() - Wait for preview start");
+					result.detach();
 					m_PendingCameraPreviewStopRequests.add(new CameraPreviewStopRequest(camera, result, flags));
 					return true;
 				}
@@ -2060,16 +2288,13 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			{
 				if(camera.get(Camera.PROP_PREVIEW_STATE) != OperationState.STOPPING)
 				{
-					synchronized(result)
-					{
-						Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
-						result[0] = true;
-						result.notifyAll();
-					}
+					Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
+					result.complete(true);
 				}
 				else
 				{
 					Log.w(TAG, "stopCameraPreviewInternal() - Wait for camera preview stop");
+					result.detach();
 					camera.addCallback(Camera.PROP_PREVIEW_STATE, new PropertyChangedCallback<OperationState>()
 					{
 						@Override
@@ -2077,12 +2302,8 @@ public class CameraThread extends BaseThread implements ComponentOwner
 						{
 							if(e.getOldValue() == OperationState.STOPPING)
 							{
-								synchronized(result)
-								{
-									Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
-									result[0] = true;
-									result.notifyAll();
-								}
+								Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
+								result.complete(true);
 								camera.removeCallback(Camera.PROP_PREVIEW_STATE, this);
 							}
 						}
@@ -2096,12 +2317,8 @@ public class CameraThread extends BaseThread implements ComponentOwner
 			Log.e(TAG, "stopCameraPreviewInternal() - Error stopping camera preview", ex);
 			if(result != null)
 			{
-				synchronized(result)
-				{
-					Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
-					result[0] = true;
-					result.notifyAll();
-				}
+				Log.w(TAG, "stopCameraPreviewInternal() - Notify waiting thread");
+				result.complete(false);
 			}
 			return false;
 		}
@@ -2109,18 +2326,11 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	
 	
 	// Stop photo capture.
-	private void stopPhotoCapture(final PhotoCaptureHandle handle)
+	private void stopPhotoCapture(PhotoCaptureHandle handle)
 	{
 		if(this.isDependencyThread())
 			this.stopPhotoCaptureInternal(handle);
-		else if(!HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				stopPhotoCaptureInternal(handle);
-			}
-		}))
+		else if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_STOP_PHOTO_CAPTURE, handle).send(this))
 		{
 			Log.e(TAG, "stopPhotoCapture() - Fail to perform cross-thread operation");
 		}
@@ -2179,18 +2389,11 @@ public class CameraThread extends BaseThread implements ComponentOwner
 	
 	
 	// Stop video recording.
-	private void stopVideoCapture(final VideoCaptureHandle handle, final int flags)
+	private void stopVideoCapture(VideoCaptureHandle handle, int flags)
 	{
 		if(this.isDependencyThread())
 			this.stopVideoCaptureInternal(handle, flags);
-		else if(!HandlerUtils.post(this, new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				stopVideoCaptureInternal(handle, flags);
-			}
-		}))
+		else if(!CrossThreadCommand.obtain(m_CommandPerformer, CMD_STOP_VIDEO_CAPTURE, flags, 0, handle, null, null).send(this))
 		{
 			Log.e(TAG, "stopVideoCapture() - Fail to perform cross-thread operation");
 		}
@@ -2264,7 +2467,7 @@ public class CameraThread extends BaseThread implements ComponentOwner
 		// save video
 		if(!isStarting)
 		{
-			VideoSaveTask saveTask = new VideoSaveTask(this.getContext(), m_VideoFilePath);
+			VideoSaveTask saveTask = new VideoSaveTask(this.getContext(), handle, m_VideoFilePath);
 			m_ComponentManager.findComponent(FileManager.class, this).saveMedia(saveTask, 0);
 		}
 		
@@ -1,16 +1,17 @@
 package com.oneplus.camera;
 
 import com.oneplus.base.component.Component;
-import com.oneplus.base.component.ComponentBuilder;
 import com.oneplus.base.component.ComponentCreationPriority;
+import com.oneplus.base.component.ParallelComponentBuilder;
 
 /**
  * Base class for component builder to build {@link CameraThreadComponent}.
  */
-public abstract class CameraThreadComponentBuilder implements ComponentBuilder
+public abstract class CameraThreadComponentBuilder implements ParallelComponentBuilder
 {
 	// Private fields
 	private final Class<? extends CameraThreadComponent> m_ComponentType;
+	private final Class<?>[] m_Dependencies;
 	private final ComponentCreationPriority m_Priority;
 	
 	
@@ -30,6 +31,18 @@ public abstract class CameraThreadComponentBuilder implements ComponentBuilder
 	 * @param componentType Type of component.
 	 */
 	protected CameraThreadComponentBuilder(ComponentCreationPriority priority, Class<? extends CameraThreadComponent> componentType)
+	{
+		this(priority, componentType, (Class<?>[])null);
+	}
+	
+	
+	/**
+	 * Initialize new CameraThreadComponentBuilder instance.
+	 * @param priority Component category.
+	 * @param componentType Type of component.
+	 * @param dependencies Types of components which should be created before this component, or Null if there is no dependency.
+	 */
+	protected CameraThreadComponentBuilder(ComponentCreationPriority priority, Class<? extends CameraThreadComponent> componentType, Class<?>... dependencies)
 	{
 		if(priority == null)
 			throw new IllegalArgumentException("No creation priority.");
@@ -37,6 +50,7 @@ public abstract class CameraThreadComponentBuilder implements ComponentBuilder
 			throw new IllegalArgumentException("No component type.");
 		m_Priority = priority;
 		m_ComponentType = componentType;
+		m_Dependencies = dependencies;
 	}
 	
 	
@@ -60,6 +74,14 @@ public abstract class CameraThreadComponentBuilder implements ComponentBuilder
 	protected abstract CameraThreadComponent create(CameraThread cameraThread);
 	
 	
+	// Get types of depended components.
+	@Override
+	public Class<?>[] getDependencies()
+	{
+		return m_Dependencies;
+	}
+	
+	
 	// Get priority.
 	public final ComponentCreationPriority getPriority()
 	{
@@ -67,6 +89,22 @@ public abstract class CameraThreadComponentBuilder implements ComponentBuilder
 	}
 
 	
+	/**
+	 * Prepare for creating component in worker thread. Default implementation loads and initializes component class, override this method to do more thread-safe preparation.
+	 * @param args Creation arguments.
+	 */
+	@Override
+	public void prepare(Object... args)
+	{
+		try
+		{
+			Class.forName(m_ComponentType.getName(), true, m_ComponentType.getClassLoader());
+		}
+		catch(ClassNotFoundException ex)
+		{}
+	}
+	
+	
 	// Check whether given component type is supported or not.
 	@Override
 	public boolean isComponentTypeSupported(Class<?> componentType)
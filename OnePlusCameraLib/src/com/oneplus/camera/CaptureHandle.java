@@ -1,6 +1,15 @@
 package com.oneplus.camera;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 import com.oneplus.base.Handle;
+import com.oneplus.base.HandlerObject;
+import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.Log;
+import com.oneplus.camera.media.MediaEventArgs;
 import com.oneplus.camera.media.MediaType;
 
 /**
@@ -8,8 +17,67 @@ import com.oneplus.camera.media.MediaType;
  */
 public abstract class CaptureHandle extends Handle
 {
+	/**
+	 * Executor to execute continuation directly in the thread which completes the stage.
+	 */
+	public static final Executor DIRECT_EXECUTOR = new Executor()
+	{
+		@Override
+		public void execute(Runnable command)
+		{
+			command.run();
+		}
+	};
+	
+	
+	/**
+	 * Continuation of capture stage.
+	 * @param <TArgs> Type of stage arguments.
+	 */
+	public interface Continuation<TArgs>
+	{
+		/**
+		 * Called when capture stage completes.
+		 * @param handle Capture handle.
+		 * @param args Stage arguments, recyclable arguments are recycled after returning from this method.
+		 */
+		void onStageCompleted(CaptureHandle handle, TArgs args);
+	}
+	
+	
+	// Constants
+	private static final String TAG = "CaptureHandle";
+	private static final int STAGE_SHUTTER = 0;
+	private static final int STAGE_PICTURE_RECEIVED = 1;
+	private static final int STAGE_SAVED = 2;
+	private static final int STAGE_FAILED = 3;
+	
+	
 	// Private fields
+	private final Object m_ContinuationLock = new Object();
+	private List<ContinuationEntry> m_Continuations;
+	private CaptureEventArgs m_FailedEventArgs;
 	private final MediaType m_MediaType;
+	private List<MediaEventArgs> m_SavedEventArgs;
+	
+	
+	// Class for registered continuation.
+	private static final class ContinuationEntry
+	{
+		public final Continuation<Object> continuation;
+		public final Executor executor;
+		public final int stage;
+		public final HandlerObject target;
+		
+		@SuppressWarnings("unchecked")
+		public ContinuationEntry(int stage, HandlerObject target, Executor executor, Continuation<?> continuation)
+		{
+			this.stage = stage;
+			this.target = target;
+			this.executor = executor;
+			this.continuation = (Continuation<Object>)continuation;
+		}
+	}
 	
 	
 	/**
@@ -25,6 +93,241 @@ public abstract class CaptureHandle extends Handle
 	}
 	
 	
+	// Add continuation.
+	private CaptureHandle addContinuation(int stage, HandlerObject target, Executor executor, Continuation<?> continuation)
+	{
+		// check parameters
+		if(continuation == null)
+			throw new IllegalArgumentException("No continuation.");
+		if(target == null && executor == null)
+			throw new IllegalArgumentException("No target or executor.");
+		
+		// add continuation and collect completed stages
+		ContinuationEntry entry = new ContinuationEntry(stage, target, executor, continuation);
+		Object[] completedArgs = null;
+		synchronized(m_ContinuationLock)
+		{
+			if(m_Continuations == null)
+				m_Continuations = new ArrayList<>();
+			m_Continuations.add(entry);
+			switch(stage)
+			{
+				case STAGE_SAVED:
+					if(m_SavedEventArgs != null)
+						completedArgs = m_SavedEventArgs.toArray();
+					break;
+				case STAGE_FAILED:
+					if(m_FailedEventArgs != null)
+						completedArgs = new Object[]{ m_FailedEventArgs };
+					break;
+			}
+		}
+		
+		// execute for completed stages
+		if(completedArgs != null)
+		{
+			for(int i = 0 ; i < completedArgs.length ; ++i)
+				this.executeContinuation(entry, completedArgs[i]);
+		}
+		return this;
+	}
+	
+	
+	/**
+	 * Notify that capture failed. Only the first call takes effect.
+	 */
+	protected final void completeFailed()
+	{
+		CaptureEventArgs e;
+		synchronized(m_ContinuationLock)
+		{
+			if(m_FailedEventArgs != null)
+				return;
+			m_FailedEventArgs = new CaptureEventArgs(this);
+			e = m_FailedEventArgs;
+		}
+		this.completeStage(STAGE_FAILED, e);
+	}
+	
+	
+	/**
+	 * Notify that captured picture is received.
+	 * @param e Event data, it can be recycled after returning from this method.
+	 */
+	protected final void completePictureReceived(CameraCaptureEventArgs e)
+	{
+		this.completeStage(STAGE_PICTURE_RECEIVED, e);
+	}
+	
+	
+	/**
+	 * Notify that captured media is saved.
+	 * @param e Event data.
+	 */
+	protected final void completeSaved(MediaEventArgs e)
+	{
+		synchronized(m_ContinuationLock)
+		{
+			if(m_SavedEventArgs == null)
+				m_SavedEventArgs = new ArrayList<>();
+			m_SavedEventArgs.add(e);
+		}
+		this.completeStage(STAGE_SAVED, e);
+	}
+	
+	
+	/**
+	 * Notify that shutter of a frame is triggered.
+	 * @param e Event data, it can be recycled after returning from this method.
+	 */
+	protected final void completeShutter(CameraCaptureEventArgs e)
+	{
+		this.completeStage(STAGE_SHUTTER, e);
+	}
+	
+	
+	// Execute continuations of given stage.
+	private void completeStage(int stage, Object args)
+	{
+		// collect continuations
+		ContinuationEntry entry = null;
+		List<ContinuationEntry> entries = null;
+		synchronized(m_ContinuationLock)
+		{
+			if(m_Continuations == null)
+				return;
+			for(int i = 0, count = m_Continuations.size() ; i < count ; ++i)
+			{
+				ContinuationEntry candidate = m_Continuations.get(i);
+				if(candidate.stage != stage)
+					continue;
+				if(entry == null)
+					entry = candidate;
+				else
+				{
+					if(entries == null)
+					{
+						entries = new ArrayList<>();
+						entries.add(entry);
+					}
+					entries.add(candidate);
+				}
+			}
+		}
+		
+		// execute
+		if(entries != null)
+		{
+			for(int i = 0, count = entries.size() ; i < count ; ++i)
+				this.executeContinuation(entries.get(i), args);
+		}
+		else if(entry != null)
+			this.executeContinuation(entry, args);
+	}
+	
+	
+	// Execute continuation directly or asynchronously.
+	private void executeContinuation(final ContinuationEntry entry, Object args)
+	{
+		// execute directly
+		if(entry.executor == DIRECT_EXECUTOR || (entry.target != null && entry.target.isDependencyThread()))
+		{
+			entry.continuation.onStageCompleted(this, args);
+			return;
+		}
+		
+		// copy recyclable arguments
+		final Object asyncArgs;
+		if(args instanceof CameraCaptureEventArgs)
+		{
+			CameraCaptureEventArgs e = (CameraCaptureEventArgs)args;
+			asyncArgs = CameraCaptureEventArgs.obtain(e.getHandle(), e.getFrameIndex(), e.getCaptureResult(), e.getPicture(), e.getPictureFormat(), e.getPictureSize());
+		}
+		else
+			asyncArgs = args;
+		
+		// execute asynchronously
+		Runnable runnable = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					entry.continuation.onStageCompleted(CaptureHandle.this, asyncArgs);
+				}
+				finally
+				{
+					if(asyncArgs instanceof CameraCaptureEventArgs)
+						((CameraCaptureEventArgs)asyncArgs).recycle();
+				}
+			}
+		};
+		boolean isPosted;
+		if(entry.target != null)
+			isPosted = HandlerUtils.post(entry.target, runnable);
+		else
+		{
+			try
+			{
+				entry.executor.execute(runnable);
+				isPosted = true;
+			}
+			catch(RejectedExecutionException ex)
+			{
+				isPosted = false;
+			}
+		}
+		if(!isPosted)
+		{
+			Log.e(TAG, "executeContinuation() - Fail to execute continuation of stage " + entry.stage + " for " + this);
+			if(asyncArgs instanceof CameraCaptureEventArgs)
+				((CameraCaptureEventArgs)asyncArgs).recycle();
+		}
+	}
+	
+	
+	/**
+	 * Complete stages of this handle when stages of given handle complete.
+	 * @param source Handle to follow.
+	 */
+	protected final void followStages(CaptureHandle source)
+	{
+		source.onShutter(DIRECT_EXECUTOR, new Continuation<CameraCaptureEventArgs>()
+		{
+			@Override
+			public void onStageCompleted(CaptureHandle handle, CameraCaptureEventArgs args)
+			{
+				completeShutter(args);
+			}
+		});
+		source.onPictureReceived(DIRECT_EXECUTOR, new Continuation<CameraCaptureEventArgs>()
+		{
+			@Override
+			public void onStageCompleted(CaptureHandle handle, CameraCaptureEventArgs args)
+			{
+				completePictureReceived(args);
+			}
+		});
+		source.onSaved(DIRECT_EXECUTOR, new Continuation<MediaEventArgs>()
+		{
+			@Override
+			public void onStageCompleted(CaptureHandle handle, MediaEventArgs args)
+			{
+				completeSaved(args);
+			}
+		});
+		source.onFailed(DIRECT_EXECUTOR, new Continuation<CaptureEventArgs>()
+		{
+			@Override
+			public void onStageCompleted(CaptureHandle handle, CaptureEventArgs args)
+			{
+				completeFailed();
+			}
+		});
+	}
+	
+	
 	/**
 	 * Get captured media type.
 	 * @return Media type.
@@ -33,4 +336,100 @@ public abstract class CaptureHandle extends Handle
 	{
 		return m_MediaType;
 	}
+	
+	
+	/**
+	 * Add continuation to be executed when capture fails. It will be executed immediately if capture has already failed.
+	 * @param executor Executor to execute continuation, or {@link #DIRECT_EXECUTOR} to execute in the thread which completes the stage.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onFailed(Executor executor, Continuation<? super CaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_FAILED, null, executor, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when capture fails. It will be executed immediately if capture has already failed.
+	 * @param target Object owns the thread to execute continuation, it will be executed directly if the stage completes in that thread.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onFailed(HandlerObject target, Continuation<? super CaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_FAILED, target, null, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when each captured picture is received. Only pictures received after calling this method are delivered.
+	 * @param executor Executor to execute continuation, or {@link #DIRECT_EXECUTOR} to execute in the thread which completes the stage.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onPictureReceived(Executor executor, Continuation<? super CameraCaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_PICTURE_RECEIVED, null, executor, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when each captured picture is received. Only pictures received after calling this method are delivered.
+	 * @param target Object owns the thread to execute continuation, it will be executed directly if the stage completes in that thread.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onPictureReceived(HandlerObject target, Continuation<? super CameraCaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_PICTURE_RECEIVED, target, null, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when each captured media is saved. Media saved before calling this method are also delivered.
+	 * @param executor Executor to execute continuation, or {@link #DIRECT_EXECUTOR} to execute in the thread which completes the stage.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onSaved(Executor executor, Continuation<? super MediaEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_SAVED, null, executor, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when each captured media is saved. Media saved before calling this method are also delivered.
+	 * @param target Object owns the thread to execute continuation, it will be executed directly if the stage completes in that thread.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onSaved(HandlerObject target, Continuation<? super MediaEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_SAVED, target, null, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when shutter of each frame is triggered. Only shutters triggered after calling this method are delivered.
+	 * @param executor Executor to execute continuation, or {@link #DIRECT_EXECUTOR} to execute in the thread which completes the stage.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onShutter(Executor executor, Continuation<? super CameraCaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_SHUTTER, null, executor, continuation);
+	}
+	
+	
+	/**
+	 * Add continuation to be executed when shutter of each frame is triggered. Only shutters triggered after calling this method are delivered.
+	 * @param target Object owns the thread to execute continuation, it will be executed directly if the stage completes in that thread.
+	 * @param continuation Continuation.
+	 * @return This handle.
+	 */
+	public final CaptureHandle onShutter(HandlerObject target, Continuation<? super CameraCaptureEventArgs> continuation)
+	{
+		return this.addContinuation(STAGE_SHUTTER, target, null, continuation);
+	}
 }
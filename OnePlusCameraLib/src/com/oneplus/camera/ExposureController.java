@@ -5,6 +5,7 @@ import java.util.List;
 
 import android.util.Range;
 
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.PropertyKey;
 import com.oneplus.base.component.Component;
@@ -22,7 +23,7 @@ public interface ExposureController extends Component
 	/**
 	 * Property to get or set exposure compensation in EV.
 	 */
-	PropertyKey<Float> PROP_EXPOSURE_COMPENSATION = new PropertyKey<>("ExposureCompensation", Float.class, ExposureController.class, PropertyKey.FLAG_NOT_NULL, 0f);
+	FloatPropertyKey PROP_EXPOSURE_COMPENSATION = new FloatPropertyKey("ExposureCompensation", ExposureController.class, PropertyKey.FLAG_NOT_NULL, 0f);
 	/**
 	 * Read-only property to get exposure compensation range in EV.
 	 */
@@ -5,6 +5,7 @@ import java.util.List;
 
 import android.util.Range;
 
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
@@ -149,7 +150,7 @@ final class ExposureControllerImpl extends CameraComponent implements ExposureCo
 		if(key == Camera.PROP_AE_REGIONS)
 			super.set(PROP_AE_REGIONS, (List<MeteringRect>)newValue);
 		else if(key == Camera.PROP_EXPOSURE_COMPENSATION)
-			super.set(PROP_EXPOSURE_COMPENSATION, (Float)newValue);
+			super.setFloat(PROP_EXPOSURE_COMPENSATION, (Float)newValue);
 		else if(key == Camera.PROP_EXPOSURE_COMPENSATION_RANGE)
 			super.setReadOnly(PROP_EXPOSURE_COMPENSATION_RANGE, (Range<Float>)newValue);
 		else if(key == Camera.PROP_EXPOSURE_COMPENSATION_STEP)
@@ -208,6 +209,16 @@ final class ExposureControllerImpl extends CameraComponent implements ExposureCo
 	}
 	
 	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key == PROP_EXPOSURE_COMPENSATION)
+			return this.setExposureCompensationProp(value);
+		return super.setFloat(key, value);
+	}
+	
+	
 	// Set PROP_AE_REGIONS property.
 	private boolean setAERegionsProp(List<MeteringRect> regions)
 	{
@@ -251,8 +262,8 @@ final class ExposureControllerImpl extends CameraComponent implements ExposureCo
 			return false;
 		}
 		
-		// set AE regions
-		return camera.set(Camera.PROP_EXPOSURE_COMPENSATION, ev);
+		// set exposure compensation
+		return camera.setFloat(Camera.PROP_EXPOSURE_COMPENSATION, ev);
 	}
 	
 	
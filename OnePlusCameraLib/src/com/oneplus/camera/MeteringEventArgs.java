@@ -1,25 +1,33 @@
 package com.oneplus.camera;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import com.oneplus.base.EventArgs;
 import com.oneplus.base.Handle;
+import com.oneplus.base.ObjectPool;
+import com.oneplus.base.RecyclableObject;
 import com.oneplus.camera.Camera.MeteringRect;
 
 /**
  * Data for camera metering related events.
  */
-public class MeteringEventArgs extends EventArgs
+public class MeteringEventArgs extends EventArgs implements RecyclableObject
 {
 	// Constants.
 	private static final int POOL_SIZE = 8;
 	
 	
 	// Private static fields.
-	private static final ArrayDeque<MeteringEventArgs> POOL = new ArrayDeque<>(POOL_SIZE);
+	private static final ObjectPool<MeteringEventArgs> POOL = new ObjectPool<>("MeteringEventArgs", POOL_SIZE, new ObjectPool.Factory<MeteringEventArgs>()
+	{
+		@Override
+		public MeteringEventArgs create()
+		{
+			return new MeteringEventArgs();
+		}
+	});
 	
 	
 	// Private fields.
@@ -81,13 +89,10 @@ public class MeteringEventArgs extends EventArgs
 	 * @param isSuccessful Whether metering is successful or not.
 	 * @return {@link MeteringEventArgs} instance.
 	 */
-	public static synchronized MeteringEventArgs obtain(Handle handle, List<MeteringRect> regions, boolean isSuccessful)
+	public static MeteringEventArgs obtain(Handle handle, List<MeteringRect> regions, boolean isSuccessful)
 	{
-		MeteringEventArgs e = POOL.pollLast();
-		if(e != null)
-			e.m_IsFreeInstance = false;
-		else
-			e = new MeteringEventArgs();
+		MeteringEventArgs e = POOL.obtain();
+		e.m_IsFreeInstance = false;
 		if(regions != null)
 		{
 			for(int i = regions.size() - 1 ; i >= 0 ; --i)
@@ -104,16 +109,16 @@ public class MeteringEventArgs extends EventArgs
 	 */
 	public final void recycle()
 	{
-		synchronized(MeteringEventArgs.class)
+		if(m_IsFreeInstance)
 		{
-			if(!m_IsFreeInstance)
-			{
-				m_IsFreeInstance = true;
-				m_Regions.clear();
-				m_Handle = null;
-			}
-			if(POOL.size() < POOL_SIZE)
-				POOL.addLast(this);
+			if(ObjectPool.ENABLE_RECYCLING_CHECK)
+				throw new IllegalStateException("Instance has already been recycled.");
+			return;
 		}
+		m_IsFreeInstance = true;
+		m_Regions.clear();
+		m_Handle = null;
+		this.clearHandledState();
+		POOL.recycle(this);
 	}
 }
@@ -18,6 +18,7 @@ import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
+import com.oneplus.base.PropertyMirror;
 import com.oneplus.base.PropertySource;
 import com.oneplus.base.RecyclableObject;
 import com.oneplus.base.component.Component;
@@ -33,7 +34,6 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 {
 	// Constants.
 	private static final int MSG_TARGET_EVENT_RAISED = -10000;
-	private static final int MSG_TARGET_PROPERTY_CHANGED = -10001;
 	
 	
 	// Private fields.
@@ -41,7 +41,10 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 	private final LinkedList<AsyncMethodCallHandle> m_PendingAsyncMethodCalls = new LinkedList<>();
 	private TTarget m_Target;
 	private final Class<? extends TTarget> m_TargetClass;
+	private EventHandler<?> m_TargetEventHandler;
+	private List<EventKey<?>> m_TargetEventKeys;
 	private ComponentOwner m_TargetOwner;
+	private PropertyMirror m_TargetPropertyMirror;
 	
 	
 	// Call-backs.
@@ -102,14 +105,12 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 	 * Initialize new ProxyComponent instance.
 	 * @param name Component name.
 	 * @param cameraThread {@link CameraThread} instance.
-	 * @param targetOwner Target component owner.
+	 * @param targetOwner Target component owner, or Null to bind after calling {@link #setTargetOwner(ComponentOwner)}.
 	 * @param targetType Type of target component.
 	 */
 	protected ProxyComponent(String name, CameraThread cameraThread, ComponentOwner targetOwner, Class<? extends TTarget> targetType)
 	{
 		super(name, cameraThread, true);
-		if(targetOwner == null)
-			throw new IllegalArgumentException("No target component owner.");
 		if(targetType == null)
 			throw new IllegalArgumentException("No target type.");
 		m_TargetClass = targetType;
@@ -133,6 +134,11 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 			Log.e(TAG, "bindToTarget() - Component is not running");
 			return false;
 		}
+		if(m_TargetOwner == null)
+		{
+			Log.v(TAG, "bindToTarget() - No target component owner, start binding after setting owner");
+			return true;
+		}
 		
 		// start binding
 		if(m_TargetOwner instanceof CameraThread)
@@ -307,13 +313,6 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 				break;
 			}
 			
-			case MSG_TARGET_PROPERTY_CHANGED:
-			{
-				Object[] array = (Object[])msg.obj;
-				this.onTargetPropertyChanged((Long)array[0], (PropertyKey<?>)array[1], (PropertyChangeEventArgs<?>)array[2]);
-				break;
-			}
-			
 			default:
 				super.handleMessage(msg);
 				break;
@@ -351,11 +350,7 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 	@Override
 	protected void onDeinitialize()
 	{
-		if(m_IsCameraThreadStartedCallback != null)
-		{
-			this.getCameraActivity().removeCallback(CameraActivity.PROP_IS_CAMERA_THREAD_STARTED, m_IsCameraThreadStartedCallback);
-			m_IsCameraThreadStartedCallback = null;
-		}
+		this.unbindFromTarget();
 		super.onDeinitialize();
 	}
 	
@@ -419,6 +414,41 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 		// bind to target events and properties
 		if(!eventKeys.isEmpty() || !propertyKeys.isEmpty())
 		{
+			// create event handler and property mirror, they are kept to unbind from target later
+			final EventHandler<?> handler;
+			final PropertyMirror mirror;
+			if(!eventKeys.isEmpty())
+			{
+				handler = new EventHandler<EventArgs>()
+				{
+					@Override
+					public void onEventReceived(EventSource source, EventKey<EventArgs> key, EventArgs e)
+					{
+						HandlerUtils.sendMessage(ProxyComponent.this, MSG_TARGET_EVENT_RAISED, 0, 0, new Object[]{ SystemClock.elapsedRealtimeNanos(), key, e.clone() });
+					}
+				};
+			}
+			else
+				handler = null;
+			if(!propertyKeys.isEmpty())
+			{
+				mirror = new PropertyMirror(this, propertyKeys, new PropertyMirror.Callback()
+				{
+					@Override
+					public void onPropertyChanged(PropertyKey<?> key, long time, PropertyChangeEventArgs<?> e)
+					{
+						if(m_Target == target)
+							onTargetPropertyChanged(time, key, e);
+					}
+				});
+			}
+			else
+				mirror = null;
+			m_TargetEventHandler = handler;
+			m_TargetEventKeys = eventKeys;
+			m_TargetPropertyMirror = mirror;
+			
+			// bind in target thread
 			if(!HandlerUtils.post(m_TargetOwner, new Runnable()
 			{
 				@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -426,37 +456,20 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 				public void run()
 				{
 					// bind to events
-					if(!eventKeys.isEmpty())
+					if(handler != null)
 					{
-						EventHandler handler = new EventHandler()
-						{
-							@Override
-							public void onEventReceived(EventSource source, EventKey key, EventArgs e)
-							{
-								HandlerUtils.sendMessage(ProxyComponent.this, MSG_TARGET_EVENT_RAISED, 0, 0, new Object[]{ SystemClock.elapsedRealtimeNanos(), key, e.clone() });
-							}
-						};
 						for(int i = eventKeys.size() - 1 ; i >= 0 ; --i)
-							target.addHandler(eventKeys.get(i), handler);
+							target.addHandler((EventKey)eventKeys.get(i), handler);
 					}
 					
-					// bind to properties
-					if(!propertyKeys.isEmpty())
+					// bind to properties, only latest values will be applied
+					if(mirror != null)
 					{
-						PropertyChangedCallback callback = new PropertyChangedCallback()
-						{
-							@Override
-							public void onPropertyChanged(PropertySource source, PropertyKey key, PropertyChangeEventArgs e)
-							{
-								HandlerUtils.sendMessage(ProxyComponent.this, MSG_TARGET_PROPERTY_CHANGED, 0, 0, new Object[]{ SystemClock.elapsedRealtimeNanos(), key, e.clone() });
-							}
-						};
+						mirror.bind(target);
 						for(int i = propertyKeys.size() - 1 ; i >= 0 ; --i)
 						{
 							PropertyKey<?> key = propertyKeys.get(i);
-							Object value = target.get(key);
-							target.addCallback(key, callback);
-							HandlerUtils.sendMessage(ProxyComponent.this, MSG_TARGET_PROPERTY_CHANGED, 0, 0, new Object[]{ SystemClock.elapsedRealtimeNanos(), key, PropertyChangeEventArgs.obtain(key.defaultValue, value) });
+							mirror.update(key, key.defaultValue, target.get(key));
 						}
 					}
 					
@@ -481,6 +494,9 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 			{
 				Log.e(TAG, "onTargetFound() - Fail to bind to target events and properties asynchronously");
 				m_Target = null;
+				m_TargetEventHandler = null;
+				m_TargetEventKeys = null;
+				m_TargetPropertyMirror = null;
 				return;
 			}
 		}
@@ -509,7 +525,7 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 	 * Called after target property changed.
 	 * @param time Changed time, use {@link SystemClock#elapsedRealtimeNanos()} to check with current time.
 	 * @param key Property key.
-	 * @param e Event data.
+	 * @param e Event data, it will be recycled after returning.
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	protected void onTargetPropertyChanged(long time, PropertyKey<?> key, PropertyChangeEventArgs<?> e)
@@ -521,6 +537,73 @@ public abstract class ProxyComponent<TTarget extends Component> extends CameraCo
 			else
 				super.set((PropertyKey)key, e.getNewValue());
 		}
-		e.recycle();
+	}
+	
+	
+	/**
+	 * Change owner of target component, current target component will be unbound.
+	 * @param targetOwner New target component owner, or Null to unbind from current target component only.
+	 */
+	protected final void setTargetOwner(ComponentOwner targetOwner)
+	{
+		// check state
+		this.verifyAccess();
+		if(m_TargetOwner == targetOwner)
+			return;
+		
+		Log.v(TAG, "setTargetOwner() - Change target owner from ", m_TargetOwner, " to ", targetOwner);
+		
+		// unbind from current target
+		this.unbindFromTarget();
+		
+		// bind to new target
+		m_TargetOwner = targetOwner;
+		if(targetOwner != null && this.isRunningOrInitializing())
+			this.bindToTarget();
+	}
+	
+	
+	// Unbind from current target component.
+	private void unbindFromTarget()
+	{
+		// remove call-backs
+		if(m_IsCameraThreadStartedCallback != null)
+		{
+			this.getCameraActivity().removeCallback(CameraActivity.PROP_IS_CAMERA_THREAD_STARTED, m_IsCameraThreadStartedCallback);
+			m_IsCameraThreadStartedCallback = null;
+		}
+		
+		// update state
+		final TTarget target = m_Target;
+		final EventHandler<?> handler = m_TargetEventHandler;
+		final List<EventKey<?>> eventKeys = m_TargetEventKeys;
+		final PropertyMirror mirror = m_TargetPropertyMirror;
+		m_Target = null;
+		m_IsBindingToTarget = false;
+		m_TargetEventHandler = null;
+		m_TargetEventKeys = null;
+		m_TargetPropertyMirror = null;
+		
+		// unbind from target events and properties in target thread, target keeps proxy alive otherwise
+		if(target == null || (handler == null && mirror == null))
+			return;
+		if(!HandlerUtils.post(m_TargetOwner, new Runnable()
+		{
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			@Override
+			public void run()
+			{
+				if(handler != null)
+				{
+					for(int i = eventKeys.size() - 1 ; i >= 0 ; --i)
+						target.removeHandler((EventKey)eventKeys.get(i), handler);
+				}
+				if(mirror != null)
+					mirror.unbind(target);
+			}
+		}))
+		{
+			Log.w(TAG, "unbindFromTarget() - Fail to unbind from target events and properties asynchronously");
+		}
 	}
 }
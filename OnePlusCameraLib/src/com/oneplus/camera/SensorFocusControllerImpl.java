@@ -13,6 +13,7 @@ import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
 import com.oneplus.base.PropertyKey;
 import com.oneplus.base.PropertySource;
+import com.oneplus.base.ValueStream;
 import com.oneplus.base.BaseActivity.State;
 import com.oneplus.camera.ui.TouchAutoFocusUI;
 
@@ -21,11 +22,13 @@ final class SensorFocusControllerImpl extends CameraComponent
 	// Constants.
 	private static final long DURATION_SENSOR_AF_AFTER_TOUCH_AF = 3000;
 	private static final long DURATION_START_SENSOR_AF = 500;
+	private static final long INTERVAL_ACCELEROMETER_SAMPLE = 100;
 	private static final float STABLE_THRESHOLD = 1.5f;
 	private static final int MSG_START_AF = 10000;
 	
 	
 	// Private fields.
+	private Handle m_AccelerometerValuesHandle;
 	private SensorAfState m_AfState = SensorAfState.UNSTABLE;
 	private ExposureController m_ExposureController;
 	private FocusController m_FocusController;
@@ -60,7 +63,7 @@ final class SensorFocusControllerImpl extends CameraComponent
 			return false;
 		
 		// check preview state
-		if(!cameraActivity.get(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
+		if(!cameraActivity.getBoolean(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
 			return false;
 		
 		// check touch state
@@ -156,6 +159,18 @@ final class SensorFocusControllerImpl extends CameraComponent
 	}
 	
 	
+	// Deinitialize.
+	@Override
+	protected void onDeinitialize()
+	{
+		// stop sampling accelerometer values
+		m_AccelerometerValuesHandle = Handle.close(m_AccelerometerValuesHandle);
+		
+		// call super
+		super.onDeinitialize();
+	}
+	
+	
 	// Initialize.
 	@Override
 	protected void onInitialize()
@@ -183,13 +198,20 @@ final class SensorFocusControllerImpl extends CameraComponent
 			});
 		}
 		
-		// add property changed call-backs
-		cameraActivity.addCallback(CameraActivity.PROP_ACCELEROMETER_VALUES, new PropertyChangedCallback<float[]>()
+		// add property changed call-backs (values array is reused by camera activity, copy it before sampling)
+		m_AccelerometerValuesHandle = ValueStream.fromProperty(cameraActivity, CameraActivity.PROP_ACCELEROMETER_VALUES).map(new ValueStream.Mapper<float[], float[]>()
+		{
+			@Override
+			public float[] map(float[] values)
+			{
+				return values.clone();
+			}
+		}).sample(INTERVAL_ACCELEROMETER_SAMPLE).subscribe(this, new ValueStream.Subscriber<float[]>()
 		{
 			@Override
-			public void onPropertyChanged(PropertySource source, PropertyKey<float[]> key, PropertyChangeEventArgs<float[]> e)
+			public void onNext(float[] values)
 			{
-				onAccelerometerValuesChanged(e.getNewValue());
+				onAccelerometerValuesChanged(values);
 			}
 		});
 		cameraActivity.addCallback(CameraActivity.PROP_IS_TOUCHING_ON_SCREEN, new PropertyChangedCallback<Boolean>()
@@ -218,7 +240,7 @@ final class SensorFocusControllerImpl extends CameraComponent
 							&& m_ExposureController != null)
 					{
 						m_ExposureController.set(ExposureController.PROP_AE_REGIONS, null);
-						m_ExposureController.set(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
+						m_ExposureController.setFloat(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
 						m_IsAEResetNeeded = false;
 					}
 				}
@@ -266,7 +288,7 @@ final class SensorFocusControllerImpl extends CameraComponent
 		if(m_ExposureController != null)
 		{
 			m_ExposureController.set(ExposureController.PROP_AE_REGIONS, null);
-			m_ExposureController.set(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
+			m_ExposureController.setFloat(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
 			m_IsAEResetNeeded = false;
 		}
 		
@@ -2,15 +2,17 @@ package com.oneplus.camera;
 
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.os.Message;
 import android.preference.PreferenceManager;
 
+import com.oneplus.base.ContentionProfiler;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.HandlerBaseObject;
 import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.Log;
 
 /**
  * Application settings.
@@ -23,11 +25,8 @@ public class Settings extends HandlerBaseObject
 	public static final EventKey<SettingsValueChangedEventArgs> EVENT_VALUE_CHANGED = new EventKey<>("ValueChanged", SettingsValueChangedEventArgs.class, Settings.class);
 	
 	
-	// Constants
-	private static final int MSG_VALUE_CHANGED = 10000;
-	
-	
 	// Private static fields
+	private static final ContentionProfiler.Site CONTENTION_SITE_PRIVATE_KEYS = (ContentionProfiler.ENABLED ? ContentionProfiler.createSite("Settings.PRIVATE_KEYS") : null);
 	private static final ThreadLocal<SharedPreferences> GLOBAL_PREFS = new ThreadLocal<>();
 	private static final Hashtable<String, Object> GLOBAL_DEFAULT_VALUES = new Hashtable<>();
 	private static final HashSet<String> PRIVATE_KEYS = new HashSet<>();
@@ -37,15 +36,21 @@ public class Settings extends HandlerBaseObject
 	private final SharedPreferences m_GlobalPreferences;
 	private final boolean m_IsVolatile;
 	private final String m_Name;
+	private final Runnable m_NotifyPendingValueChangesRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			notifyPendingValueChanges();
+		}
+	};
+	private final LinkedHashSet<String> m_PendingChangedKeys = new LinkedHashSet<>();
 	private final SharedPreferences.OnSharedPreferenceChangeListener m_PreferenceChangedListener = new SharedPreferences.OnSharedPreferenceChangeListener()
 	{
 		@Override
 		public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key)
 		{
-			if(isDependencyThread())
-				onValueChanged(key);
-			else
-				HandlerUtils.sendMessage(Settings.this, MSG_VALUE_CHANGED, 0, 0, key);
+			notifyValueChanged(key);
 		}
 	};
 	private final Hashtable<String, Object> m_PrivateDefaultValues;
@@ -110,8 +115,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public static void addPrivateKey(String key)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			PRIVATE_KEYS.add(key);
 		}
 	}
@@ -138,8 +146,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public final boolean getBoolean(String key, boolean defaultValue)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			if(!PRIVATE_KEYS.contains(key))
 				return m_GlobalPreferences.getBoolean(key, defaultValue);
 			if(!m_IsVolatile)
@@ -257,8 +268,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public final int getInt(String key, int defaultValue)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			if(!PRIVATE_KEYS.contains(key))
 				return m_GlobalPreferences.getInt(key, defaultValue);
 			if(!m_IsVolatile)
@@ -299,8 +313,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public final long getLong(String key, long defaultValue)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			if(!PRIVATE_KEYS.contains(key))
 				return m_GlobalPreferences.getLong(key, defaultValue);
 			if(!m_IsVolatile)
@@ -349,8 +366,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public final String getString(String key, String defaultValue)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			if(!PRIVATE_KEYS.contains(key))
 				return m_GlobalPreferences.getString(key, defaultValue);
 			if(!m_IsVolatile)
@@ -364,23 +384,6 @@ public class Settings extends HandlerBaseObject
 	}
 	
 	
-	// Handle message.
-	@Override
-	protected void handleMessage(Message msg)
-	{
-		switch(msg.what)
-		{
-			case MSG_VALUE_CHANGED:
-				this.onValueChanged((String)msg.obj);
-				break;
-				
-			default:
-				super.handleMessage(msg);
-				break;
-		}
-	}
-	
-	
 	/**
 	 * Check whether settings is volatile or not.
 	 * @return Whether settings is volatile or not.
@@ -391,6 +394,41 @@ public class Settings extends HandlerBaseObject
 	}
 	
 	
+	// Notify changes of pending keys (in dependency thread).
+	private void notifyPendingValueChanges()
+	{
+		String[] keys;
+		synchronized(m_PendingChangedKeys)
+		{
+			keys = m_PendingChangedKeys.toArray(new String[m_PendingChangedKeys.size()]);
+			m_PendingChangedKeys.clear();
+		}
+		for(int i = 0 ; i < keys.length ; ++i)
+			this.onValueChanged(keys[i]);
+	}
+	
+	
+	// Notify value change in dependency thread, changes of same key are collapsed if they are not delivered yet.
+	private void notifyValueChanged(String key)
+	{
+		if(this.isDependencyThread())
+		{
+			this.onValueChanged(key);
+			return;
+		}
+		synchronized(m_PendingChangedKeys)
+		{
+			if(!m_PendingChangedKeys.add(key) || m_PendingChangedKeys.size() > 1)
+				return;
+			if(!HandlerUtils.post(this, m_NotifyPendingValueChangesRunnable))
+			{
+				Log.e(TAG, "notifyValueChanged() - Fail to notify change of " + key);
+				m_PendingChangedKeys.clear();
+			}
+		}
+	}
+	
+	
 	// Called when releasing.
 	@Override
 	protected void onRelease()
@@ -400,6 +438,13 @@ public class Settings extends HandlerBaseObject
 		if(m_PrivatePreferences != null && m_PrivatePreferences != m_GlobalPreferences)
 			m_PrivatePreferences.unregisterOnSharedPreferenceChangeListener(m_PreferenceChangedListener);
 		
+		// discard pending changes
+		HandlerUtils.removeCallbacks(this, m_NotifyPendingValueChangesRunnable);
+		synchronized(m_PendingChangedKeys)
+		{
+			m_PendingChangedKeys.clear();
+		}
+		
 		// call super
 		super.onRelease();
 	}
@@ -431,8 +476,11 @@ public class Settings extends HandlerBaseObject
 	 */
 	public final void set(String key, Object value)
 	{
+		long startTime = (ContentionProfiler.ENABLED ? System.nanoTime() : 0);
 		synchronized(PRIVATE_KEYS)
 		{
+			if(ContentionProfiler.ENABLED)
+				ContentionProfiler.onAcquired(CONTENTION_SITE_PRIVATE_KEYS, startTime);
 			if(!PRIVATE_KEYS.contains(key))
 			{
 				SharedPreferences.Editor editor = m_GlobalPreferences.edit();
@@ -456,10 +504,7 @@ public class Settings extends HandlerBaseObject
 				m_PrivateVolatileValues.put(key, value.toString());
 			else if(m_PrivateVolatileValues.contains(key))
 				m_PrivateVolatileValues.remove(key);
-			if(this.isDependencyThread())
-				this.onValueChanged(key);
-			else
-				HandlerUtils.sendMessage(this, MSG_VALUE_CHANGED, 0, 0, key);
+			this.notifyValueChanged(key);
 		}
 	}
 	
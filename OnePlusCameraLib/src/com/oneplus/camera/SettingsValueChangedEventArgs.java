@@ -1,32 +1,37 @@
 package com.oneplus.camera;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
 import com.oneplus.base.EventArgs;
+import com.oneplus.base.ObjectPool;
+import com.oneplus.base.RecyclableObject;
 
 /**
  * Event data for {@link Settings#EVENT_VALUE_CHANGED}.
  */
-public class SettingsValueChangedEventArgs extends EventArgs
+public class SettingsValueChangedEventArgs extends EventArgs implements RecyclableObject
 {
 	// Constants
 	private static final int POOL_SIZE = 8;
 	
 	
 	// Private static fields
-	private static final Queue<SettingsValueChangedEventArgs> POOL = new ArrayDeque<>(POOL_SIZE);
+	private static final ObjectPool<SettingsValueChangedEventArgs> POOL = new ObjectPool<>("SettingsValueChangedEventArgs", POOL_SIZE, new ObjectPool.Factory<SettingsValueChangedEventArgs>()
+	{
+		@Override
+		public SettingsValueChangedEventArgs create()
+		{
+			return new SettingsValueChangedEventArgs();
+		}
+	});
 	
 	
 	// Private fields
+	private volatile boolean m_IsFreeInstance;
 	private volatile String m_Key;
 	
 	
 	// Constructor
-	private SettingsValueChangedEventArgs(String key)
-	{
-		m_Key = key;
-	}
+	private SettingsValueChangedEventArgs()
+	{}
 	
 	
 	/**
@@ -35,6 +40,8 @@ public class SettingsValueChangedEventArgs extends EventArgs
 	 */
 	public final String getKey()
 	{
+		if(ObjectPool.ENABLE_RECYCLING_CHECK && m_IsFreeInstance)
+			throw new IllegalStateException("Instance has been recycled.");
 		return m_Key;
 	}
 	
@@ -44,13 +51,11 @@ public class SettingsValueChangedEventArgs extends EventArgs
 	 * @param key Key of changed value.
 	 * @return {@link SettingsValueChangedEventArgs} instance.
 	 */
-	static synchronized SettingsValueChangedEventArgs obtain(String key)
+	static SettingsValueChangedEventArgs obtain(String key)
 	{
-		SettingsValueChangedEventArgs e = POOL.poll();
-		if(e != null)
-			e.m_Key = key;
-		else 
-			e = new SettingsValueChangedEventArgs(key);
+		SettingsValueChangedEventArgs e = POOL.obtain();
+		e.m_Key = key;
+		e.m_IsFreeInstance = false;
 		return e;
 	}
 	
@@ -58,12 +63,17 @@ public class SettingsValueChangedEventArgs extends EventArgs
 	/**
 	 * Put instance back to pool.
 	 */
-	final void recycle()
+	public final void recycle()
 	{
-		synchronized(SettingsValueChangedEventArgs.class)
+		if(m_IsFreeInstance)
 		{
-			if(POOL.size() < POOL_SIZE)
-				POOL.add(this);
+			if(ObjectPool.ENABLE_RECYCLING_CHECK)
+				throw new IllegalStateException("Instance has already been recycled.");
+			return;
 		}
+		m_Key = null;
+		m_IsFreeInstance = true;
+		this.clearHandledState();
+		POOL.recycle(this);
 	}
 }
@@ -0,0 +1,77 @@
+package com.oneplus.camera;
+
+import com.oneplus.base.Handle;
+import com.oneplus.base.PropertyKey;
+import com.oneplus.base.component.Component;
+
+/**
+ * Component to manage priorities of camera related threads according to current capture and UI states.
+ */
+public interface ThreadPolicyManager extends Component
+{
+	/**
+	 * Property to get or set whether preview gallery is visible or not.
+	 */
+	PropertyKey<Boolean> PROP_IS_GALLERY_VISIBLE = new PropertyKey<>("IsGalleryVisible", Boolean.class, ThreadPolicyManager.class, PropertyKey.FLAG_NOT_NULL, false);
+	/**
+	 * Read-only property to get active policy profile.
+	 */
+	PropertyKey<Profile> PROP_PROFILE = new PropertyKey<>("Profile", Profile.class, ThreadPolicyManager.class, Profile.VIEWFINDER);
+	
+	
+	/**
+	 * Policy profile.
+	 */
+	public enum Profile
+	{
+		/**
+		 * Viewfinder is idle, decoder gets more priority to serve gallery swipes.
+		 */
+		VIEWFINDER,
+		/**
+		 * Preview gallery is visible, decoder gets highest priority.
+		 */
+		GALLERY,
+		/**
+		 * Capturing photo, camera and save threads are boosted and decoder is demoted.
+		 */
+		PHOTO_CAPTURE,
+		/**
+		 * Recording video, camera and save threads are boosted and decoder is demoted.
+		 */
+		VIDEO_CAPTURE,
+	}
+	
+	
+	/**
+	 * Role of managed thread.
+	 */
+	public enum ThreadRole
+	{
+		/**
+		 * Camera thread.
+		 */
+		CAMERA,
+		/**
+		 * Thread to save media.
+		 */
+		SAVE,
+		/**
+		 * Thread to decode thumbnails and pictures.
+		 */
+		DECODE,
+		/**
+		 * OpenGL rendering thread.
+		 */
+		GL,
+	}
+	
+	
+	/**
+	 * Register thread to be managed, this method can be called in any thread.
+	 * @param role Role of thread.
+	 * @param threadId Linux thread ID, for example, {@link android.os.Process#myTid()}.
+	 * @return Handle to registration, close it to stop managing the thread.
+	 */
+	Handle registerThread(ThreadRole role, int threadId);
+}
@@ -0,0 +1,20 @@
+package com.oneplus.camera;
+
+import com.oneplus.base.component.ComponentCreationPriority;
+
+final class ThreadPolicyManagerBuilder extends CameraThreadComponentBuilder
+{
+	// Constructor.
+	ThreadPolicyManagerBuilder()
+	{
+		super(ComponentCreationPriority.LAUNCH, ThreadPolicyManagerImpl.class);
+	}
+	
+	
+	// Create component.
+	@Override
+	protected CameraThreadComponent create(CameraThread cameraThread)
+	{
+		return new ThreadPolicyManagerImpl(cameraThread);
+	}
+}
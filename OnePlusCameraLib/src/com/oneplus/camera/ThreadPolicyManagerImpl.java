@@ -0,0 +1,287 @@
+package com.oneplus.camera;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.os.Process;
+
+import com.oneplus.base.Handle;
+import com.oneplus.base.Log;
+import com.oneplus.base.PropertyChangeEventArgs;
+import com.oneplus.base.PropertyChangedCallback;
+import com.oneplus.base.PropertyKey;
+import com.oneplus.base.PropertySource;
+
+final class ThreadPolicyManagerImpl extends CameraThreadComponent implements ThreadPolicyManager
+{
+	// Constants.
+	private static final int[][] THREAD_PRIORITIES = new int[][]{
+		// CAMERA, SAVE, DECODE, GL
+		new int[]{ Process.THREAD_PRIORITY_FOREGROUND, Process.THREAD_PRIORITY_DEFAULT, Process.THREAD_PRIORITY_DEFAULT, Process.THREAD_PRIORITY_DISPLAY }, // VIEWFINDER
+		new int[]{ Process.THREAD_PRIORITY_DEFAULT, Process.THREAD_PRIORITY_DEFAULT, Process.THREAD_PRIORITY_FOREGROUND, Process.THREAD_PRIORITY_DISPLAY }, // GALLERY
+		new int[]{ Process.THREAD_PRIORITY_DISPLAY, Process.THREAD_PRIORITY_FOREGROUND, Process.THREAD_PRIORITY_BACKGROUND, Process.THREAD_PRIORITY_DISPLAY }, // PHOTO_CAPTURE
+		new int[]{ Process.THREAD_PRIORITY_DISPLAY, Process.THREAD_PRIORITY_FOREGROUND, Process.THREAD_PRIORITY_BACKGROUND, Process.THREAD_PRIORITY_DISPLAY }, // VIDEO_CAPTURE
+	};
+	
+	
+	// Private fields.
+	private Handle m_CameraThreadHandle;
+	private volatile Profile m_Profile = Profile.VIEWFINDER;
+	private final List<ThreadHandle> m_ThreadHandles = new ArrayList<>();
+	
+	
+	// Call-backs.
+	@SuppressWarnings("rawtypes")
+	private final PropertyChangedCallback m_CaptureStateChangedCallback = new PropertyChangedCallback()
+	{
+		@Override
+		public void onPropertyChanged(PropertySource source, PropertyKey key, PropertyChangeEventArgs e)
+		{
+			updateProfile();
+		}
+	};
+	
+	
+	// Class for registered thread.
+	private final class ThreadHandle extends Handle
+	{
+		public int originalPriority;
+		public final ThreadRole role;
+		public final int threadId;
+		
+		public ThreadHandle(ThreadRole role, int threadId)
+		{
+			super("ManagedThread");
+			this.role = role;
+			this.threadId = threadId;
+		}
+		
+		@Override
+		protected void onClose(int flags)
+		{
+			synchronized(m_ThreadHandles)
+			{
+				if(m_ThreadHandles.remove(this))
+					restoreThreadPriority(this);
+			}
+		}
+		
+		@Override
+		public String toString()
+		{
+			return (this.role + "(" + this.threadId + ")");
+		}
+	}
+	
+	
+	// Constructor.
+	ThreadPolicyManagerImpl(CameraThread cameraThread)
+	{
+		super("Thread Policy Manager", cameraThread, false);
+	}
+	
+	
+	// Apply priority of given profile to thread.
+	private boolean applyThreadPriority(ThreadHandle handle, Profile profile)
+	{
+		int priority = THREAD_PRIORITIES[profile.ordinal()][handle.role.ordinal()];
+		try
+		{
+			Process.setThreadPriority(handle.threadId, priority);
+			Log.v(TAG, "applyThreadPriority() - ", handle, " : ", priority);
+			return true;
+		}
+		catch(Throwable ex)
+		{
+			Log.w(TAG, "applyThreadPriority() - Fail to set priority of " + handle + ", thread may be terminated", ex);
+			return false;
+		}
+	}
+	
+	
+	// Find registered thread handle, this method should be called with lock held.
+	private ThreadHandle findThreadHandle(int threadId)
+	{
+		for(int i = m_ThreadHandles.size() - 1 ; i >= 0 ; --i)
+		{
+			ThreadHandle handle = m_ThreadHandles.get(i);
+			if(handle.threadId == threadId)
+				return handle;
+		}
+		return null;
+	}
+	
+	
+	// Deinitialize.
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void onDeinitialize()
+	{
+		// remove call-backs
+		CameraThread cameraThread = this.getCameraThread();
+		cameraThread.removeCallback(CameraThread.PROP_PHOTO_CAPTURE_STATE, m_CaptureStateChangedCallback);
+		cameraThread.removeCallback(CameraThread.PROP_VIDEO_CAPTURE_STATE, m_CaptureStateChangedCallback);
+		
+		// unregister camera thread
+		m_CameraThreadHandle = Handle.close(m_CameraThreadHandle);
+		
+		// restore priorities of all threads, closing remaining handles later takes no effect
+		synchronized(m_ThreadHandles)
+		{
+			for(int i = m_ThreadHandles.size() - 1 ; i >= 0 ; --i)
+				this.restoreThreadPriority(m_ThreadHandles.remove(i));
+		}
+		
+		// call super
+		super.onDeinitialize();
+	}
+	
+	
+	// Initialize.
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void onInitialize()
+	{
+		// call super
+		super.onInitialize();
+		
+		// add call-backs
+		CameraThread cameraThread = this.getCameraThread();
+		cameraThread.addCallback(CameraThread.PROP_PHOTO_CAPTURE_STATE, m_CaptureStateChangedCallback);
+		cameraThread.addCallback(CameraThread.PROP_VIDEO_CAPTURE_STATE, m_CaptureStateChangedCallback);
+		
+		// register camera thread
+		m_CameraThreadHandle = this.registerThread(ThreadRole.CAMERA, Process.myTid());
+		
+		// select initial profile
+		this.updateProfile();
+	}
+	
+	
+	// Register thread.
+	@Override
+	public Handle registerThread(ThreadRole role, int threadId)
+	{
+		// check parameter
+		if(role == null)
+		{
+			Log.e(TAG, "registerThread() - No thread role");
+			return null;
+		}
+		
+		// register
+		ThreadHandle handle = new ThreadHandle(role, threadId);
+		synchronized(m_ThreadHandles)
+		{
+			// save original priority, priority may be changed already if thread is registered by other handle
+			ThreadHandle registeredHandle = this.findThreadHandle(threadId);
+			if(registeredHandle != null)
+				handle.originalPriority = registeredHandle.originalPriority;
+			else
+			{
+				try
+				{
+					handle.originalPriority = Process.getThreadPriority(threadId);
+				}
+				catch(Throwable ex)
+				{
+					Log.e(TAG, "registerThread() - Fail to get priority of " + handle + ", thread may be terminated", ex);
+					return null;
+				}
+			}
+			m_ThreadHandles.add(handle);
+			Log.v(TAG, "registerThread() - Register ", handle);
+			
+			// apply current profile
+			if(!this.applyThreadPriority(handle, m_Profile))
+				m_ThreadHandles.remove(handle);
+		}
+		return handle;
+	}
+	
+	
+	// Restore original priority of unregistered thread if it is not registered by other handle, this method should be called with lock held.
+	private void restoreThreadPriority(ThreadHandle handle)
+	{
+		if(this.findThreadHandle(handle.threadId) != null)
+			return;
+		try
+		{
+			Process.setThreadPriority(handle.threadId, handle.originalPriority);
+			Log.v(TAG, "restoreThreadPriority() - ", handle, " : ", handle.originalPriority);
+		}
+		catch(Throwable ex)
+		{
+			Log.w(TAG, "restoreThreadPriority() - Fail to restore priority of " + handle + ", thread may be terminated", ex);
+		}
+	}
+	
+	
+	// Set property value.
+	@Override
+	public <TValue> boolean set(PropertyKey<TValue> key, TValue value)
+	{
+		if(key == PROP_IS_GALLERY_VISIBLE)
+		{
+			this.verifyAccess();
+			if(!super.set(key, value))
+				return false;
+			this.updateProfile();
+			return true;
+		}
+		return super.set(key, value);
+	}
+	
+	
+	// Select profile according to current states.
+	private void updateProfile()
+	{
+		// select profile
+		CameraThread cameraThread = this.getCameraThread();
+		Profile profile;
+		switch(cameraThread.get(CameraThread.PROP_PHOTO_CAPTURE_STATE))
+		{
+			case STARTING:
+			case CAPTURING:
+			case STOPPING:
+				profile = Profile.PHOTO_CAPTURE;
+				break;
+			default:
+				switch(cameraThread.get(CameraThread.PROP_VIDEO_CAPTURE_STATE))
+				{
+					case STARTING:
+					case CAPTURING:
+					case PAUSING:
+					case PAUSED:
+					case RESUMING:
+					case STOPPING:
+						profile = Profile.VIDEO_CAPTURE;
+						break;
+					default:
+						profile = (this.get(PROP_IS_GALLERY_VISIBLE) ? Profile.GALLERY : Profile.VIEWFINDER);
+						break;
+				}
+				break;
+		}
+		
+		// check profile
+		Profile prevProfile = m_Profile;
+		if(prevProfile == profile)
+			return;
+		
+		// apply profile
+		Log.w(TAG, "updateProfile() - Change profile from " + prevProfile + " to " + profile);
+		synchronized(m_ThreadHandles)
+		{
+			m_Profile = profile;
+			for(int i = m_ThreadHandles.size() - 1 ; i >= 0 ; --i)
+			{
+				if(!this.applyThreadPriority(m_ThreadHandles.get(i), profile))
+					m_ThreadHandles.remove(i);
+			}
+		}
+		
+		// update property
+		this.setReadOnly(PROP_PROFILE, profile);
+	}
+}
@@ -3,8 +3,10 @@ package com.oneplus.camera;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.LatestFloatChannel;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
@@ -18,6 +20,7 @@ final class UIExposureControllerImpl extends ProxyComponent<ExposureController>
 {
 	// Private fields.
 	private final LinkedList<AELockHandle> m_AELockHandles = new LinkedList<>();
+	private LatestFloatChannel m_ExposureCompensationChannel;
 	
 	
 	// Class for focus lock handle.
@@ -139,6 +142,16 @@ final class UIExposureControllerImpl extends ProxyComponent<ExposureController>
 	}
 	
 	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key == PROP_EXPOSURE_COMPENSATION)
+			return this.setExposureCompensationProp(value);
+		return super.setFloat(key, value);
+	}
+	
+	
 	// Set PROP_AE_REGIONS property.
 	private boolean setAERegionsProp(final List<MeteringRect> regions)
 	{
@@ -172,7 +185,7 @@ final class UIExposureControllerImpl extends ProxyComponent<ExposureController>
 	
 	
 	// Set PROP_EXPOSURE_COMPENSATION property
-	private boolean setExposureCompensationProp(final float ev)
+	private boolean setExposureCompensationProp(float ev)
 	{
 		// check state
 		this.verifyAccess();
@@ -182,17 +195,21 @@ final class UIExposureControllerImpl extends ProxyComponent<ExposureController>
 			return false;
 		}
 		if(!this.isTargetBound())
-			return super.set(PROP_EXPOSURE_COMPENSATION, ev);
+			return super.setFloat(PROP_EXPOSURE_COMPENSATION, ev);
 		
 		// set EV asynchronously
-		if(!HandlerUtils.post(this.getTargetOwner(), new Runnable()
+		if(m_ExposureCompensationChannel == null)
 		{
-			@Override
-			public void run()
+			m_ExposureCompensationChannel = new LatestFloatChannel(this.getTargetOwner(), new LatestFloatChannel.Receiver()
 			{
-				getTarget().set(PROP_EXPOSURE_COMPENSATION, ev);
-			}
-		}))
+				@Override
+				public void onValueReceived(float ev)
+				{
+					getTarget().setFloat(PROP_EXPOSURE_COMPENSATION, ev);
+				}
+			});
+		}
+		if(!m_ExposureCompensationChannel.send(ev))
 		{
 			Log.e(TAG, "setExposureCompensationProp() - Fail to perform cross-thread operation");
 			return false;
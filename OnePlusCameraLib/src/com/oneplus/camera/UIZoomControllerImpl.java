@@ -5,8 +5,9 @@ import java.util.List;
 import android.os.SystemClock;
 
 import com.oneplus.base.BaseActivity.State;
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
-import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.LatestFloatChannel;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
 import com.oneplus.base.PropertyChangedCallback;
@@ -16,6 +17,7 @@ import com.oneplus.base.PropertySource;
 final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implements ZoomController
 {
 	// Private fields.
+	private LatestFloatChannel m_DigitalZoomChannel;
 	private long m_LastZoomChangedTime;
 	
 	
@@ -27,18 +29,22 @@ final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implemen
 	
 	
 	// Apply digital zoom.
-	private boolean applyDigitalZoom(final float zoom)
+	private boolean applyDigitalZoom(float zoom)
 	{
 		if(this.isTargetBound())
 		{
-			if(!HandlerUtils.post(this.getTargetOwner(), new Runnable()
+			if(m_DigitalZoomChannel == null)
 			{
-				@Override
-				public void run()
+				m_DigitalZoomChannel = new LatestFloatChannel(this.getTargetOwner(), new LatestFloatChannel.Receiver()
 				{
-					getTarget().set(PROP_DIGITAL_ZOOM, zoom);
-				}
-			}))
+					@Override
+					public void onValueReceived(float zoom)
+					{
+						getTarget().setFloat(PROP_DIGITAL_ZOOM, zoom);
+					}
+				});
+			}
+			if(!m_DigitalZoomChannel.send(zoom))
 			{
 				Log.e(TAG, "applyDigitalZoom() - Fail to set zoom asynchronously");
 				return false;
@@ -110,7 +116,7 @@ final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implemen
 		
 		// apply zoom
 		if(m_LastZoomChangedTime > 0)
-			this.applyDigitalZoom(this.get(PROP_DIGITAL_ZOOM));
+			this.applyDigitalZoom(this.getFloat(PROP_DIGITAL_ZOOM));
 	}
 	
 	
@@ -121,7 +127,7 @@ final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implemen
 		if(key == PROP_DIGITAL_ZOOM)
 		{
 			if(time >= m_LastZoomChangedTime)
-				super.set(PROP_DIGITAL_ZOOM, (Float)e.getNewValue());
+				super.setFloat(PROP_DIGITAL_ZOOM, (Float)e.getNewValue());
 		}
 		else
 			super.onTargetPropertyChanged(time, key, e);
@@ -138,6 +144,16 @@ final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implemen
 	}
 	
 	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key == PROP_DIGITAL_ZOOM)
+			return this.setDigitalZoomProp(value);
+		return super.setFloat(key, value);
+	}
+	
+	
 	// Set PROP_DIGITAL_ZOOM property.
 	private boolean setDigitalZoomProp(float zoom)
 	{
@@ -157,9 +173,9 @@ final class UIZoomControllerImpl extends ProxyComponent<ZoomController> implemen
 		
 		// save zoom
 		m_LastZoomChangedTime = SystemClock.elapsedRealtimeNanos();
-		if(!super.set(PROP_DIGITAL_ZOOM, zoom))
+		if(!super.setFloat(PROP_DIGITAL_ZOOM, zoom))
 			return false;
-		zoom = this.get(PROP_DIGITAL_ZOOM);
+		zoom = this.getFloat(PROP_DIGITAL_ZOOM);
 		
 		// apply zoom
 		this.applyDigitalZoom(zoom);
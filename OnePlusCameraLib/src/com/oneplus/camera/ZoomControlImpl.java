@@ -6,6 +6,7 @@ import java.util.List;
 import android.graphics.Rect;
 import android.util.Size;
 
+import com.oneplus.base.FloatPropertyKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.Log;
 import com.oneplus.base.PropertyChangeEventArgs;
@@ -90,6 +91,16 @@ final class ZoomControlImpl extends CameraComponent implements ZoomController
 	}
 	
 	
+	// Get float property value.
+	@Override
+	public float getFloat(FloatPropertyKey key)
+	{
+		if(key == PROP_DIGITAL_ZOOM)
+			return m_DigitalZoom;
+		return super.getFloat(key);
+	}
+	
+	
 	// Lock zoom.
 	@Override
 	public Handle lockZoom(int flags)
@@ -182,6 +193,16 @@ final class ZoomControlImpl extends CameraComponent implements ZoomController
 	}
 	
 	
+	// Set float property value.
+	@Override
+	public boolean setFloat(FloatPropertyKey key, float value)
+	{
+		if(key == PROP_DIGITAL_ZOOM)
+			return this.setDigitalZoomProp(value, false);
+		return super.setFloat(key, value);
+	}
+	
+	
 	// Set PROP_DIGITAL_ZOOM property.
 	private boolean setDigitalZoomProp(float zoom, boolean forceSet)
 	{
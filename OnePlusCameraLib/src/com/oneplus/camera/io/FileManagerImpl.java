@@ -6,22 +6,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
 import android.media.ThumbnailUtils;
 import android.os.Environment;
 import android.os.FileObserver;
-import android.os.Handler;
-import android.os.HandlerThread;
-import android.os.Looper;
-import android.os.Message;
 import android.provider.MediaStore;
 import android.util.Log;
 
@@ -29,35 +21,52 @@ import com.oneplus.base.EventArgs;
 import com.oneplus.base.EventKey;
 import com.oneplus.base.Handle;
 import com.oneplus.base.HandlerUtils;
+import com.oneplus.base.IdleScheduler;
+import com.oneplus.camera.BackgroundExecutor;
 import com.oneplus.camera.CameraThread;
 import com.oneplus.camera.CameraThreadComponent;
 import com.oneplus.camera.media.MediaEventArgs;
 
 final class FileManagerImpl extends CameraThreadComponent implements FileManager {
-	private FileManageerThread m_FileThread = null;
-	private DecodeBitmapThread m_DecodeBitmapThread = null;
-	private Handler m_FileHandler, m_DecodeBitmapHandler;
-	private final int MESSAGE_SAVE_MEDIA = 1000;
-	private final int MESSAGE_LOAD_IMAGES = 1001;
-	private final int MESSAGE_GET_BITMAP = 1002;
+	private static final int DECODE_POSITION_OFFSET = 2;
+	private static final long IDLE_DEADLINE_LOAD_MEDIA_FILES = 3000;
+	private volatile BackgroundExecutor m_BackgroundExecutor;
+	private final LinkedList<BitmapRequest> m_BitmapRequests = new LinkedList<>();
+	private volatile int m_Current;
+	private final Runnable m_DecodeNextBitmapRunnable = new Runnable() {
+
+		@Override
+		public void run() {
+			decodeNextBitmapInBackground();
+		}
+	};
 	private final List<File> m_FileList = new ArrayList<>();
+	private boolean m_IsDecodingBitmap;
 	private FileObserver m_FileObserver;
-	// A managed pool of background decoder threads
-	private ThreadPoolExecutor m_DecodeThreadPool;
-	private static int NUMBER_OF_CORES = Runtime.getRuntime().availableProcessors();
-	// Sets the amount of time an idle thread will wait for a task before
-	// terminating
-	private static final int KEEP_ALIVE_TIME = 1;
-	// Sets the Time Unit to seconds
-	private static final TimeUnit KEEP_ALIVE_TIME_UNIT = TimeUnit.SECONDS;;
-	// A queue of Runnables for the image decoding pool
-	private BlockingQueue<Runnable> m_DecodeWorkQueue;
+	private Handle m_LoadMediaFilesHandle;
 
 	private final File m_DefaultFolder = new File(Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DCIM),
 			"100MEDIA");
 	static final String[] IMAGE_FILTER = { ".jpg", };
 	static final String[] VIDEO_FILTER = { ".mp4", };
 
+	// Request of getBitmap(), requests are decoded one by one so call-backs are called sequentially.
+	private static final class BitmapRequest {
+		public final PhotoCallback callback;
+		public final int height;
+		public final String path;
+		public final int position;
+		public final int width;
+
+		public BitmapRequest(String path, int width, int height, PhotoCallback callback, int position) {
+			this.path = path;
+			this.width = width;
+			this.height = height;
+			this.callback = callback;
+			this.position = position;
+		}
+	}
+
 	// Constructor
 	FileManagerImpl(CameraThread cameraThread) {
 		super("File manager", cameraThread, true);
@@ -67,35 +76,36 @@ final class FileManagerImpl extends CameraThreadComponent implements FileManager
 	 * Called when initializing component.
 	 */
 	protected void onInitialize() {
-		// start file thread
-		m_FileThread = new FileManageerThread("save media thread");
-		m_FileThread.start();
-		m_FileHandler = m_FileThread.getHandler();
-		// start image thread
-		m_DecodeBitmapThread = new DecodeBitmapThread("decode bitmap thread");
-		m_DecodeBitmapThread.start();
-		m_DecodeBitmapHandler = m_DecodeBitmapThread.getHandler();
+		// get shared executor
+		m_BackgroundExecutor = findComponent(BackgroundExecutor.class);
+		if (m_BackgroundExecutor == null) {
+			Log.e(TAG, "onInitialize() - No BackgroundExecutor");
+		}
+		// load media files when camera thread is idle
+		IdleScheduler idleScheduler = getCameraThread().getIdleScheduler();
+		if (idleScheduler != null) {
+			m_LoadMediaFilesHandle = idleScheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					m_LoadMediaFilesHandle = null;
+					loadMediaFiles(false);
+				}
+			}, IdleScheduler.PRIORITY_LOW, IDLE_DEADLINE_LOAD_MEDIA_FILES);
+		} else {
+			loadMediaFiles(false);
+		}
 		// observe file change
-		m_FileHandler.sendMessage(Message.obtain(m_FileHandler, MESSAGE_LOAD_IMAGES));
 		m_FileObserver = new FileObserver(m_DefaultFolder.getAbsolutePath()) {
 
 			@Override
 			public void onEvent(int event, String file) {
 				if (event == FileObserver.DELETE) {
-					m_FileHandler.sendMessage(Message.obtain(m_FileHandler, MESSAGE_LOAD_IMAGES, 1, 0));
+					loadMediaFiles(true);
 				}
 			}
 		};
 		m_FileObserver.startWatching(); // START OBSERVING
-
-		/*
-		 * Creates a work queue for the pool of Thread objects used for
-		 * decoding, using a linked list queue that blocks when the queue is
-		 * empty.
-		 */
-		m_DecodeWorkQueue = new LinkedBlockingQueue<Runnable>();
-		m_DecodeThreadPool = new ThreadPoolExecutor(NUMBER_OF_CORES, NUMBER_OF_CORES, KEEP_ALIVE_TIME, KEEP_ALIVE_TIME_UNIT,
-				m_DecodeWorkQueue);
 	}
 
 	/**
@@ -103,10 +113,8 @@ final class FileManagerImpl extends CameraThreadComponent implements FileManager
 	 */
 	protected void onDeinitialize() {
 		super.onDeinitialize();
-		m_FileThread.quitSafely();
-		m_DecodeBitmapThread.quitSafely();
-		m_FileThread = null;
-		m_FileHandler = null;
+		m_LoadMediaFilesHandle = Handle.close(m_LoadMediaFilesHandle);
+		m_BackgroundExecutor = null;
 		m_FileList.clear();
 		m_FileObserver.stopWatching();
 		m_FileObserver = null;
@@ -115,8 +123,16 @@ final class FileManagerImpl extends CameraThreadComponent implements FileManager
 	@Override
 	public Handle saveMedia(final MediaSaveTask task, final int flags) {
 		verifyAccess();
-		if (task != null && isRunningOrInitializing()) {
-			m_FileHandler.sendMessageAtFrontOfQueue(Message.obtain(m_FileHandler, MESSAGE_SAVE_MEDIA, task));
+		BackgroundExecutor executor = m_BackgroundExecutor;
+		if (task != null && executor != null && isRunningOrInitializing()) {
+			// save ahead of waiting media scans, saving is never dropped
+			return executor.execute(BackgroundExecutor.TaskQueue.IO, new Runnable() {
+
+				@Override
+				public void run() {
+					saveMediaInBackground(task);
+				}
+			}, BackgroundExecutor.FLAG_URGENT | BackgroundExecutor.FLAG_NO_DROP);
 		}
 
 		return null;
@@ -144,45 +160,198 @@ final class FileManagerImpl extends CameraThreadComponent implements FileManager
 
 	@Override
 	public void setCurrent(int position){
-		m_DecodeBitmapThread.m_Current = position;
+		m_Current = position;
 	}
 	
 	@Override
-	public void getBitmap(final String path, final int width, final int height, final PhotoCallback callback, int position) {
+	public void getBitmap(final String path, final int width, final int height, final PhotoCallback callback, final int position) {
+		BackgroundExecutor executor = m_BackgroundExecutor;
+		if (executor == null) {
+			Log.e(TAG, "getBitmap: no executor");
+			return;
+		}
+		Log.d(TAG, "getBitmap: " + position + " current: " + m_Current);
+		synchronized (m_BitmapRequests) {
+			BitmapRequest request = new BitmapRequest(path, width, height, callback, position);
+			if (position == m_Current) {
+				m_BitmapRequests.addFirst(request);
+			} else {
+				m_BitmapRequests.addLast(request);
+			}
+			if (m_IsDecodingBitmap) {
+				return;
+			}
+			m_IsDecodingBitmap = true;
+		}
+		scheduleNextBitmapDecoding(executor);
+	}
 
-		if(position == m_DecodeBitmapThread.m_Current){
-			Log.d(TAG, "getBitmap: now");
-			m_DecodeBitmapHandler.sendMessageAtFrontOfQueue(Message.obtain(m_FileHandler, MESSAGE_GET_BITMAP, width, height, 
-					new BitmapArgs(position, path, callback)));
-		}else{
-			Log.d(TAG, "getBitmap: later");
-			m_DecodeBitmapHandler.sendMessage(Message.obtain(m_FileHandler, MESSAGE_GET_BITMAP, width, height, 
-					new BitmapArgs(position, path, callback)));
+	// Schedule decoding of next request, only one request is decoded at a time.
+	private void scheduleNextBitmapDecoding(BackgroundExecutor executor) {
+		if (executor != null && executor.execute(BackgroundExecutor.TaskQueue.DECODE, m_DecodeNextBitmapRunnable) != null) {
+			return;
+		}
+		Log.e(TAG, "scheduleNextBitmapDecoding: fail to decode, drop all requests");
+		BitmapRequest[] requests;
+		synchronized (m_BitmapRequests) {
+			requests = m_BitmapRequests.toArray(new BitmapRequest[m_BitmapRequests.size()]);
+			m_BitmapRequests.clear();
+			m_IsDecodingBitmap = false;
+		}
+		for (BitmapRequest request : requests) {
+			request.callback.onBitmapLoad(null, !isImageFile(request.path), true);
+		}
+	}
+
+	// Decode next request, request of current position goes first.
+	private void decodeNextBitmapInBackground() {
+		BitmapRequest request = null;
+		synchronized (m_BitmapRequests) {
+			int current = m_Current;
+			for (BitmapRequest candidate : m_BitmapRequests) {
+				if (candidate.position == current) {
+					request = candidate;
+					break;
+				}
+			}
+			if (request != null) {
+				m_BitmapRequests.remove(request);
+			} else {
+				request = m_BitmapRequests.pollFirst();
+			}
+		}
+		if (request != null) {
+			try {
+				decodeBitmapInBackground(request.path, request.width, request.height, request.callback, request.position);
+			} catch (Throwable ex) {
+				Log.e(TAG, "decodeNextBitmapInBackground: fail to decode " + request.path, ex);
+			}
+		}
+		synchronized (m_BitmapRequests) {
+			if (m_BitmapRequests.isEmpty()) {
+				m_IsDecodingBitmap = false;
+				return;
+			}
 		}
+		scheduleNextBitmapDecoding(m_BackgroundExecutor);
 	}
 
-	private class BitmapArgs {
-		private int m_Position;
-		private String m_Path;
-		private PhotoCallback m_callback;
-		private boolean m_IsVertical;
+	private static boolean isImageFile(String path) {
+		for (String filter : IMAGE_FILTER) {
+			if (path.toLowerCase().endsWith(filter)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
-		BitmapArgs(int position, String path, PhotoCallback callback) {
-			m_Position = position;
-			m_Path = path;
-			m_callback = callback;
+	private boolean checkInterrupt(int position){
+		int current = m_Current;
+		return position > current + DECODE_POSITION_OFFSET || position < Math.max(1, current - DECODE_POSITION_OFFSET);
+	}
+
+	private void decodeBitmapInBackground(String path, int width, int height, PhotoCallback callback, int position) {
+		boolean isImage = isImageFile(path);
+		Bitmap bitmap;
+		Boolean isVideo;
+		//
+		if(checkInterrupt(position)){
+			Log.d(TAG, "checkInterrupt before decode : position: " + position +" m_Current: " + m_Current);
+			callback.onBitmapLoad(null, !isImage, true);
+			return;
+		}
+		//
+		if (isImage) {
+			bitmap = decodeBitmap(path, width, height);
+			isVideo = false;
+		} else {
+			bitmap = ThumbnailUtils.createVideoThumbnail(path,
+					MediaStore.Video.Thumbnails.FULL_SCREEN_KIND);
+			isVideo = true;
+		}
+		//
+		if(checkInterrupt(position)){
+			Log.d(TAG, "checkInterrupt after decode : position: " + position +" m_Current: " + m_Current);
+			callback.onBitmapLoad(null, isVideo, true);
+			return;
 		}
 		
-		int getPosition() {
-			return m_Position;
+		Log.d(TAG, ": " + position + " bitmap: " + bitmap + " path: "+path);
+		callback.onBitmapLoad(ThumbnailUtils.extractThumbnail(bitmap, width, height), isVideo, false);
+	}
+
+	private void loadMediaFiles(final boolean notify) {
+		BackgroundExecutor executor = m_BackgroundExecutor;
+		if (executor == null) {
+			return;
 		}
+		executor.execute(BackgroundExecutor.TaskQueue.IO, new Runnable() {
 
-		String getPath() {
-			return m_Path;
+			@Override
+			public void run() {
+				loadMediaFilesInBackground(notify);
+			}
+		});
+	}
+
+	private void loadMediaFilesInBackground(boolean notify) {
+		m_FileList.clear();
+		if (m_DefaultFolder.exists()) {
+			File[] files = m_DefaultFolder.listFiles(new FilenameFilter() {
+				public boolean accept(File dir, String name) {
+					boolean ret = false;
+					for (String filter : IMAGE_FILTER) {
+						if (name.toLowerCase().endsWith(filter)) {
+							ret = true;
+							break;
+						}
+					}
+					for (String filter : VIDEO_FILTER) {
+						if (name.toLowerCase().endsWith(filter)) {
+							ret = true;
+							break;
+						}
+					}
+					return ret;
+				}
+			});
+			if (files != null && files.length > 0) {
+				Arrays.sort(files, new Comparator<File>() {
+					public int compare(File f1, File f2) {
+						return Long.valueOf(f2.lastModified()).compareTo(f1.lastModified());
+					}
+				});
+				
+				m_FileList.addAll(Arrays.asList(files));
+				Iterator<File> it = m_FileList.iterator();
+				File fileItem;
+				while (it.hasNext()) {
+					fileItem = it.next();
+					if (fileItem.length()==0) {
+						it.remove();
+					}
+				}
+			}
+			if (notify) {
+				notifyCameraThread(EVENT_MEDIA_FILES_RESET, EventArgs.EMPTY);
+			}
 		}
+	}
 
-		PhotoCallback getCallback() {
-			return m_callback;
+	private void saveMediaInBackground(MediaSaveTask task) {
+		// save file
+		if (task.saveMediaToFile()) {
+			m_FileList.add(0, new File(task.getFilePath()));
+			notifyCameraThread(EVENT_MEDIA_FILE_SAVED, task);
+			notifyCameraThread(EVENT_MEDIA_FILE_ADDED, task);
+			// insert MediaStore
+			if (task.insertToMediaStore()) {
+				notifyCameraThread(EVENT_MEDIA_SAVED, task);
+			} else {
+				notifyCameraThread(EVENT_MEDIA_SAVE_FAILED, task);
+			}
+		} else {
+			notifyCameraThread(EVENT_MEDIA_SAVE_FAILED, task);
 		}
 	}
 
@@ -241,200 +410,4 @@ final class FileManagerImpl extends CameraThreadComponent implements FileManager
 			}
 		});
 	}
-
-	class FileManageerThread extends HandlerThread {
-		private static final String TAG = "SaveMediaThread";
-		private Handler m_Handler;
-
-		public FileManageerThread(String name) {
-			super(name);
-		}
-
-		public Handler getHandler() {
-			return m_Handler;
-		}
-
-		@Override
-		public void start() {
-			super.start();
-			Looper looper = getLooper(); // will block until threads Looper
-											// object initialized
-			m_Handler = new Handler(looper) {
-				@Override
-				public void handleMessage(Message msg) {
-					switch (msg.what) {
-					// process messages here
-					case MESSAGE_SAVE_MEDIA: {
-						MediaSaveTask task = (MediaSaveTask) msg.obj;
-						// save file
-						if (task.saveMediaToFile()) {
-							m_FileList.add(0, new File(task.getFilePath()));
-							notifyCameraThread(EVENT_MEDIA_FILE_SAVED, task);
-							notifyCameraThread(EVENT_MEDIA_FILE_ADDED, task);
-							// insert MediaStore
-							if (task.insertToMediaStore()) {
-								notifyCameraThread(EVENT_MEDIA_SAVED, task);
-							} else {
-								notifyCameraThread(EVENT_MEDIA_SAVE_FAILED, task);
-							}
-						} else {
-							notifyCameraThread(EVENT_MEDIA_SAVE_FAILED, task);
-						}
-						break;
-					}
-					case MESSAGE_LOAD_IMAGES: {
-						m_FileList.clear();
-						if (m_DefaultFolder.exists()) {
-							File[] files = m_DefaultFolder.listFiles(new FilenameFilter() {
-								public boolean accept(File dir, String name) {
-									boolean ret = false;
-									for (String filter : IMAGE_FILTER) {
-										if (name.toLowerCase().endsWith(filter)) {
-											ret = true;
-											break;
-										}
-									}
-									for (String filter : VIDEO_FILTER) {
-										if (name.toLowerCase().endsWith(filter)) {
-											ret = true;
-											break;
-										}
-									}
-									return ret;
-								}
-							});
-							if (files != null && files.length > 0) {
-								Arrays.sort(files, new Comparator<File>() {
-									public int compare(File f1, File f2) {
-										return Long.valueOf(f2.lastModified()).compareTo(f1.lastModified());
-									}
-								});
-								
-								m_FileList.addAll(Arrays.asList(files));
-								Iterator<File> it = m_FileList.iterator();
-								File fileItem;
-								while (it.hasNext()) {
-									fileItem = it.next();
-									if (fileItem.length()==0) {
-										it.remove();
-									}
-								}
-							}
-							if (msg.arg1 == 1) {
-								notifyCameraThread(EVENT_MEDIA_FILES_RESET, EventArgs.EMPTY);
-							}
-						}
-						break;
-					}
-					case MESSAGE_GET_BITMAP: {
-						BitmapArgs args = (BitmapArgs) msg.obj;
-						boolean isImage = false;
-						for (String filter : IMAGE_FILTER) {
-							if (args.getPath().toLowerCase().endsWith(filter)) {
-								isImage = true;
-								break;
-							}
-						}
-						Bitmap bitmap;
-						Boolean isVideo;
-						if (isImage) {
-							bitmap = decodeBitmap(args.getPath(), msg.arg1, msg.arg2);
-							isVideo = false;
-						} else {
-							bitmap = ThumbnailUtils.createVideoThumbnail(args.getPath(),
-									MediaStore.Video.Thumbnails.FULL_SCREEN_KIND);
-							isVideo = true;
-						}
-						if (args.m_IsVertical) {
-							Matrix matrix = new Matrix();
-
-							matrix.postRotate(90);
-
-							bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
-						}
-
-						args.getCallback().onBitmapLoad(ThumbnailUtils.extractThumbnail(bitmap, msg.arg1, msg.arg2), isVideo, false);
-						break;
-					}
-					}
-				}
-			};
-		}
-	}
-
-	class DecodeBitmapThread extends HandlerThread {
-		private static final String TAG = "DecodeBitmapThread";
-		private Handler m_Handler;
-		private int m_Current;
-		static final private int OFFSET = 2;
-
-		public DecodeBitmapThread(String name) {
-			super(name);
-		}
-
-		public Handler getHandler() {
-			return m_Handler;
-		}
-		
-		private boolean checkInterrupt(int position){
-			return position > m_Current+OFFSET || position < Math.max(1, m_Current-OFFSET);
-		}
-
-		@Override
-		public void start() {
-			super.start();
-			Looper looper = getLooper(); // will block until threads Looper
-											// object initialized
-			m_Handler = new Handler(looper) {
-				@Override
-				public void handleMessage(Message msg) {
-					switch (msg.what) {
-					case MESSAGE_GET_BITMAP: {
-						BitmapArgs args = (BitmapArgs) msg.obj;
-						String path = args.getPath();
-						PhotoCallback callback = args.getCallback();
-						int position = args.getPosition();
-						int width = msg.arg1;
-						int height = msg.arg2;
-						//
-						boolean isImage = false;
-						for (String filter : IMAGE_FILTER) {
-							if (path.toLowerCase().endsWith(filter)) {
-								isImage = true;
-								break;
-							}
-						}
-						Bitmap bitmap;
-						Boolean isVideo;
-						//
-						if(checkInterrupt(position)){
-							Log.d(TAG, "checkInterrupt before decode : position: " + position +" m_Current: " + m_Current);
-							callback.onBitmapLoad(null, !isImage, true);
-							return;
-						}
-						//
-						if (isImage) {
-							bitmap = decodeBitmap(path, width, height);
-							isVideo = false;
-						} else {
-							bitmap = ThumbnailUtils.createVideoThumbnail(path,
-									MediaStore.Video.Thumbnails.FULL_SCREEN_KIND);
-							isVideo = true;
-						}
-						//
-						if(checkInterrupt(position)){
-							Log.d(TAG, "checkInterrupt after decode : position: " + position +" m_Current: " + m_Current);
-							callback.onBitmapLoad(null, isVideo, true);
-							return;
-						}
-						
-						Log.d(TAG, ": " + position + " bitmap: " + bitmap + " path: "+path);
-						callback.onBitmapLoad(ThumbnailUtils.extractThumbnail(bitmap, width, height), isVideo, false);
-						break;
-					}
-					}
-				}
-			};
-		}
-	}
 }
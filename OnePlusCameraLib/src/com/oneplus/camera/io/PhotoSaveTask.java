@@ -7,6 +7,7 @@ import java.util.Date;
 
 import com.oneplus.base.Log;
 import com.oneplus.camera.CameraCaptureEventArgs;
+import com.oneplus.camera.CaptureHandle;
 import com.oneplus.io.Path;
 
 import android.content.ContentValues;
@@ -26,6 +27,12 @@ public class PhotoSaveTask extends MediaSaveTask {
 	
 	public PhotoSaveTask(Context context, CameraCaptureEventArgs e)
 	{
+		this(context, null, e);
+	}
+	
+	public PhotoSaveTask(Context context, CaptureHandle captureHandle, CameraCaptureEventArgs e)
+	{
+		super(captureHandle);
 		this.TAG = this.getClass().getSimpleName();
 		this.context = context;
 		this.args = e;
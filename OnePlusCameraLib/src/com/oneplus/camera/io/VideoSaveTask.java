@@ -1,6 +1,7 @@
 package com.oneplus.camera.io;
 
 import com.oneplus.base.Log;
+import com.oneplus.camera.CaptureHandle;
 import com.oneplus.io.Path;
 
 import android.content.ContentValues;
@@ -18,6 +19,12 @@ public class VideoSaveTask extends MediaSaveTask {
 	
 	public VideoSaveTask(Context context, String filePath)
 	{
+		this(context, null, filePath);
+	}
+	
+	public VideoSaveTask(Context context, CaptureHandle captureHandle, String filePath)
+	{
+		super(captureHandle);
 		this.TAG = this.getClass().getSimpleName();
 		this.context = context;
 		this.filePath = filePath;
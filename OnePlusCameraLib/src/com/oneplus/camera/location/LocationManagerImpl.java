@@ -3,7 +3,6 @@ package com.oneplus.camera.location;
 import java.util.List;
 
 import com.oneplus.base.PropertyKey;
-import com.oneplus.base.component.ComponentOwner;
 import com.oneplus.camera.CameraThread;
 import com.oneplus.camera.ProxyComponent;
 
@@ -12,7 +11,7 @@ final class LocationManagerImpl extends ProxyComponent<LocationManager> implemen
 	// Constructor.
 	LocationManagerImpl(CameraThread cameraThread)
 	{
-		super("Location Manager (Camera Thread)", cameraThread, (ComponentOwner)cameraThread.getContext(), LocationManager.class);
+		super("Location Manager (Camera Thread)", cameraThread, cameraThread.getCameraActivity(), LocationManager.class);
 	}
 	
 	
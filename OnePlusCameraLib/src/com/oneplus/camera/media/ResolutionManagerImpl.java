@@ -216,35 +216,45 @@ final class ResolutionManagerImpl extends CameraComponent implements ResolutionM
 			photoResolution = null;
 			photoPreviewSize = new Size(0, 0);
 		}
-		m_PhotoResolution = photoResolution;
-		this.setReadOnly(PROP_PHOTO_RESOLUTION_LIST, photoResolutions);
-		this.notifyPropertyChanged(PROP_PHOTO_RESOLUTION, currentPhotoResolution, photoResolution);
-		this.setReadOnly(PROP_PHOTO_PREVIEW_SIZE, photoPreviewSize);
 		
-		// select photo resolution
-		List<Resolution> videoResolutions = this.selectResolutions(videoResSelector, camera, settings, null);
-		Resolution currentVideoResolution = m_VideoResolution;
-		Resolution videoResolution;
-		Size videoPreviewSize;
-		if(!videoResolutions.isEmpty())
+		// update properties, call-backs will be called after all properties are updated
+		this.beginUpdate();
+		try
 		{
-			videoResolution = (preserveVideoRes ? currentVideoResolution : null);
-			videoResolution = videoResSelector.selectResolution(camera, settings, videoResolutions, videoResolution, null);
-			if(videoResolution != null)
-				videoPreviewSize = videoResSelector.selectPreviewSize(camera, settings, previewContainerSize, videoResolution);
+			m_PhotoResolution = photoResolution;
+			this.setReadOnly(PROP_PHOTO_RESOLUTION_LIST, photoResolutions);
+			this.notifyPropertyChanged(PROP_PHOTO_RESOLUTION, currentPhotoResolution, photoResolution);
+			this.setReadOnly(PROP_PHOTO_PREVIEW_SIZE, photoPreviewSize);
+			
+			// select photo resolution
+			List<Resolution> videoResolutions = this.selectResolutions(videoResSelector, camera, settings, null);
+			Resolution currentVideoResolution = m_VideoResolution;
+			Resolution videoResolution;
+			Size videoPreviewSize;
+			if(!videoResolutions.isEmpty())
+			{
+				videoResolution = (preserveVideoRes ? currentVideoResolution : null);
+				videoResolution = videoResSelector.selectResolution(camera, settings, videoResolutions, videoResolution, null);
+				if(videoResolution != null)
+					videoPreviewSize = videoResSelector.selectPreviewSize(camera, settings, previewContainerSize, videoResolution);
+				else
+					videoPreviewSize = new Size(0, 0);
+			}
 			else
+			{
+				Log.e(TAG, "selectResolutions() - Empty video resolution list");
+				videoResolution = null;
 				videoPreviewSize = new Size(0, 0);
+			}
+			m_VideoResolution = videoResolution;
+			this.setReadOnly(PROP_VIDEO_RESOLUTION_LIST, videoResolutions);
+			this.notifyPropertyChanged(PROP_VIDEO_RESOLUTION, currentVideoResolution, videoResolution);
+			this.setReadOnly(PROP_VIDEO_PREVIEW_SIZE, videoPreviewSize);
 		}
-		else
+		finally
 		{
-			Log.e(TAG, "selectResolutions() - Empty video resolution list");
-			videoResolution = null;
-			videoPreviewSize = new Size(0, 0);
+			this.endUpdate();
 		}
-		m_VideoResolution = videoResolution;
-		this.setReadOnly(PROP_VIDEO_RESOLUTION_LIST, videoResolutions);
-		this.notifyPropertyChanged(PROP_VIDEO_RESOLUTION, currentVideoResolution, videoResolution);
-		this.setReadOnly(PROP_VIDEO_PREVIEW_SIZE, videoPreviewSize);
 		
 		// complete
 		return true;
@@ -1,5 +1,6 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
 import com.oneplus.camera.UIComponentBuilder;
@@ -14,7 +15,7 @@ public final class CameraPreviewGridBuilder extends UIComponentBuilder
 	 */
 	public CameraPreviewGridBuilder()
 	{
-		super(CameraPreviewGridImpl.class);
+		super(ComponentCreationPriority.NORMAL, CameraPreviewGridImpl.class, CameraPreviewOverlay.class);
 	}
 	
 	
@@ -1,10 +1,11 @@
 package com.oneplus.camera.ui;
 
-import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import android.view.MotionEvent;
 
 import com.oneplus.base.EventArgs;
+import com.oneplus.base.ObjectPool;
 import com.oneplus.base.RecyclableObject;
 
 /**
@@ -17,12 +18,19 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	
 	
 	// Private static fields.
-	private static final ArrayDeque<MotionEventArgs> POOL = new ArrayDeque<>(POOL_SIZE);
+	private static final ObjectPool<MotionEventArgs> POOL = new ObjectPool<>("MotionEventArgs", POOL_SIZE, new ObjectPool.Factory<MotionEventArgs>()
+	{
+		@Override
+		public MotionEventArgs create()
+		{
+			return new MotionEventArgs();
+		}
+	});
 	
 	
 	// Private fields.
 	private volatile int m_Action;
-	private volatile boolean m_IsFreeInstance;
+	private final AtomicBoolean m_IsFreeInstance = new AtomicBoolean();
 	private volatile MotionEvent m_MotionEvent;
 	private volatile int m_PointerCount;
 	private volatile float m_X;
@@ -40,6 +48,7 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public final int getAction()
 	{
+		this.verifyState();
 		return m_Action;
 	}
 	
@@ -50,6 +59,7 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public final MotionEvent getMotionEvent()
 	{
+		this.verifyState();
 		return m_MotionEvent;
 	}
 	
@@ -60,6 +70,7 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public final int getPointerCount()
 	{
+		this.verifyState();
 		return m_PointerCount;
 	}
 	
@@ -70,6 +81,7 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public final float getX()
 	{
+		this.verifyState();
 		return m_X;
 	}
 	
@@ -80,6 +92,7 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public final float getY()
 	{
+		this.verifyState();
 		return m_Y;
 	}
 	
@@ -89,17 +102,15 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 * @param event {@link MotionEvent}.
 	 * @return {@link MotionEventArgs} instance.
 	 */
-	public static synchronized MotionEventArgs obtain(MotionEvent event)
+	public static MotionEventArgs obtain(MotionEvent event)
 	{
-		MotionEventArgs e = POOL.pollLast();
-		if(e == null)
-			e = new MotionEventArgs();
+		MotionEventArgs e = POOL.obtain();
 		e.m_MotionEvent = event;
 		e.m_Action = event.getAction();
 		e.m_PointerCount = event.getPointerCount();
 		e.m_X = event.getX();
 		e.m_Y = event.getY();
-		e.m_IsFreeInstance = false;
+		e.m_IsFreeInstance.set(false);
 		return e;
 	}
 	
@@ -109,15 +120,22 @@ public class MotionEventArgs extends EventArgs implements RecyclableObject
 	 */
 	public void recycle()
 	{
-		synchronized(MotionEventArgs.class)
+		if(!m_IsFreeInstance.compareAndSet(false, true))
 		{
-			if(m_IsFreeInstance)
-				return;
-			m_MotionEvent = null;
-			m_IsFreeInstance = true;
-			this.clearHandledState();
-			if(POOL.size() < POOL_SIZE)
-				POOL.addLast(this);
+			if(ObjectPool.ENABLE_RECYCLING_CHECK)
+				throw new IllegalStateException("Instance has already been recycled.");
+			return;
 		}
+		m_MotionEvent = null;
+		this.clearHandledState();
+		POOL.recycle(this);
+	}
+	
+	
+	// Check whether instance is available or not.
+	private void verifyState()
+	{
+		if(ObjectPool.ENABLE_RECYCLING_CHECK && m_IsFreeInstance.get())
+			throw new IllegalStateException("Instance has been recycled.");
 	}
 }
@@ -41,7 +41,7 @@ final class PinchZoomingUI extends CameraComponent
 		{
 			m_ScaleBeginTime = SystemClock.elapsedRealtime();
 			m_InitialSpan = detector.getCurrentSpan();
-			m_InitialDigitalZoom = m_ZoomController.get(ZoomController.PROP_DIGITAL_ZOOM);
+			m_InitialDigitalZoom = m_ZoomController.getFloat(ZoomController.PROP_DIGITAL_ZOOM);
 			m_IsScaling = true;
 			return true;
 		}
@@ -109,7 +109,7 @@ final class PinchZoomingUI extends CameraComponent
 			digitalZoom = Math.min(digitalZoom, maxDigitalZoom);
 		
 		// change zoom
-		m_ZoomController.set(ZoomController.PROP_DIGITAL_ZOOM, digitalZoom);
+		m_ZoomController.setFloat(ZoomController.PROP_DIGITAL_ZOOM, digitalZoom);
 	}
 	
 	
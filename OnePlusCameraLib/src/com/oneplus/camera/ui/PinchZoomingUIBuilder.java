@@ -1,8 +1,10 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
 import com.oneplus.camera.UIComponentBuilder;
+import com.oneplus.camera.ZoomController;
 
 /**
  * Builder for pinch zooming UI component. 
@@ -14,7 +16,7 @@ public final class PinchZoomingUIBuilder extends UIComponentBuilder
 	 */
 	public PinchZoomingUIBuilder()
 	{
-		super(PinchZoomingUI.class);
+		super(ComponentCreationPriority.NORMAL, PinchZoomingUI.class, ZoomController.class);
 	}
 
 	
@@ -103,7 +103,7 @@ final class TouchFocusExposureUI extends CameraComponent implements TouchAutoFoc
 			return false;
 		
 		// check preview state
-		if(!cameraActivity.get(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
+		if(!cameraActivity.getBoolean(CameraActivity.PROP_IS_CAMERA_PREVIEW_RECEIVED))
 			return false;
 		
 		// check capture state
@@ -349,7 +349,7 @@ final class TouchFocusExposureUI extends CameraComponent implements TouchAutoFoc
 		// change AE region
 		if(this.bindToExposureController())
 		{
-			m_ExposureController.set(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
+			m_ExposureController.setFloat(ExposureController.PROP_EXPOSURE_COMPENSATION, 0f);
 			m_ExposureController.set(ExposureController.PROP_AE_REGIONS, regions);
 		}
 		
@@ -1,7 +1,10 @@
 package com.oneplus.camera.ui;
 
+import com.oneplus.base.component.ComponentCreationPriority;
 import com.oneplus.camera.CameraActivity;
 import com.oneplus.camera.CameraComponent;
+import com.oneplus.camera.ExposureController;
+import com.oneplus.camera.FocusController;
 import com.oneplus.camera.UIComponentBuilder;
 
 /**
@@ -14,7 +17,7 @@ public final class TouchFocusExposureUIBuilder extends UIComponentBuilder
 	 */
 	public TouchFocusExposureUIBuilder()
 	{
-		super(TouchFocusExposureUI.class);
+		super(ComponentCreationPriority.NORMAL, TouchFocusExposureUI.class, ExposureController.class, FocusController.class);
 	}
 
 	